@@ -0,0 +1,61 @@
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks entry point: runs the harness hot path benchmarks, stores results in a timestamped JSON file, so
+ * that runs can be compared over time, and reports each cost against the latency of a fast serverless request
+ */
+public class MicrobenchmarkMain {
+
+	// directory JMH results are stored to, one file for each run
+	private static final String RESULTS_DIRECTORY = "jmh_results";
+	// reference latency the harness overhead is compared with
+	private static final double REFERENCE_LATENCY_MILLISECONDS = 1;
+
+
+	/**
+	 * Runs benchmarks
+	 * @param args optional regular expression selecting benchmarks, every benchmark by default
+	 * @throws RunnerException if JMH fails
+	 * @throws IOException if the results directory can not be created
+	 */
+	public static void main(String[] args) throws RunnerException, IOException {
+
+		Path results = Paths.get(RESULTS_DIRECTORY,
+				new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+		Files.createDirectories(results.getParent());
+
+		Options options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : ".*Benchmark.*")
+				.resultFormat(ResultFormatType.JSON)
+				.result(results.toString())
+				.build();
+		Collection<RunResult> runs = new Runner(options).run();
+
+		System.out.println("\n" + "Harness overhead against a " + REFERENCE_LATENCY_MILLISECONDS +
+				" ms request:");
+		for (RunResult run : runs) {
+			double score = run.getPrimaryResult().getScore();
+			TimeUnit unit = run.getParams().getTimeUnit();
+			double nanoseconds = score * unit.toNanos(1);
+			System.out.println(String.format(Locale.ROOT, "%-90s %12.3f us %10.4f %%",
+					run.getParams().getBenchmark(), nanoseconds / 1000,
+					nanoseconds / (REFERENCE_LATENCY_MILLISECONDS * 1000 * 1000) * 100));
+		}
+		System.out.println("\u001B[32m" + "Results stored in: " + results + "\u001B[0m");
+	}
+}
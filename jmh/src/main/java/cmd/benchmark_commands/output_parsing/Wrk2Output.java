@@ -0,0 +1,44 @@
+package cmd.benchmark_commands.output_parsing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Recorded wrk2 output (latency distribution and detailed percentile spectrum) used as microbenchmark input
+ */
+public class Wrk2Output {
+
+	private static final String RESOURCE = "/wrk2_output.txt";
+
+
+	/**
+	 * Reads the recorded output
+	 * @return output lines, as passed to the output parser by the stream gobbler
+	 */
+	public static List<String> lines() {
+		try (InputStream stream = Wrk2Output.class.getResourceAsStream(RESOURCE);
+			 BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			return reader.lines().collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Parses the recorded output
+	 * @return collected benchmark result
+	 */
+	public static BenchmarkStats stats() {
+		OutputParser parser = new Wrk2OutputParser();
+		for (String line : lines()) {
+			parser.parseLine(line);
+		}
+		return parser.getResult();
+	}
+}
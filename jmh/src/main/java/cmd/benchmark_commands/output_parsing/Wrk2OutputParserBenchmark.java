@@ -0,0 +1,44 @@
+package cmd.benchmark_commands.output_parsing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of parsing a complete wrk2 output, paid once for every load benchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Wrk2OutputParserBenchmark {
+
+	private List<String> lines;
+
+
+	@Setup
+	public void loadOutput() {
+		lines = Wrk2Output.lines();
+	}
+
+	@Benchmark
+	public BenchmarkStats parseOutput() {
+		OutputParser parser = new Wrk2OutputParser();
+		for (String line : lines) {
+			parser.parseLine(line);
+		}
+		return parser.getResult();
+	}
+}
@@ -0,0 +1,91 @@
+package cmd.functionality_commands.output_parsing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of collecting a complete CLI reply, line by line as done by the stream gobblers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutputCollectorsBenchmark {
+
+	// lines of a typical AWS CLI JSON reply
+	private static final int REPLY_LINES = 200;
+
+	private List<String> awsReply;
+	private List<String> googleDeployReply;
+	private List<String> openWhiskReply;
+
+
+	@Setup
+	public void buildReplies() {
+		awsReply = new ArrayList<>();
+		awsReply.add("{");
+		for (int i = 0; i < REPLY_LINES; i++) {
+			awsReply.add("    \"Key" + i + "\": \"arn:aws:lambda:us-east-2:123456789012:function:cpu-test__python\",");
+		}
+		awsReply.add("}");
+
+		googleDeployReply = new ArrayList<>();
+		googleDeployReply.add("availableMemoryMb: 256");
+		googleDeployReply.add("buildId: 0f3c2c39-8c44-4a1e-9a3d-3c4d3c3e0c8a");
+		googleDeployReply.add("entryPoint: gc_functions_handler");
+		googleDeployReply.add("httpsTrigger:");
+		googleDeployReply.add("  securityLevel: SECURE_OPTIONAL");
+		googleDeployReply.add("  url: https://us-central1-project.cloudfunctions.net/cpu-test__python");
+		googleDeployReply.add("ingressSettings: ALLOW_ALL");
+		googleDeployReply.add("name: projects/project/locations/us-central1/functions/cpu-test__python");
+		googleDeployReply.add("runtime: python37");
+		googleDeployReply.add("status: ACTIVE");
+		googleDeployReply.add("timeout: 30s");
+		googleDeployReply.add("versionId: '1'");
+
+		openWhiskReply = new ArrayList<>();
+		openWhiskReply.add("ok: created action cpu-test__python");
+		openWhiskReply.add("https://openwhisk.local/api/v1/web/guest/default/cpu-test__python.json");
+	}
+
+	@Benchmark
+	public String collectResult() {
+		ReplyCollector collector = new ReplyCollector();
+		for (String line : awsReply) {
+			collector.collectResult(line);
+		}
+		return collector.getResult();
+	}
+
+	@Benchmark
+	public String findGoogleCloudFunctionsUrl() {
+		URLFinder finder = new URLFinder();
+		for (String line : googleDeployReply) {
+			finder.findGoogleCloudFunctionsUrl(line);
+		}
+		return finder.getResult();
+	}
+
+	@Benchmark
+	public String findOpenWhiskUrl() {
+		URLFinder finder = new URLFinder(true);
+		for (String line : openWhiskReply) {
+			finder.findOpenWhiskUrl(line);
+		}
+		return finder.getResult();
+	}
+}
@@ -0,0 +1,61 @@
+package databases.influx;
+
+import cmd.benchmark_commands.output_parsing.BenchmarkStats;
+import cmd.benchmark_commands.output_parsing.Wrk2Output;
+import org.influxdb.dto.BatchPoints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a load benchmark result into InfluxDB points, on the caller thread (the asynchronous writer is
+ * not involved: points are never queued). InfluxClient reads config.properties, so the working directory must
+ * contain it as for the application itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InfluxClientBenchmark {
+
+	private static final String FUNCTION_NAME = "cpu-test__python";
+	private static final String PROVIDER = "google";
+
+	private BenchmarkStats stats;
+	private long millis;
+
+
+	@Setup
+	public void parseOutput() {
+		stats = Wrk2Output.stats();
+		stats.setPhase(0);
+		millis = System.currentTimeMillis();
+	}
+
+	@Benchmark
+	public BatchPoints buildLoadBatch() {
+		return InfluxClient.buildLoadBatch(FUNCTION_NAME, PROVIDER, stats, millis);
+	}
+
+	// line protocol serialization is performed by InfluxWriter.enqueue on the caller thread
+	@Benchmark
+	public String buildLoadBatchLineProtocol() {
+		return InfluxClient.buildLoadBatch(FUNCTION_NAME, PROVIDER, stats, millis).lineProtocol();
+	}
+
+	@Benchmark
+	public String[] splitNameEnv() {
+		return InfluxClient.splitNameEnv(FUNCTION_NAME);
+	}
+}
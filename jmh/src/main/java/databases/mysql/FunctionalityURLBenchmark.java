@@ -0,0 +1,41 @@
+package databases.mysql;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of getting the url of a function before each request.
+ * Urls needing a Google authentication token are not covered: the token is obtained from Google Cloud Platform.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FunctionalityURLBenchmark {
+
+	private FunctionalityURL functionality;
+
+
+	@Setup
+	public void createFunctionality() {
+		functionality = new FunctionalityURL("cpu-test__python");
+		functionality.setGoogleUrl("https://us-central1-project.cloudfunctions.net/cpu-test__python");
+	}
+
+	@Benchmark
+	public String getGoogleUrl() {
+		return functionality.getGoogleUrl();
+	}
+}
@@ -1,6 +1,26 @@
+import analysis.BenchmarkAnalyzer;
+import cmd.CliContainerPool;
+import cmd.CommandExecutor;
+import cmd.benchmark_commands.Provider;
 import cmd.benchmark_commands.BenchmarkCommandExecutor;
+import cmd.benchmark_commands.keep_alive.KeepAliveSearch;
+import cmd.benchmark_commands.load_generation.LoadProfile;
+import cmd.benchmark_commands.load_generation.RequestTemplate;
+import cmd.benchmark_commands.memory_matrix.MemoryMatrixRunner;
+import cmd.benchmark_commands.sample_capture.SampleCapture;
+import cmd.benchmark_commands.scheduling.BenchmarkJournal;
+import cmd.benchmark_commands.throughput_search.ThroughputSearch;
 import cmd.functionality_commands.*;
+import cmd.functionality_commands.amazon_api.AmazonApiClient;
+import cmd.functionality_commands.deployment_planning.DeploymentNode;
+import cmd.functionality_commands.deployment_planning.DeploymentPlanner;
+import databases.influx.InfluxClient;
+import databases.influx.InfluxMigration;
+import utility.PropertiesManager;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Application entry point class. This class garantees the use of the serverless benchmarking tool.
@@ -29,8 +49,91 @@ public class ServerlessFlowBenchMain {
 	private static final int WARM_START_AVG_WIDTH = 15;
 	// number of iterations
 	private static final int ITERATIONS = 10;
-	// maximum concurrency level
+	// number of simultaneous requests in cold start tests (1 for single request, more to measure scale-out)
+	private static final int COLD_START_BURST_SIZE = 1;
+	// number of requests following each cold start whose latency is recorded in order (0 to not record warm-up curves)
+	private static final int WARM_UP_CURVE_LENGTH = 0;
+	// maximum concurrency level on each provider, also maximum number of load tests running across every provider
 	private static final int MAX_TOTAL_CONCURRENCY = 1;
+	// estimate instances keep-alive window to reduce sleep interval (SLEEP_INTERVAL_MILLISECONDS used as fallback)
+	private static final boolean ESTIMATE_KEEP_ALIVE = false;
+	// first idle interval probed in keep-alive estimation
+	private static final long KEEP_ALIVE_INITIAL_IDLE_MILLISECONDS = 60 * 1000; // 1 minute
+	// longest idle interval probed in keep-alive estimation
+	private static final long KEEP_ALIVE_MAX_IDLE_MILLISECONDS = 2 * 60 * 60 * 1000; // 2 hours
+	// keep-alive estimation precision
+	private static final long KEEP_ALIVE_RESOLUTION_MILLISECONDS = 60 * 1000; // 1 minute
+	// journal file recording benchmark progress
+	private static final String JOURNAL_PATH = "benchmark_journal.log";
+	// resume benchmarks where the journaled run stopped (e.g. after a crash) instead of starting a new run
+	private static final boolean RESUME_BENCHMARKS = false;
+	// write every request of load tests to sample files for offline analysis
+	private static final boolean CAPTURE_SAMPLES = false;
+	// root directory of sample files, one sub-directory for each run
+	private static final String SAMPLES_DIRECTORY = "benchmark_samples";
+
+	/**
+	 * Throughput search parameters, can be changed
+	 */
+	// p99 latency objective in milliseconds
+	private static final double SLO_P99_MILLISECONDS = 1000;
+	// maximum ratio of failed requests
+	private static final double MAX_ERROR_RATE = 0.01;
+	// duration of each load test of the search
+	private static final int SEARCH_TRIAL_DURATION_SECONDS = 30;
+	// lowest request rate to test
+	private static final int SEARCH_MIN_REQUESTS_PER_SECOND = 10;
+	// highest request rate to test
+	private static final int SEARCH_MAX_REQUESTS_PER_SECOND = 2000;
+	// search stops when the maximum sustainable throughput is known within this amount of requests per second
+	private static final int SEARCH_RESOLUTION_REQUESTS_PER_SECOND = 10;
+
+	/**
+	 * Input size sweep parameters, can be changed
+	 */
+	// functions accepting the workload size as request parameter
+	private static final List<String> SWEEP_FUNCTIONS = Arrays.asList("cpu-test", "memory-test");
+	// request query template, {n} is replaced by the workload size
+	private static final String SWEEP_QUERY_TEMPLATE = "n={n}";
+	// workload sizes to test
+	private static final List<Long> SWEEP_INPUT_SIZES = Arrays.asList(1000L, 10000L, 100000L, 1000000L);
+	// duration of each load test of the sweep
+	private static final int SWEEP_DURATION_SECONDS = 30;
+	// number of request per second in each load test of the sweep
+	private static final int SWEEP_REQUESTS_PER_SECOND = 10;
+
+	/**
+	 * Memory matrix parameters, can be changed
+	 */
+	// function deployed with every memory amount (Python implementation)
+	private static final String MATRIX_FUNCTION = "cpu-test";
+	// memory amounts to test in megabytes
+	private static final List<Integer> MATRIX_MEMORY_SIZES = Arrays.asList(128, 256, 512, 1024, 2048);
+
+	/**
+	 * Influx migration parameters, can be changed
+	 */
+	// time window of the points rewritten by a single task
+	private static final long MIGRATION_CHUNK_MILLISECONDS = 24 * 60 * 60 * 1000; // 1 day
+	// number of chunks rewritten at the same time
+	private static final int MIGRATION_THREADS = 4;
+	// drop measurements of the previous schema once completely migrated
+	private static final boolean MIGRATION_DROP_OLD_MEASUREMENTS = false;
+
+	/**
+	 * Sample analysis parameters, can be changed
+	 */
+	// functions (common name, without runtime) whose samples are analyzed
+	private static final List<String> ANALYSIS_FUNCTIONS = Arrays.asList("latency-test", "cpu-test", "memory-test",
+			"latency-test-workflow", "cpu-test-workflow");
+	// bootstrap resamples used to compute confidence intervals
+	private static final int BOOTSTRAP_RESAMPLES = 1000;
+	// confidence level of latency intervals
+	private static final double CONFIDENCE_LEVEL = 0.95;
+	// family-wise significance level of provider comparisons
+	private static final double SIGNIFICANCE_LEVEL = 0.05;
+	// directory analysis reports are written to
+	private static final String ANALYSIS_REPORT_DIRECTORY = "analysis_reports";
 
 	/**
 	 * Execution parameters, can be changed
@@ -47,6 +150,26 @@ public class ServerlessFlowBenchMain {
 	private static final boolean JAVA = true;
 	// execute Node.js functionalities deployment
 	private static final boolean NODE = true;
+	// maximum number of concurrent deploys on Google Cloud Platform
+	private static final int GOOGLE_DEPLOY_CONCURRENCY = 4;
+	// maximum number of concurrent deploys on Amazon Web Services
+	private static final int AMAZON_DEPLOY_CONCURRENCY = 4;
+	// maximum number of concurrent deploys on OpenWhisk
+	private static final int OPENWHISK_DEPLOY_CONCURRENCY = 4;
+	// execute CLI commands in long-lived containers instead of starting a container for each command
+	private static final boolean CLI_CONTAINER_POOL = true;
+	// number of long-lived containers for each CLI image
+	private static final int CLI_CONTAINERS_PER_IMAGE = 1;
+	// number of commands after which a CLI container is recycled
+	private static final int CLI_CONTAINER_MAX_COMMANDS = 200;
+	// time after which a CLI container is recycled
+	private static final long CLI_CONTAINER_MAX_AGE_MILLISECONDS = 60 * 60 * 1000; // 1 hour
+	// minimum time between two health checks of the same CLI container
+	private static final long CLI_CONTAINER_HEALTH_CHECK_MILLISECONDS = 60 * 1000; // 1 minute
+	// deploy Amazon REST functions calling AWS APIs directly instead of AWS CLI (disabled: AWS CLI by default)
+	private static final boolean AMAZON_NATIVE_API = false;
+	// AWS APIs endpoint override (e.g. "http://localhost:4566"), null to use the regional endpoints
+	private static final String AMAZON_API_ENDPOINT = null;
 
 	/**
 	 * Select operation to perform:
@@ -55,6 +178,11 @@ public class ServerlessFlowBenchMain {
 	 * 2 -> perform a complete cleanup
 	 * 3 -> 0 + 1 + 2
 	 * 4 -> deploy info gathering functionalities
+	 * 5 -> search maximum sustainable throughput
+	 * 6 -> perform input size sweep
+	 * 7 -> perform memory matrix (deploy, benchmark and remove memory variants)
+	 * 8 -> migrate influx db results to the tag based schema
+	 * 9 -> analyze samples stored in SAMPLES_DIRECTORY
 	 */
 	private static final int OPERATION_SELECTION = 3;
 
@@ -66,6 +194,27 @@ public class ServerlessFlowBenchMain {
 	@SuppressWarnings("ConstantConditions")
 	public static void main(@Nullable String[] args) {
 
+		if (CLI_CONTAINER_POOL) {
+			CommandExecutor.setCliContainerPool(new CliContainerPool(
+					Arrays.asList(AmazonCommandUtility.getCli(), GoogleCommandUtility.getCli(),
+							OpenWhiskCommandUtility.getCli()),
+					CLI_CONTAINERS_PER_IMAGE,
+					CLI_CONTAINER_MAX_COMMANDS,
+					CLI_CONTAINER_MAX_AGE_MILLISECONDS,
+					CLI_CONTAINER_HEALTH_CHECK_MILLISECONDS));
+		}
+
+		if (AMAZON_NATIVE_API) {
+			AmazonApiClient amazonApiClient = AmazonApiClient.fromAuthFolder(
+					PropertiesManager.getInstance().getProperty(PropertiesManager.AWS_AUTH_CONFIG),
+					AMAZON_API_ENDPOINT);
+			if (amazonApiClient == null) {
+				System.err.println("AWS credentials not available, Amazon functions will be deployed " +
+						"through AWS CLI");
+			}
+			FunctionCommandExecutor.setAmazonApiClient(amazonApiClient);
+		}
+
 		switch (OPERATION_SELECTION) {
 			case 0:
 				deploy();
@@ -84,6 +233,21 @@ public class ServerlessFlowBenchMain {
 			case 4:
 				deployInfoFunctions();
 				break;
+			case 5:
+				throughputSearchPerform();
+				break;
+			case 6:
+				inputSizeSweepPerform();
+				break;
+			case 7:
+				memoryMatrixPerform();
+				break;
+			case 8:
+				influxMigrationPerform();
+				break;
+			case 9:
+				analysisPerform();
+				break;
 			default:
 				System.err.println("Please provide a valid OPERATION_SELECTION value.");
 		}
@@ -141,46 +305,54 @@ public class ServerlessFlowBenchMain {
 	 * Performs deployment of serverless functions and compositions
 	 */
 	private static void deploy() {
-		deployFunctions();
-		deployCompositions();
+		System.out.println("\u001B[35m" + "\n\nDeploying benchmark functions and compositions...\n" + "\u001B[0m");
+
+		DeploymentPlanner planner = new DeploymentPlanner(GOOGLE_DEPLOY_CONCURRENCY, AMAZON_DEPLOY_CONCURRENCY,
+				OPENWHISK_DEPLOY_CONCURRENCY);
+		deployFunctions(planner);
+		deployCompositions(planner);
+		planner.execute();
 	}
 
 	/**
-	 * Deploys serverless functions
+	 * Plans serverless functions deployment
+	 * @param planner deployment planner
 	 */
-	private static void deployFunctions() {
-		System.out.println("\u001B[35m" + "\n\nDeploying benchmark functions...\n" + "\u001B[0m");
+	private static void deployFunctions(DeploymentPlanner planner) {
 
 		/* Python on Google Cloud Platform */
 
 		if (GOOGLE_DEPLOY && PYTHON) {
 
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("latency-test",
-					GoogleCommandUtility.PYTHON_3_7_RUNTIME,
-					"gc_functions_handler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/python/basic_test_composition/latency_test");
-
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("cpu-test",
-					GoogleCommandUtility.PYTHON_3_7_RUNTIME,
-					"gc_functions_handler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/python/basic_test_composition/cpu_test");
-
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("memory-test",
-					GoogleCommandUtility.PYTHON_3_7_RUNTIME,
-					"gc_functions_handler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/python/memory_test");
+			planner.addNode("latency-test__python", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("latency-test",
+							GoogleCommandUtility.PYTHON_3_7_RUNTIME,
+							"gc_functions_handler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/python/basic_test_composition/latency_test"));
+
+			planner.addNode("cpu-test__python", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("cpu-test",
+							GoogleCommandUtility.PYTHON_3_7_RUNTIME,
+							"gc_functions_handler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/python/basic_test_composition/cpu_test"));
+
+			planner.addNode("memory-test__python", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("memory-test",
+							GoogleCommandUtility.PYTHON_3_7_RUNTIME,
+							"gc_functions_handler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/python/memory_test"));
 
 		}
 
@@ -190,35 +362,38 @@ public class ServerlessFlowBenchMain {
 
 		if (AMAZON_DEPLOY && PYTHON) {
 
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("latency-test",
-					AmazonCommandUtility.PYTHON_3_7_RUNTIME,
-					"latency_test.lambda_handler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/python/basic_test_composition/latency_test",
-					"latency_test.zip");
-
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("cpu-test",
-					AmazonCommandUtility.PYTHON_3_7_RUNTIME,
-					"cpu_test.lambda_handler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/python/basic_test_composition/cpu_test",
-					"cpu_test.zip");
-
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("memory-test",
-					AmazonCommandUtility.PYTHON_3_7_RUNTIME,
-					"memory_test.lambda_handler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/python/memory_test",
-					"memory_test.zip");
+			planner.addNode("latency-test__python", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("latency-test",
+							AmazonCommandUtility.PYTHON_3_7_RUNTIME,
+							"latency_test.lambda_handler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/python/basic_test_composition/latency_test",
+							"latency_test.zip"));
+
+			planner.addNode("cpu-test__python", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("cpu-test",
+							AmazonCommandUtility.PYTHON_3_7_RUNTIME,
+							"cpu_test.lambda_handler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/python/basic_test_composition/cpu_test",
+							"cpu_test.zip"));
+
+			planner.addNode("memory-test__python", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("memory-test",
+							AmazonCommandUtility.PYTHON_3_7_RUNTIME,
+							"memory_test.lambda_handler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/python/memory_test",
+							"memory_test.zip"));
 
 		}
 
@@ -228,32 +403,35 @@ public class ServerlessFlowBenchMain {
 
 		if (OPENWHISK_DEPLOY && PYTHON) {
 
-			FunctionCommandExecutor.deployOnOpenWhisk("latency-test",
-					OpenWhiskCommandUtility.PYTHON_3_RUNTIME,
-					"ow_handler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/python/basic_test_composition/latency_test",
-					"latency_test.zip");
-
-			FunctionCommandExecutor.deployOnOpenWhisk("cpu-test",
-					OpenWhiskCommandUtility.PYTHON_3_RUNTIME,
-					"ow_handler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/python/basic_test_composition/cpu_test",
-					"cpu_test.zip");
-
-			FunctionCommandExecutor.deployOnOpenWhisk("memory-test",
-					OpenWhiskCommandUtility.PYTHON_3_RUNTIME,
-					"ow_handler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/python/memory_test",
-					"memory_test.zip");
+			planner.addNode("latency-test__python", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("latency-test",
+							OpenWhiskCommandUtility.PYTHON_3_RUNTIME,
+							"ow_handler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/python/basic_test_composition/latency_test",
+							"latency_test.zip"));
+
+			planner.addNode("cpu-test__python", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("cpu-test",
+							OpenWhiskCommandUtility.PYTHON_3_RUNTIME,
+							"ow_handler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/python/basic_test_composition/cpu_test",
+							"cpu_test.zip"));
+
+			planner.addNode("memory-test__python", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("memory-test",
+							OpenWhiskCommandUtility.PYTHON_3_RUNTIME,
+							"ow_handler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/python/memory_test",
+							"memory_test.zip"));
 		}
 
 
@@ -262,32 +440,35 @@ public class ServerlessFlowBenchMain {
 
 		if (GOOGLE_DEPLOY && JAVA) {
 
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("latency-test",
-					GoogleCommandUtility.JAVA_11_RUNTIME,
-					"latency_test.Handler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/java/basic_test_composition/latency_test");
-
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("cpu-test",
-					GoogleCommandUtility.JAVA_11_RUNTIME,
-					"cpu_test.Handler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/java/basic_test_composition/cpu_test");
-
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("memory-test",
-					GoogleCommandUtility.JAVA_11_RUNTIME,
-					"memory_test.Handler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/java/memory_test");
+			planner.addNode("latency-test__java", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("latency-test",
+							GoogleCommandUtility.JAVA_11_RUNTIME,
+							"latency_test.Handler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/java/basic_test_composition/latency_test"));
+
+			planner.addNode("cpu-test__java", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("cpu-test",
+							GoogleCommandUtility.JAVA_11_RUNTIME,
+							"cpu_test.Handler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/java/basic_test_composition/cpu_test"));
+
+			planner.addNode("memory-test__java", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("memory-test",
+							GoogleCommandUtility.JAVA_11_RUNTIME,
+							"memory_test.Handler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/java/memory_test"));
 
 		}
 
@@ -297,35 +478,38 @@ public class ServerlessFlowBenchMain {
 
 		if (AMAZON_DEPLOY && JAVA) {
 
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("latency-test",
-					AmazonCommandUtility.JAVA_11_RUNTIME,
-					"latency_test.Handler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/java/latency_test/target",
-					"latency_test_java_aws-1.0.jar");
-
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("cpu-test",
-					AmazonCommandUtility.JAVA_11_RUNTIME,
-					"cpu_test.Handler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/java/cpu_test/target",
-					"cpu_test_java_aws-1.0.jar");
-
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("memory-test",
-					AmazonCommandUtility.JAVA_11_RUNTIME,
-					"memory_test.Handler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/java/memory_test/target",
-					"memory_test_java_aws-1.0.jar");
+			planner.addNode("latency-test__java", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("latency-test",
+							AmazonCommandUtility.JAVA_11_RUNTIME,
+							"latency_test.Handler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/java/latency_test/target",
+							"latency_test_java_aws-1.0.jar"));
+
+			planner.addNode("cpu-test__java", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("cpu-test",
+							AmazonCommandUtility.JAVA_11_RUNTIME,
+							"cpu_test.Handler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/java/cpu_test/target",
+							"cpu_test_java_aws-1.0.jar"));
+
+			planner.addNode("memory-test__java", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("memory-test",
+							AmazonCommandUtility.JAVA_11_RUNTIME,
+							"memory_test.Handler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/java/memory_test/target",
+							"memory_test_java_aws-1.0.jar"));
 
 		}
 
@@ -335,32 +519,35 @@ public class ServerlessFlowBenchMain {
 
 		if (OPENWHISK_DEPLOY && JAVA) {
 
-			FunctionCommandExecutor.deployOnOpenWhisk("latency-test",
-					OpenWhiskCommandUtility.JAVA_8_RUNTIME,
-					"latency_test.Handler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/java/basic_test_composition/latency_test/target",
-					"latency_test_java_ow-1.0.jar");
-
-			FunctionCommandExecutor.deployOnOpenWhisk("cpu-test",
-					OpenWhiskCommandUtility.JAVA_8_RUNTIME,
-					"cpu_test.Handler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/java/basic_test_composition/cpu_test/target",
-					"cpu_test_java_ow-1.0.jar");
-
-			FunctionCommandExecutor.deployOnOpenWhisk("memory-test",
-					OpenWhiskCommandUtility.JAVA_8_RUNTIME,
-					"memory_test.Handler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/java/memory_test/target",
-					"memory_test_java_ow-1.0.jar");
+			planner.addNode("latency-test__java", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("latency-test",
+							OpenWhiskCommandUtility.JAVA_8_RUNTIME,
+							"latency_test.Handler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/java/basic_test_composition/latency_test/target",
+							"latency_test_java_ow-1.0.jar"));
+
+			planner.addNode("cpu-test__java", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("cpu-test",
+							OpenWhiskCommandUtility.JAVA_8_RUNTIME,
+							"cpu_test.Handler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/java/basic_test_composition/cpu_test/target",
+							"cpu_test_java_ow-1.0.jar"));
+
+			planner.addNode("memory-test__java", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("memory-test",
+							OpenWhiskCommandUtility.JAVA_8_RUNTIME,
+							"memory_test.Handler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/java/memory_test/target",
+							"memory_test_java_ow-1.0.jar"));
 		}
 
 
@@ -369,32 +556,35 @@ public class ServerlessFlowBenchMain {
 
 		if (GOOGLE_DEPLOY && NODE) {
 
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("latency-test",
-					GoogleCommandUtility.NODE_10_RUNTIME,
-					"gcFunctionsHandler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/node/basic_test_composition/latency_test");
-
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("cpu-test",
-					GoogleCommandUtility.NODE_10_RUNTIME,
-					"gcFunctionsHandler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/node/basic_test_composition/cpu_test");
-
-			FunctionCommandExecutor.deployOnGoogleCloudFunction("memory-test",
-					GoogleCommandUtility.NODE_10_RUNTIME,
-					"gcFunctionsHandler",
-					30,
-					128,
-					GoogleCommandUtility.IOWA,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/gcloud/node/memory_test");
+			planner.addNode("latency-test__node", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("latency-test",
+							GoogleCommandUtility.NODE_10_RUNTIME,
+							"gcFunctionsHandler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/node/basic_test_composition/latency_test"));
+
+			planner.addNode("cpu-test__node", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("cpu-test",
+							GoogleCommandUtility.NODE_10_RUNTIME,
+							"gcFunctionsHandler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/node/basic_test_composition/cpu_test"));
+
+			planner.addNode("memory-test__node", Provider.GOOGLE,
+					() -> FunctionCommandExecutor.deployOnGoogleCloudFunction("memory-test",
+							GoogleCommandUtility.NODE_10_RUNTIME,
+							"gcFunctionsHandler",
+							30,
+							128,
+							GoogleCommandUtility.IOWA,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/gcloud/node/memory_test"));
 
 		}
 
@@ -404,35 +594,38 @@ public class ServerlessFlowBenchMain {
 
 		if (AMAZON_DEPLOY && NODE) {
 
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("latency-test",
-					AmazonCommandUtility.NODE_10_X_RUNTIME,
-					"index.lambdaHandler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/node/basic_test_composition/latency_test",
-					"latency_test.zip");
-
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("cpu-test",
-					AmazonCommandUtility.NODE_10_X_RUNTIME,
-					"index.lambdaHandler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/node/basic_test_composition/cpu_test",
-					"cpu_test.zip");
-
-			FunctionCommandExecutor.deployOnAmazonRESTFunction("memory-test",
-					AmazonCommandUtility.NODE_10_X_RUNTIME,
-					"index.lambdaHandler",
-					30,
-					128,
-					AmazonCommandUtility.OHIO,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/aws/node/memory_test",
-					"memory_test.zip");
+			planner.addNode("latency-test__node", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("latency-test",
+							AmazonCommandUtility.NODE_10_X_RUNTIME,
+							"index.lambdaHandler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/node/basic_test_composition/latency_test",
+							"latency_test.zip"));
+
+			planner.addNode("cpu-test__node", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("cpu-test",
+							AmazonCommandUtility.NODE_10_X_RUNTIME,
+							"index.lambdaHandler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/node/basic_test_composition/cpu_test",
+							"cpu_test.zip"));
+
+			planner.addNode("memory-test__node", Provider.AMAZON,
+					() -> FunctionCommandExecutor.deployOnAmazonRESTFunction("memory-test",
+							AmazonCommandUtility.NODE_10_X_RUNTIME,
+							"index.lambdaHandler",
+							30,
+							128,
+							AmazonCommandUtility.OHIO,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/aws/node/memory_test",
+							"memory_test.zip"));
 
 		}
 
@@ -442,54 +635,62 @@ public class ServerlessFlowBenchMain {
 
 		if (OPENWHISK_DEPLOY && NODE) {
 
-			FunctionCommandExecutor.deployOnOpenWhisk("latency-test",
-					OpenWhiskCommandUtility.NODE_10_RUNTIME,
-					"index.owHandler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/node/basic_test_composition/latency_test",
-					"latency_test.zip");
-
-			FunctionCommandExecutor.deployOnOpenWhisk("cpu-test",
-					OpenWhiskCommandUtility.NODE_10_RUNTIME,
-					"index.owHandler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/node/basic_test_composition/cpu_test",
-					"cpu_test.zip");
-
-			FunctionCommandExecutor.deployOnOpenWhisk("memory-test",
-					OpenWhiskCommandUtility.NODE_10_RUNTIME,
-					"index.owHandler",
-					30,
-					128,
-					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
-							"/serverless_functions/openwhisk/node/memory_test",
-					"memory_test.zip");
+			planner.addNode("latency-test__node", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("latency-test",
+							OpenWhiskCommandUtility.NODE_10_RUNTIME,
+							"index.owHandler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/node/basic_test_composition/latency_test",
+							"latency_test.zip"));
+
+			planner.addNode("cpu-test__node", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("cpu-test",
+							OpenWhiskCommandUtility.NODE_10_RUNTIME,
+							"index.owHandler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/node/basic_test_composition/cpu_test",
+							"cpu_test.zip"));
+
+			planner.addNode("memory-test__node", Provider.OPENWHISK,
+					() -> FunctionCommandExecutor.deployOnOpenWhisk("memory-test",
+							OpenWhiskCommandUtility.NODE_10_RUNTIME,
+							"index.owHandler",
+							30,
+							128,
+							"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+									"/serverless_functions/openwhisk/node/memory_test",
+							"memory_test.zip"));
 		}
 	}
 
 	/**
-	 * Deploys serverless compositions
+	 * Plans serverless compositions deployment
+	 * @param planner deployment planner
 	 */
-	private static void deployCompositions() {
-		System.out.println("\u001B[35m" + "\n\nDeploying benchmark compositions...\n" + "\u001B[0m");
+	private static void deployCompositions(DeploymentPlanner planner) {
 
 		/* Cloud buckets */
 
+		DeploymentNode googleBucket = null;
+		DeploymentNode amazonBucket = null;
+
 		if (GOOGLE_DEPLOY) {
 
-			BucketsCommandExecutor.createGoogleBucket("benchmarking-project-translator-logging-bucket",
-					GoogleCommandUtility.IOWA);
+			googleBucket = planner.addNode("benchmarking-project-translator-logging-bucket", Provider.GOOGLE,
+					() -> BucketsCommandExecutor.createGoogleBucket("benchmarking-project-translator-logging-bucket",
+							GoogleCommandUtility.IOWA));
 
 		}
 
 		if (AMAZON_DEPLOY) {
 
-			BucketsCommandExecutor.createAmazonBucket("benchmarking-project-translator-logging-bucket",
-					AmazonCommandUtility.S3_ACL_PRIVATE, AmazonCommandUtility.OHIO);
+			amazonBucket = planner.addNode("benchmarking-project-translator-logging-bucket", Provider.AMAZON,
+					() -> BucketsCommandExecutor.createAmazonBucket("benchmarking-project-translator-logging-bucket",
+							AmazonCommandUtility.S3_ACL_PRIVATE, AmazonCommandUtility.OHIO));
 
 		}
 
@@ -507,7 +708,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {GoogleCommandUtility.IOWA, GoogleCommandUtility.IOWA};
 				String[] functionDirs = {"image_recognition", "anger_detection"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("face-detection",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/python/face_recognition",
 						GoogleCommandUtility.IOWA,
@@ -529,7 +730,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {GoogleCommandUtility.IOWA, GoogleCommandUtility.IOWA};
 				String[] functionDirs = {"latency_test", "cpu_test"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("basic-composition",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/python/basic_test_composition",
 						GoogleCommandUtility.IOWA,
@@ -555,7 +756,7 @@ public class ServerlessFlowBenchMain {
 				String[] functionDirs = {"loop_controller", "language_detection", "sentence_translation",
 						"translation_logger"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("cycle-translator",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "cycle-translator",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/python/cycle_translator",
 						GoogleCommandUtility.IOWA,
@@ -566,7 +767,8 @@ public class ServerlessFlowBenchMain {
 						timeouts,
 						memories,
 						regions,
-						functionDirs);
+						functionDirs,
+						googleBucket);
 			}
 
 		}
@@ -585,7 +787,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {AmazonCommandUtility.OHIO, AmazonCommandUtility.OHIO};
 				String[] zipFileNames = {"image_recognition.zip", "anger_detection.zip"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("face-detection",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/python/face_recognition",
 						AmazonCommandUtility.OHIO,
@@ -607,7 +809,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {AmazonCommandUtility.OHIO, AmazonCommandUtility.OHIO};
 				String[] zipFileNames = {"latency_test.zip", "cpu_test.zip"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("basic-composition",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/python/basic_test_composition",
 						AmazonCommandUtility.OHIO,
@@ -633,7 +835,7 @@ public class ServerlessFlowBenchMain {
 				String[] zipFileNames = {"loop_controller.zip", "language_detection.zip", "sentence_translation.zip",
 						"translation_logger.zip"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("cycle-translator",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "cycle-translator",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/python/cycle_translator",
 						AmazonCommandUtility.OHIO,
@@ -644,7 +846,8 @@ public class ServerlessFlowBenchMain {
 						timeouts,
 						memories,
 						regions,
-						zipFileNames);
+						zipFileNames,
+						amazonBucket);
 			}
 
 		}
@@ -663,7 +866,7 @@ public class ServerlessFlowBenchMain {
 				Integer[] memories = {500, 500};
 				String[] zipFileNames = {"image_recognition.zip", "anger_detection.zip"};
 
-				CompositionCommandExecutor.deployOnOpenWhiskComposition("face-detection",
+				CompositionCommandExecutor.planOnOpenWhiskComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/openwhisk/python/face_recognition",
 						"step.js",
@@ -682,7 +885,7 @@ public class ServerlessFlowBenchMain {
 				Integer[] memories = {128, 128};
 				String[] zipFileNames = {"latency_test.zip", "cpu_test.zip"};
 
-				CompositionCommandExecutor.deployOnOpenWhiskComposition("basic-composition",
+				CompositionCommandExecutor.planOnOpenWhiskComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/openwhisk/python/basic_test_composition",
 						"step.js",
@@ -710,7 +913,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {GoogleCommandUtility.IOWA, GoogleCommandUtility.IOWA};
 				String[] functionDirs = {"image_recognition", "anger_detection"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("face-detection",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/java/face_recognition",
 						GoogleCommandUtility.IOWA,
@@ -732,7 +935,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {GoogleCommandUtility.IOWA, GoogleCommandUtility.IOWA};
 				String[] functionDirs = {"latency_test", "cpu_test"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("basic-composition",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/java/basic_test_composition",
 						GoogleCommandUtility.IOWA,
@@ -758,7 +961,7 @@ public class ServerlessFlowBenchMain {
 				String[] functionDirs = {"loop_controller", "language_detection", "sentence_translation",
 						"translation_logger"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("cycle-translator",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "cycle-translator",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/java/cycle_translator",
 						GoogleCommandUtility.IOWA,
@@ -769,7 +972,8 @@ public class ServerlessFlowBenchMain {
 						timeouts,
 						memories,
 						regions,
-						functionDirs);
+						functionDirs,
+						googleBucket);
 			}
 
 		}
@@ -788,7 +992,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {AmazonCommandUtility.OHIO, AmazonCommandUtility.OHIO};
 				String[] zipFileNames = {"image_recognition_java_aws-1.0.jar", "anger_detection_java_aws-1.0.jar"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("face-detection",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/java/face_recognition",
 						AmazonCommandUtility.OHIO,
@@ -810,7 +1014,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {AmazonCommandUtility.OHIO, AmazonCommandUtility.OHIO};
 				String[] zipFileNames = {"latency_test_java_aws-1.0.jar", "cpu_test_java_aws-1.0.jar"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("basic-composition",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/java/basic_test_composition",
 						AmazonCommandUtility.OHIO,
@@ -836,7 +1040,7 @@ public class ServerlessFlowBenchMain {
 				String[] zipFileNames = {"loop_controller_java_aws-1.0.jar", "language_detection_java_aws-1.0.jar",
 						"sentence_translation_java_aws-1.0.jar", "translation_logger_java_aws-1.0.jar"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("cycle-translator",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "cycle-translator",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/java/cycle_translator",
 						AmazonCommandUtility.OHIO,
@@ -847,7 +1051,8 @@ public class ServerlessFlowBenchMain {
 						timeouts,
 						memories,
 						regions,
-						zipFileNames);
+						zipFileNames,
+						amazonBucket);
 			}
 
 		}
@@ -866,7 +1071,7 @@ public class ServerlessFlowBenchMain {
 				Integer[] memories = {500, 500};
 				String[] zipFileNames = {"image_recognition_java_ow-1.0.jar", "anger_detection_java_ow-1.0.jar"};
 
-				CompositionCommandExecutor.deployOnOpenWhiskComposition("face-detection",
+				CompositionCommandExecutor.planOnOpenWhiskComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/openwhisk/java/face_recognition",
 						"step.js",
@@ -885,7 +1090,7 @@ public class ServerlessFlowBenchMain {
 				Integer[] memories = {128, 128};
 				String[] zipFileNames = {"latency_test_java_ow-1.0.jar", "cpu_test_java_ow-1.0.jar"};
 
-				CompositionCommandExecutor.deployOnOpenWhiskComposition("basic-composition",
+				CompositionCommandExecutor.planOnOpenWhiskComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/openwhisk/java/basic_test_composition",
 						"step.js",
@@ -913,7 +1118,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {GoogleCommandUtility.IOWA, GoogleCommandUtility.IOWA};
 				String[] functionDirs = {"image_recognition", "anger_detection"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("face-detection",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/node/face_recognition",
 						GoogleCommandUtility.IOWA,
@@ -935,7 +1140,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {GoogleCommandUtility.IOWA, GoogleCommandUtility.IOWA};
 				String[] functionDirs = {"latency_test", "cpu_test"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("basic-composition",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/node/basic_test_composition",
 						GoogleCommandUtility.IOWA,
@@ -961,7 +1166,7 @@ public class ServerlessFlowBenchMain {
 				String[] functionDirs = {"loop_controller", "language_detection", "sentence_translation",
 						"translation_logger"};
 
-				CompositionCommandExecutor.deployOnGoogleComposition("cycle-translator",
+				CompositionCommandExecutor.planOnGoogleComposition(planner, "cycle-translator",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/gcloud/node/cycle_translator",
 						GoogleCommandUtility.IOWA,
@@ -972,7 +1177,8 @@ public class ServerlessFlowBenchMain {
 						timeouts,
 						memories,
 						regions,
-						functionDirs);
+						functionDirs,
+						googleBucket);
 			}
 
 		}
@@ -991,7 +1197,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {AmazonCommandUtility.OHIO, AmazonCommandUtility.OHIO};
 				String[] zipFileNames = {"image_recognition.zip", "anger_detection.zip"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("face-detection",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/node/face_recognition",
 						AmazonCommandUtility.OHIO,
@@ -1013,7 +1219,7 @@ public class ServerlessFlowBenchMain {
 				String[] regions = {AmazonCommandUtility.OHIO, AmazonCommandUtility.OHIO};
 				String[] zipFileNames = {"latency_test.zip", "cpu_test.zip"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("basic-composition",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/node/basic_test_composition",
 						AmazonCommandUtility.OHIO,
@@ -1039,7 +1245,7 @@ public class ServerlessFlowBenchMain {
 				String[] zipFileNames = {"loop_controller.zip", "language_detection.zip", "sentence_translation.zip",
 						"translation_logger.zip"};
 
-				CompositionCommandExecutor.deployOnAmazonComposition("cycle-translator",
+				CompositionCommandExecutor.planOnAmazonComposition(planner, "cycle-translator",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/aws/node/cycle_translator",
 						AmazonCommandUtility.OHIO,
@@ -1050,7 +1256,8 @@ public class ServerlessFlowBenchMain {
 						timeouts,
 						memories,
 						regions,
-						zipFileNames);
+						zipFileNames,
+						amazonBucket);
 			}
 
 		}
@@ -1069,7 +1276,7 @@ public class ServerlessFlowBenchMain {
 				Integer[] memories = {500, 500};
 				String[] zipFileNames = {"image_recognition.zip", "anger_detection.zip"};
 
-				CompositionCommandExecutor.deployOnOpenWhiskComposition("face-detection",
+				CompositionCommandExecutor.planOnOpenWhiskComposition(planner, "face-detection",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/openwhisk/node/face_recognition",
 						"step.js",
@@ -1088,7 +1295,7 @@ public class ServerlessFlowBenchMain {
 				Integer[] memories = {128, 128};
 				String[] zipFileNames = {"latency_test.zip", "cpu_test.zip"};
 
-				CompositionCommandExecutor.deployOnOpenWhiskComposition("basic-composition",
+				CompositionCommandExecutor.planOnOpenWhiskComposition(planner, "basic-composition",
 						"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
 								"/serverless_functions/openwhisk/node/basic_test_composition",
 						"step.js",
@@ -1110,6 +1317,34 @@ public class ServerlessFlowBenchMain {
 	private static void benchmarkPerform() {
 
 		BenchmarkCommandExecutor benchmarker = new BenchmarkCommandExecutor(MAX_TOTAL_CONCURRENCY);
+		if (ESTIMATE_KEEP_ALIVE) {
+			benchmarker.setKeepAliveSearch(new KeepAliveSearch(
+					KEEP_ALIVE_INITIAL_IDLE_MILLISECONDS,
+					KEEP_ALIVE_MAX_IDLE_MILLISECONDS,
+					KEEP_ALIVE_RESOLUTION_MILLISECONDS));
+		}
+		benchmarker.setColdStartBurstSize(COLD_START_BURST_SIZE);
+		benchmarker.setWarmUpCurveLength(WARM_UP_CURVE_LENGTH);
+		if (CAPTURE_SAMPLES) {
+			benchmarker.setSampleCapture(new SampleCapture(SAMPLES_DIRECTORY));
+		}
+
+		BenchmarkJournal journal;
+		try {
+			journal = RESUME_BENCHMARKS ? BenchmarkJournal.resume(JOURNAL_PATH) :
+					BenchmarkJournal.create(JOURNAL_PATH);
+		} catch (IOException e) {
+			System.err.println("Could not open benchmark journal: " + e.getMessage());
+			return;
+		}
+		benchmarker.setJournal(journal);
+		// a resumed run keeps its identifier, so that its results belong to the same series
+		if (journal.getRunId() != null) {
+			InfluxClient.setRunId(journal.getRunId());
+		} else {
+			journal.recordRunId(InfluxClient.getRunId());
+		}
+
 		benchmarker.performBenchmarks(
 				CONCURRENCY,
 				THREAD_NUMBER,
@@ -1120,6 +1355,125 @@ public class ServerlessFlowBenchMain {
 				ITERATIONS,
 				IGNORED_COLD_START_VALUES,
 				WARM_START_AVG_WIDTH);
+		journal.close();
+	}
+
+	/**
+	 * Searches maximum sustainable throughput of deployed resources
+	 */
+	private static void throughputSearchPerform() {
+
+		BenchmarkCommandExecutor benchmarker = new BenchmarkCommandExecutor(MAX_TOTAL_CONCURRENCY);
+		benchmarker.performThroughputSearch(
+				CONCURRENCY,
+				THREAD_NUMBER,
+				SEARCH_TRIAL_DURATION_SECONDS,
+				new ThroughputSearch(
+						SLO_P99_MILLISECONDS,
+						MAX_ERROR_RATE,
+						SEARCH_MIN_REQUESTS_PER_SECOND,
+						SEARCH_MAX_REQUESTS_PER_SECOND,
+						SEARCH_RESOLUTION_REQUESTS_PER_SECOND));
+	}
+
+	/**
+	 * Performs input size sweep on deployed resources accepting the workload size
+	 */
+	private static void inputSizeSweepPerform() {
+
+		BenchmarkCommandExecutor benchmarker = new BenchmarkCommandExecutor(MAX_TOTAL_CONCURRENCY);
+		benchmarker.performInputSizeSweep(
+				CONCURRENCY,
+				THREAD_NUMBER,
+				SWEEP_DURATION_SECONDS,
+				SWEEP_REQUESTS_PER_SECOND,
+				RequestTemplate.query(SWEEP_QUERY_TEMPLATE),
+				"n",
+				SWEEP_INPUT_SIZES,
+				SWEEP_FUNCTIONS);
+	}
+
+	/**
+	 * Deploys a variant of MATRIX_FUNCTION for every memory amount, benchmarks and removes them
+	 */
+	private static void memoryMatrixPerform() {
+
+		MemoryMatrixRunner matrix = new MemoryMatrixRunner(MATRIX_FUNCTION, MATRIX_MEMORY_SIZES);
+		if (GOOGLE_DEPLOY) {
+			matrix.addDeployer((variantName, memory) -> FunctionCommandExecutor.deployOnGoogleCloudFunction(
+					variantName,
+					GoogleCommandUtility.PYTHON_3_7_RUNTIME,
+					"gc_functions_handler",
+					30,
+					memory,
+					GoogleCommandUtility.IOWA,
+					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+							"/serverless_functions/gcloud/python/basic_test_composition/cpu_test"));
+		}
+		if (AMAZON_DEPLOY) {
+			matrix.addDeployer((variantName, memory) -> FunctionCommandExecutor.deployOnAmazonRESTFunction(
+					variantName,
+					AmazonCommandUtility.PYTHON_3_7_RUNTIME,
+					"cpu_test.lambda_handler",
+					30,
+					memory,
+					AmazonCommandUtility.OHIO,
+					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+							"/serverless_functions/aws/python/basic_test_composition/cpu_test",
+					"cpu_test.zip"));
+		}
+		if (OPENWHISK_DEPLOY) {
+			matrix.addDeployer((variantName, memory) -> FunctionCommandExecutor.deployOnOpenWhisk(
+					variantName,
+					OpenWhiskCommandUtility.PYTHON_3_RUNTIME,
+					"ow_handler",
+					30,
+					memory,
+					"/Users/francescomarino/IdeaProjects/ServerlessFlowBench" +
+							"/serverless_functions/openwhisk/python/basic_test_composition/cpu_test",
+					"cpu_test.zip"));
+		}
+
+		BenchmarkCommandExecutor benchmarker = new BenchmarkCommandExecutor(MAX_TOTAL_CONCURRENCY);
+		benchmarker.setColdStartBurstSize(COLD_START_BURST_SIZE);
+		benchmarker.setWarmUpCurveLength(WARM_UP_CURVE_LENGTH);
+		matrix.perform(
+				benchmarker,
+				CONCURRENCY,
+				THREAD_NUMBER,
+				LoadProfile.constant(REQUESTS_PER_SECOND, BENCHMARK_DURATION_SECONDS),
+				SLEEP_INTERVAL_MILLISECONDS,
+				REQUEST_TIMEOUT_MILLISECONDS,
+				ITERATIONS,
+				IGNORED_COLD_START_VALUES,
+				WARM_START_AVG_WIDTH);
+	}
+
+	/**
+	 * Migrates results persisted with one measurement for each function to the tag based schema
+	 */
+	private static void influxMigrationPerform() {
+
+		InfluxMigration migration = new InfluxMigration(
+				MIGRATION_CHUNK_MILLISECONDS,
+				MIGRATION_THREADS,
+				MIGRATION_DROP_OLD_MEASUREMENTS);
+		migration.migrate();
+	}
+
+	/**
+	 * Analyzes samples of ANALYSIS_FUNCTIONS captured by every run
+	 */
+	private static void analysisPerform() {
+
+		BenchmarkAnalyzer analyzer = new BenchmarkAnalyzer(
+				SAMPLES_DIRECTORY,
+				BOOTSTRAP_RESAMPLES,
+				CONFIDENCE_LEVEL,
+				SIGNIFICANCE_LEVEL);
+		for (String functionName : ANALYSIS_FUNCTIONS) {
+			analyzer.analyze(functionName, ANALYSIS_REPORT_DIRECTORY);
+		}
 	}
 
 	/**
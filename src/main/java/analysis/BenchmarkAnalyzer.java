@@ -0,0 +1,307 @@
+package analysis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Offline analysis of the raw samples stored by every run of a function: latency statistics with bootstrap
+ * confidence intervals, provider against provider Mann-Whitney tests and provider rankings for each runtime.
+ * Groups, statistics and resamples are evaluated in parallel on the common fork/join pool.
+ */
+public class BenchmarkAnalyzer {
+
+	// smallest p-value the normal approximation reports reliably
+	private static final double MIN_P_VALUE = 1e-16;
+
+	/**
+	 * Analysis parameters
+	 */
+	private final String samplesDirectory;
+	private final int resamples;
+	private final double confidence;
+	private final double significance;
+
+
+	/**
+	 * Default constructor
+	 * @param samplesDirectory root directory of sample files
+	 * @param resamples number of bootstrap resamples
+	 * @param confidence confidence level of intervals, in (0, 1)
+	 * @param significance family-wise significance level of provider comparisons, in (0, 1)
+	 */
+	public BenchmarkAnalyzer(String samplesDirectory, int resamples, double confidence, double significance) {
+		this.samplesDirectory = samplesDirectory;
+		this.resamples = resamples;
+		this.confidence = confidence;
+		this.significance = significance;
+	}
+
+	/**
+	 * Analyzes a function, the report is printed and written to [reportDirectory]/[function].md
+	 * @param functionName common name (without runtime) of the function
+	 * @param reportDirectory directory reports are written to
+	 * @return true if the report has been written, false elsewhere
+	 */
+	public boolean analyze(String functionName, String reportDirectory) {
+
+		String report = buildReport(functionName);
+		if (report == null) {
+			return false;
+		}
+		System.out.println(report);
+
+		Path path = Paths.get(reportDirectory, functionName + ".md");
+		try {
+			Files.createDirectories(path.getParent());
+			Files.write(path, report.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			System.err.println("Could not write analysis report '" + path + "': " + e.getMessage());
+			return false;
+		}
+		System.out.println("\u001B[32m" + "Analysis report written to: " + path + "\u001B[0m");
+		return true;
+	}
+
+	/**
+	 * Builds the analysis report of a function
+	 * @param functionName common name (without runtime) of the function
+	 * @return report in Markdown, null if the analysis could not be performed
+	 */
+	public String buildReport(String functionName) {
+
+		if (resamples <= 0 || confidence <= 0 || confidence >= 1 || significance <= 0 || significance >= 1) {
+			System.err.println("Could not analyze '" + functionName + "': resamples must be greater than 0, " +
+					"confidence and significance levels must be between 0 and 1");
+			return null;
+		}
+
+		long start = System.currentTimeMillis();
+		List<SampleGroup> groups = SampleLoader.load(samplesDirectory, functionName);
+		if (groups == null) {
+			return null;
+		}
+		groups.removeIf(group -> group.getLatencies().length == 0);
+		if (groups.isEmpty()) {
+			System.err.println("Could not analyze '" + functionName + "': no successful sample found");
+			return null;
+		}
+
+		// confidence intervals of every statistic of every group
+		Map<SampleGroup, Map<Statistic, ConfidenceInterval>> intervals = groups.parallelStream()
+				.collect(Collectors.toMap(group -> group,
+						group -> ConfidenceInterval.bootstrap(group.getLatencies(), resamples, confidence)));
+
+		// providers compared within each runtime
+		Map<String, List<SampleGroup>> byRuntime = new LinkedHashMap<>();
+		for (SampleGroup group : groups) {
+			byRuntime.computeIfAbsent(group.getRuntime(), key -> new ArrayList<>()).add(group);
+		}
+		List<SampleGroup[]> pairs = new ArrayList<>();
+		for (List<SampleGroup> runtimeGroups : byRuntime.values()) {
+			runtimeGroups.sort(Comparator.comparingDouble(group ->
+					intervals.get(group).get(Statistic.MEDIAN).getEstimate()));
+			for (int i = 0; i < runtimeGroups.size(); i++) {
+				for (int j = i + 1; j < runtimeGroups.size(); j++) {
+					pairs.add(new SampleGroup[]{runtimeGroups.get(i), runtimeGroups.get(j)});
+				}
+			}
+		}
+		List<MannWhitneyTest> tests = pairs.parallelStream()
+				.map(pair -> MannWhitneyTest.compareSorted(pair[0].getLatencies(), pair[1].getLatencies()))
+				.collect(Collectors.toList());
+		// Bonferroni correction over every comparison
+		double alpha = pairs.isEmpty() ? significance : significance / pairs.size();
+
+		StringBuilder report = new StringBuilder();
+		appendSummary(report, functionName, groups, System.currentTimeMillis() - start);
+		appendStatistics(report, groups, intervals);
+		appendRankings(report, byRuntime, pairs, tests, intervals, alpha);
+		appendComparisons(report, pairs, tests, alpha);
+		return report.toString();
+	}
+
+	/**
+	 * Appends the report title and the analyzed data amount
+	 * @param report report to fill
+	 * @param functionName common name (without runtime) of the function
+	 * @param groups sample groups
+	 * @param elapsedMs analysis time in milliseconds
+	 */
+	private static void appendSummary(StringBuilder report, String functionName, List<SampleGroup> groups,
+									  long elapsedMs) {
+		Set<String> runs = new HashSet<>();
+		long samples = 0;
+		long failures = 0;
+		for (SampleGroup group : groups) {
+			runs.addAll(group.getRuns());
+			samples += group.getLatencies().length;
+			failures += group.getFailures();
+		}
+		report.append("# ").append(functionName).append(" benchmark analysis\n\n")
+				.append("Runs: ").append(runs.size())
+				.append(", successful samples: ").append(samples)
+				.append(", failed requests: ").append(failures)
+				.append(", analysis time: ").append(elapsedMs).append(" ms\n\n");
+	}
+
+	/**
+	 * Appends latency statistics of every group
+	 * @param report report to fill
+	 * @param groups sample groups
+	 * @param intervals confidence intervals of every group
+	 */
+	private void appendStatistics(StringBuilder report, List<SampleGroup> groups,
+								  Map<SampleGroup, Map<Statistic, ConfidenceInterval>> intervals) {
+		report.append("## Latency (ms, ").append(format(confidence * 100, 0))
+				.append("% bootstrap confidence intervals)\n\n")
+				.append("| runtime | provider | runs | samples | failed |");
+		for (Statistic statistic : Statistic.values()) {
+			report.append(" ").append(statistic.getLabel()).append(" |");
+		}
+		report.append("\n|---|---|---|---|---|");
+		for (int i = 0; i < Statistic.values().length; i++) {
+			report.append("---|");
+		}
+		report.append("\n");
+
+		for (SampleGroup group : groups) {
+			report.append("| ").append(group.getRuntime())
+					.append(" | ").append(group.getProvider())
+					.append(" | ").append(group.getRuns().size())
+					.append(" | ").append(group.getLatencies().length)
+					.append(" | ").append(group.getFailures()).append(" |");
+			for (Statistic statistic : Statistic.values()) {
+				report.append(" ").append(format(intervals.get(group).get(statistic))).append(" |");
+			}
+			report.append("\n");
+		}
+		report.append("\n");
+	}
+
+	/**
+	 * Appends provider rankings by median latency for each runtime, providers not significantly different from the
+	 * previous one share its rank
+	 * @param report report to fill
+	 * @param byRuntime sample groups of each runtime, sorted by median latency
+	 * @param pairs compared groups
+	 * @param tests comparison results, same order as pairs
+	 * @param intervals confidence intervals of every group
+	 * @param alpha corrected significance level
+	 */
+	private static void appendRankings(StringBuilder report, Map<String, List<SampleGroup>> byRuntime,
+									   List<SampleGroup[]> pairs, List<MannWhitneyTest> tests,
+									   Map<SampleGroup, Map<Statistic, ConfidenceInterval>> intervals, double alpha) {
+		report.append("## Rankings by runtime (median latency)\n\n");
+		for (Map.Entry<String, List<SampleGroup>> runtime : byRuntime.entrySet()) {
+			report.append("### ").append(runtime.getKey()).append("\n\n")
+					.append("| rank | provider | median (ms) |\n|---|---|---|\n");
+			int rank = 0;
+			SampleGroup previous = null;
+			for (int i = 0; i < runtime.getValue().size(); i++) {
+				SampleGroup group = runtime.getValue().get(i);
+				boolean tied = previous != null && !isSignificant(pairs, tests, previous, group, alpha);
+				if (!tied) {
+					rank = i + 1;
+				}
+				report.append("| ").append(rank).append(tied ? "=" : "")
+						.append(" | ").append(group.getProvider())
+						.append(" | ").append(format(intervals.get(group).get(Statistic.MEDIAN))).append(" |\n");
+				previous = group;
+			}
+			report.append("\n");
+		}
+	}
+
+	/**
+	 * Appends provider against provider tests
+	 * @param report report to fill
+	 * @param pairs compared groups
+	 * @param tests comparison results, same order as pairs
+	 * @param alpha corrected significance level
+	 */
+	private static void appendComparisons(StringBuilder report, List<SampleGroup[]> pairs,
+										  List<MannWhitneyTest> tests, double alpha) {
+		if (pairs.isEmpty()) {
+			return;
+		}
+		report.append("## Provider comparisons (Mann-Whitney U, Bonferroni corrected alpha = ")
+				.append(String.format(Locale.ROOT, "%.2g", alpha)).append(")\n\n")
+				.append("| runtime | faster | slower | p-value | P(slower > faster) | significant |\n")
+				.append("|---|---|---|---|---|---|\n");
+		for (int i = 0; i < pairs.size(); i++) {
+			MannWhitneyTest test = tests.get(i);
+			report.append("| ").append(pairs.get(i)[0].getRuntime())
+					.append(" | ").append(pairs.get(i)[0].getProvider())
+					.append(" | ").append(pairs.get(i)[1].getProvider())
+					.append(" | ").append(formatPValue(test.getPValue()))
+					// the first sample is the faster one: its superiority is the probability of being slower
+					.append(" | ").append(format(1 - test.getSuperiority(), 3))
+					.append(" | ").append(test.getPValue() < alpha ? "yes" : "no").append(" |\n");
+		}
+		report.append("\n");
+	}
+
+	/**
+	 * Tells whether two groups are significantly different
+	 * @param pairs compared groups
+	 * @param tests comparison results, same order as pairs
+	 * @param first first group
+	 * @param second second group
+	 * @param alpha corrected significance level
+	 * @return true if the difference is significant, false elsewhere
+	 */
+	private static boolean isSignificant(List<SampleGroup[]> pairs, List<MannWhitneyTest> tests, SampleGroup first,
+										 SampleGroup second, double alpha) {
+		for (int i = 0; i < pairs.size(); i++) {
+			SampleGroup[] pair = pairs.get(i);
+			if ((pair[0] == first && pair[1] == second) || (pair[0] == second && pair[1] == first)) {
+				return tests.get(i).getPValue() < alpha;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Formats a confidence interval in milliseconds
+	 * @param interval interval of a statistic in microseconds
+	 * @return formatted interval
+	 */
+	private static String format(ConfidenceInterval interval) {
+		return format(interval.getEstimate() / 1000, 2) + " [" + format(interval.getLower() / 1000, 2) + ", " +
+				format(interval.getUpper() / 1000, 2) + "]";
+	}
+
+	/**
+	 * Formats a p-value, tiny values in scientific notation
+	 * @param pValue p-value
+	 * @return formatted p-value
+	 */
+	private static String formatPValue(double pValue) {
+		if (pValue < MIN_P_VALUE) {
+			return "< " + String.format(Locale.ROOT, "%.0e", MIN_P_VALUE);
+		}
+		return String.format(Locale.ROOT, pValue < 0.001 ? "%.2e" : "%.3f", pValue);
+	}
+
+	/**
+	 * Formats a number
+	 * @param value number
+	 * @param decimals number of decimal digits
+	 * @return formatted number
+	 */
+	private static String format(double value, int decimals) {
+		return String.format(Locale.ROOT, "%." + decimals + "f", value);
+	}
+}
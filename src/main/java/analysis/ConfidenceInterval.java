@@ -0,0 +1,160 @@
+package analysis;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Percentile bootstrap confidence interval of a statistic.
+ * Samples are first reduced to a histogram with the same precision used by the load generator, resamples are then
+ * drawn through the Poisson bootstrap (every bucket count is replaced by a Poisson draw with the same mean): the cost
+ * of a resample depends on the number of buckets, not on the number of samples, and resamples are drawn in parallel.
+ */
+public class ConfidenceInterval {
+
+	// histogram precision (significant decimal digits)
+	private static final int HISTOGRAM_PRECISION = 3;
+	// counts above this value are drawn through the normal approximation of the Poisson distribution
+	private static final long NORMAL_APPROXIMATION_COUNT = 30;
+	// fixed seed, reports of the same data are reproducible
+	private static final long SEED = 0x5EEDL;
+
+	private final Statistic statistic;
+	private final double estimate;
+	private final double lower;
+	private final double upper;
+	private final double confidence;
+
+
+	/**
+	 * Default constructor
+	 * @param statistic estimated statistic
+	 * @param estimate statistic value on the whole sample
+	 * @param lower interval lower bound
+	 * @param upper interval upper bound
+	 * @param confidence confidence level
+	 */
+	private ConfidenceInterval(Statistic statistic, double estimate, double lower, double upper, double confidence) {
+		this.statistic = statistic;
+		this.estimate = estimate;
+		this.lower = lower;
+		this.upper = upper;
+		this.confidence = confidence;
+	}
+
+	/**
+	 * Computes bootstrap confidence intervals of every statistic, sharing the same resamples
+	 * @param values sample values (non negative), not modified
+	 * @param resamples number of bootstrap resamples
+	 * @param confidence confidence level in (0, 1)
+	 * @return confidence intervals by statistic, null if there are no values
+	 */
+	public static Map<Statistic, ConfidenceInterval> bootstrap(long[] values, int resamples, double confidence) {
+
+		if (values.length == 0 || resamples <= 0) {
+			return null;
+		}
+
+		// distinct (bucket) values and their counts
+		Histogram histogram = new Histogram(HISTOGRAM_PRECISION);
+		for (long value : values) {
+			histogram.recordValue(Math.max(0, value));
+		}
+		int buckets = 0;
+		long[] bucketValues = new long[16];
+		long[] bucketCounts = new long[16];
+		for (HistogramIterationValue value : histogram.recordedValues()) {
+			if (buckets == bucketValues.length) {
+				bucketValues = Arrays.copyOf(bucketValues, buckets * 2);
+				bucketCounts = Arrays.copyOf(bucketCounts, buckets * 2);
+			}
+			bucketValues[buckets] = histogram.highestEquivalentValue(value.getValueIteratedTo());
+			bucketCounts[buckets] = value.getCountAtValueIteratedTo();
+			buckets++;
+		}
+		long[] distinct = Arrays.copyOf(bucketValues, buckets);
+		long[] counts = Arrays.copyOf(bucketCounts, buckets);
+		Statistic[] statistics = Statistic.values();
+
+		// one row of statistic values for each resample
+		double[][] replicates = IntStream.range(0, resamples).parallel().mapToObj(i -> {
+			SplittableRandom random = new SplittableRandom(SEED + i);
+			long[] resampled = new long[counts.length];
+			long total = 0;
+			for (int j = 0; j < counts.length; j++) {
+				resampled[j] = poisson(random, counts[j]);
+				total += resampled[j];
+			}
+			double[] row = new double[statistics.length];
+			for (int s = 0; s < statistics.length; s++) {
+				row[s] = (total == 0) ? Double.NaN : statistics[s].evaluate(distinct, resampled, total);
+			}
+			return row;
+		}).toArray(double[][]::new);
+
+		Map<Statistic, ConfidenceInterval> intervals = new EnumMap<>(Statistic.class);
+		double alpha = 1 - confidence;
+		for (int s = 0; s < statistics.length; s++) {
+			int column = s;
+			double[] sorted = Arrays.stream(replicates)
+					.mapToDouble(row -> row[column])
+					.filter(value -> !Double.isNaN(value))
+					.sorted()
+					.toArray();
+			double estimate = statistics[s].evaluate(distinct, counts, values.length);
+			double lower = sorted[(int) Math.floor(alpha / 2 * (sorted.length - 1))];
+			double upper = sorted[(int) Math.ceil((1 - alpha / 2) * (sorted.length - 1))];
+			intervals.put(statistics[s], new ConfidenceInterval(statistics[s], estimate, lower, upper, confidence));
+		}
+		return intervals;
+	}
+
+	/**
+	 * Draws a Poisson distributed count
+	 * @param random random generator
+	 * @param mean distribution mean
+	 * @return drawn count
+	 */
+	private static long poisson(SplittableRandom random, long mean) {
+		if (mean > NORMAL_APPROXIMATION_COUNT) {
+			// Box-Muller standard normal draw
+			double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) *
+					Math.cos(2 * Math.PI * random.nextDouble());
+			return Math.max(0, Math.round(mean + Math.sqrt(mean) * gaussian));
+		}
+		// Knuth's multiplication method
+		double limit = Math.exp(-mean);
+		double product = random.nextDouble();
+		long count = 0;
+		while (product > limit) {
+			count++;
+			product *= random.nextDouble();
+		}
+		return count;
+	}
+
+	public Statistic getStatistic() {
+		return statistic;
+	}
+
+	public double getEstimate() {
+		return estimate;
+	}
+
+	public double getLower() {
+		return lower;
+	}
+
+	public double getUpper() {
+		return upper;
+	}
+
+	public double getConfidence() {
+		return confidence;
+	}
+}
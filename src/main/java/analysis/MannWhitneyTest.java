@@ -0,0 +1,133 @@
+package analysis;
+
+import java.util.Arrays;
+
+/**
+ * Mann-Whitney U test between two latency samples (normal approximation with tie correction, two-sided).
+ * Ranks are computed merging the sorted samples, so that the test takes O(n log n) even over millions of samples.
+ */
+public class MannWhitneyTest {
+
+	private final double u;
+	private final double z;
+	private final double pValue;
+	// probability that a value of the first sample is greater than one of the second (ties count one half)
+	private final double superiority;
+
+
+	/**
+	 * Default constructor
+	 * @param u U statistic of the first sample
+	 * @param z standardized U statistic
+	 * @param pValue two-sided p-value
+	 * @param superiority probability of superiority of the first sample
+	 */
+	private MannWhitneyTest(double u, double z, double pValue, double superiority) {
+		this.u = u;
+		this.z = z;
+		this.pValue = pValue;
+		this.superiority = superiority;
+	}
+
+	/**
+	 * Performs the test
+	 * @param first first sample, not modified
+	 * @param second second sample, not modified
+	 * @return test result, null if a sample is empty
+	 */
+	public static MannWhitneyTest compare(long[] first, long[] second) {
+
+		if (first.length == 0 || second.length == 0) {
+			return null;
+		}
+
+		long[] a = first.clone();
+		long[] b = second.clone();
+		Arrays.parallelSort(a);
+		Arrays.parallelSort(b);
+		return compareSorted(a, b);
+	}
+
+	/**
+	 * Performs the test on samples already sorted in ascending order, avoiding copies
+	 * @param a first sample, sorted
+	 * @param b second sample, sorted
+	 * @return test result, null if a sample is empty
+	 */
+	public static MannWhitneyTest compareSorted(long[] a, long[] b) {
+
+		if (a.length == 0 || b.length == 0) {
+			return null;
+		}
+
+		double n1 = a.length;
+		double n2 = b.length;
+		double n = n1 + n2;
+
+		// rank sum of the first sample, tied values get the average of their ranks
+		double rankSum = 0;
+		double tieTerm = 0;
+		double rank = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length || j < b.length) {
+			long value = (j == b.length || (i < a.length && a[i] <= b[j])) ? a[i] : b[j];
+			long countA = 0;
+			while (i < a.length && a[i] == value) {
+				countA++;
+				i++;
+			}
+			long countB = 0;
+			while (j < b.length && b[j] == value) {
+				countB++;
+				j++;
+			}
+			double ties = countA + countB;
+			rankSum += countA * (rank + (ties + 1) / 2);
+			tieTerm += ties * ties * ties - ties;
+			rank += ties;
+		}
+
+		double u = rankSum - n1 * (n1 + 1) / 2;
+		double mean = n1 * n2 / 2;
+		double variance = n1 * n2 / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+		if (variance <= 0) {
+			// every value is the same
+			return new MannWhitneyTest(u, 0, 1, 0.5);
+		}
+		// continuity correction
+		double difference = Math.abs(u - mean) - 0.5;
+		double z = Math.signum(u - mean) * Math.max(0, difference) / Math.sqrt(variance);
+		double pValue = Math.min(1, erfc(Math.abs(z) / Math.sqrt(2)));
+		return new MannWhitneyTest(u, z, pValue, u / (n1 * n2));
+	}
+
+	/**
+	 * Complementary error function (Chebyshev approximation, fractional error below 1.2e-7)
+	 * @param x argument
+	 * @return erfc(x)
+	 */
+	private static double erfc(double x) {
+		double t = 1 / (1 + 0.5 * Math.abs(x));
+		double y = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418 +
+				t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 +
+				t * (-0.82215223 + t * 0.17087277)))))))));
+		return x >= 0 ? y : 2 - y;
+	}
+
+	public double getU() {
+		return u;
+	}
+
+	public double getZ() {
+		return z;
+	}
+
+	public double getPValue() {
+		return pValue;
+	}
+
+	public double getSuperiority() {
+		return superiority;
+	}
+}
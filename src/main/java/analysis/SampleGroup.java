@@ -0,0 +1,55 @@
+package analysis;
+
+import java.util.Set;
+
+/**
+ * Latency samples of a function on a runtime and provider, collected from every stored run
+ */
+public class SampleGroup {
+
+	private final String runtime;
+	private final String provider;
+	// identifiers of the runs samples come from
+	private final Set<String> runs;
+	// latencies of successful requests in microseconds, ascending
+	private final long[] latencies;
+	// timed out requests and non 2xx/3xx responses
+	private final long failures;
+
+
+	/**
+	 * Default constructor
+	 * @param runtime runtime name
+	 * @param provider provider name
+	 * @param runs identifiers of the runs samples come from
+	 * @param latencies latencies of successful requests in microseconds, sorted in ascending order
+	 * @param failures number of failed requests
+	 */
+	SampleGroup(String runtime, String provider, Set<String> runs, long[] latencies, long failures) {
+		this.runtime = runtime;
+		this.provider = provider;
+		this.runs = runs;
+		this.latencies = latencies;
+		this.failures = failures;
+	}
+
+	public String getRuntime() {
+		return runtime;
+	}
+
+	public String getProvider() {
+		return provider;
+	}
+
+	public Set<String> getRuns() {
+		return runs;
+	}
+
+	public long[] getLatencies() {
+		return latencies;
+	}
+
+	public long getFailures() {
+		return failures;
+	}
+}
@@ -0,0 +1,171 @@
+package analysis;
+
+import cmd.CommandUtility;
+import cmd.benchmark_commands.sample_capture.SampleCapture;
+import cmd.benchmark_commands.sample_capture.SampleReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads the samples of a function from every run stored in a sample capture directory, files are decoded in
+ * parallel
+ */
+public class SampleLoader {
+
+	/**
+	 * Loads samples of a function grouped by runtime and provider
+	 * @param directory root directory of sample files
+	 * @param functionName common name (without runtime) of the function
+	 * @return sample groups (latencies sorted), sorted by runtime and provider, null if samples could not be read
+	 */
+	public static List<SampleGroup> load(String directory, String functionName) {
+
+		List<Path> files;
+		try (Stream<Path> paths = Files.walk(Paths.get(directory), 2)) {
+			files = paths.filter(path -> parseName(path, functionName) != null).collect(Collectors.toList());
+		} catch (IOException e) {
+			System.err.println("Could not list samples in '" + directory + "': " + e.getMessage());
+			return null;
+		}
+
+		List<FileSamples> loaded;
+		try {
+			loaded = files.parallelStream()
+					.map(path -> readFile(path, parseName(path, functionName)))
+					.collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			System.err.println("Could not read samples: " + e.getCause().getMessage());
+			return null;
+		}
+
+		// files of the same runtime and provider are joined
+		Map<String, List<FileSamples>> byTarget = loaded.stream()
+				.sorted((first, second) -> first.getKey().compareTo(second.getKey()))
+				.collect(Collectors.groupingBy(FileSamples::getKey, LinkedHashMap::new, Collectors.toList()));
+
+		List<SampleGroup> groups = new ArrayList<>();
+		for (List<FileSamples> parts : byTarget.values()) {
+			int total = parts.stream().mapToInt(part -> part.latencies.length).sum();
+			long[] latencies = new long[total];
+			int offset = 0;
+			long failures = 0;
+			Set<String> runs = new HashSet<>();
+			for (FileSamples part : parts) {
+				System.arraycopy(part.latencies, 0, latencies, offset, part.latencies.length);
+				offset += part.latencies.length;
+				failures += part.failures;
+				runs.add(part.runId);
+			}
+			Arrays.parallelSort(latencies);
+			groups.add(new SampleGroup(parts.get(0).runtime, parts.get(0).provider, runs, latencies, failures));
+		}
+		return groups;
+	}
+
+	/**
+	 * Parses a sample file path built by SampleCapture ([run id]/[function]__[runtime]_[provider]_[millis].samples)
+	 * @param path sample file path
+	 * @param functionName common name (without runtime) of the function
+	 * @return run identifier, runtime and provider, null if the file does not belong to the function
+	 */
+	private static String[] parseName(Path path, String functionName) {
+		String fileName = path.getFileName().toString();
+		if (!fileName.endsWith(SampleCapture.EXTENSION) || path.getParent() == null ||
+				path.getParent().getFileName() == null) {
+			return null;
+		}
+		String name = fileName.substring(0, fileName.length() - SampleCapture.EXTENSION.length());
+		int millisStart = name.lastIndexOf('_');
+		if (millisStart <= 0) {
+			return null;
+		}
+		int providerStart = name.lastIndexOf('_', millisStart - 1);
+		String prefix = functionName + CommandUtility.getRuntimeSep();
+		if (providerStart <= prefix.length() || !name.startsWith(prefix)) {
+			return null;
+		}
+		String runtime = name.substring(prefix.length(), providerStart);
+		if (runtime.contains(CommandUtility.getRuntimeSep())) {
+			return null;
+		}
+		String provider = name.substring(providerStart + 1, millisStart);
+		return new String[]{path.getParent().getFileName().toString(), runtime, provider};
+	}
+
+	/**
+	 * Decodes a sample file
+	 * @param path sample file path
+	 * @param info run identifier, runtime and provider
+	 * @return decoded samples
+	 * @throws UncheckedIOException if the file can not be read
+	 */
+	private static FileSamples readFile(Path path, String[] info) {
+		try {
+			SampleReader reader = SampleReader.open(path);
+			long[] latencies = new long[reader.getCount()];
+			int size = 0;
+			long failures = 0;
+			while (reader.next()) {
+				int status = reader.getStatusCode();
+				if (status >= 200 && status < 400) {
+					latencies[size++] = reader.getLatencyMicros();
+				} else {
+					failures++;
+				}
+			}
+			return new FileSamples(info[0], info[1], info[2], Arrays.copyOf(latencies, size), failures);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Samples of a single file
+	 */
+	private static class FileSamples {
+
+		private final String runId;
+		private final String runtime;
+		private final String provider;
+		private final long[] latencies;
+		private final long failures;
+
+
+		/**
+		 * Default constructor
+		 * @param runId run identifier
+		 * @param runtime runtime name
+		 * @param provider provider name
+		 * @param latencies latencies of successful requests in microseconds
+		 * @param failures number of failed requests
+		 */
+		private FileSamples(String runId, String runtime, String provider, long[] latencies, long failures) {
+			this.runId = runId;
+			this.runtime = runtime;
+			this.provider = provider;
+			this.latencies = latencies;
+			this.failures = failures;
+		}
+
+		/**
+		 * Key of the group the samples belong to
+		 * @return runtime and provider
+		 */
+		private String getKey() {
+			return runtime + "\t" + provider;
+		}
+	}
+}
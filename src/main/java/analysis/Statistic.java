@@ -0,0 +1,57 @@
+package analysis;
+
+/**
+ * Latency statistics supported by the analysis, evaluated on weighted distributions (distinct values and counts)
+ */
+public enum Statistic {
+
+	MEAN("mean", -1),
+	MEDIAN("median", 0.5),
+	P90("p90", 0.9),
+	P99("p99", 0.99);
+
+	private final String label;
+	// percentile level, negative for the mean
+	private final double quantile;
+
+
+	/**
+	 * Default constructor
+	 * @param label statistic name used in reports
+	 * @param quantile percentile level in (0, 1], negative for the mean
+	 */
+	Statistic(String label, double quantile) {
+		this.label = label;
+		this.quantile = quantile;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Evaluates the statistic, percentiles use the nearest-rank definition
+	 * @param values distinct values in ascending order
+	 * @param counts number of occurrences of each value
+	 * @param total sum of counts, greater than 0
+	 * @return statistic value
+	 */
+	public double evaluate(long[] values, long[] counts, long total) {
+		if (quantile < 0) {
+			double sum = 0;
+			for (int i = 0; i < values.length; i++) {
+				sum += (double) values[i] * counts[i];
+			}
+			return sum / total;
+		}
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long cumulative = 0;
+		for (int i = 0; i < values.length; i++) {
+			cumulative += counts[i];
+			if (cumulative >= rank) {
+				return values[i];
+			}
+		}
+		return values[values.length - 1];
+	}
+}
@@ -0,0 +1,491 @@
+package cmd;
+
+import cmd.docker_daemon_utility.DockerEngineClient;
+import cmd.docker_daemon_utility.DockerException;
+import cmd.docker_daemon_utility.DockerExecutor;
+import cmd.functionality_commands.GoogleCommandUtility;
+import cmd.functionality_commands.output_parsing.ReplyCollector;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pool of long-lived CLI containers: commands that would start a new container of a CLI image ("docker run --rm -i")
+ * are rewritten to be executed through "docker exec" in an already running container of the same image, started with
+ * the same options. Volumes attached to the external data folder change from command to command, so their content is
+ * copied in a folder of the container reserved to the command and paths in the command are changed accordingly, the
+ * folder is removed when the command exits.
+ * Containers are health checked before use and recycled after a maximum number of commands or a maximum age.
+ * The pool lock is held only to choose a container: containers are started, checked and filled outside of it, so
+ * commands executed by different threads are rewritten concurrently.
+ */
+public class CliContainerPool extends CommandExecutor {
+
+	/**
+	 * Rewritten commands preamble
+	 */
+	private static final String RUN_PREAMBLE = "docker" + CommandUtility.SEP + "run" + CommandUtility.SEP + "--rm" +
+			CommandUtility.SEP + "-i" + CommandUtility.SEP;
+	private static final String EXEC_PREAMBLE = "docker" + CommandUtility.SEP + "exec" + CommandUtility.SEP + "-i";
+
+	// "docker run" options followed by an argument
+	private static final Set<String> OPTIONS_WITH_ARGUMENT = new HashSet<>(Arrays.asList("-v", "--volume",
+			"--volumes-from", "-e", "--env", "-w", "--workdir", "--network", "-u", "--user"));
+	// volume specification: host path, container path and optional mode
+	private static final Pattern VOLUME = Pattern.compile("^(.+?):(/[^:]*)(:(ro|rw))?$");
+	// strings of an entrypoint JSON array
+	private static final Pattern JSON_STRING = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+	// container folder commands data are copied in
+	private static final String WORKSPACES_DIR = "/tmp/cli-pool";
+	// time in seconds removal of a recycled container is delayed of, to let running commands complete
+	private static final long RETIREMENT_DELAY_SECONDS = 15 * 60;
+
+	/**
+	 * Pool parameters
+	 */
+	// CLI images whose commands are executed in the pool
+	private final Set<String> images;
+	private final int containersPerImage;
+	private final int maxCommands;
+	private final long maxAgeMs;
+	private final long healthCheckIntervalMs;
+
+	/**
+	 * Pool status
+	 */
+	// running or starting containers, by image and options they were started with
+	private final Map<String, List<CompletableFuture<PooledContainer>>> containers;
+	// round robin position, by image and options
+	private final Map<String, Integer> nextContainer;
+	// every container started and not removed yet, removed at shutdown
+	private final Set<String> startedIds;
+	// commands counter, used to name workspaces
+	private long workspaceCounter;
+	// delayed removal of recycled containers
+	private final ScheduledExecutorService retirementExecutor;
+
+
+	/**
+	 * A running CLI container
+	 */
+	private static class PooledContainer {
+		// container identifier
+		private final String id;
+		// image entrypoint, prepended to executed commands
+		private final String entrypoint;
+		private final long startMillis;
+		// guarded by the pool
+		private long lastCheckMillis;
+		private int commands;
+
+		PooledContainer(String id, String entrypoint) {
+			this.id = id;
+			this.entrypoint = entrypoint;
+			this.startMillis = System.currentTimeMillis();
+			this.lastCheckMillis = startMillis;
+			this.commands = 0;
+		}
+	}
+
+	/**
+	 * Default constructor, containers are stopped when the application exits
+	 * @param images CLI images whose commands are executed in the pool
+	 * @param containersPerImage number of containers started for each image and options, commands are distributed
+	 *                           round robin (commands can run concurrently in the same container)
+	 * @param maxCommands number of commands after which a container is recycled
+	 * @param maxAgeMs time in milliseconds after which a container is recycled
+	 * @param healthCheckIntervalMs minimum time in milliseconds between two checks of the same container
+	 */
+	public CliContainerPool(List<String> images, int containersPerImage, int maxCommands, long maxAgeMs,
+							long healthCheckIntervalMs) {
+		this.images = new HashSet<>(images);
+		this.containersPerImage = Math.max(1, containersPerImage);
+		this.maxCommands = maxCommands;
+		this.maxAgeMs = maxAgeMs;
+		this.healthCheckIntervalMs = healthCheckIntervalMs;
+		this.containers = new HashMap<>();
+		this.nextContainer = new HashMap<>();
+		this.startedIds = new HashSet<>();
+		this.workspaceCounter = 0;
+		this.retirementExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cli-pool-retirement");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+	}
+
+	/**
+	 * Rewrites a command to be executed in a pooled container
+	 * @param command command to execute
+	 * @return "docker exec" command, the original command if it does not start a CLI container or if no container
+	 * is available
+	 */
+	public String rewrite(String command) {
+
+		if (!command.startsWith(RUN_PREAMBLE)) {
+			return command;
+		}
+
+		// options up to the image, then the CLI command
+		List<String> options = new ArrayList<>();
+		List<String[]> dataVolumes = new ArrayList<>();
+		int position = RUN_PREAMBLE.length();
+		String image = null;
+		while (image == null) {
+			int end = command.indexOf(CommandUtility.SEP, position);
+			String token = command.substring(position, (end == -1) ? command.length() : end);
+			position = (end == -1) ? command.length() : end + CommandUtility.SEP.length();
+			if (!token.startsWith("-")) {
+				image = token;
+			} else if (OPTIONS_WITH_ARGUMENT.contains(token)) {
+				end = command.indexOf(CommandUtility.SEP, position);
+				if (end == -1) {
+					return command;
+				}
+				String argument = command.substring(position, end);
+				position = end + CommandUtility.SEP.length();
+				Matcher volume = VOLUME.matcher(argument);
+				if ((token.equals("-v") || token.equals("--volume")) && volume.matches() &&
+						volume.group(2).startsWith(CommandUtility.FUNCTIONALITIES_DIR)) {
+					dataVolumes.add(new String[]{volume.group(1), volume.group(2)});
+				} else {
+					options.add(token + CommandUtility.SEP + argument);
+				}
+			} else if (token.contains("=")) {
+				options.add(token);
+			} else {
+				// unknown option, the command can not be safely rewritten
+				return command;
+			}
+		}
+		// workspace removal needs a POSIX shell quoting on the host
+		if (!images.contains(image) || (!dataVolumes.isEmpty() && GoogleCommandUtility.isWindows())) {
+			return command;
+		}
+		String cli = command.substring(position);
+
+		PooledContainer container = null;
+		String workspace = null;
+		try {
+			container = lease(image, String.join(CommandUtility.SEP, options));
+			String execPrefix = EXEC_PREAMBLE + CommandUtility.SEP + container.id + CommandUtility.SEP;
+			String containerCommand = (container.entrypoint.isEmpty() ? "" :
+					container.entrypoint + CommandUtility.SEP) + cli;
+			if (dataVolumes.isEmpty()) {
+				return execPrefix + containerCommand;
+			}
+
+			// external data are copied in the command workspace
+			synchronized (this) {
+				workspace = WORKSPACES_DIR + "/" + (++workspaceCounter);
+			}
+			Set<String> parents = new HashSet<>();
+			for (String[] volume : dataVolumes) {
+				parents.add((workspace + volume[1]).substring(0, (workspace + volume[1]).lastIndexOf('/')));
+			}
+			if (!commandSilentExecution("docker exec " + container.id + " mkdir -p " +
+					String.join(CommandUtility.SEP, parents))) {
+				throw new IOException("could not create workspace");
+			}
+			for (String[] volume : dataVolumes) {
+				if (!commandSilentExecution("docker cp \"" + volume[0] + "\" " + container.id + ":" + workspace +
+						volume[1])) {
+					throw new IOException("could not copy '" + volume[0] + "'");
+				}
+				containerCommand = containerCommand.replace(volume[1], workspace + volume[1]);
+			}
+
+			// the workspace is removed when the command exits, keeping its exit code
+			return execPrefix + "sh -c " + quote(containerCommand + "; rc=$?; rm -rf " + workspace + "; exit $rc");
+
+		} catch (IOException | InterruptedException | ExecutionException e) {
+			if (container != null && workspace != null) {
+				try {
+					commandSilentExecution("docker exec " + container.id + " rm -rf " + workspace);
+				} catch (IOException | InterruptedException ignored) {
+					// removed with the container
+				}
+			}
+			System.err.println("WARNING:\tCould not use a pooled " + image + " container, starting a new one: " +
+					e.getMessage());
+			return command;
+		}
+	}
+
+	/**
+	 * Quotes a string as a single POSIX shell word
+	 * @param value string to quote
+	 * @return quoted string
+	 */
+	private static String quote(String value) {
+		return "'" + value.replace("'", "'\\''") + "'";
+	}
+
+	/**
+	 * Chooses a running container and counts the command, starting, checking and recycling containers as needed.
+	 * The pool lock is held only to choose the container slot: containers are started and checked outside of it,
+	 * a container being started by another thread is waited for
+	 * @param image CLI image
+	 * @param options options the container has to be started with
+	 * @return running container
+	 * @throws IOException if a container can not be started
+	 * @throws InterruptedException if process execution is interrupted
+	 * @throws ExecutionException if process output can not be collected
+	 */
+	private PooledContainer lease(String image, String options) throws IOException, InterruptedException,
+			ExecutionException {
+
+		String key = image + CommandUtility.SEP + options;
+		CompletableFuture<PooledContainer> slot;
+		// true if the container of the slot has to be started by this thread
+		boolean owner = false;
+		PooledContainer toCheck = null;
+
+		synchronized (this) {
+			List<CompletableFuture<PooledContainer>> pool = containers.computeIfAbsent(key, k -> new ArrayList<>());
+			if (pool.size() < containersPerImage) {
+				slot = new CompletableFuture<>();
+				pool.add(slot);
+				owner = true;
+			} else {
+				int index = nextContainer.getOrDefault(key, 0) % pool.size();
+				nextContainer.put(key, index + 1);
+				slot = pool.get(index);
+				// slots whose container is still starting are waited for
+				if (slot.isDone()) {
+					PooledContainer container = slot.join();
+					long now = System.currentTimeMillis();
+					if (container.commands >= maxCommands || now - container.startMillis >= maxAgeMs) {
+						// commands may still be running in the container
+						retire(container.id, RETIREMENT_DELAY_SECONDS);
+						slot = new CompletableFuture<>();
+						pool.set(index, slot);
+						owner = true;
+					} else if (now - container.lastCheckMillis >= healthCheckIntervalMs) {
+						container.lastCheckMillis = now;
+						toCheck = container;
+					}
+				}
+			}
+		}
+
+		if (toCheck != null && !isRunning(toCheck.id)) {
+			synchronized (this) {
+				List<CompletableFuture<PooledContainer>> pool = containers.get(key);
+				int index = (pool == null) ? -1 : pool.indexOf(slot);
+				if (index != -1) {
+					retire(toCheck.id, 0);
+					slot = new CompletableFuture<>();
+					pool.set(index, slot);
+					owner = true;
+				}
+			}
+			if (!owner) {
+				// already replaced by another thread
+				return lease(image, options);
+			}
+		}
+
+		if (owner) {
+			try {
+				slot.complete(start(image, options));
+			} catch (IOException | InterruptedException | ExecutionException | RuntimeException e) {
+				// failed slots are removed, so the next command tries again
+				synchronized (this) {
+					List<CompletableFuture<PooledContainer>> pool = containers.get(key);
+					if (pool != null) {
+						pool.remove(slot);
+					}
+				}
+				slot.completeExceptionally(e);
+				throw e;
+			}
+		}
+
+		PooledContainer container;
+		try {
+			container = slot.get();
+		} catch (ExecutionException e) {
+			throw new IOException("could not start container: " + e.getCause().getMessage());
+		}
+		synchronized (this) {
+			container.commands++;
+		}
+		return container;
+	}
+
+	/**
+	 * Starts an idle container, kept running until it is removed
+	 * @param image CLI image
+	 * @param options options the container has to be started with
+	 * @return started container
+	 * @throws IOException if the container can not be started
+	 * @throws InterruptedException if process execution is interrupted
+	 * @throws ExecutionException if process output can not be collected
+	 */
+	private PooledContainer start(String image, String options) throws IOException, InterruptedException,
+			ExecutionException {
+
+		// commands have to be prefixed with the entrypoint overridden to keep the container idle
+		List<String> entrypointParts = new ArrayList<>();
+		for (String value : getEntrypoint(image)) {
+			entrypointParts.add(value.contains(CommandUtility.SEP) ? "\"" + value + "\"" : value);
+		}
+
+		String id = output("docker run -d --rm --entrypoint tail" + CommandUtility.SEP +
+				(options.isEmpty() ? "" : options + CommandUtility.SEP) + image + CommandUtility.SEP +
+				"-f /dev/null");
+		if (id == null || id.isEmpty()) {
+			throw new IOException("could not start container");
+		}
+		synchronized (this) {
+			startedIds.add(id);
+		}
+		return new PooledContainer(id, String.join(CommandUtility.SEP, entrypointParts));
+	}
+
+	/**
+	 * Finds the entrypoint of an image
+	 * @param image CLI image
+	 * @return entrypoint parts, empty if the image has no entrypoint
+	 * @throws IOException if the image can not be inspected
+	 * @throws InterruptedException if process execution is interrupted
+	 * @throws ExecutionException if process output can not be collected
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<String> getEntrypoint(String image) throws IOException, InterruptedException,
+			ExecutionException {
+
+		List<String> parts = new ArrayList<>();
+		DockerEngineClient engine = DockerExecutor.getEngine();
+		if (engine != null) {
+			try {
+				Map<String, Object> details = engine.inspectImage(image);
+				if (details == null) {
+					throw new IOException("no such image");
+				}
+				Map<String, Object> config = (Map<String, Object>) details.get("Config");
+				if (config != null && config.get("Entrypoint") != null) {
+					for (Object part : (List<Object>) config.get("Entrypoint")) {
+						parts.add((String) part);
+					}
+				}
+				return parts;
+			} catch (DockerException e) {
+				throw new IOException(e.getMessage());
+			}
+		}
+
+		String entrypoint = output("docker image inspect -f \"{{json .Config.Entrypoint}}\" " + image);
+		if (entrypoint == null) {
+			throw new IOException("could not inspect image");
+		}
+		Matcher part = JSON_STRING.matcher(entrypoint);
+		while (part.find()) {
+			parts.add(part.group(1).replace("\\\"", "\"").replace("\\\\", "\\"));
+		}
+		return parts;
+	}
+
+	/**
+	 * Checks a container is running
+	 * @param id container identifier
+	 * @return true if running, false elsewhere
+	 * @throws IOException if the container can not be inspected
+	 * @throws InterruptedException if process execution is interrupted
+	 * @throws ExecutionException if process output can not be collected
+	 */
+	@SuppressWarnings("unchecked")
+	private static boolean isRunning(String id) throws IOException, InterruptedException, ExecutionException {
+
+		DockerEngineClient engine = DockerExecutor.getEngine();
+		if (engine != null) {
+			try {
+				Map<String, Object> details = engine.inspectContainer(id);
+				return details != null && details.get("State") != null &&
+						Boolean.TRUE.equals(((Map<String, Object>) details.get("State")).get("Running"));
+			} catch (DockerException e) {
+				throw new IOException(e.getMessage());
+			}
+		}
+		return "true".equals(output("docker inspect -f {{.State.Running}} " + id));
+	}
+
+	/**
+	 * Removes a container
+	 * @param id container identifier
+	 * @param delaySeconds delay in seconds before removal
+	 */
+	private void retire(String id, long delaySeconds) {
+		retirementExecutor.schedule(() -> {
+			try {
+				commandSilentExecution("docker rm -f " + id);
+			} catch (IOException | InterruptedException ignored) {
+				// removed at shutdown
+				return;
+			}
+			synchronized (this) {
+				startedIds.remove(id);
+			}
+		}, delaySeconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Removes every container started by the pool
+	 */
+	public synchronized void shutdown() {
+		retirementExecutor.shutdownNow();
+		if (startedIds.isEmpty()) {
+			return;
+		}
+		try {
+			commandSilentExecution("docker rm -f " + String.join(CommandUtility.SEP, startedIds));
+		} catch (IOException | InterruptedException e) {
+			System.err.println("WARNING:\tCould not remove CLI containers: " + String.join(", ", startedIds));
+		}
+		startedIds.clear();
+		containers.clear();
+	}
+
+	/**
+	 * Executes a command collecting its standard output
+	 * @param command command to execute
+	 * @return standard output without newlines, null if the command failed
+	 * @throws IOException process start related problems
+	 * @throws InterruptedException process execution related problems
+	 * @throws ExecutionException if output can not be collected
+	 */
+	private static String output(String command) throws IOException, InterruptedException, ExecutionException {
+
+		ExecutorService executorServiceOut = Executors.newSingleThreadExecutor();
+		try {
+			ReplyCollector collector = new ReplyCollector();
+			Process process = buildCommand(command).start();
+			Future<?> outputGobbler = executorServiceOut.submit(new StreamGobbler(process.getInputStream(),
+					collector::collectResult));
+			int exitCode = process.waitFor();
+			outputGobbler.get();
+			process.destroy();
+			return (exitCode == 0) ? collector.getResult().trim() : null;
+		} finally {
+			executorServiceOut.shutdown();
+		}
+	}
+}
@@ -13,6 +13,17 @@ import java.nio.file.Path;
  */
 public abstract class CommandExecutor {
 
+	// pool of CLI containers commands are executed in, null if every command starts its own container
+	private static volatile CliContainerPool cliContainerPool = null;
+
+	/**
+	 * Enables execution of CLI commands in long-lived containers
+	 * @param pool pool of CLI containers, null to start a new container for each command
+	 */
+	public static void setCliContainerPool(CliContainerPool pool) {
+		cliContainerPool = pool;
+	}
+
 	/**
 	 * Builds a command differently basing on Docker on Windows OS or Docker on UNIX systems
 	 * @param cmd string containing the command to execute
@@ -21,6 +32,12 @@ public abstract class CommandExecutor {
 	protected static ProcessBuilder buildCommand(String cmd) {
 		ProcessBuilder builder = new ProcessBuilder();
 
+		// CLI containers are reused if possible
+		CliContainerPool pool = cliContainerPool;
+		if (pool != null) {
+			cmd = pool.rewrite(cmd);
+		}
+
 		// define command
 		if (GoogleCommandUtility.isWindows()) {
 			builder.command("cmd.exe", "/c", cmd);
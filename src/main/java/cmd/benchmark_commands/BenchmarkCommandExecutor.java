@@ -1,11 +1,33 @@
 package cmd.benchmark_commands;
 
 import cmd.CommandExecutor;
+import cmd.CommandUtility;
 import cmd.docker_daemon_utility.DockerException;
 import cmd.docker_daemon_utility.DockerExecutor;
 import cmd.StreamGobbler;
-import cmd.benchmark_commands.output_parsing.BenchmarkCollector;
+import cmd.benchmark_commands.keep_alive.KeepAliveEstimate;
+import cmd.benchmark_commands.keep_alive.KeepAliveEstimator;
+import cmd.benchmark_commands.keep_alive.KeepAliveSearch;
+import cmd.benchmark_commands.latency_probe.BurstColdStart;
+import cmd.benchmark_commands.latency_probe.ColdStartCost;
+import cmd.benchmark_commands.latency_probe.HttpProbe;
+import cmd.benchmark_commands.latency_probe.LatencyEstimate;
+import cmd.benchmark_commands.latency_probe.PhaseTimings;
+import cmd.benchmark_commands.latency_probe.WarmLatencyEstimator;
+import cmd.benchmark_commands.latency_probe.WarmUpCurve;
+import cmd.benchmark_commands.load_generation.HttpParseException;
+import cmd.benchmark_commands.load_generation.LoadGenerator;
+import cmd.benchmark_commands.load_generation.LoadPhase;
+import cmd.benchmark_commands.load_generation.LoadProfile;
+import cmd.benchmark_commands.load_generation.RequestTemplate;
 import cmd.benchmark_commands.output_parsing.BenchmarkStats;
+import cmd.benchmark_commands.output_parsing.OutputParser;
+import cmd.benchmark_commands.sample_capture.SampleCapture;
+import cmd.benchmark_commands.scheduling.BenchmarkJournal;
+import cmd.benchmark_commands.scheduling.BenchmarkScheduler;
+import cmd.benchmark_commands.scheduling.ChainState;
+import cmd.benchmark_commands.throughput_search.SustainableThroughput;
+import cmd.benchmark_commands.throughput_search.ThroughputSearch;
 import com.google.api.client.http.HttpStatusCodes;
 import com.sun.istack.internal.NotNull;
 import databases.influx.InfluxClient;
@@ -17,11 +39,15 @@ import jline.internal.Nullable;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.Future;
 
 /**
  * Utility for benchmarks execution.
@@ -40,123 +66,444 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 	private static final Integer DEFAULT_IGNORED_COLD_START_VALUES = 5;
 	private static final Integer DEFAULT_WARM_START_AVG_WIDTH = 5;
 
+	/**
+	 * Warm latency estimation stopping rule: confidence interval half width relative to the estimate (or absolute in
+	 * milliseconds) and maximum number of samples relative to the minimum one
+	 */
+	private static final double WARM_LATENCY_RELATIVE_PRECISION = 0.05;
+	private static final double WARM_LATENCY_ABSOLUTE_PRECISION_MS = 1;
+	private static final int WARM_LATENCY_MAX_SAMPLES_FACTOR = 4;
+
+	/**
+	 * Warm-up curve steady state: maximum median latency gap of warmed up requests relative to the final ones
+	 */
+	private static final double WARM_UP_STEADY_STATE_TOLERANCE = 0.1;
+
 	/**
 	 * Maximum time needed for HTTP API execution default value
 	 */
 	private static final int TIMEOUT_REQUEST_INTERVAL_MS = 30 * 60 * 1000;
 
 	/**
-	 * Semaphores
+	 * Maximum number of attempts for a single throughput search load test
 	 */
-	private final Semaphore coldStartSem;
-	private final Semaphore benchmarkSem;
+	private static final int THROUGHPUT_TRIAL_ATTEMPTS = 3;
 
 	/**
 	 * Concurrency info
 	 */
+	private final int maxColdStartConcurrency;
+	private final int maxLoadBenchmarkConcurrency;
+	private final boolean sharedConcurrency;
 	private final int minConcurrencyLevel;
 
+	// keep-alive window estimation parameters, null if sleep interval is fixed
+	private KeepAliveSearch keepAliveSearch;
+	// number of simultaneous requests in cold start tests
+	private int coldStartBurstSize = 1;
+	// number of requests following the cold request recorded in order, 0 if warm-up curves are not recorded
+	private int warmUpCurveLength = 0;
+	// journal used to resume interrupted benchmarks, null if benchmarks are not journaled
+	private BenchmarkJournal journal;
+	// location of raw per-request samples of load tests, null if samples are not captured
+	private SampleCapture sampleCapture;
+
 
 	/**
-	 * Constructor, initializes maximum concurrency levels with specified values
-	 * @param maxColdStartConcurrency maximum concurrent cold start test amount
-	 * @param maxLoadBenchmarkConcurrency maximum concurrent load test amount
+	 * Constructor, initializes maximum concurrency levels with specified values: cold start tests are limited on each
+	 * provider, while load tests share a single budget across every provider (the client host is the bottleneck)
+	 * @param maxColdStartConcurrency maximum concurrent cold start test amount on each provider
+	 * @param maxLoadBenchmarkConcurrency maximum concurrent load test amount across every provider
 	 */
 	public BenchmarkCommandExecutor(int maxColdStartConcurrency, int maxLoadBenchmarkConcurrency) {
-		coldStartSem = new Semaphore(maxColdStartConcurrency, true);
-		benchmarkSem = new Semaphore(maxLoadBenchmarkConcurrency, true);
+		this.maxColdStartConcurrency = maxColdStartConcurrency;
+		this.maxLoadBenchmarkConcurrency = maxLoadBenchmarkConcurrency;
+		sharedConcurrency = false;
 		minConcurrencyLevel = Math.min(maxColdStartConcurrency, maxLoadBenchmarkConcurrency);
 	}
 
 	/**
-	 * Constructor, initializes maximum concurrency levels with specified value independent from the type of test
-	 * @param maxConcurrency maximum concurrent load test amount
+	 * Constructor, initializes maximum concurrency levels with specified value independent from the type of test:
+	 * each provider runs at most maxConcurrency tests, load tests at most maxConcurrency across every provider
+	 * @param maxConcurrency maximum concurrent test amount on each provider, also maximum concurrent load test amount
+	 *                       across every provider
 	 */
 	public BenchmarkCommandExecutor(int maxConcurrency) {
-		Semaphore uniqueSem = new Semaphore(maxConcurrency, true);
-		coldStartSem = uniqueSem;
-		benchmarkSem = uniqueSem;
+		maxColdStartConcurrency = maxConcurrency;
+		maxLoadBenchmarkConcurrency = maxConcurrency;
+		sharedConcurrency = true;
 		minConcurrencyLevel = maxConcurrency;
 	}
 
 	/**
-	 * Perform a load benchmark through wrk2
+	 * Enables sleep interval calibration: before its first cold start test every functionality estimates the
+	 * keep-alive window of its provider instances and waits only as long as needed to have a cold start. The sleep
+	 * interval given to benchmarks is used when no instance recycling is observed.
+	 * @param keepAliveSearch estimation parameters, null to always use the given sleep interval
+	 */
+	public void setKeepAliveSearch(@Nullable KeepAliveSearch keepAliveSearch) {
+		this.keepAliveSearch = keepAliveSearch;
+	}
+
+	/**
+	 * Enables burst cold start tests: after the idle interval, burstSize requests are released at the same moment
+	 * to measure how the provider scales out from zero instances
+	 * @param burstSize number of simultaneous requests, 1 for single request cold start tests
+	 */
+	public void setColdStartBurstSize(int burstSize) {
+		this.coldStartBurstSize = burstSize;
+	}
+
+	/**
+	 * Enables warm-up curve recording: server side latencies of the cold request and of the following ones are
+	 * recorded in order, and their percentile bands by request index are aggregated across iterations and persisted
+	 * after every cold start test. Burst cold start tests do not record warm-up curves.
+	 * @param length number of requests following the cold request to record, 0 to disable recording
+	 */
+	public void setWarmUpCurveLength(int length) {
+		this.warmUpCurveLength = length;
+	}
+
+	/**
+	 * Enables benchmark journaling: completed measurements and scheduled steps are recorded, so that benchmarks can
+	 * be resumed after a crash. A journal opened through BenchmarkJournal.resume makes benchmarks start where the
+	 * previous run stopped, provided the same parameters are used.
+	 * @param journal benchmark journal, null to disable journaling
+	 */
+	public void setJournal(@Nullable BenchmarkJournal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Enables raw sample capture: every request of load tests (send time, latency, status code and response size)
+	 * is written to a sample file, one for each load test, that can be replayed offline through SampleReader.
+	 * Samples are captured by the in-process load generator only.
+	 * @param sampleCapture sample files location, null to disable capture
+	 */
+	public void setSampleCapture(@Nullable SampleCapture sampleCapture) {
+		this.sampleCapture = sampleCapture;
+	}
+
+	/**
+	 * Perform a constant rate load benchmark
 	 * @param url url to test
 	 * @param concurrency number of HTTP open connections
 	 * @param threads number of threads
 	 * @param seconds test duration
 	 * @param requestsPerSecond number of requests per second
-	 * @return benchmark result as BenchmarkStats
+	 * @return benchmark result as BenchmarkStats, null if benchmark failed
 	 */
 	private static BenchmarkStats performBenchmark(String url, Integer concurrency, Integer threads, Integer seconds,
-										Integer requestsPerSecond) {
+												   Integer requestsPerSecond) {
+		List<BenchmarkStats> results = performBenchmark(url, concurrency, threads,
+				LoadProfile.constant(requestsPerSecond, seconds));
+		return (results == null) ? null : results.get(0);
+	}
+
+	/**
+	 * Perform a load benchmark through the in-process load generator (or wrk2 if selected in configuration)
+	 * @param url url to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param profile load profile
+	 * @return benchmark results as BenchmarkStats, one for each load phase, null if benchmark failed
+	 */
+	private static List<BenchmarkStats> performBenchmark(String url, Integer concurrency, Integer threads,
+														 LoadProfile profile) {
+		return performBenchmark(url, concurrency, threads, profile, null);
+	}
+
+	/**
+	 * Perform a load benchmark through the in-process load generator (or wrk2 if selected in configuration) with
+	 * requests generated from a payload template
+	 * @param url url to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param profile load profile
+	 * @param template request payload template, null for plain GET requests
+	 * @return benchmark results as BenchmarkStats, one for each load phase, null if benchmark failed
+	 */
+	private static List<BenchmarkStats> performBenchmark(String url, Integer concurrency, Integer threads,
+														 LoadProfile profile, RequestTemplate template) {
+		return performBenchmark(url, concurrency, threads, profile, template, null);
+	}
+
+	/**
+	 * Perform a load benchmark through the in-process load generator (or wrk2 if selected in configuration)
+	 * recording every request in a sample file
+	 * @param url url to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param profile load profile
+	 * @param template request payload template, null for plain GET requests
+	 * @param samplePath file raw samples are written to, null if samples are not captured
+	 * @return benchmark results as BenchmarkStats, one for each load phase, null if benchmark failed
+	 */
+	private static List<BenchmarkStats> performBenchmark(String url, Integer concurrency, Integer threads,
+														 LoadProfile profile, RequestTemplate template,
+														 @Nullable Path samplePath) {
+
+		LoadTool tool = BenchmarkCommandUtility.getSelectedTool();
+		if (tool == null) {
+			return LoadGenerator.performLoadTest(url, concurrency, threads, profile, template, samplePath);
+		}
+
+		if (samplePath != null) {
+			System.err.println("WARNING: " + tool.getName() + " does not report single requests, samples not captured");
+		}
+
+		// external tools send the same GET request every time: template is resolved once into the url
+		if (template != null) {
+			if (!template.isStatic() || template.hasBody()) {
+				System.err.println("WARNING: " + tool.getName() + " does not support request generation, template " +
+						"resolved once and body ignored");
+			}
+			url = template.resolveUrl(url);
+		}
+
+		if (!tool.supportsRate()) {
+			System.err.println("WARNING: " + tool.getName() + " does not support rates, requests sent as fast as " +
+					"possible");
+		}
+
+		// external tools support constant rates only: each phase is run separately at its average rate
+		List<BenchmarkStats> results = new ArrayList<>();
+		List<LoadPhase> phases = profile.getPhases();
+		for (int i = 0; i < phases.size(); i++) {
+			LoadPhase phase = phases.get(i);
+			if (tool.supportsRate() && phase.getStartRequestsPerSecond() != phase.getEndRequestsPerSecond()) {
+				System.err.println("WARNING: " + tool.getName() + " does not support ramps, phase " + i +
+						" performed at average rate");
+			}
+			int requestsPerSecond = (int) Math.round(phase.getAverageRequestsPerSecond());
+			BenchmarkStats stats = performToolBenchmark(tool, url, concurrency, threads, phase.getSeconds(),
+					requestsPerSecond);
+			if (stats == null) {
+				return null;
+			}
+			if (tool.supportsRate()) {
+				stats.setOfferedThroughput((double) requestsPerSecond);
+			}
+			if (phases.size() > 1) {
+				stats.setPhase(i);
+			}
+			results.add(stats);
+		}
+		return results;
+	}
+
+	/**
+	 * Perform a load benchmark through an external load generator
+	 * @param tool load generator
+	 * @param url url to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param seconds test duration
+	 * @param requestsPerSecond number of requests per second
+	 * @return benchmark result as BenchmarkStats
+	 */
+	private static BenchmarkStats performToolBenchmark(LoadTool tool, String url, Integer concurrency,
+													   Integer threads, Integer seconds, Integer requestsPerSecond) {
 
 		try {
-			BenchmarkCollector collector = new BenchmarkCollector();
-			String cmd = BenchmarkCommandUtility.buildBenchmarkCommand(url, concurrency, threads, seconds,
+			OutputParser parser = tool.newParser();
+			String cmd = BenchmarkCommandUtility.buildBenchmarkCommand(tool, url, concurrency, threads, seconds,
+					requestsPerSecond);
+			String script = BenchmarkCommandUtility.buildBenchmarkScript(tool, url, concurrency, seconds,
 					requestsPerSecond);
 
 			Process process = buildCommand(cmd).start();
 
-			StreamGobbler outputGobbler = new StreamGobbler(process.getInputStream(), collector::parseAndCollect);
+			StreamGobbler outputGobbler = new StreamGobbler(process.getInputStream(), parser::parseLine);
 			ExecutorService executorService = Executors.newSingleThreadExecutor();
-			executorService.submit(outputGobbler);
+			Future<?> output = executorService.submit(outputGobbler);
+
+			// script (if any) passed through the standard input
+			try (OutputStream input = process.getOutputStream()) {
+				if (script != null) {
+					input.write(script.getBytes(StandardCharsets.UTF_8));
+				}
+			}
 
 			if (process.waitFor() != 0) {
 				System.err.println("Could not perform benchmark!");
+				executorService.shutdown();
 				return null;
 			}
 
+			// every line has to be parsed before collecting the result
+			output.get();
 			process.destroy();
 			executorService.shutdown();
 
-			return collector.getResult();
+			return parser.getResult();
 
-		} catch (InterruptedException | IOException e) {
+		} catch (InterruptedException | IOException | ExecutionException e) {
 			System.err.println("Could not perform benchmark: " + e.getMessage());
 			return null;
 		}
 	}
 
 	/**
-	 * Evaluate latency gap between cold and warm start
+	 * Evaluate server side latency gap between cold and warm start: client network setup (DNS resolution, TCP
+	 * connection and TLS handshake) is excluded from both measurements
 	 * @param targetUrl url to test
 	 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs
 	 * @param ignoredValues number of request to ignore due to cold start management inconsistency
-	 * @param avgAmount number of warm start to perform to evaluate the average warm latency
-	 * @return gap in milliseconds
+	 * @param avgAmount minimum number of warm start to perform to evaluate the warm latency
+	 * @param warmUpLength number of requests following the cold one whose latency is recorded in order, 0 to not
+	 *                     record the warm-up sequence
+	 * @return gap in milliseconds with cold request phase timings, warm latency estimate and warm-up sequence, null
+	 * if evaluation failed
 	 */
-	private static double measureColdStartCost(String targetUrl, Integer timeoutRequestMs, int ignoredValues,
-											   int avgAmount) {
+	private static ColdStartCost measureColdStartCost(String targetUrl, Integer timeoutRequestMs, int ignoredValues,
+													  int avgAmount, int warmUpLength) {
 
-		long coldStartLatency;
-		long warmLatency;
+		PhaseTimings coldStartTimings;
 		// measure cold start latency
 		do {
-			coldStartLatency = measureHttpLatency(targetUrl, timeoutRequestMs);
-		} while (coldStartLatency == -2);
-		if (coldStartLatency < 0) {
-			return -1;
+			coldStartTimings = probeHttpLatency(targetUrl, timeoutRequestMs);
+		} while (coldStartTimings != null && coldStartTimings.needsRetry());
+		if (coldStartTimings == null || !coldStartTimings.isSuccessful()) {
+			return null;
 		}
-		ArrayList<Long> latencies = new ArrayList<>();
-		// measure average warm start latency excluding first n requests to be sure of cold start to not occur again
-		for (int i = 0; i < avgAmount; i++) {
+		// warm requests are recorded after the cold one
+		double[] warmUpSequence = null;
+		if (warmUpLength > 0) {
+			warmUpSequence = new double[warmUpLength + 1];
+			warmUpSequence[0] = coldStartTimings.getServerSideMs();
+		}
+		LatencyEstimate warmLatency = measureWarmLatency(targetUrl, timeoutRequestMs, ignoredValues, avgAmount,
+				warmUpSequence);
+		if (warmLatency == null) {
+			return null;
+		}
+		double result = coldStartTimings.getServerSideMs() - warmLatency.getValue();
+		// if result is negative cold start didn't occur so cost is 0
+		return new ColdStartCost(result < 0 ? 0 : result, coldStartTimings, warmLatency, warmUpSequence);
+	}
+
+	/**
+	 * Evaluate scale-out from zero instances: burstSize requests are connected in parallel and sent together when
+	 * every connection is ready, then warm latency is evaluated to classify them as cold or warm
+	 * @param targetUrl url to test
+	 * @param burstSize number of simultaneous requests
+	 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs
+	 * @param ignoredValues number of request to ignore due to cold start management inconsistency
+	 * @param avgAmount minimum number of warm start to perform to evaluate the warm latency
+	 * @return burst latencies with cold start count, null if evaluation failed
+	 */
+	private static BurstColdStart measureBurstColdStart(String targetUrl, int burstSize, Integer timeoutRequestMs,
+														int ignoredValues, int avgAmount) {
+
+		ExecutorService executorService = Executors.newFixedThreadPool(burstSize);
+		CyclicBarrier startBarrier = new CyclicBarrier(burstSize);
+		List<Future<PhaseTimings>> requests = new ArrayList<>();
+		List<PhaseTimings> timings = new ArrayList<>();
+		try {
+			for (int i = 0; i < burstSize; i++) {
+				requests.add(executorService.submit(() -> HttpProbe.probe(targetUrl, timeoutRequestMs,
+						startBarrier)));
+			}
+			for (Future<PhaseTimings> request : requests) {
+				try {
+					PhaseTimings result = request.get();
+					if (result.isSuccessful()) {
+						timings.add(result);
+					}
+				} catch (ExecutionException e) {
+					// counted as failure
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		if (timings.isEmpty()) {
+			System.err.println("Could not perform burst cold start: every request failed");
+			return null;
+		}
+
+		LatencyEstimate warmLatency = measureWarmLatency(targetUrl, timeoutRequestMs, ignoredValues, avgAmount);
+		if (warmLatency == null) {
+			return null;
+		}
+		return new BurstColdStart(burstSize, timings, warmLatency, ColdStartCost.DEFAULT_MIN_COLD_START_GAP_MS);
+	}
+
+	/**
+	 * Evaluate server side warm latency: requests are performed until the estimate confidence interval is narrow
+	 * enough (at least avgAmount requests, at most WARM_LATENCY_MAX_SAMPLES_FACTOR times the measured ones)
+	 * @param targetUrl url to test
+	 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs
+	 * @param ignoredValues number of request to ignore due to cold start management inconsistency
+	 * @param avgAmount minimum number of warm start to perform to evaluate the warm latency
+	 * @return latency estimate in milliseconds, null if evaluation failed
+	 */
+	private static LatencyEstimate measureWarmLatency(String targetUrl, Integer timeoutRequestMs, int ignoredValues,
+													  int avgAmount) {
+		return measureWarmLatency(targetUrl, timeoutRequestMs, ignoredValues, avgAmount, null);
+	}
+
+	/**
+	 * Evaluate server side warm latency recording the latency of the first requests in order: requests are performed
+	 * until the estimate is completed and the sequence is filled
+	 * @param targetUrl url to test
+	 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs
+	 * @param ignoredValues number of request to ignore due to cold start management inconsistency
+	 * @param avgAmount minimum number of warm start to perform to evaluate the warm latency
+	 * @param sequence latencies in milliseconds to fill from index 1 (index 0 is left to the cold request), can be
+	 *                 null
+	 * @return latency estimate in milliseconds, null if evaluation failed
+	 */
+	private static LatencyEstimate measureWarmLatency(String targetUrl, Integer timeoutRequestMs, int ignoredValues,
+													  int avgAmount, @Nullable double[] sequence) {
+
+		PhaseTimings warmTimings;
+		int minSamples = avgAmount - ignoredValues;
+		WarmLatencyEstimator estimator = new WarmLatencyEstimator(minSamples,
+				minSamples * WARM_LATENCY_MAX_SAMPLES_FACTOR, WARM_LATENCY_RELATIVE_PRECISION,
+				WARM_LATENCY_ABSOLUTE_PRECISION_MS);
+		// measure warm start latency excluding first n requests to be sure of cold start to not occur again
+		int sequenceLength = (sequence == null) ? 0 : sequence.length - 1;
+		for (int i = 0; i < ignoredValues || !estimator.isCompleted() || i < sequenceLength; i++) {
 			do {
-				warmLatency = measureHttpLatency(targetUrl, timeoutRequestMs);
-			} while (warmLatency < 0);
+				warmTimings = probeHttpLatency(targetUrl, timeoutRequestMs);
+			} while (warmTimings == null || !warmTimings.isSuccessful());
 
-			if (i >= ignoredValues) {
-				latencies.add(warmLatency);
+			if (i < sequenceLength) {
+				sequence[i + 1] = warmTimings.getServerSideMs();
+			}
+			// requests needed only by the sequence do not change the estimate
+			if (i >= ignoredValues && !estimator.isCompleted()) {
+				estimator.add(warmTimings.getServerSideMs());
 			}
 		}
-		// evaluate average
-		double avgWarmLatency = latencies.stream().mapToLong(a -> a).average().orElse(-1);
-		if (avgWarmLatency < 0) {
-			return -1;
+		return estimator.getEstimate();
+	}
+
+	/**
+	 * Measure a single http request latency phase by phase
+	 * @param targetUrl url to test
+	 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs
+	 * @return request phase timings, null if request could not be performed
+	 */
+	private static PhaseTimings probeHttpLatency(String targetUrl, Integer timeoutRequestMs) {
+
+		try {
+			PhaseTimings timings = HttpProbe.probe(targetUrl, timeoutRequestMs);
+			if (!timings.isSuccessful() && !timings.needsRetry()) {
+				System.err.println("Could not perform HTTP request: server returned status code " +
+						timings.getStatusCode());
+			}
+			return timings;
+		} catch (IOException | HttpParseException e) {
+			System.err.println("Could not perform HTTP request: " + e.getMessage());
+			return null;
 		}
-		double result = coldStartLatency - avgWarmLatency;
-		// if result is negative cold start didn't occur so return value is 0
-		return result < 0 ? 0 : result;
 	}
 
 	/**
@@ -234,6 +581,25 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 		return total;
 	}
 
+	/**
+	 * Collects url of some serverless functions and compositions
+	 * @param functionNames common names (without runtime) of functionalities to collect, null to collect every one
+	 * @return list of FunctionalityURL of the selected functionalities
+	 */
+	private static List<FunctionalityURL> extractUrls(@Nullable List<String> functionNames) {
+		if (functionNames == null) {
+			return extractUrls();
+		}
+		List<FunctionalityURL> selected = new ArrayList<>();
+		for (FunctionalityURL url : extractUrls()) {
+			String commonName = url.getName().split(CommandUtility.getRuntimeSep())[0];
+			if (functionNames.contains(commonName)) {
+				selected.add(url);
+			}
+		}
+		return selected;
+	}
+
 	/**
 	 * Deprecated, performs cold start benchmarks
 	 * @param iterations number of test
@@ -312,7 +678,7 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 	}
 
 	/**
-	 * Performs multiple cold start and load benchmarks
+	 * Performs multiple cold start and constant rate load benchmarks
 	 * @param concurrency number of HTTP open connections in load test
 	 * @param threadNum number of threads in load test
 	 * @param seconds load test duration
@@ -329,6 +695,55 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 								  @Nullable Integer sleepIntervalMs, @Nullable Integer timeoutRequestMs,
 								  @Nullable Integer iterations,
 								  @Nullable Integer ignoredColdStartValues, @Nullable Integer warmStartAverageWidth) {
+		if (seconds == null || requestsPerSecond == null) {
+			System.err.println("Could not perform benchmarks: load test duration and requests per second must be " +
+					"specified");
+			return;
+		}
+		performBenchmarks(concurrency, threadNum, LoadProfile.constant(requestsPerSecond, seconds), sleepIntervalMs,
+				timeoutRequestMs, iterations, ignoredColdStartValues, warmStartAverageWidth);
+	}
+
+	/**
+	 * Performs multiple cold start and load benchmarks, load tests follow a load profile
+	 * @param concurrency number of HTTP open connections in load test
+	 * @param threadNum number of threads in load test
+	 * @param profile load profile, every phase produces its own results
+	 * @param sleepIntervalMs interval in milliseconds for functions VM deletion and cold start perform if function is
+	 *                        invoked, if null default value will be used
+	 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs in cold start measurement,
+	 *                         if null default value will be used
+	 * @param iterations number of iterations, if null the test will run indefinitely (continuous monitoring)
+	 * @param ignoredColdStartValues number of request to ignore due to cold start management inconsistency
+	 * @param warmStartAverageWidth number of warm start to perform to evaluate the average warm latency
+	 */
+	public void performBenchmarks(Integer concurrency, Integer threadNum, LoadProfile profile,
+								  @Nullable Integer sleepIntervalMs, @Nullable Integer timeoutRequestMs,
+								  @Nullable Integer iterations,
+								  @Nullable Integer ignoredColdStartValues, @Nullable Integer warmStartAverageWidth) {
+		performBenchmarks(concurrency, threadNum, profile, sleepIntervalMs, timeoutRequestMs, iterations,
+				ignoredColdStartValues, warmStartAverageWidth, null);
+	}
+
+	/**
+	 * Performs multiple cold start and load benchmarks on some functionalities, load tests follow a load profile
+	 * @param concurrency number of HTTP open connections in load test
+	 * @param threadNum number of threads in load test
+	 * @param profile load profile, every phase produces its own results
+	 * @param sleepIntervalMs interval in milliseconds for functions VM deletion and cold start perform if function is
+	 *                        invoked, if null default value will be used
+	 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs in cold start measurement,
+	 *                         if null default value will be used
+	 * @param iterations number of iterations, if null the test will run indefinitely (continuous monitoring)
+	 * @param ignoredColdStartValues number of request to ignore due to cold start management inconsistency
+	 * @param warmStartAverageWidth number of warm start to perform to evaluate the average warm latency
+	 * @param functionNames common names (without runtime) of functionalities to test, null to test every one
+	 */
+	public void performBenchmarks(Integer concurrency, Integer threadNum, LoadProfile profile,
+								  @Nullable Integer sleepIntervalMs, @Nullable Integer timeoutRequestMs,
+								  @Nullable Integer iterations,
+								  @Nullable Integer ignoredColdStartValues, @Nullable Integer warmStartAverageWidth,
+								  @Nullable List<String> functionNames) {
 
 		try {
 			DockerExecutor.checkDocker();
@@ -337,6 +752,12 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 			return;
 		}
 
+		if (profile == null || !profile.isValid()) {
+			System.err.println("Could not perform benchmarks: every load phase must have duration and requests per " +
+					"second greater than 0");
+			return;
+		}
+
 		if (iterations!= null && iterations <= 0) {
 			System.err.println("Could not perform benchmarks: iterations number must be greater than 0");
 			return;
@@ -376,7 +797,18 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 			return;
 		}
 
-		List<FunctionalityURL> total = extractUrls();
+		if (coldStartBurstSize <= 0) {
+			System.err.println("Could not perform benchmarks: cold start burst size must be greater than 0");
+			return;
+		}
+
+		if (keepAliveSearch != null && !keepAliveSearch.isValid()) {
+			System.err.println("Could not perform benchmarks: keep-alive estimation intervals and budget must be " +
+					"greater than 0");
+			return;
+		}
+
+		List<FunctionalityURL> total = extractUrls(functionNames);
 		if (total.isEmpty()) {
 			System.err.println("Could not perform benchmarks: no functionality to test found");
 			return;
@@ -386,40 +818,300 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 				"Starting benchmarks...\nFrom this moment on please make sure no one else is invoking " +
 				"your functions.\n");
 		if (iterations != null) {
-			double durationSeconds = ((sleepIntervalMs/1000.0 + (seconds * total.size() / (double)minConcurrencyLevel))
+			double durationSeconds = ((sleepIntervalMs/1000.0 + (profile.getTotalSeconds() * total.size() /
+					(double)minConcurrencyLevel))
 					* iterations);
 			int durationHours = (int)Math.floor((durationSeconds/60)/60);
 			int durationMinutes = (int)Math.floor(durationSeconds/60 - durationHours*60);
 			System.out.print("Estimated time: approximately " + durationHours + " hour(s) and " +
 					durationMinutes + " minute(s)");
+			if (keepAliveSearch != null) {
+				System.out.print("\nThis is an upper bound: sleep interval will be calibrated on keep-alive windows");
+			}
 		}
 		System.out.println("\u001B[0m" + "\n");
 
-		ArrayList<Thread> threads = new ArrayList<>();
-		BenchmarkRunner runner;
-		Thread t;
+		// each provider has its own lane, with a single shared pool if the same concurrency limit applies to every
+		// type of test
+		BenchmarkScheduler scheduler;
+		if (sharedConcurrency) {
+			scheduler = new BenchmarkScheduler(maxColdStartConcurrency);
+		} else {
+			scheduler = new BenchmarkScheduler(maxColdStartConcurrency, maxLoadBenchmarkConcurrency);
+		}
+		scheduler.start();
 
+		// one independent chain for each functionality on each provider it is deployed on
 		for (FunctionalityURL url : total) {
-			runner = new BenchmarkRunner(url, concurrency, threadNum, seconds, requestsPerSecond,
-					sleepIntervalMs, timeoutRequestMs, iterations, ignoredColdStartValues, warmStartAverageWidth,
-					coldStartSem, benchmarkSem);
-			t = new Thread(runner);
-			threads.add(t);
-			t.start();
+			boolean deployed = false;
+			for (Provider provider : Provider.values()) {
+				if (provider.getUrl(url) != null) {
+					deployed = true;
+					new BenchmarkRunner(url, provider, concurrency, threadNum, profile, sleepIntervalMs,
+							timeoutRequestMs, iterations, ignoredColdStartValues, warmStartAverageWidth,
+							keepAliveSearch, coldStartBurstSize, warmUpCurveLength, journal, sampleCapture,
+							scheduler).start();
+				}
+			}
+			if (!deployed) {
+				System.out.println("No url to test for '" + url.getName() + "'");
+			}
 		}
 
 		System.out.println("Benchmark started in background!");
 
-		for (Thread thread : threads) {
-			try {
-				thread.join();
-			} catch (InterruptedException ignored) {
-			}
+		try {
+			scheduler.awaitCompletion();
+		} catch (InterruptedException ignored) {
+			System.err.println("Benchmark interrupted!");
+			return;
+		} finally {
+			scheduler.shutdown();
 		}
 
 		System.out.println("\u001B[32m" + "Benchmark completed!" + "\u001B[0m");
 	}
 
+	/**
+	 * Searches the maximum sustainable throughput of every functionality on every provider: the highest request rate
+	 * with p99 latency under the objective and error rate under the threshold. Providers are tested in parallel,
+	 * each knee point is persisted.
+	 * Please note: load generation is open-loop, so concurrency has to be high enough for the rates to test.
+	 * @param concurrency number of HTTP open connections in load tests
+	 * @param threadNum number of threads in load tests
+	 * @param trialSeconds duration of each load test of the search
+	 * @param search search parameters (objective and rate interval)
+	 */
+	public void performThroughputSearch(Integer concurrency, Integer threadNum, Integer trialSeconds,
+										ThroughputSearch search) {
+
+		try {
+			DockerExecutor.checkDocker();
+		} catch (DockerException e) {
+			System.err.println("Could not perform throughput search: " + e.getMessage());
+			return;
+		}
+
+		if (trialSeconds == null || trialSeconds <= 0) {
+			System.err.println("Could not perform throughput search: load test duration must be greater than 0");
+			return;
+		}
+
+		if (search == null || !search.isValid()) {
+			System.err.println("Could not perform throughput search: objective and rate interval must be positive, " +
+					"with error rate and achieved ratio in [0, 1]");
+			return;
+		}
+
+		List<FunctionalityURL> total = extractUrls();
+		if (total.isEmpty()) {
+			System.err.println("Could not perform throughput search: no functionality to test found");
+			return;
+		}
+
+		System.out.println("\n" + "\u001B[33m" +
+				"Starting throughput search...\nFrom this moment on please make sure no one else is invoking " +
+				"your functions." + "\u001B[0m" + "\n");
+
+		BenchmarkScheduler scheduler;
+		if (sharedConcurrency) {
+			scheduler = new BenchmarkScheduler(maxColdStartConcurrency);
+		} else {
+			scheduler = new BenchmarkScheduler(maxColdStartConcurrency, maxLoadBenchmarkConcurrency);
+		}
+		scheduler.start();
+
+		for (FunctionalityURL url : total) {
+			for (Provider provider : Provider.values()) {
+				if (provider.getUrl(url) != null) {
+					scheduler.chainStarted();
+					scheduler.schedule(provider, BenchmarkScheduler.TestType.LOAD, 0, () -> {
+						performThroughputSearchStep(url, provider, concurrency, threadNum, trialSeconds, search);
+						scheduler.chainCompleted();
+					});
+				}
+			}
+		}
+
+		try {
+			scheduler.awaitCompletion();
+		} catch (InterruptedException ignored) {
+			System.err.println("Throughput search interrupted!");
+			return;
+		} finally {
+			scheduler.shutdown();
+		}
+
+		System.out.println("\u001B[32m" + "Throughput search completed!" + "\u001B[0m");
+	}
+
+	/**
+	 * Searches and persists the maximum sustainable throughput of a functionality on a single provider
+	 * @param function function url
+	 * @param provider provider to test
+	 * @param concurrency number of HTTP open connections in load tests
+	 * @param threads number of threads in load tests
+	 * @param trialSeconds duration of each load test
+	 * @param search search parameters
+	 */
+	private static void performThroughputSearchStep(FunctionalityURL function, Provider provider,
+													Integer concurrency, Integer threads, Integer trialSeconds,
+													ThroughputSearch search) {
+
+		String name = function.getName() + " on " + provider.getLabel();
+		SustainableThroughput result = search.search(rate -> {
+			BenchmarkStats stats = null;
+			for (int i = 0; i < THROUGHPUT_TRIAL_ATTEMPTS && (stats == null || stats.getAvgLatency() == null); i++) {
+				stats = performBenchmark(provider.getUrl(function), concurrency, threads, trialSeconds, rate);
+			}
+			return (stats == null || stats.getAvgLatency() == null) ? null : stats;
+		}, name);
+
+		if (result == null) {
+			System.err.println("Could not find a sustainable throughput for " + name + ": minimum rate violates " +
+					"the objective or load test failed");
+			return;
+		}
+
+		System.out.println(name + " maximum sustainable throughput = " + result.getRequestsPerSecond() + " req/s" +
+				(result.isUpperBoundReached() ? " (maximum searched rate, knee point is higher)" : "") +
+				" after " + result.getTrials() + " load tests");
+
+		// influx persist
+		if (InfluxClient.insertSustainableThroughput(function.getName(), provider.getName(), result,
+				search.getSloP99Ms(), System.currentTimeMillis())) {
+			System.out.println("\u001B[32m" + "Persisted " + provider.getLabel() + " throughput search for: " +
+					function.getName() + "\u001B[0m");
+		} else {
+			System.err.println("Failed persisting " + provider.getLabel() + " throughput search for "
+					+ function.getName() + ": parameters or connection error");
+		}
+	}
+
+	/**
+	 * Runs the same load test on every functionality across a range of values of a request parameter (e.g. the
+	 * workload size n), giving the scaling curve of latency against input size for each provider and runtime
+	 * @param concurrency number of HTTP open connections
+	 * @param threadNum number of threads
+	 * @param seconds duration of each load test
+	 * @param requestsPerSecond number of requests per second in each load test
+	 * @param template request payload template using the parameter (e.g. "n={n}")
+	 * @param parameterName name of the swept parameter
+	 * @param values values of the parameter, tested in order
+	 * @param functionNames common names (without runtime) of functionalities to test, null to test every one
+	 */
+	public void performInputSizeSweep(Integer concurrency, Integer threadNum, Integer seconds,
+									  Integer requestsPerSecond, RequestTemplate template, String parameterName,
+									  List<Long> values, @Nullable List<String> functionNames) {
+
+		try {
+			DockerExecutor.checkDocker();
+		} catch (DockerException e) {
+			System.err.println("Could not perform input size sweep: " + e.getMessage());
+			return;
+		}
+
+		if (seconds == null || seconds <= 0 || requestsPerSecond == null || requestsPerSecond <= 0) {
+			System.err.println("Could not perform input size sweep: load test duration and requests per second " +
+					"must be greater than 0");
+			return;
+		}
+
+		if (template == null || parameterName == null || values == null || values.isEmpty()) {
+			System.err.println("Could not perform input size sweep: template, parameter name and values must be " +
+					"specified");
+			return;
+		}
+
+		if (!template.withParameter(parameterName, values.get(0)).isComplete()) {
+			System.err.println("Could not perform input size sweep: request template has placeholders without " +
+					"value");
+			return;
+		}
+
+		List<FunctionalityURL> total = extractUrls(functionNames);
+		if (total.isEmpty()) {
+			System.err.println("Could not perform input size sweep: no functionality to test found");
+			return;
+		}
+
+		System.out.println("\n" + "\u001B[33m" +
+				"Starting input size sweep...\nFrom this moment on please make sure no one else is invoking " +
+				"your functions." + "\u001B[0m" + "\n");
+
+		BenchmarkScheduler scheduler;
+		if (sharedConcurrency) {
+			scheduler = new BenchmarkScheduler(maxColdStartConcurrency);
+		} else {
+			scheduler = new BenchmarkScheduler(maxColdStartConcurrency, maxLoadBenchmarkConcurrency);
+		}
+		scheduler.start();
+
+		for (FunctionalityURL url : total) {
+			for (Provider provider : Provider.values()) {
+				if (provider.getUrl(url) != null) {
+					scheduler.chainStarted();
+					scheduler.schedule(provider, BenchmarkScheduler.TestType.LOAD, 0, () -> {
+						performInputSizeSweepStep(url, provider, concurrency, threadNum,
+								LoadProfile.constant(requestsPerSecond, seconds), template, parameterName, values);
+						scheduler.chainCompleted();
+					});
+				}
+			}
+		}
+
+		try {
+			scheduler.awaitCompletion();
+		} catch (InterruptedException ignored) {
+			System.err.println("Input size sweep interrupted!");
+			return;
+		} finally {
+			scheduler.shutdown();
+		}
+
+		System.out.println("\u001B[32m" + "Input size sweep completed!" + "\u001B[0m");
+	}
+
+	/**
+	 * Runs and persists the load tests of an input size sweep on a single provider
+	 * @param function function url
+	 * @param provider provider to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param profile load profile of each test
+	 * @param template request payload template
+	 * @param parameterName name of the swept parameter
+	 * @param values values of the parameter
+	 */
+	private static void performInputSizeSweepStep(FunctionalityURL function, Provider provider,
+												  Integer concurrency, Integer threads, LoadProfile profile,
+												  RequestTemplate template, String parameterName,
+												  List<Long> values) {
+
+		for (Long value : values) {
+			List<BenchmarkStats> results = performBenchmark(provider.getUrl(function), concurrency, threads,
+					profile, template.withParameter(parameterName, value));
+			if (results == null || results.get(0).getAvgLatency() == null) {
+				System.err.println("Could not perform " + provider.getLabel() + " load test for '" +
+						function.getName() + "' with " + parameterName + " = " + value);
+				continue;
+			}
+			BenchmarkStats stats = results.get(0);
+			System.out.println(function.getName() + " avg latency " + provider.getLabel() + " with " +
+					parameterName + " = " + value + ": " + stats.getAvgLatency());
+
+			// influx persist
+			if (InfluxClient.insertInputScalingPoint(function.getName(), provider.getName(), parameterName, value,
+					stats, System.currentTimeMillis())) {
+				System.out.println("\u001B[32m" + "Persisted " + provider.getLabel() + " input size benchmark for: " +
+						function.getName() + "\u001B[0m");
+			} else {
+				System.err.println("Failed persisting " + provider.getLabel() + " input size benchmark for "
+						+ function.getName() + ": parameters or connection error");
+			}
+		}
+	}
+
 	/**
 	 * Deprecated, runnable inner class for multiple load benchmarks performing
 	 */
@@ -548,49 +1240,76 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 	}
 
 	/**
-	 * Runnable inner class for multiple cold start and load benchmarks performing
+	 * Chain of cold start and load benchmark steps for a functionality on a single provider, executed through the
+	 * scheduler lane of the provider. Every sleepMs milliseconds a cold start benchmark is performed and next a load
+	 * test. If keep-alive estimation is enabled, the chain starts with idle interval probes and sleepMs is replaced
+	 * by the estimated one.
 	 */
-	private static class BenchmarkRunner implements Runnable {
+	private static class BenchmarkRunner {
 
 		private final FunctionalityURL function;
+		private final Provider provider;
 		private final Integer concurrency;
 		private final Integer threads;
-		private final Integer seconds;
-		private final Integer requestsPerSecond;
+		private final LoadProfile profile;
 		private final Integer timeoutRequestMs;
-		private final Integer sleepMs;
+		private Integer sleepMs;
 		private Integer iterations;
 		private final Integer ignoredColdStartValues;
 		private final Integer warmStartAverageWidth;
 
-		private final Semaphore coldStartSem;
-		private final Semaphore benchmarkSem;
+		/**
+		 * Keep-alive estimation info
+		 */
+		private final KeepAliveSearch keepAliveSearch;
+		private KeepAliveEstimator keepAliveEstimator;
+		private double warmLatencyMs;
+
+		// number of simultaneous requests in cold start tests
+		private final int burstSize;
+		// latencies following cold starts aggregated across iterations, null if warm-up curve is not recorded
+		private final WarmUpCurve warmUpCurve;
+
+		// journal recording the chain progress, can be null
+		private final BenchmarkJournal journal;
+		// location of load test samples, can be null
+		private final SampleCapture sampleCapture;
+
+		private final BenchmarkScheduler scheduler;
 
 
 		/**
 		 * Default constructor
 		 * @param function function url
+		 * @param provider provider to test
 		 * @param concurrency number of HTTP open connections in load test
 		 * @param threads number of threads in load test
-		 * @param seconds load test duration
-		 * @param requestsPerSecond requests per second in load test
+		 * @param profile load profile
 		 * @param sleepMs time between two cold start benchmark
 		 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs in cold start measurement
 		 * @param iterations number of iterations, can be null and the test will run indefinitely
 		 * @param ignoredColdStartValues number of request to ignore due to cold start management inconsistency
 		 * @param warmStartAverageWidth number of warm start to perform to evaluate the average warm latency
+		 * @param keepAliveSearch keep-alive estimation parameters, null if sleep interval is fixed
+		 * @param burstSize number of simultaneous requests in cold start tests
+		 * @param warmUpCurveLength number of requests following the cold one recorded in order, 0 to disable
+		 * @param journal journal recording the chain progress, null if the chain is not journaled
+		 * @param sampleCapture location of load test samples, null if samples are not captured
+		 * @param scheduler scheduler executing benchmark steps
 		 */
-		public BenchmarkRunner(@NotNull FunctionalityURL function, @NotNull Integer concurrency,
-							   @NotNull Integer threads, @NotNull Integer seconds, @NotNull Integer requestsPerSecond,
-							   @NotNull Integer sleepMs, @NotNull Integer timeoutRequestMs,
-							   @Nullable Integer iterations, @NotNull Integer ignoredColdStartValues,
-							   @NotNull Integer warmStartAverageWidth,
-							   @NotNull Semaphore coldStartSem, @NotNull Semaphore benchmarkSem) {
+		public BenchmarkRunner(@NotNull FunctionalityURL function, @NotNull Provider provider,
+							   @NotNull Integer concurrency, @NotNull Integer threads, @NotNull LoadProfile profile,
+							   @NotNull Integer sleepMs,
+							   @NotNull Integer timeoutRequestMs, @Nullable Integer iterations,
+							   @NotNull Integer ignoredColdStartValues, @NotNull Integer warmStartAverageWidth,
+							   @Nullable KeepAliveSearch keepAliveSearch, int burstSize, int warmUpCurveLength,
+							   @Nullable BenchmarkJournal journal, @Nullable SampleCapture sampleCapture,
+							   @NotNull BenchmarkScheduler scheduler) {
 			this.function = function;
+			this.provider = provider;
 			this.concurrency = concurrency;
 			this.threads = threads;
-			this.seconds = seconds;
-			this.requestsPerSecond = requestsPerSecond;
+			this.profile = profile;
 			this.sleepMs = sleepMs;
 			this.timeoutRequestMs = timeoutRequestMs;
 
@@ -603,235 +1322,332 @@ public class BenchmarkCommandExecutor extends CommandExecutor {
 			this.ignoredColdStartValues = ignoredColdStartValues;
 			this.warmStartAverageWidth = warmStartAverageWidth;
 
-			this.coldStartSem = coldStartSem;
-			this.benchmarkSem = benchmarkSem;
+			this.keepAliveSearch = keepAliveSearch;
+			this.keepAliveEstimator = null;
+			this.burstSize = burstSize;
+			this.warmUpCurve = (warmUpCurveLength > 0) ? new WarmUpCurve(warmUpCurveLength + 1) : null;
+
+			this.journal = journal;
+			this.sampleCapture = sampleCapture;
+			this.scheduler = scheduler;
 		}
 
 		/**
-		 * Sleep to let container deallocating occur
-		 * @throws InterruptedException thread interruption related exception
+		 * Registers the chain and schedules its first iteration, or the step the chain was waiting for if it is
+		 * resumed from a journal
 		 */
-		public void performColdStartWait() throws InterruptedException {
-			Thread.sleep(sleepMs);
+		public void start() {
+			ChainState state = (journal == null) ? null : journal.getState(function.getName(), provider.getName());
+			if (state != null) {
+				if (state.getSleepMs() != null) {
+					sleepMs = state.getSleepMs();
+				}
+				if (iterations != -1) {
+					iterations -= state.getCompletedIterations();
+					if (iterations <= 0) {
+						System.out.println(function.getName() + " on " + provider.getLabel() +
+								" already completed, skipping");
+						return;
+					}
+				}
+			}
+
+			scheduler.chainStarted();
+			if (state != null && state.getNextStep() != null) {
+				resume(state);
+			} else if (keepAliveSearch != null && (state == null || state.getSleepMs() == null)) {
+				scheduler.schedule(provider, BenchmarkScheduler.TestType.COLD_START, 0,
+						this::performKeepAliveWarmUpStep);
+			} else {
+				scheduleIteration();
+			}
 		}
 
 		/**
-		 * Every sleepMs milliseconds a cold start benchmark is performed and next a load test.
+		 * Schedules the step a resumed chain was waiting for, at its original due time
+		 * @param state chain state recovered from the journal
 		 */
-		@Override
-		public void run() {
+		private void resume(ChainState state) {
+			long delayMs = (state.getNextDueMillis() == null) ? sleepMs :
+					Math.max(0, state.getNextDueMillis() - System.currentTimeMillis());
+			System.out.println("Resuming " + function.getName() + " on " + provider.getLabel() + " (" +
+					state.getCompletedIterations() + " iterations completed), next step in " + delayMs / 1000 + " s");
+			if (state.getNextStep() == BenchmarkScheduler.TestType.LOAD) {
+				scheduleLoadStep(delayMs);
+			} else {
+				scheduleColdStartStep(delayMs);
+			}
+		}
 
-			boolean google = (function.getGoogleUrl() != null);
-			boolean amazon = (function.getAmazonUrl() != null);
-			boolean openWhisk = (function.getOpenWhiskUrl() != null);
+		/**
+		 * Records a completed measurement, if the chain is journaled
+		 * @param step completed step
+		 */
+		private void journalMeasured(BenchmarkScheduler.TestType step) {
+			if (journal != null) {
+				journal.recordMeasured(function.getName(), provider.getName(), step, System.currentTimeMillis());
+			}
+		}
 
-			if (!google && !amazon && !openWhisk) {
-				System.out.println("No url to test for '" + function.getName() + "'");
+		/**
+		 * Keep-alive estimation start, evaluates the warm latency probes are compared to
+		 */
+		private void performKeepAliveWarmUpStep() {
+
+			LatencyEstimate warmLatency = measureWarmLatency(provider.getUrl(function), timeoutRequestMs,
+					ignoredColdStartValues, warmStartAverageWidth);
+			if (warmLatency == null) {
+				System.err.println("Could not estimate " + provider.getLabel() + " keep-alive window for " +
+						function.getName() + ", using fixed sleep interval");
+				scheduleIteration();
 				return;
 			}
+			warmLatencyMs = warmLatency.getValue();
+			keepAliveEstimator = keepAliveSearch.newEstimator();
+			scheduleKeepAliveProbe();
+		}
 
-			double googleLatency;
-			double amazonLatency;
-			double openWhiskLatency;
+		/**
+		 * Schedules a keep-alive probe after the idle interval chosen by the estimator
+		 */
+		private void scheduleKeepAliveProbe() {
+			long idleMs = keepAliveEstimator.getNextIdleMs();
+			scheduler.schedule(provider, BenchmarkScheduler.TestType.COLD_START, idleMs,
+					() -> performKeepAliveProbeStep(idleMs));
+		}
 
-			BenchmarkStats googleStats;
-			BenchmarkStats amazonStats;
-			BenchmarkStats openWhiskStats;
+		/**
+		 * Keep-alive probe, classifies the request after the idle interval as cold or warm. When the estimation is
+		 * completed the chain moves to the first iteration with the estimated sleep interval
+		 * @param idleMs idle interval preceding the probe
+		 */
+		private void performKeepAliveProbeStep(long idleMs) {
 
-			int attempts;
+			PhaseTimings timings;
+			do {
+				timings = probeHttpLatency(provider.getUrl(function), timeoutRequestMs);
+			} while (timings != null && timings.needsRetry());
+			if (timings == null || !timings.isSuccessful()) {
+				// probe lost, the same interval is repeated
+				scheduleKeepAliveProbe();
+				return;
+			}
 
-			while (iterations != 0) {
-				// time to let provider deallocate resources for function execution
-				try {
-					performColdStartWait();
-				} catch (InterruptedException ignored) {
-					return;
-				}
+			boolean cold = keepAliveSearch.isColdStart(timings.getServerSideMs(), warmLatencyMs);
+			System.out.println(function.getName() + " on " + provider.getLabel() + " after " + idleMs / 1000 +
+					" s idle: " + (cold ? "cold" : "warm") + " start");
+			keepAliveEstimator.record(idleMs, cold);
+			if (!keepAliveEstimator.isCompleted()) {
+				scheduleKeepAliveProbe();
+				return;
+			}
 
-				if (google) {
+			KeepAliveEstimate estimate = keepAliveEstimator.getEstimate(sleepMs);
+			sleepMs = (int) Math.min(estimate.getRecommendedSleepMs(), Integer.MAX_VALUE);
+			System.out.println(function.getName() + " on " + provider.getLabel() + " keep-alive window = " +
+					(estimate.getKeepAliveMs() == null ? "not observed" : estimate.getKeepAliveMs() / 1000 + " s") +
+					", sleep interval = " + sleepMs / 1000 + " s");
+			if (journal != null) {
+				journal.recordSleep(function.getName(), provider.getName(), sleepMs);
+			}
 
-					// cold start test
-					try {
-						coldStartSem.acquire();
-					} catch (InterruptedException ignored) {
-						return;
-					}
-					while ((googleLatency = measureColdStartCost(function.getGoogleUrl(), timeoutRequestMs,
-							ignoredColdStartValues, warmStartAverageWidth)) < 0) {
-						coldStartSem.release();
-						// needs retry because service was un-available
-						try {
-							System.err.println(function.getName() + " service is un-available, performing new trial");
-							performColdStartWait();
-							coldStartSem.acquire();
-						} catch (InterruptedException ignored) {
-							return;
-						}
-					}
-					coldStartSem.release();
-
-					// influx persist
-					if (InfluxClient.insertColdPoint(function.getName(), "google", googleLatency,
-							System.currentTimeMillis())) {
-						System.out.println("\u001B[32m" + "Persisted Google cold start benchmark for: " +
-								function.getName() + "\u001B[0m");
-					} else {
-						System.err.println("Failed persisting Google cold start latency for "
-								+ function.getName() + ": parameters or connection error");
-					}
+			// influx persist
+			if (InfluxClient.insertKeepAliveEstimate(function.getName(), provider.getName(), estimate,
+					System.currentTimeMillis())) {
+				System.out.println("\u001B[32m" + "Persisted " + provider.getLabel() + " keep-alive estimate for: " +
+						function.getName() + "\u001B[0m");
+			} else {
+				System.err.println("Failed persisting " + provider.getLabel() + " keep-alive estimate for "
+						+ function.getName() + ": parameters or connection error");
+			}
 
-					// load test
-					try {
-						benchmarkSem.acquire();
-					} catch (InterruptedException ignored) {
-						return;
-					}
-					attempts = 0;
-					do {
-						attempts++;
-						if (attempts > 1) {
-							System.err.println("WARNING: repeating Google load test for '" + function.getName() + "'");
-						}
-						googleStats = performBenchmark(function.getGoogleUrl(), concurrency, threads, seconds,
-								requestsPerSecond);
-					} while (googleStats == null || googleStats.getAvgLatency() == null);
-					benchmarkSem.release();
-
-					System.out.println(function.getName() + " avg latency Google = " + googleStats.getAvgLatency());
-					// influx persist
-					if (InfluxClient.insertLoadPoints(function.getName(), "google", googleStats,
-							System.currentTimeMillis())) {
-						System.out.println("\u001B[32m" + "Persisted Google benchmark for: " + function.getName() +
-								"\u001B[0m");
-					} else {
-						System.err.println("Failed persisting Google benchmarks "
-								+ function.getName() + ": parameters or connection error");
-					}
-				}
+			// last probe invoked the function: the idle interval starts now
+			scheduleIteration();
+		}
 
-				if (amazon) {
+		/**
+		 * Schedules a new iteration after the time needed to let provider deallocate resources for function
+		 * execution
+		 */
+		private void scheduleIteration() {
+			scheduleColdStartStep(sleepMs);
+		}
 
-					// cold start test
-					try {
-						coldStartSem.acquire();
-					} catch (InterruptedException ignored) {
-						return;
-					}
-					while ((amazonLatency = measureColdStartCost(function.getAmazonUrl(), timeoutRequestMs,
-							ignoredColdStartValues, warmStartAverageWidth)) < 0){
-						coldStartSem.release();
-						// needs retry because service was un-available
-						try {
-							System.err.println(function.getName() + " service is un-available, performing new trial");
-							performColdStartWait();
-							coldStartSem.acquire();
-						} catch (InterruptedException ignored) {
-							return;
-						}
-					}
-					coldStartSem.release();
-
-					// influx persist
-					if (InfluxClient.insertColdPoint(function.getName(), "amazon", amazonLatency,
-							System.currentTimeMillis())) {
-						System.out.println("\u001B[32m" + "Persisted Amazon cold start benchmark for: " +
-								function.getName() + "\u001B[0m");
-					} else {
-						System.err.println("Failed persisting Amazon cold start latency for "
-								+ function.getName() + ": parameters or connection error");
-					}
+		/**
+		 * Schedules a cold start test, recording its due time
+		 * @param delayMs delay in milliseconds
+		 */
+		private void scheduleColdStartStep(long delayMs) {
+			if (journal != null) {
+				journal.recordDue(function.getName(), provider.getName(), BenchmarkScheduler.TestType.COLD_START,
+						System.currentTimeMillis() + delayMs);
+			}
+			scheduler.schedule(provider, BenchmarkScheduler.TestType.COLD_START, delayMs, this::performColdStartStep);
+		}
 
-					// load test
-					try {
-						benchmarkSem.acquire();
-					} catch (InterruptedException ignored) {
-						return;
-					}
-					attempts = 0;
-					do {
-						attempts++;
-						if (attempts > 1) {
-							System.err.println("WARNING: repeating Amazon load test for '" + function.getName() + "'");
-						}
-						amazonStats = performBenchmark(function.getAmazonUrl(), concurrency, threads, seconds,
-								requestsPerSecond);
-					} while (amazonStats == null || amazonStats.getAvgLatency() == null);
-					benchmarkSem.release();
-
-					System.out.println(function.getName() + " avg latency Amazon = " + amazonStats.getAvgLatency());
-					if (InfluxClient.insertLoadPoints(function.getName(), "amazon", amazonStats,
-							System.currentTimeMillis())) {
-						System.out.println("\u001B[32m" + "Persisted Amazon benchmark for: " + function.getName() +
-								"\u001B[0m");
-					} else {
-						System.err.println("Failed persisting Amazon benchmarks "
-								+ function.getName() + ": parameters or connection error");
-					}
-				}
+		/**
+		 * Schedules a load test, recording its due time
+		 * @param delayMs delay in milliseconds
+		 */
+		private void scheduleLoadStep(long delayMs) {
+			if (journal != null) {
+				journal.recordDue(function.getName(), provider.getName(), BenchmarkScheduler.TestType.LOAD,
+						System.currentTimeMillis() + delayMs);
+			}
+			scheduler.schedule(provider, BenchmarkScheduler.TestType.LOAD, delayMs, this::performLoadStep);
+		}
 
-				if (openWhisk) {
-					// cold start test
-					try {
-						coldStartSem.acquire();
-					} catch (InterruptedException ignored) {
-						return;
-					}
-					while ((openWhiskLatency = measureColdStartCost(function.getOpenWhiskUrl(),
-							timeoutRequestMs, ignoredColdStartValues, warmStartAverageWidth)) < 0) {
-						coldStartSem.release();
-						// needs retry because service was un-available
-						try {
-							System.err.println(function.getName() + " service is un-available, performing new trial");
-							performColdStartWait();
-							coldStartSem.acquire();
-						} catch (InterruptedException ignored) {
-							return;
-						}
-					}
-					coldStartSem.release();
-
-					// influx persist
-					if (InfluxClient.insertColdPoint(function.getName(), "openwhisk", openWhiskLatency,
-							System.currentTimeMillis())) {
-						System.out.println("\u001B[32m" + "Persisted OpenWhisk cold start benchmark for: " +
-								function.getName() + "\u001B[0m");
-					} else {
-						System.err.println("Failed persisting OpenWhisk cold start latency for "
-								+ function.getName() + ": parameters or connection error");
-					}
+		/**
+		 * Cold start test, repeated after sleepMs milliseconds if service is un-available
+		 */
+		private void performColdStartStep() {
 
-					// load test
-					try {
-						benchmarkSem.acquire();
-					} catch (InterruptedException ignored) {
-						return;
-					}
-					attempts = 0;
-					do {
-						attempts++;
-						if (attempts > 1) {
-							System.err.println("WARNING: repeating OpenWhisk load test for '" + function.getName() +
-									"'");
-						}
-						openWhiskStats = performBenchmark(function.getOpenWhiskUrl(), concurrency, threads, seconds,
-								requestsPerSecond);
-					} while (openWhiskStats == null || openWhiskStats.getAvgLatency() == null);
-					benchmarkSem.release();
-
-					System.out.println(function.getName() + " avg latency OpenWhisk = " +
-							openWhiskStats.getAvgLatency());
-					// influx persist
-					if (InfluxClient.insertLoadPoints(function.getName(), "openwhisk", openWhiskStats,
-							System.currentTimeMillis())) {
-						System.out.println("\u001B[32m" + "Persisted OpenWhisk benchmark for: " + function.getName() +
-								"\u001B[0m");
-					} else {
-						System.err.println("Failed persisting OpenWhisk benchmarks "
-								+ function.getName() + ": parameters or connection error");
-					}
+			if (burstSize > 1) {
+				performBurstColdStartStep();
+				return;
+			}
+
+			ColdStartCost coldStart = measureColdStartCost(provider.getUrl(function), timeoutRequestMs,
+					ignoredColdStartValues, warmStartAverageWidth, (warmUpCurve == null) ? 0 :
+							warmUpCurve.getLength() - 1);
+			if (coldStart == null) {
+				// needs retry because service was un-available
+				System.err.println(function.getName() + " service is un-available on " + provider.getLabel() +
+						", performing new trial");
+				scheduleIteration();
+				return;
+			}
+
+			System.out.println(function.getName() + " cold start cost " + provider.getLabel() + " = " +
+					String.format("%.2f ms (95%% CI %.2f - %.2f ms, %d warm samples)", coldStart.getCost(),
+							coldStart.getCostLowerBound(), coldStart.getCostUpperBound(),
+							coldStart.getWarmLatency().getSamples()));
+
+			// influx persist
+			long coldStartMillis = System.currentTimeMillis();
+			if (InfluxClient.insertColdPoint(function.getName(), provider.getName(), coldStart, coldStartMillis) &&
+					InfluxClient.insertColdStartPhases(function.getName(), provider.getName(),
+							coldStart.getColdTimings(), coldStartMillis)) {
+				System.out.println("\u001B[32m" + "Persisted " + provider.getLabel() + " cold start benchmark for: " +
+						function.getName() + "\u001B[0m");
+			} else {
+				System.err.println("Failed persisting " + provider.getLabel() + " cold start latency for "
+						+ function.getName() + ": parameters or connection error");
+			}
+			if (warmUpCurve != null) {
+				persistWarmUpCurve(coldStart.getWarmUpSequence(), coldStartMillis);
+			}
+
+			journalMeasured(BenchmarkScheduler.TestType.COLD_START);
+			scheduleLoadStep(0);
+		}
+
+		/**
+		 * Adds the sequence following a cold start to the warm-up curve and persists the updated percentile bands
+		 * @param sequence server side latencies in milliseconds, cold request first
+		 * @param millis measurement timestamp
+		 */
+		private void persistWarmUpCurve(double[] sequence, long millis) {
+
+			warmUpCurve.add(sequence);
+			Integer steadyStateIndex = warmUpCurve.getSteadyStateIndex(WARM_UP_STEADY_STATE_TOLERANCE);
+			System.out.println(function.getName() + " warm-up on " + provider.getLabel() + ": " +
+					(steadyStateIndex == null ? "steady state not reached" : "steady state from request " +
+							steadyStateIndex) + " (" + warmUpCurve.getIterations() + " iterations)");
+
+			// influx persist
+			if (InfluxClient.insertWarmUpCurve(function.getName(), provider.getName(), warmUpCurve,
+					WARM_UP_STEADY_STATE_TOLERANCE, millis)) {
+				System.out.println("\u001B[32m" + "Persisted " + provider.getLabel() + " warm-up curve for: " +
+						function.getName() + "\u001B[0m");
+			} else {
+				System.err.println("Failed persisting " + provider.getLabel() + " warm-up curve for "
+						+ function.getName() + ": parameters or connection error");
+			}
+		}
+
+		/**
+		 * Burst cold start test, repeated after sleepMs milliseconds if every request failed
+		 */
+		private void performBurstColdStartStep() {
+
+			BurstColdStart burst = measureBurstColdStart(provider.getUrl(function), burstSize, timeoutRequestMs,
+					ignoredColdStartValues, warmStartAverageWidth);
+			if (burst == null) {
+				System.err.println(function.getName() + " burst cold start failed on " + provider.getLabel() +
+						", performing new trial");
+				scheduleIteration();
+				return;
+			}
+
+			System.out.println(function.getName() + " burst of " + burst.getBurstSize() + " on " +
+					provider.getLabel() + ": " + burst.getColdStarts() + " cold starts, " + burst.getFailures() +
+					" failures, scale-out latency = " + burst.getScaleOutLatency() + " ms");
+
+			// influx persist
+			if (InfluxClient.insertBurstColdStart(function.getName(), provider.getName(), burst,
+					System.currentTimeMillis())) {
+				System.out.println("\u001B[32m" + "Persisted " + provider.getLabel() + " burst cold start benchmark " +
+						"for: " + function.getName() + "\u001B[0m");
+			} else {
+				System.err.println("Failed persisting " + provider.getLabel() + " burst cold start for "
+						+ function.getName() + ": parameters or connection error");
+			}
+
+			journalMeasured(BenchmarkScheduler.TestType.COLD_START);
+			scheduleLoadStep(0);
+		}
+
+		/**
+		 * Load test, next the chain moves to the following iteration
+		 */
+		private void performLoadStep() {
+
+			List<BenchmarkStats> results;
+			int attempts = 0;
+			do {
+				attempts++;
+				if (attempts > 1) {
+					System.err.println("WARNING: repeating " + provider.getLabel() + " load test for '" +
+							function.getName() + "'");
+				}
+				Path samplePath = (sampleCapture == null) ? null : sampleCapture.getSamplePath(InfluxClient.getRunId(),
+						function.getName(), provider.getName(), System.currentTimeMillis());
+				results = performBenchmark(provider.getUrl(function), concurrency, threads, profile, null,
+						samplePath);
+				// the test is repeated only if no phase completed any request, saturated phases are results as well
+			} while (results == null || results.stream().allMatch(stats -> stats.getAvgLatency() == null));
+
+			// every phase shares the same timestamp, phases are told apart by their tag
+			long millis = System.currentTimeMillis();
+			boolean persisted = true;
+			for (BenchmarkStats stats : results) {
+				String phase = stats.getPhase() == null ? "" : " (phase " + stats.getPhase() + ")";
+				if (stats.getAvgLatency() == null) {
+					System.err.println(function.getName() + " " + provider.getLabel() + phase + ": no request " +
+							"completed, " + stats.getTimeouts() + " timeouts, " + stats.getConnectErrors() +
+							" connect errors, " + stats.getReadWriteErrors() + " read/write errors");
+				} else {
+					System.out.println(function.getName() + " avg latency " + provider.getLabel() + phase + " = " +
+							stats.getAvgLatency());
 				}
+				persisted &= InfluxClient.insertLoadPoints(function.getName(), provider.getName(), stats, millis);
+			}
+			// influx persist
+			if (persisted) {
+				System.out.println("\u001B[32m" + "Persisted " + provider.getLabel() + " benchmark for: " +
+						function.getName() + "\u001B[0m");
+			} else {
+				System.err.println("Failed persisting " + provider.getLabel() + " benchmarks "
+						+ function.getName() + ": parameters or connection error");
+			}
 
-				iterations--;
+			journalMeasured(BenchmarkScheduler.TestType.LOAD);
+			iterations--;
+			if (iterations != 0) {
+				scheduleIteration();
+			} else {
+				scheduler.chainCompleted();
 			}
 		}
 	}
@@ -1,48 +1,118 @@
 package cmd.benchmark_commands;
 
 import cmd.CommandUtility;
+import cmd.benchmark_commands.output_parsing.K6OutputParser;
+import utility.PropertiesManager;
+
+import java.util.Locale;
 
 /**
- * Utility for wrk2 benchmark command execution
+ * Utility for external load generators benchmark command execution
  */
 public class BenchmarkCommandUtility extends CommandUtility {
 
 	/**
-	 * Docker image and command preamble
+	 * Command preamble
 	 */
-	@SuppressWarnings("SpellCheckingInspection")
-	public static final String WRK2_IMG = "bschitter/alpine-with-wrk2:0.1";
-	private static final String PREAMBLE = "docker" + SEP + "run" + SEP + "--rm" + SEP + WRK2_IMG;
+	private static final String PREAMBLE = "docker" + SEP + "run" + SEP + "--rm";
 
 
 	/**
-	 * Wrk2 Docker image getter
-	 * @return Docker image name
+	 * Selected load generator getter
+	 * @return load generator set in configuration, null if the in-process generator has to be used
 	 */
-	public static String getImg() {
-		return WRK2_IMG;
+	public static LoadTool getSelectedTool() {
+		return LoadTool.fromName(PropertiesManager.getInstance().getProperty(PropertiesManager.LOAD_GENERATOR));
 	}
 
 	/**
-	 * Builds wrk2 benchmark execution command
+	 * Builds benchmark execution command
+	 * @param tool load generator
 	 * @param url url to perform benchmark on
 	 * @param concurrency number of HTTP open connections
 	 * @param threads number of active threads
 	 * @param seconds test duration
-	 * @param requestsPerSecond number of requests per second
+	 * @param requestsPerSecond number of requests per second (ignored by tools not supporting rates)
 	 * @return command as string
 	 */
-	public static String buildBenchmarkCommand(String url, Integer concurrency, Integer threads, Integer seconds,
-											   Integer requestsPerSecond) {
-		return	// command beginning
-				PREAMBLE + SEP +
-						// operation define
-						"-c" + concurrency + SEP +
-						"-t" + threads + SEP +
-						"-d" + seconds + "s" + SEP +
-						"-R" + requestsPerSecond + SEP +
-						"-L" + SEP +
-						"\"" + url + "\"";
+	public static String buildBenchmarkCommand(LoadTool tool, String url, Integer concurrency, Integer threads,
+											   Integer seconds, Integer requestsPerSecond) {
+		switch (tool) {
+			case WRK2:
+				return	// command beginning
+						PREAMBLE + SEP + tool.getImage() + SEP +
+								// operation define
+								"-c" + concurrency + SEP +
+								"-t" + threads + SEP +
+								"-d" + seconds + "s" + SEP +
+								"-R" + requestsPerSecond + SEP +
+								"-L" + SEP +
+								"\"" + url + "\"";
+			case WRK:
+				return	PREAMBLE + SEP + tool.getImage() + SEP +
+								"-c" + concurrency + SEP +
+								"-t" + threads + SEP +
+								"-d" + seconds + "s" + SEP +
+								"--latency" + SEP +
+								"\"" + url + "\"";
+			case HEY:
+				// hey limits the rate of each worker
+				return	PREAMBLE + SEP + tool.getImage() + SEP +
+								"-c" + SEP + concurrency + SEP +
+								"-cpus" + SEP + threads + SEP +
+								"-z" + SEP + seconds + "s" + SEP +
+								"-q" + SEP + String.format(Locale.ROOT, "%.3f",
+								requestsPerSecond / (double) concurrency) + SEP +
+								"\"" + url + "\"";
+			case K6:
+				// script is read from standard input
+				return	PREAMBLE + SEP + "-i" + SEP + tool.getImage() + SEP +
+								"run" + SEP +
+								"--quiet" + SEP +
+								"-";
+			default:
+				return null;
+		}
+	}
 
+	/**
+	 * Builds the script to pass to the benchmark command standard input
+	 * @param tool load generator
+	 * @param url url to perform benchmark on
+	 * @param concurrency number of HTTP open connections
+	 * @param seconds test duration
+	 * @param requestsPerSecond number of requests per second
+	 * @return script, null if the load generator does not need one
+	 */
+	public static String buildBenchmarkScript(LoadTool tool, String url, Integer concurrency, Integer seconds,
+											  Integer requestsPerSecond) {
+		if (tool != LoadTool.K6) {
+			return null;
+		}
+		// constant arrival rate with a virtual user for each connection, metrics summary printed as JSON
+		return "import http from 'k6/http';\n" +
+				"import { Counter } from 'k6/metrics';\n" +
+				"const non2xx3xx = new Counter('" + K6OutputParser.NON_2XX_3XX_METRIC + "');\n" +
+				"const timeouts = new Counter('" + K6OutputParser.TIMEOUT_METRIC + "');\n" +
+				"const connectErrors = new Counter('" + K6OutputParser.CONNECT_ERROR_METRIC + "');\n" +
+				"const errors = new Counter('" + K6OutputParser.ERROR_METRIC + "');\n" +
+				"export const options = {\n" +
+				"  discardResponseBodies: true,\n" +
+				"  summaryTrendStats: ['avg', 'min', 'med', 'max', 'p(75)', 'p(90)', 'p(99)', 'p(99.9)', " +
+				"'p(99.99)'],\n" +
+				"  scenarios: { load: { executor: 'constant-arrival-rate', rate: " + requestsPerSecond + ", " +
+				"timeUnit: '1s', duration: '" + seconds + "s', preAllocatedVUs: " + concurrency + ", " +
+				"maxVUs: " + concurrency + " } },\n" +
+				"};\n" +
+				"export default function () {\n" +
+				"  const res = http.get('" + url.replace("\\", "\\\\").replace("'", "\\'") + "');\n" +
+				"  if (res.error_code === 1050) { timeouts.add(1); }\n" +
+				"  else if (res.error_code >= 1200 && res.error_code < 1300) { connectErrors.add(1); }\n" +
+				"  else if (res.status === 0) { errors.add(1); }\n" +
+				"  else if (res.status < 200 || res.status >= 400) { non2xx3xx.add(1); }\n" +
+				"}\n" +
+				"export function handleSummary(data) {\n" +
+				"  return { stdout: JSON.stringify(data.metrics) + '\\n' };\n" +
+				"}\n";
 	}
 }
@@ -0,0 +1,89 @@
+package cmd.benchmark_commands;
+
+import cmd.benchmark_commands.output_parsing.HeyOutputParser;
+import cmd.benchmark_commands.output_parsing.K6OutputParser;
+import cmd.benchmark_commands.output_parsing.OutputParser;
+import cmd.benchmark_commands.output_parsing.Wrk2OutputParser;
+import cmd.benchmark_commands.output_parsing.WrkOutputParser;
+
+/**
+ * External load generators that can be used, through their Docker container, instead of the in-process generator
+ */
+public enum LoadTool {
+
+	@SuppressWarnings("SpellCheckingInspection")
+	WRK2("wrk2", "bschitter/alpine-with-wrk2:0.1"),
+	@SuppressWarnings("SpellCheckingInspection")
+	WRK("wrk", "williamyeh/wrk:latest"),
+	@SuppressWarnings("SpellCheckingInspection")
+	HEY("hey", "williamyeh/hey:latest"),
+	K6("k6", "grafana/k6:0.45.0");
+
+	// name used in configuration
+	private final String name;
+	// Docker image
+	private final String image;
+
+
+	/**
+	 * Default constructor
+	 * @param name name used in configuration
+	 * @param image Docker image
+	 */
+	LoadTool(String name, String image) {
+		this.name = name;
+		this.image = image;
+	}
+
+	/**
+	 * Finds a load generator by name
+	 * @param name name used in configuration, case insensitive
+	 * @return load generator, null if name does not match any of them
+	 */
+	public static LoadTool fromName(String name) {
+		if (name == null) {
+			return null;
+		}
+		for (LoadTool tool : values()) {
+			if (tool.name.equalsIgnoreCase(name.trim())) {
+				return tool;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates a parser for the output of this load generator
+	 * @return new output parser
+	 */
+	public OutputParser newParser() {
+		switch (this) {
+			case WRK2:
+				return new Wrk2OutputParser();
+			case WRK:
+				return new WrkOutputParser();
+			case HEY:
+				return new HeyOutputParser();
+			case K6:
+				return new K6OutputParser();
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Tells whether this load generator can send requests at a constant rate
+	 * @return true if requests rate can be set, false if requests are sent as fast as possible
+	 */
+	public boolean supportsRate() {
+		return this != WRK;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getImage() {
+		return image;
+	}
+}
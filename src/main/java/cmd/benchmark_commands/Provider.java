@@ -0,0 +1,56 @@
+package cmd.benchmark_commands;
+
+import databases.mysql.FunctionalityURL;
+
+/**
+ * Serverless providers functionalities can be benchmarked on
+ */
+public enum Provider {
+
+	GOOGLE("google", "Google"),
+	AMAZON("amazon", "Amazon"),
+	OPENWHISK("openwhisk", "OpenWhisk");
+
+	// name used for persistence
+	private final String name;
+	// name used for output
+	private final String label;
+
+
+	/**
+	 * Default constructor
+	 * @param name name used for persistence
+	 * @param label name used for output
+	 */
+	Provider(String name, String label) {
+		this.name = name;
+		this.label = label;
+	}
+
+	/**
+	 * Extracts the url deployed on this provider
+	 * @param function functionality urls
+	 * @return url, null if functionality is not deployed on this provider
+	 */
+	public String getUrl(FunctionalityURL function) {
+		switch (this) {
+			case GOOGLE:
+				// evaluated at each call: authentication token may change
+				return function.getGoogleUrl();
+			case AMAZON:
+				return function.getAmazonUrl();
+			case OPENWHISK:
+				return function.getOpenWhiskUrl();
+			default:
+				return null;
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+}
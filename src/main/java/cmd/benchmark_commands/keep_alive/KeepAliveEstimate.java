@@ -0,0 +1,48 @@
+package cmd.benchmark_commands.keep_alive;
+
+import java.util.List;
+
+/**
+ * Result of a keep-alive window estimation
+ */
+public class KeepAliveEstimate {
+	// shortest idle interval after which instances are considered recycled, null if never observed
+	private final Long keepAliveMs;
+	// idle interval to wait before a cold start test
+	private final long recommendedSleepMs;
+	// fitted survival curve, ordered by idle interval
+	private final List<SurvivalPoint> survivalCurve;
+	// number of probes performed
+	private final int probes;
+
+	/**
+	 * Default constructor
+	 * @param keepAliveMs shortest idle interval after which instances are considered recycled, null if never observed
+	 * @param recommendedSleepMs idle interval to wait before a cold start test
+	 * @param survivalCurve fitted survival curve, ordered by idle interval
+	 * @param probes number of probes performed
+	 */
+	public KeepAliveEstimate(Long keepAliveMs, long recommendedSleepMs, List<SurvivalPoint> survivalCurve,
+							 int probes) {
+		this.keepAliveMs = keepAliveMs;
+		this.recommendedSleepMs = recommendedSleepMs;
+		this.survivalCurve = survivalCurve;
+		this.probes = probes;
+	}
+
+	public Long getKeepAliveMs() {
+		return keepAliveMs;
+	}
+
+	public long getRecommendedSleepMs() {
+		return recommendedSleepMs;
+	}
+
+	public List<SurvivalPoint> getSurvivalCurve() {
+		return survivalCurve;
+	}
+
+	public int getProbes() {
+		return probes;
+	}
+}
@@ -0,0 +1,222 @@
+package cmd.benchmark_commands.keep_alive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keep-alive window estimator for a single functionality on a single provider. Every probe is performed after an
+ * idle interval (the previous probe keeps the instance warm) and is classified as warm or cold:
+ * - intervals are doubled until a cold start is observed,
+ * - the interval between the longest warm and the shortest cold probe is bisected,
+ * - the upper bound is confirmed by repeated probes, a warm confirmation moves the search upwards again.
+ * Observations are finally fitted to a non-increasing survival curve (isotonic regression).
+ * Probes are driven by the caller, the estimator is not thread safe.
+ */
+public class KeepAliveEstimator {
+
+	/**
+	 * Search states
+	 */
+	private enum State {
+		GROW, BISECT, CONFIRM, COMPLETED
+	}
+
+	private final KeepAliveSearch search;
+
+	/**
+	 * Search progress
+	 */
+	private State state;
+	private long lowerMs;
+	private long upperMs;
+	private long nextIdleMs;
+	private int confirmations;
+	private int probes;
+
+	// observations as idle interval -> {warm probes, total probes}
+	private final TreeMap<Long, int[]> observations;
+
+
+	/**
+	 * Default constructor
+	 * @param search search parameters
+	 */
+	KeepAliveEstimator(KeepAliveSearch search) {
+		this.search = search;
+		this.state = State.GROW;
+		this.lowerMs = 0;
+		this.upperMs = -1;
+		this.nextIdleMs = search.getInitialIdleMs();
+		this.confirmations = 0;
+		this.probes = 0;
+		this.observations = new TreeMap<>();
+	}
+
+	/**
+	 * Idle interval to wait before the next probe
+	 * @return interval in milliseconds
+	 */
+	public long getNextIdleMs() {
+		return nextIdleMs;
+	}
+
+	/**
+	 * Tells whether the search is over
+	 * @return true if no more probes are needed, false elsewhere
+	 */
+	public boolean isCompleted() {
+		return state == State.COMPLETED;
+	}
+
+	/**
+	 * Records a probe outcome and computes the next idle interval
+	 * @param idleMs idle interval preceding the probe
+	 * @param cold true if the probe found no warm instance
+	 */
+	public void record(long idleMs, boolean cold) {
+
+		if (state == State.COMPLETED) {
+			return;
+		}
+
+		int[] counters = observations.computeIfAbsent(idleMs, k -> new int[2]);
+		if (!cold) {
+			counters[0]++;
+		}
+		counters[1]++;
+		probes++;
+
+		switch (state) {
+			case GROW:
+				if (cold) {
+					upperMs = idleMs;
+					state = State.BISECT;
+				} else {
+					lowerMs = idleMs;
+					if (idleMs >= search.getMaxIdleMs()) {
+						// instances survive the whole searched interval
+						state = State.COMPLETED;
+						return;
+					}
+					nextIdleMs = Math.min(idleMs * 2, search.getMaxIdleMs());
+				}
+				break;
+			case BISECT:
+				if (cold) {
+					upperMs = idleMs;
+				} else {
+					lowerMs = idleMs;
+				}
+				break;
+			case CONFIRM:
+				if (cold) {
+					confirmations++;
+				} else {
+					// upper bound was a false cold start: move the search upwards
+					lowerMs = idleMs;
+					if (idleMs >= search.getMaxIdleMs()) {
+						upperMs = -1;
+						state = State.COMPLETED;
+						return;
+					}
+					upperMs = Math.min(idleMs * 2, search.getMaxIdleMs());
+					confirmations = 0;
+					state = State.BISECT;
+				}
+				break;
+			default:
+				break;
+		}
+
+		if (state == State.BISECT && upperMs - lowerMs <= search.getResolutionMs()) {
+			state = State.CONFIRM;
+		}
+		if (state == State.CONFIRM && confirmations >= search.getConfirmationProbes()) {
+			state = State.COMPLETED;
+		}
+
+		if (probes >= search.getMaxProbes()) {
+			state = State.COMPLETED;
+		} else if (state == State.BISECT) {
+			nextIdleMs = lowerMs + (upperMs - lowerMs) / 2;
+		} else if (state == State.CONFIRM) {
+			nextIdleMs = upperMs;
+		}
+	}
+
+	/**
+	 * Fits the survival curve and computes the estimate
+	 * @param fallbackSleepMs sleep interval to use if no cold start has been observed
+	 * @return estimate
+	 */
+	public KeepAliveEstimate getEstimate(long fallbackSleepMs) {
+
+		List<SurvivalPoint> curve = fitSurvivalCurve();
+
+		// shortest idle interval after which warm instances are unlikely to be found
+		Long keepAliveMs = null;
+		for (SurvivalPoint point : curve) {
+			if (point.getSurvival() <= search.getSurvivalThreshold()) {
+				keepAliveMs = point.getIdleMs();
+				break;
+			}
+		}
+
+		long recommendedSleepMs;
+		if (keepAliveMs == null) {
+			recommendedSleepMs = fallbackSleepMs;
+		} else {
+			recommendedSleepMs = (long) Math.ceil(keepAliveMs * search.getSafetyFactor());
+		}
+		return new KeepAliveEstimate(keepAliveMs, recommendedSleepMs, curve, probes);
+	}
+
+	/**
+	 * Fits observations to a non-increasing survival curve through the pool adjacent violators algorithm
+	 * @return fitted curve, one point for each probed idle interval
+	 */
+	private List<SurvivalPoint> fitSurvivalCurve() {
+
+		int size = observations.size();
+		long[] intervals = new long[size];
+		int[] totals = new int[size];
+		// blocks of pooled intervals: warm ratio, weight and number of pooled intervals
+		double[] blockValues = new double[size];
+		double[] blockWeights = new double[size];
+		int[] blockLengths = new int[size];
+		int blocks = 0;
+
+		int i = 0;
+		for (Map.Entry<Long, int[]> entry : observations.entrySet()) {
+			intervals[i] = entry.getKey();
+			totals[i] = entry.getValue()[1];
+
+			blockValues[blocks] = entry.getValue()[0] / (double) entry.getValue()[1];
+			blockWeights[blocks] = entry.getValue()[1];
+			blockLengths[blocks] = 1;
+			blocks++;
+			// survival can not grow with idle time: pool violating blocks
+			while (blocks > 1 && blockValues[blocks - 2] < blockValues[blocks - 1]) {
+				double weight = blockWeights[blocks - 2] + blockWeights[blocks - 1];
+				blockValues[blocks - 2] = (blockValues[blocks - 2] * blockWeights[blocks - 2] +
+						blockValues[blocks - 1] * blockWeights[blocks - 1]) / weight;
+				blockWeights[blocks - 2] = weight;
+				blockLengths[blocks - 2] += blockLengths[blocks - 1];
+				blocks--;
+			}
+			i++;
+		}
+
+		List<SurvivalPoint> curve = new ArrayList<>();
+		i = 0;
+		for (int block = 0; block < blocks; block++) {
+			for (int j = 0; j < blockLengths[block]; j++) {
+				curve.add(new SurvivalPoint(intervals[i], blockValues[block], totals[i]));
+				i++;
+			}
+		}
+		return curve;
+	}
+}
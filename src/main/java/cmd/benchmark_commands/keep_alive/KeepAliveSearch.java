@@ -0,0 +1,129 @@
+package cmd.benchmark_commands.keep_alive;
+
+import cmd.benchmark_commands.latency_probe.ColdStartCost;
+
+/**
+ * Parameters of the instance keep-alive window estimation, shared by every estimator
+ */
+public class KeepAliveSearch {
+
+	/**
+	 * Default search parameters
+	 */
+	private static final int DEFAULT_MAX_PROBES = 20;
+	private static final int DEFAULT_CONFIRMATION_PROBES = 2;
+	private static final double DEFAULT_SURVIVAL_THRESHOLD = 0.05;
+	private static final double DEFAULT_SAFETY_FACTOR = 1.2;
+
+	/**
+	 * Idle intervals
+	 */
+	private final long initialIdleMs;
+	private final long maxIdleMs;
+	private final long resolutionMs;
+
+	/**
+	 * Probing budget
+	 */
+	private final int maxProbes;
+	private final int confirmationProbes;
+
+	/**
+	 * Cold start detection and curve interpretation
+	 */
+	private final double minColdStartGapMs;
+	private final double survivalThreshold;
+	private final double safetyFactor;
+
+
+	/**
+	 * Default constructor, uses default budget and detection parameters
+	 * @param initialIdleMs first idle interval to probe
+	 * @param maxIdleMs longest idle interval to probe
+	 * @param resolutionMs search stops when the keep-alive window is known within this interval
+	 */
+	public KeepAliveSearch(long initialIdleMs, long maxIdleMs, long resolutionMs) {
+		this(initialIdleMs, maxIdleMs, resolutionMs, DEFAULT_MAX_PROBES, DEFAULT_CONFIRMATION_PROBES,
+				ColdStartCost.DEFAULT_MIN_COLD_START_GAP_MS, DEFAULT_SURVIVAL_THRESHOLD, DEFAULT_SAFETY_FACTOR);
+	}
+
+	/**
+	 * Complete constructor
+	 * @param initialIdleMs first idle interval to probe
+	 * @param maxIdleMs longest idle interval to probe
+	 * @param resolutionMs search stops when the keep-alive window is known within this interval
+	 * @param maxProbes maximum number of probes
+	 * @param confirmationProbes number of cold starts to observe at the upper bound before accepting it
+	 * @param minColdStartGapMs minimum server side latency gap from warm latency to consider a request cold
+	 * @param survivalThreshold warm start probability under which instances are considered recycled
+	 * @param safetyFactor multiplier applied to the keep-alive window to get the sleep interval
+	 */
+	public KeepAliveSearch(long initialIdleMs, long maxIdleMs, long resolutionMs, int maxProbes,
+						   int confirmationProbes, double minColdStartGapMs, double survivalThreshold,
+						   double safetyFactor) {
+		this.initialIdleMs = initialIdleMs;
+		this.maxIdleMs = maxIdleMs;
+		this.resolutionMs = resolutionMs;
+		this.maxProbes = maxProbes;
+		this.confirmationProbes = confirmationProbes;
+		this.minColdStartGapMs = minColdStartGapMs;
+		this.survivalThreshold = survivalThreshold;
+		this.safetyFactor = safetyFactor;
+	}
+
+	/**
+	 * Checks search parameters consistency
+	 * @return true if the search can be performed, false elsewhere
+	 */
+	public boolean isValid() {
+		return initialIdleMs > 0 && maxIdleMs >= initialIdleMs && resolutionMs > 0 && maxProbes > 0 &&
+				confirmationProbes >= 0 && minColdStartGapMs >= 0 && survivalThreshold >= 0 &&
+				survivalThreshold < 1 && safetyFactor >= 1;
+	}
+
+	/**
+	 * Creates the estimator for a single functionality on a single provider
+	 * @return new estimator
+	 */
+	public KeepAliveEstimator newEstimator() {
+		return new KeepAliveEstimator(this);
+	}
+
+	/**
+	 * Classifies a probe, see ColdStartCost.isColdStart
+	 * @param serverSideMs server side latency of the probe in milliseconds
+	 * @param warmMs warm server side latency in milliseconds
+	 * @return true if the probe found no warm instance, false elsewhere
+	 */
+	public boolean isColdStart(double serverSideMs, double warmMs) {
+		return ColdStartCost.isColdStart(serverSideMs, warmMs, minColdStartGapMs);
+	}
+
+	long getInitialIdleMs() {
+		return initialIdleMs;
+	}
+
+	long getMaxIdleMs() {
+		return maxIdleMs;
+	}
+
+	long getResolutionMs() {
+		return resolutionMs;
+	}
+
+	int getMaxProbes() {
+		return maxProbes;
+	}
+
+	int getConfirmationProbes() {
+		return confirmationProbes;
+	}
+
+	double getSurvivalThreshold() {
+		return survivalThreshold;
+	}
+
+	double getSafetyFactor() {
+		return safetyFactor;
+	}
+}
@@ -0,0 +1,37 @@
+package cmd.benchmark_commands.keep_alive;
+
+/**
+ * A single point of the instance survival curve: probability of finding a warm instance after an idle interval
+ */
+public class SurvivalPoint {
+	// idle interval in milliseconds
+	private final long idleMs;
+	// fitted probability of a warm start (0 - 1)
+	private final double survival;
+	// number of probes performed after this idle interval
+	private final int observations;
+
+	/**
+	 * Default constructor
+	 * @param idleMs idle interval in milliseconds
+	 * @param survival fitted probability of a warm start (0 - 1)
+	 * @param observations number of probes performed after this idle interval
+	 */
+	public SurvivalPoint(long idleMs, double survival, int observations) {
+		this.idleMs = idleMs;
+		this.survival = survival;
+		this.observations = observations;
+	}
+
+	public long getIdleMs() {
+		return idleMs;
+	}
+
+	public double getSurvival() {
+		return survival;
+	}
+
+	public int getObservations() {
+		return observations;
+	}
+}
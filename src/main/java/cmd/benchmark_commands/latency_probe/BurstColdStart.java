@@ -0,0 +1,82 @@
+package cmd.benchmark_commands.latency_probe;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of a burst cold start evaluation: N simultaneous first invocations after an idle interval
+ */
+public class BurstColdStart {
+	// number of requests released together
+	private final int burstSize;
+	// sorted server side latencies of successful requests in milliseconds
+	private final double[] latencies;
+	// number of requests served by a new instance
+	private final int coldStarts;
+	// number of requests failed or answered with an error status code
+	private final int failures;
+	// warm latency estimate requests are compared to
+	private final LatencyEstimate warmLatency;
+
+
+	/**
+	 * Default constructor, classifies successful requests as cold or warm
+	 * @param burstSize number of requests released together
+	 * @param timings timings of successful requests
+	 * @param warmLatency warm latency estimate requests are compared to
+	 * @param minColdStartGapMs minimum latency gap in milliseconds to consider a request cold
+	 */
+	public BurstColdStart(int burstSize, List<PhaseTimings> timings, LatencyEstimate warmLatency,
+						  double minColdStartGapMs) {
+		this.burstSize = burstSize;
+		this.latencies = new double[timings.size()];
+		int cold = 0;
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = timings.get(i).getServerSideMs();
+			if (ColdStartCost.isColdStart(latencies[i], warmLatency.getValue(), minColdStartGapMs)) {
+				cold++;
+			}
+		}
+		Arrays.sort(latencies);
+		this.coldStarts = cold;
+		this.failures = burstSize - latencies.length;
+		this.warmLatency = warmLatency;
+	}
+
+	/**
+	 * Server side latency percentile of successful requests (nearest rank)
+	 * @param percentile percentile level (0 - 100)
+	 * @return latency in milliseconds, null if no request succeeded
+	 */
+	public Double getLatencyPercentile(double percentile) {
+		if (latencies.length == 0) {
+			return null;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+		return latencies[Math.min(Math.max(rank, 1), latencies.length) - 1];
+	}
+
+	/**
+	 * Scale-out latency: time needed to serve the whole burst
+	 * @return maximum server side latency in milliseconds, null if no request succeeded
+	 */
+	public Double getScaleOutLatency() {
+		return (latencies.length == 0) ? null : latencies[latencies.length - 1];
+	}
+
+	public int getBurstSize() {
+		return burstSize;
+	}
+
+	public int getColdStarts() {
+		return coldStarts;
+	}
+
+	public int getFailures() {
+		return failures;
+	}
+
+	public LatencyEstimate getWarmLatency() {
+		return warmLatency;
+	}
+}
@@ -0,0 +1,91 @@
+package cmd.benchmark_commands.latency_probe;
+
+/**
+ * Result of a cold start evaluation: server side penalty and phase timings of the cold request
+ */
+public class ColdStartCost {
+
+	/**
+	 * Default minimum server side latency gap from warm latency to consider a request cold
+	 */
+	public static final double DEFAULT_MIN_COLD_START_GAP_MS = 100;
+
+	// server side latency gap between cold and warm start in milliseconds
+	private final double cost;
+	// timings of the cold start request
+	private final PhaseTimings coldTimings;
+	// warm latency estimate the cold request is compared to
+	private final LatencyEstimate warmLatency;
+	// server side latencies in milliseconds of the cold request and the following ones in order, can be null
+	private final double[] warmUpSequence;
+
+	/**
+	 * Default constructor
+	 * @param cost server side latency gap between cold and warm start in milliseconds
+	 * @param coldTimings timings of the cold start request
+	 * @param warmLatency warm latency estimate the cold request is compared to
+	 */
+	public ColdStartCost(double cost, PhaseTimings coldTimings, LatencyEstimate warmLatency) {
+		this(cost, coldTimings, warmLatency, null);
+	}
+
+	/**
+	 * Constructor with warm-up sequence
+	 * @param cost server side latency gap between cold and warm start in milliseconds
+	 * @param coldTimings timings of the cold start request
+	 * @param warmLatency warm latency estimate the cold request is compared to
+	 * @param warmUpSequence server side latencies in milliseconds of the cold request and the following ones in
+	 *                       order, null if not recorded
+	 */
+	public ColdStartCost(double cost, PhaseTimings coldTimings, LatencyEstimate warmLatency,
+						 double[] warmUpSequence) {
+		this.cost = cost;
+		this.coldTimings = coldTimings;
+		this.warmLatency = warmLatency;
+		this.warmUpSequence = warmUpSequence;
+	}
+
+	/**
+	 * Classifies a request: a request is cold if its server side latency exceeds the warm one by at least the
+	 * minimum gap and by the warm latency itself
+	 * @param serverSideMs server side latency of the request in milliseconds
+	 * @param warmMs warm server side latency in milliseconds
+	 * @param minGapMs minimum latency gap in milliseconds
+	 * @return true if the request found no warm instance, false elsewhere
+	 */
+	public static boolean isColdStart(double serverSideMs, double warmMs, double minGapMs) {
+		return serverSideMs - warmMs > Math.max(minGapMs, warmMs);
+	}
+
+	/**
+	 * Cost confidence interval lower bound, derived from the warm latency interval
+	 * @return lower bound in milliseconds
+	 */
+	public double getCostLowerBound() {
+		return Math.max(0, coldTimings.getServerSideMs() - warmLatency.getUpperBound());
+	}
+
+	/**
+	 * Cost confidence interval upper bound, derived from the warm latency interval
+	 * @return upper bound in milliseconds
+	 */
+	public double getCostUpperBound() {
+		return Math.max(0, coldTimings.getServerSideMs() - warmLatency.getLowerBound());
+	}
+
+	public double getCost() {
+		return cost;
+	}
+
+	public PhaseTimings getColdTimings() {
+		return coldTimings;
+	}
+
+	public LatencyEstimate getWarmLatency() {
+		return warmLatency;
+	}
+
+	public double[] getWarmUpSequence() {
+		return warmUpSequence;
+	}
+}
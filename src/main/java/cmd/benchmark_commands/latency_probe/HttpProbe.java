@@ -0,0 +1,153 @@
+package cmd.benchmark_commands.latency_probe;
+
+import cmd.benchmark_commands.load_generation.HttpParseException;
+import cmd.benchmark_commands.load_generation.HttpResponseParser;
+import cmd.benchmark_commands.load_generation.TargetUrl;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single HTTP request probe measuring DNS, connect, TLS, time to first byte and transfer phases separately
+ */
+public class HttpProbe {
+
+	// response read buffer size
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+
+	/**
+	 * Performs a GET request on a new connection timing every phase
+	 * @param url url to test
+	 * @param timeoutMs maximum time in milliseconds for connection and for each read
+	 * @return request phase timings
+	 * @throws IOException if request cannot be performed
+	 * @throws HttpParseException if response is malformed
+	 */
+	public static PhaseTimings probe(String url, int timeoutMs) throws IOException, HttpParseException {
+		return probe(url, timeoutMs, null);
+	}
+
+	/**
+	 * Performs a GET request on a new connection timing every phase, the request is sent only when every party of
+	 * the barrier has its connection ready (time to first byte does not include waiting)
+	 * @param url url to test
+	 * @param timeoutMs maximum time in milliseconds for connection, for barrier waiting and for each read
+	 * @param startBarrier barrier releasing the request, can be null
+	 * @return request phase timings
+	 * @throws IOException if request cannot be performed or barrier is broken
+	 * @throws HttpParseException if response is malformed
+	 */
+	public static PhaseTimings probe(String url, int timeoutMs, CyclicBarrier startBarrier)
+			throws IOException, HttpParseException {
+
+		Socket socket = new Socket();
+		// a failing request still takes part in the burst start, so other requests are not kept waiting
+		boolean arrived = (startBarrier == null);
+		try {
+			TargetUrl target = new TargetUrl(url);
+			byte[] request = target.buildGetRequest();
+			HttpResponseParser parser = new HttpResponseParser();
+
+			// DNS resolution
+			long start = System.nanoTime();
+			InetAddress address = InetAddress.getByName(target.getHost());
+			long resolved = System.nanoTime();
+
+			// TCP connection
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout(timeoutMs);
+			socket.connect(new InetSocketAddress(address, target.getPort()), timeoutMs);
+			long connected = System.nanoTime();
+
+			// TLS handshake
+			if (target.isSecure()) {
+				SSLSocket sslSocket = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+						.createSocket(socket, target.getHost(), target.getPort(), true);
+				SSLParameters parameters = sslSocket.getSSLParameters();
+				parameters.setEndpointIdentificationAlgorithm("HTTPS");
+				sslSocket.setSSLParameters(parameters);
+				sslSocket.startHandshake();
+				socket = sslSocket;
+			}
+			long handshaked = System.nanoTime();
+
+			// wait for the other requests of the burst
+			long sent = handshaked;
+			if (startBarrier != null) {
+				arrived = true;
+				awaitBarrier(startBarrier, timeoutMs);
+				sent = System.nanoTime();
+			}
+
+			// request
+			OutputStream outputStream = socket.getOutputStream();
+			outputStream.write(request);
+			outputStream.flush();
+
+			// response
+			InputStream inputStream = socket.getInputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			long firstByte = -1;
+			boolean complete = false;
+			while (!complete) {
+				int read = inputStream.read(buffer);
+				if (read < 0) {
+					complete = parser.onEndOfStream();
+					if (!complete) {
+						throw new EOFException("Connection closed by peer");
+					}
+					break;
+				}
+				if (firstByte < 0) {
+					firstByte = System.nanoTime();
+				}
+				complete = parser.feed(ByteBuffer.wrap(buffer, 0, read));
+			}
+			long end = System.nanoTime();
+
+			return new PhaseTimings(resolved - start, connected - resolved, handshaked - connected,
+					firstByte - sent, end - firstByte, parser.getStatusCode());
+
+		} finally {
+			if (!arrived) {
+				try {
+					awaitBarrier(startBarrier, timeoutMs);
+				} catch (IOException ignored) {
+					// request already failed
+				}
+			}
+			socket.close();
+		}
+	}
+
+	/**
+	 * Waits for every party of a burst to be ready
+	 * @param barrier burst start barrier
+	 * @param timeoutMs maximum waiting time in milliseconds
+	 * @throws IOException if barrier is broken, waiting times out or thread is interrupted
+	 */
+	private static void awaitBarrier(CyclicBarrier barrier, int timeoutMs) throws IOException {
+		try {
+			barrier.await(timeoutMs, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for burst start");
+		} catch (BrokenBarrierException | TimeoutException e) {
+			throw new IOException("Burst start barrier broken");
+		}
+	}
+}
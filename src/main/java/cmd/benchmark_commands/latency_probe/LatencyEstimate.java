@@ -0,0 +1,52 @@
+package cmd.benchmark_commands.latency_probe;
+
+/**
+ * A latency estimate with its confidence interval
+ */
+public class LatencyEstimate {
+	// point estimate in milliseconds
+	private final double value;
+	// confidence interval bounds in milliseconds
+	private final double lowerBound;
+	private final double upperBound;
+	// number of samples the estimate is based on
+	private final int samples;
+
+	/**
+	 * Default constructor
+	 * @param value point estimate in milliseconds
+	 * @param lowerBound confidence interval lower bound in milliseconds
+	 * @param upperBound confidence interval upper bound in milliseconds
+	 * @param samples number of samples the estimate is based on
+	 */
+	public LatencyEstimate(double value, double lowerBound, double upperBound, int samples) {
+		this.value = value;
+		this.lowerBound = lowerBound;
+		this.upperBound = upperBound;
+		this.samples = samples;
+	}
+
+	/**
+	 * Confidence interval half width
+	 * @return half width in milliseconds
+	 */
+	public double getHalfWidth() {
+		return (upperBound - lowerBound) / 2;
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	public double getLowerBound() {
+		return lowerBound;
+	}
+
+	public double getUpperBound() {
+		return upperBound;
+	}
+
+	public int getSamples() {
+		return samples;
+	}
+}
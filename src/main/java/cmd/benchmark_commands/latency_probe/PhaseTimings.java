@@ -0,0 +1,119 @@
+package cmd.benchmark_commands.latency_probe;
+
+/**
+ * Timing breakdown of a single HTTP request, every phase is measured with System.nanoTime()
+ */
+public class PhaseTimings {
+
+	/**
+	 * Phase names, used also as tag values
+	 */
+	public static final String DNS = "dns";
+	public static final String CONNECT = "connect";
+	public static final String TLS = "tls";
+	public static final String TTFB = "ttfb";
+	public static final String TRANSFER = "transfer";
+	public static final String TOTAL = "total";
+
+	// status codes reported while function instances are not available yet
+	private static final int BAD_GATEWAY = 502;
+	private static final int SERVICE_UNAVAILABLE = 503;
+
+	// DNS resolution time
+	private final long dnsNanos;
+	// TCP connection establishment time
+	private final long connectNanos;
+	// TLS handshake time (0 for plain HTTP)
+	private final long tlsNanos;
+	// time from request sending to first response byte
+	private final long ttfbNanos;
+	// time from first to last response byte
+	private final long transferNanos;
+	// response status code
+	private final int statusCode;
+
+
+	/**
+	 * Default constructor
+	 * @param dnsNanos DNS resolution time in nanoseconds
+	 * @param connectNanos TCP connection time in nanoseconds
+	 * @param tlsNanos TLS handshake time in nanoseconds
+	 * @param ttfbNanos time to first byte in nanoseconds
+	 * @param transferNanos body transfer time in nanoseconds
+	 * @param statusCode response status code
+	 */
+	public PhaseTimings(long dnsNanos, long connectNanos, long tlsNanos, long ttfbNanos, long transferNanos,
+						int statusCode) {
+		this.dnsNanos = dnsNanos;
+		this.connectNanos = connectNanos;
+		this.tlsNanos = tlsNanos;
+		this.ttfbNanos = ttfbNanos;
+		this.transferNanos = transferNanos;
+		this.statusCode = statusCode;
+	}
+
+	/**
+	 * Converts nanoseconds to milliseconds
+	 * @param nanos time in nanoseconds
+	 * @return time in milliseconds
+	 */
+	private static double toMs(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	public double getDnsMs() {
+		return toMs(dnsNanos);
+	}
+
+	public double getConnectMs() {
+		return toMs(connectNanos);
+	}
+
+	public double getTlsMs() {
+		return toMs(tlsNanos);
+	}
+
+	public double getTtfbMs() {
+		return toMs(ttfbNanos);
+	}
+
+	public double getTransferMs() {
+		return toMs(transferNanos);
+	}
+
+	/**
+	 * Complete request latency, client network setup included
+	 * @return latency in milliseconds
+	 */
+	public double getTotalMs() {
+		return toMs(dnsNanos + connectNanos + tlsNanos + ttfbNanos + transferNanos);
+	}
+
+	/**
+	 * Server side latency: time from request sending to last response byte, client network setup excluded
+	 * @return latency in milliseconds
+	 */
+	public double getServerSideMs() {
+		return toMs(ttfbNanos + transferNanos);
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * Tells whether the request was successfully served
+	 * @return true if status code is 2xx or 3xx, false elsewhere
+	 */
+	public boolean isSuccessful() {
+		return statusCode >= 200 && statusCode < 400;
+	}
+
+	/**
+	 * Tells whether the service was temporarily un-available and the request needs to be repeated
+	 * @return true if status code is 502 or 503, false elsewhere
+	 */
+	public boolean needsRetry() {
+		return statusCode == BAD_GATEWAY || statusCode == SERVICE_UNAVAILABLE;
+	}
+}
@@ -0,0 +1,138 @@
+package cmd.benchmark_commands.latency_probe;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Streaming warm latency estimator: the estimate is the 20% trimmed mean of the samples (robust to slow outliers)
+ * and its 95% confidence interval is obtained through percentile bootstrap. Samples are added one at a time until
+ * the interval is narrow enough or the maximum number of samples is reached.
+ */
+public class WarmLatencyEstimator {
+
+	/**
+	 * Estimation parameters
+	 */
+	private static final double TRIM_RATIO = 0.2;
+	private static final int BOOTSTRAP_RESAMPLES = 1000;
+	private static final double CONFIDENCE = 0.95;
+	// minimum number of samples needed to evaluate a confidence interval
+	private static final int MIN_INTERVAL_SAMPLES = 3;
+
+	/**
+	 * Stopping rule
+	 */
+	private final int minSamples;
+	private final int maxSamples;
+	private final double relativePrecision;
+	private final double absolutePrecisionMs;
+
+	/**
+	 * Samples
+	 */
+	private double[] samples;
+	private int size;
+	private final Random random;
+
+	// last evaluated estimate, null if samples changed since evaluation
+	private LatencyEstimate estimate;
+
+
+	/**
+	 * Default constructor
+	 * @param minSamples minimum number of samples to collect
+	 * @param maxSamples maximum number of samples to collect
+	 * @param relativePrecision target confidence interval half width relative to the estimate
+	 * @param absolutePrecisionMs confidence interval half width in milliseconds always considered narrow enough
+	 */
+	public WarmLatencyEstimator(int minSamples, int maxSamples, double relativePrecision,
+								double absolutePrecisionMs) {
+		this.minSamples = minSamples;
+		this.maxSamples = Math.max(minSamples, maxSamples);
+		this.relativePrecision = relativePrecision;
+		this.absolutePrecisionMs = absolutePrecisionMs;
+		this.samples = new double[Math.max(this.maxSamples, 1)];
+		this.size = 0;
+		this.random = new Random();
+		this.estimate = null;
+	}
+
+	/**
+	 * Adds a latency sample
+	 * @param latencyMs latency in milliseconds
+	 */
+	public void add(double latencyMs) {
+		if (size == samples.length) {
+			samples = Arrays.copyOf(samples, size * 2);
+		}
+		samples[size++] = latencyMs;
+		estimate = null;
+	}
+
+	/**
+	 * Tells whether more samples are needed
+	 * @return true if the maximum number of samples is reached or the confidence interval is narrow enough
+	 */
+	public boolean isCompleted() {
+		if (size >= maxSamples) {
+			return true;
+		}
+		if (size < minSamples || size < MIN_INTERVAL_SAMPLES) {
+			return false;
+		}
+		LatencyEstimate current = getEstimate();
+		return current.getHalfWidth() <= Math.max(relativePrecision * current.getValue(), absolutePrecisionMs);
+	}
+
+	/**
+	 * Evaluates the estimate with its confidence interval
+	 * @return estimate, null if no sample has been collected
+	 */
+	public LatencyEstimate getEstimate() {
+		if (size == 0) {
+			return null;
+		}
+		if (estimate != null) {
+			return estimate;
+		}
+
+		double[] sorted = Arrays.copyOf(samples, size);
+		Arrays.sort(sorted);
+		double value = trimmedMean(sorted);
+		if (size < MIN_INTERVAL_SAMPLES) {
+			// interval can not be evaluated
+			estimate = new LatencyEstimate(value, sorted[0], sorted[size - 1], size);
+			return estimate;
+		}
+
+		// percentile bootstrap
+		double[] resample = new double[size];
+		double[] statistics = new double[BOOTSTRAP_RESAMPLES];
+		for (int b = 0; b < BOOTSTRAP_RESAMPLES; b++) {
+			for (int i = 0; i < size; i++) {
+				resample[i] = samples[random.nextInt(size)];
+			}
+			Arrays.sort(resample);
+			statistics[b] = trimmedMean(resample);
+		}
+		Arrays.sort(statistics);
+		int lowerIndex = (int) Math.floor(BOOTSTRAP_RESAMPLES * (1 - CONFIDENCE) / 2);
+		int upperIndex = (int) Math.ceil(BOOTSTRAP_RESAMPLES * (1 + CONFIDENCE) / 2) - 1;
+		estimate = new LatencyEstimate(value, statistics[lowerIndex], statistics[upperIndex], size);
+		return estimate;
+	}
+
+	/**
+	 * Evaluates the trimmed mean of sorted values
+	 * @param sorted values in ascending order
+	 * @return mean of values without the lowest and highest TRIM_RATIO of them
+	 */
+	private static double trimmedMean(double[] sorted) {
+		int trimmed = (int) Math.floor(sorted.length * TRIM_RATIO);
+		double sum = 0;
+		for (int i = trimmed; i < sorted.length - trimmed; i++) {
+			sum += sorted[i];
+		}
+		return sum / (sorted.length - 2 * trimmed);
+	}
+}
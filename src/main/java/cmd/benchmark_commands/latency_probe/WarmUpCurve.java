@@ -0,0 +1,106 @@
+package cmd.benchmark_commands.latency_probe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Warm-up curve of a function: server side latency of the requests following a cold start, by position in the
+ * sequence (index 0 is the cold request itself). Sequences of different iterations are aggregated, for each request
+ * index, in percentile bands.
+ */
+public class WarmUpCurve {
+
+	/**
+	 * Percentile levels of the bands
+	 */
+	public static final double LOWER_BAND = 10;
+	public static final double MEDIAN = 50;
+	public static final double UPPER_BAND = 90;
+
+	// fraction of the final requests whose median latency is considered steady state
+	private static final double STEADY_STATE_TAIL = 0.25;
+	// minimum number of final requests confirming the steady state
+	private static final int STEADY_STATE_MIN_TAIL = 2;
+
+	// number of requests of each sequence
+	private final int length;
+	// latencies in milliseconds of each iteration, by request index
+	private final List<double[]> sequences;
+
+
+	/**
+	 * Default constructor
+	 * @param length number of requests of each sequence, cold request included
+	 */
+	public WarmUpCurve(int length) {
+		this.length = length;
+		this.sequences = new ArrayList<>();
+	}
+
+	/**
+	 * Adds the sequence measured after a cold start
+	 * @param sequence server side latencies in milliseconds in request order, cold request first
+	 */
+	public synchronized void add(double[] sequence) {
+		if (sequence.length != length) {
+			throw new IllegalArgumentException("sequence length must be " + length);
+		}
+		sequences.add(sequence.clone());
+	}
+
+	/**
+	 * Latency percentile of a request index across iterations (nearest rank)
+	 * @param index request index, 0 for the cold request
+	 * @param percentile percentile level (0 - 100)
+	 * @return latency in milliseconds, null if no sequence has been added
+	 */
+	public synchronized Double getPercentile(int index, double percentile) {
+		if (sequences.isEmpty()) {
+			return null;
+		}
+		double[] latencies = new double[sequences.size()];
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = sequences.get(i)[index];
+		}
+		Arrays.sort(latencies);
+		int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+		return latencies[Math.min(Math.max(rank, 1), latencies.length) - 1];
+	}
+
+	/**
+	 * Finds the request index steady state is reached from: the first one after which median latency never exceeds
+	 * the steady state latency (median of the final requests medians) by more than the given tolerance.
+	 * Steady state is not reached if any of the final requests still exceeds that latency
+	 * @param tolerance maximum relative gap from steady state latency (e.g. 0.1 for 10%)
+	 * @return request index, null if no sequence has been added or steady state has not been reached
+	 */
+	public synchronized Integer getSteadyStateIndex(double tolerance) {
+		if (sequences.isEmpty()) {
+			return null;
+		}
+		double[] medians = new double[length];
+		for (int i = 0; i < length; i++) {
+			medians[i] = getPercentile(i, MEDIAN);
+		}
+		int tail = Math.min(length, Math.max(STEADY_STATE_MIN_TAIL, (int) Math.ceil(length * STEADY_STATE_TAIL)));
+		double[] finalMedians = Arrays.copyOfRange(medians, length - tail, length);
+		Arrays.sort(finalMedians);
+		double threshold = finalMedians[(tail - 1) / 2] * (1 + tolerance);
+
+		int index = length;
+		while (index > 0 && medians[index - 1] <= threshold) {
+			index--;
+		}
+		// the final requests have to be within tolerance themselves, elsewhere latency is still decreasing
+		return index > length - tail ? null : index;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	public synchronized int getIterations() {
+		return sequences.size();
+	}
+}
@@ -0,0 +1,17 @@
+package cmd.benchmark_commands.load_generation;
+
+/**
+ * Exception raised in case a malformed HTTP response is received
+ */
+public class HttpParseException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Default constructor
+	 * @param message exception message
+	 */
+	public HttpParseException(String message) {
+		super(message);
+	}
+}
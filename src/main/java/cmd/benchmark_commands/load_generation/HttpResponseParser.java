@@ -0,0 +1,268 @@
+package cmd.benchmark_commands.load_generation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental HTTP/1.1 response parser: bytes can be fed as soon as they are available on the socket
+ */
+public class HttpResponseParser {
+
+	/**
+	 * Parser states
+	 */
+	private enum State {
+		STATUS_LINE, HEADERS, BODY_LENGTH, CHUNK_SIZE, CHUNK_DATA, CHUNK_DATA_END, TRAILERS, BODY_UNTIL_CLOSE, DONE
+	}
+
+	// maximum accepted line length (status, header or chunk size line)
+	private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+	private State state;
+	private final StringBuilder line;
+
+	private int statusCode;
+	private long remainingBodyBytes;
+	private boolean chunked;
+	private boolean keepAlive;
+	private long responseBytes;
+
+
+	/**
+	 * Default constructor
+	 */
+	public HttpResponseParser() {
+		line = new StringBuilder();
+		reset();
+	}
+
+	/**
+	 * Prepares the parser for a new response on the same connection
+	 */
+	public void reset() {
+		state = State.STATUS_LINE;
+		line.setLength(0);
+		statusCode = -1;
+		remainingBodyBytes = -1;
+		chunked = false;
+		keepAlive = true;
+		responseBytes = 0;
+	}
+
+	/**
+	 * Consumes available bytes from the buffer, stopping at the end of the current response
+	 * @param buffer buffer in read mode
+	 * @return true if the response has been completely received, false elsewhere
+	 * @throws HttpParseException if response is malformed
+	 */
+	public boolean feed(ByteBuffer buffer) throws HttpParseException {
+
+		while (buffer.hasRemaining() && state != State.DONE) {
+			switch (state) {
+				case STATUS_LINE:
+				case HEADERS:
+				case CHUNK_SIZE:
+				case CHUNK_DATA_END:
+				case TRAILERS:
+					if (readLine(buffer)) {
+						onLine(line.toString());
+						line.setLength(0);
+					}
+					break;
+				case BODY_LENGTH:
+				case CHUNK_DATA:
+					int toSkip = (int) Math.min(remainingBodyBytes, buffer.remaining());
+					buffer.position(buffer.position() + toSkip);
+					responseBytes += toSkip;
+					remainingBodyBytes -= toSkip;
+					if (remainingBodyBytes == 0) {
+						state = (state == State.BODY_LENGTH) ? State.DONE : State.CHUNK_DATA_END;
+					}
+					break;
+				case BODY_UNTIL_CLOSE:
+					responseBytes += buffer.remaining();
+					buffer.position(buffer.limit());
+					break;
+				default:
+					break;
+			}
+		}
+
+		return state == State.DONE;
+	}
+
+	/**
+	 * Notifies the parser that the peer closed the connection
+	 * @return true if the close completes the response (body delimited by connection close), false elsewhere
+	 */
+	public boolean onEndOfStream() {
+		if (state == State.BODY_UNTIL_CLOSE) {
+			state = State.DONE;
+			keepAlive = false;
+			return true;
+		}
+		return state == State.DONE;
+	}
+
+	/**
+	 * Accumulates bytes until a CRLF terminated line is found
+	 * @param buffer buffer in read mode
+	 * @return true if a complete line is available
+	 * @throws HttpParseException if line exceeds maximum length
+	 */
+	private boolean readLine(ByteBuffer buffer) throws HttpParseException {
+		while (buffer.hasRemaining()) {
+			char c = (char) (buffer.get() & 0xFF);
+			responseBytes++;
+			if (c == '\n') {
+				int length = line.length();
+				if (length > 0 && line.charAt(length - 1) == '\r') {
+					line.setLength(length - 1);
+				}
+				return true;
+			}
+			line.append(c);
+			if (line.length() > MAX_LINE_LENGTH) {
+				throw new HttpParseException("Line too long");
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Handles a complete line basing on current state
+	 * @param current line without CRLF
+	 * @throws HttpParseException if line is malformed
+	 */
+	private void onLine(String current) throws HttpParseException {
+		switch (state) {
+			case STATUS_LINE:
+				parseStatusLine(current);
+				state = State.HEADERS;
+				break;
+			case HEADERS:
+				if (current.isEmpty()) {
+					onHeadersEnd();
+				} else {
+					parseHeader(current);
+				}
+				break;
+			case CHUNK_SIZE:
+				int extension = current.indexOf(';');
+				String size = (extension == -1 ? current : current.substring(0, extension)).trim();
+				try {
+					remainingBodyBytes = Long.parseLong(size, 16);
+				} catch (NumberFormatException e) {
+					throw new HttpParseException("Invalid chunk size '" + size + "'");
+				}
+				state = remainingBodyBytes == 0 ? State.TRAILERS : State.CHUNK_DATA;
+				break;
+			case CHUNK_DATA_END:
+				state = State.CHUNK_SIZE;
+				break;
+			case TRAILERS:
+				if (current.isEmpty()) {
+					state = State.DONE;
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Parses response status line
+	 * @param current status line
+	 * @throws HttpParseException if status line is malformed
+	 */
+	private void parseStatusLine(String current) throws HttpParseException {
+		// e.g. "HTTP/1.1 200 OK"
+		int firstSpace = current.indexOf(' ');
+		if (!current.startsWith("HTTP/") || firstSpace == -1 || current.length() < firstSpace + 4) {
+			throw new HttpParseException("Invalid status line '" + current + "'");
+		}
+		// HTTP/1.0 closes connection by default
+		keepAlive = !current.startsWith("HTTP/1.0");
+		try {
+			statusCode = Integer.parseInt(current.substring(firstSpace + 1, firstSpace + 4));
+		} catch (NumberFormatException e) {
+			throw new HttpParseException("Invalid status code in '" + current + "'");
+		}
+	}
+
+	/**
+	 * Parses a response header, only body delimitation and connection management headers are considered
+	 * @param current header line
+	 * @throws HttpParseException if header is malformed
+	 */
+	private void parseHeader(String current) throws HttpParseException {
+		int colon = current.indexOf(':');
+		if (colon == -1) {
+			throw new HttpParseException("Invalid header '" + current + "'");
+		}
+		String name = current.substring(0, colon).trim();
+		String value = current.substring(colon + 1).trim();
+
+		if (name.equalsIgnoreCase("Content-Length")) {
+			try {
+				remainingBodyBytes = Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				throw new HttpParseException("Invalid content length '" + value + "'");
+			}
+		} else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+			chunked = value.toLowerCase().contains("chunked");
+		} else if (name.equalsIgnoreCase("Connection")) {
+			if (value.equalsIgnoreCase("close")) {
+				keepAlive = false;
+			} else if (value.equalsIgnoreCase("keep-alive")) {
+				keepAlive = true;
+			}
+		}
+	}
+
+	/**
+	 * Decides how the body is delimited once headers are completely received
+	 */
+	private void onHeadersEnd() {
+		if ((statusCode >= 100 && statusCode < 200) && statusCode != 101) {
+			// informational response, the real one follows
+			reset();
+		} else if (statusCode == 204 || statusCode == 304) {
+			state = State.DONE;
+		} else if (chunked) {
+			state = State.CHUNK_SIZE;
+		} else if (remainingBodyBytes >= 0) {
+			state = remainingBodyBytes == 0 ? State.DONE : State.BODY_LENGTH;
+		} else {
+			state = State.BODY_UNTIL_CLOSE;
+			keepAlive = false;
+		}
+	}
+
+	/**
+	 * Tells whether the current response has been completely received
+	 * @return true if complete, false elsewhere
+	 */
+	public boolean isComplete() {
+		return state == State.DONE;
+	}
+
+	/**
+	 * Tells whether at least one byte of the current response has been received
+	 * @return true if response started, false elsewhere
+	 */
+	public boolean isStarted() {
+		return responseBytes > 0;
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	public long getResponseBytes() {
+		return responseBytes;
+	}
+}
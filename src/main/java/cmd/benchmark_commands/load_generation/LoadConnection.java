@@ -0,0 +1,486 @@
+package cmd.benchmark_commands.load_generation;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Single non-blocking HTTP/1.1 keep-alive connection following a constant throughput schedule.
+ * Every request has an intended send time: latency is always measured from that time, so that a slow response
+ * delaying the following requests is accounted for (coordinated omission correction, as in wrk2).
+ */
+class LoadConnection {
+
+	/**
+	 * Connection states
+	 */
+	private enum State {
+		CLOSED, CONNECTING, HANDSHAKING, IDLE, SENDING, RECEIVING
+	}
+
+	// empty buffer used for handshake wraps
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+	// plain text read buffer size
+	private static final int PLAIN_BUFFER_SIZE = 16 * 1024;
+
+	/**
+	 * Target info
+	 */
+	private final TargetUrl target;
+	private final InetSocketAddress address;
+	private final SSLContext sslContext;
+	private final RequestTemplate template;
+	private byte[] request;
+
+	/**
+	 * Schedule info
+	 */
+	private final RequestSchedule schedule;
+	private long nextIntendedNanos;
+	private long currentIntendedNanos;
+	private long inFlightSinceNanos;
+	private long reconnectAtNanos;
+
+	/**
+	 * Channel info
+	 */
+	private State state;
+	private SocketChannel channel;
+	private SelectionKey key;
+	private SSLEngine engine;
+	private ByteBuffer netOut;
+	private ByteBuffer netIn;
+	private ByteBuffer appIn;
+	private final HttpResponseParser parser;
+
+
+	/**
+	 * Default constructor
+	 * @param target target of the requests
+	 * @param address resolved target address
+	 * @param sslContext context used for TLS connections, can be null if target is not secure
+	 * @param template template generating request payloads, null for plain GET requests
+	 * @param schedule schedule giving intended send times
+	 * @param firstIntendedNanos intended send time of the first request
+	 */
+	LoadConnection(TargetUrl target, InetSocketAddress address, SSLContext sslContext, RequestTemplate template,
+				   RequestSchedule schedule, long firstIntendedNanos) {
+		this.target = target;
+		this.address = address;
+		this.sslContext = sslContext;
+		this.template = template;
+		this.request = (template == null) ? target.buildGetRequest() : template.buildRequest(target);
+		this.schedule = schedule;
+		this.nextIntendedNanos = firstIntendedNanos;
+		this.reconnectAtNanos = 0;
+		this.state = State.CLOSED;
+		this.parser = new HttpResponseParser();
+	}
+
+	/**
+	 * Opens a new non-blocking connection
+	 * @param selector selector the connection has to be registered on
+	 * @throws IOException if connection cannot be opened
+	 */
+	void connect(Selector selector) throws IOException {
+		channel = SocketChannel.open();
+		channel.configureBlocking(false);
+		channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+		state = State.CONNECTING;
+		inFlightSinceNanos = System.nanoTime();
+		if (channel.connect(address)) {
+			key = channel.register(selector, 0, this);
+			onConnected();
+		} else {
+			key = channel.register(selector, SelectionKey.OP_CONNECT, this);
+		}
+	}
+
+	/**
+	 * Completes connection establishment
+	 * @throws IOException if connection failed
+	 */
+	void onConnectable() throws IOException {
+		if (channel.finishConnect()) {
+			onConnected();
+		}
+	}
+
+	/**
+	 * Starts TLS handshake if needed, elsewhere the connection is ready to send requests
+	 * @throws IOException if handshake cannot be started
+	 */
+	private void onConnected() throws IOException {
+		if (target.isSecure()) {
+			engine = sslContext.createSSLEngine(target.getHost(), target.getPort());
+			engine.setUseClientMode(true);
+			SSLParameters parameters = engine.getSSLParameters();
+			parameters.setEndpointIdentificationAlgorithm("HTTPS");
+			engine.setSSLParameters(parameters);
+
+			int packetSize = engine.getSession().getPacketBufferSize();
+			int applicationSize = engine.getSession().getApplicationBufferSize();
+			netOut = ByteBuffer.allocate(packetSize + request.length);
+			netOut.flip();
+			netIn = ByteBuffer.allocate(packetSize);
+			appIn = ByteBuffer.allocate(applicationSize);
+
+			state = State.HANDSHAKING;
+			engine.beginHandshake();
+			handshake();
+		} else {
+			netOut = ByteBuffer.allocate(request.length);
+			netOut.flip();
+			appIn = ByteBuffer.allocate(PLAIN_BUFFER_SIZE);
+			state = State.IDLE;
+			key.interestOps(SelectionKey.OP_READ);
+		}
+	}
+
+	/**
+	 * Advances TLS handshake as much as possible without blocking
+	 * @throws IOException if handshake fails
+	 */
+	private void handshake() throws IOException {
+		while (state == State.HANDSHAKING) {
+			switch (engine.getHandshakeStatus()) {
+				case NEED_TASK:
+					runDelegatedTasks();
+					break;
+				case NEED_WRAP:
+					wrap(EMPTY);
+					if (!flush()) {
+						key.interestOps(SelectionKey.OP_WRITE);
+						return;
+					}
+					break;
+				case NEED_UNWRAP:
+					if (!unwrap()) {
+						key.interestOps(SelectionKey.OP_READ);
+						return;
+					}
+					break;
+				default:
+					// FINISHED or NOT_HANDSHAKING
+					if (!flush()) {
+						key.interestOps(SelectionKey.OP_WRITE);
+						return;
+					}
+					state = State.IDLE;
+					key.interestOps(SelectionKey.OP_READ);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Tells whether the connection can send a new request
+	 * @return true if idle, false elsewhere
+	 */
+	boolean isIdle() {
+		return state == State.IDLE;
+	}
+
+	/**
+	 * Tells whether the connection needs to be opened again
+	 * @return true if closed, false elsewhere
+	 */
+	boolean isClosed() {
+		return state == State.CLOSED;
+	}
+
+	/**
+	 * Tells whether the connection is busy (connecting, handshaking or waiting for a response)
+	 * @return true if busy, false elsewhere
+	 */
+	boolean isBusy() {
+		return state != State.CLOSED && state != State.IDLE;
+	}
+
+	/**
+	 * Sends the next scheduled request
+	 * @throws IOException if request cannot be written
+	 */
+	void send() throws IOException {
+		currentIntendedNanos = nextIntendedNanos;
+		nextIntendedNanos = schedule.getNextIntendedNanos(nextIntendedNanos);
+		inFlightSinceNanos = System.nanoTime();
+		parser.reset();
+		if (template != null && !template.isStatic()) {
+			request = template.buildRequest(target);
+		}
+
+		if (target.isSecure()) {
+			ByteBuffer source = ByteBuffer.wrap(request);
+			while (source.hasRemaining()) {
+				wrap(source);
+			}
+		} else {
+			if (netOut.capacity() < request.length) {
+				netOut = ByteBuffer.allocate(request.length);
+			}
+			netOut.clear();
+			netOut.put(request);
+			netOut.flip();
+		}
+
+		state = State.SENDING;
+		if (flush()) {
+			state = State.RECEIVING;
+			key.interestOps(SelectionKey.OP_READ);
+		} else {
+			key.interestOps(SelectionKey.OP_WRITE);
+		}
+	}
+
+	/**
+	 * Continues pending writes
+	 * @throws IOException if data cannot be written
+	 */
+	void onWritable() throws IOException {
+		if (state == State.HANDSHAKING) {
+			handshake();
+		} else if (state == State.SENDING && flush()) {
+			state = State.RECEIVING;
+			key.interestOps(SelectionKey.OP_READ);
+		}
+	}
+
+	/**
+	 * Reads available response bytes
+	 * @param worker worker to notify for completed responses
+	 * @throws IOException if data cannot be read
+	 * @throws HttpParseException if response is malformed
+	 */
+	void onReadable(LoadWorker worker) throws IOException, HttpParseException {
+
+		if (state == State.HANDSHAKING) {
+			handshake();
+			return;
+		}
+
+		boolean endOfStream;
+		if (target.isSecure()) {
+			endOfStream = !readSecure();
+		} else {
+			int read = channel.read(appIn);
+			endOfStream = read < 0;
+		}
+
+		if (state != State.RECEIVING) {
+			// idle connection: only a close by the peer is expected (e.g. keep-alive timeout)
+			appIn.clear();
+			if (endOfStream) {
+				close();
+			}
+			return;
+		}
+
+		appIn.flip();
+		boolean complete = parser.feed(appIn);
+		appIn.clear();
+
+		if (!complete && endOfStream) {
+			complete = parser.onEndOfStream();
+			if (!complete) {
+				throw new EOFException("Connection closed by peer");
+			}
+		}
+
+		if (complete) {
+			long now = System.nanoTime();
+			worker.recordResponse(currentIntendedNanos, now - currentIntendedNanos, parser.getStatusCode(),
+					parser.getResponseBytes());
+			if (parser.isKeepAlive() && !endOfStream) {
+				state = State.IDLE;
+				key.interestOps(SelectionKey.OP_READ);
+			} else {
+				close();
+			}
+		}
+	}
+
+	/**
+	 * Reads and decrypts available data into application buffer
+	 * @return false if end of stream has been reached, true elsewhere
+	 * @throws IOException if data cannot be read or decrypted
+	 */
+	private boolean readSecure() throws IOException {
+		int read = channel.read(netIn);
+		netIn.flip();
+		try {
+			while (netIn.hasRemaining()) {
+				SSLEngineResult result = engine.unwrap(netIn, appIn);
+				if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+					return false;
+				}
+				if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+					appIn = enlarge(appIn, engine.getSession().getApplicationBufferSize());
+					continue;
+				}
+				if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW || result.bytesConsumed() == 0) {
+					break;
+				}
+				// post-handshake messages (e.g. TLS 1.3 session tickets)
+				if (engine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK) {
+					runDelegatedTasks();
+				}
+			}
+		} finally {
+			netIn.compact();
+		}
+		return read >= 0;
+	}
+
+	/**
+	 * Unwraps handshake data, reading from the channel if needed
+	 * @return true if progress was made, false if more data is needed from the network
+	 * @throws IOException if data cannot be read or decrypted
+	 */
+	private boolean unwrap() throws IOException {
+		while (true) {
+			netIn.flip();
+			SSLEngineResult result = engine.unwrap(netIn, appIn);
+			netIn.compact();
+
+			switch (result.getStatus()) {
+				case OK:
+					return true;
+				case BUFFER_OVERFLOW:
+					appIn = enlarge(appIn, engine.getSession().getApplicationBufferSize());
+					break;
+				case BUFFER_UNDERFLOW:
+					if (netIn.remaining() == 0) {
+						netIn = enlarge(netIn, engine.getSession().getPacketBufferSize());
+					}
+					int read = channel.read(netIn);
+					if (read < 0) {
+						throw new EOFException("Connection closed during TLS handshake");
+					} else if (read == 0) {
+						return false;
+					}
+					break;
+				default:
+					throw new SSLException("TLS connection closed during handshake");
+			}
+		}
+	}
+
+	/**
+	 * Encrypts data into the outgoing network buffer
+	 * @param source plain data
+	 * @throws IOException if data cannot be encrypted
+	 */
+	private void wrap(ByteBuffer source) throws IOException {
+		netOut.compact();
+		SSLEngineResult result = engine.wrap(source, netOut);
+		netOut.flip();
+
+		if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+			// pending data is kept in read mode
+			ByteBuffer enlarged = ByteBuffer.allocate(netOut.capacity() + engine.getSession().getPacketBufferSize());
+			enlarged.put(netOut);
+			enlarged.flip();
+			netOut = enlarged;
+		} else if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+			throw new SSLException("TLS connection closed");
+		}
+	}
+
+	/**
+	 * Writes pending network data
+	 * @return true if every pending byte has been written, false elsewhere
+	 * @throws IOException if data cannot be written
+	 */
+	private boolean flush() throws IOException {
+		while (netOut.hasRemaining()) {
+			if (channel.write(netOut) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Runs TLS engine delegated tasks in the current thread
+	 */
+	private void runDelegatedTasks() {
+		Runnable task;
+		while ((task = engine.getDelegatedTask()) != null) {
+			task.run();
+		}
+	}
+
+	/**
+	 * Creates a bigger buffer keeping current content
+	 * @param buffer buffer to enlarge (in write mode)
+	 * @param minimumIncrease minimum additional capacity
+	 * @return new buffer in write mode
+	 */
+	private static ByteBuffer enlarge(ByteBuffer buffer, int minimumIncrease) {
+		ByteBuffer enlarged = ByteBuffer.allocate(buffer.capacity() + Math.max(minimumIncrease, buffer.capacity()));
+		buffer.flip();
+		enlarged.put(buffer);
+		return enlarged;
+	}
+
+	/**
+	 * Closes the connection, the pending request (if any) is lost
+	 */
+	void close() {
+		state = State.CLOSED;
+		if (key != null) {
+			key.cancel();
+		}
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException ignored) {
+			}
+		}
+		engine = null;
+	}
+
+	/**
+	 * Closes the connection after an error, delaying the next connection attempt
+	 * @param retryDelayNanos time to wait before reconnection
+	 */
+	void fail(long retryDelayNanos) {
+		close();
+		reconnectAtNanos = System.nanoTime() + retryDelayNanos;
+	}
+
+	/**
+	 * Tells whether a request has been sent and its response is awaited
+	 * @return true if a request is in flight, false elsewhere (e.g. while connecting)
+	 */
+	boolean isRequestInFlight() {
+		return state == State.SENDING || state == State.RECEIVING;
+	}
+
+	long getNextIntendedNanos() {
+		return nextIntendedNanos;
+	}
+
+	long getCurrentIntendedNanos() {
+		return currentIntendedNanos;
+	}
+
+	long getInFlightSinceNanos() {
+		return inFlightSinceNanos;
+	}
+
+	long getReconnectAtNanos() {
+		return reconnectAtNanos;
+	}
+}
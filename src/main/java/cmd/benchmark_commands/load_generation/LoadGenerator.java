@@ -0,0 +1,266 @@
+package cmd.benchmark_commands.load_generation;
+
+import cmd.benchmark_commands.output_parsing.BenchmarkStats;
+import cmd.benchmark_commands.output_parsing.LatencyPercentile;
+import cmd.benchmark_commands.sample_capture.SampleBuffer;
+import cmd.benchmark_commands.sample_capture.SampleWriter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process open-loop HTTP load generator: requests are sent following a constant throughput schedule
+ * independently of server response times, latencies are recorded in a HdrHistogram.
+ */
+public class LoadGenerator {
+
+	/**
+	 * Maximum time a request can stay in flight before being considered a timeout
+	 */
+	private static final long REQUEST_TIMEOUT_MS = 60 * 1000;
+
+	/**
+	 * Time granted to workers for connection establishment before first scheduled request
+	 */
+	private static final long WARM_UP_DELAY_MS = 200;
+
+	/**
+	 * Maximum time to wait for workers termination after test end
+	 */
+	private static final long WORKERS_JOIN_GRACE_MS = 5 * 1000;
+
+	/**
+	 * Percentile spectrum resolution (same as wrk2 detailed output)
+	 */
+	private static final int SPECTRUM_TICKS_PER_HALF_DISTANCE = 5;
+
+
+	/**
+	 * Performs a constant rate load benchmark
+	 * @param url url to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param seconds test duration
+	 * @param requestsPerSecond number of requests per second
+	 * @return benchmark result as BenchmarkStats, null if benchmark could not be performed
+	 */
+	public static BenchmarkStats performLoadTest(String url, Integer concurrency, Integer threads, Integer seconds,
+												 Integer requestsPerSecond) {
+
+		if (seconds == null || requestsPerSecond == null) {
+			System.err.println("Could not perform benchmark: duration and requests per second must be specified");
+			return null;
+		}
+		List<BenchmarkStats> results = performLoadTest(url, concurrency, threads,
+				LoadProfile.constant(requestsPerSecond, seconds));
+		return (results == null) ? null : results.get(0);
+	}
+
+	/**
+	 * Performs a load benchmark following a load profile, connections are kept open between phases
+	 * @param url url to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param profile load profile
+	 * @return benchmark results as BenchmarkStats, one for each phase, null if benchmark could not be performed
+	 */
+	public static List<BenchmarkStats> performLoadTest(String url, Integer concurrency, Integer threads,
+													   LoadProfile profile) {
+		return performLoadTest(url, concurrency, threads, profile, null);
+	}
+
+	/**
+	 * Performs a load benchmark following a load profile, requests are generated from a payload template
+	 * @param url url to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param profile load profile
+	 * @param template request payload template, null for plain GET requests
+	 * @return benchmark results as BenchmarkStats, one for each phase, null if benchmark could not be performed
+	 */
+	public static List<BenchmarkStats> performLoadTest(String url, Integer concurrency, Integer threads,
+													   LoadProfile profile, RequestTemplate template) {
+		return performLoadTest(url, concurrency, threads, profile, template, null);
+	}
+
+	/**
+	 * Performs a load benchmark following a load profile, every request can be recorded in a sample file
+	 * @param url url to test
+	 * @param concurrency number of HTTP open connections
+	 * @param threads number of threads
+	 * @param profile load profile
+	 * @param template request payload template, null for plain GET requests
+	 * @param samplePath file raw per-request samples are written to, null if samples are not captured
+	 * @return benchmark results as BenchmarkStats, one for each phase, null if benchmark could not be performed
+	 */
+	public static List<BenchmarkStats> performLoadTest(String url, Integer concurrency, Integer threads,
+													   LoadProfile profile, RequestTemplate template,
+													   Path samplePath) {
+
+		if (concurrency == null || concurrency <= 0 || threads == null || threads <= 0) {
+			System.err.println("Could not perform benchmark: concurrency and threads must be greater than 0");
+			return null;
+		}
+		if (profile == null || !profile.isValid()) {
+			System.err.println("Could not perform benchmark: every load phase must have duration and requests per " +
+					"second greater than 0");
+			return null;
+		}
+		if (template != null && !template.isComplete()) {
+			System.err.println("Could not perform benchmark: request template has placeholders without value");
+			return null;
+		}
+
+		TargetUrl target;
+		InetSocketAddress address;
+		SSLContext sslContext = null;
+		try {
+			target = new TargetUrl(url);
+			address = target.resolve();
+			if (target.isSecure()) {
+				sslContext = SSLContext.getDefault();
+			}
+		} catch (MalformedURLException | UnknownHostException | NoSuchAlgorithmException e) {
+			System.err.println("Could not perform benchmark: " + e.getMessage());
+			return null;
+		}
+
+		int threadNum = Math.min(threads, concurrency);
+		// relates schedule times to wall clock times in sample files
+		long originNanos = System.nanoTime();
+		long originEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+		RequestSchedule schedule = new RequestSchedule(profile,
+				System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARM_UP_DELAY_MS), concurrency);
+		long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(REQUEST_TIMEOUT_MS);
+
+		// connections are evenly staggered
+		List<List<LoadConnection>> groups = new ArrayList<>();
+		for (int i = 0; i < threadNum; i++) {
+			groups.add(new ArrayList<>());
+		}
+		for (int i = 0; i < concurrency; i++) {
+			groups.get(i % threadNum).add(new LoadConnection(target, address, sslContext, template, schedule,
+					schedule.getFirstIntendedNanos(i)));
+		}
+
+		List<LoadWorker> workers = new ArrayList<>();
+		List<Thread> workerThreads = new ArrayList<>();
+		for (List<LoadConnection> group : groups) {
+			LoadWorker worker = new LoadWorker(group, schedule, timeoutNanos, samplePath != null);
+			Thread t = new Thread(worker, "load-worker-" + workers.size());
+			t.setDaemon(true);
+			workers.add(worker);
+			workerThreads.add(t);
+			t.start();
+		}
+
+		for (Thread t : workerThreads) {
+			try {
+				t.join(TimeUnit.SECONDS.toMillis(profile.getTotalSeconds()) + WARM_UP_DELAY_MS +
+						WORKERS_JOIN_GRACE_MS);
+			} catch (InterruptedException e) {
+				for (Thread toStop : workerThreads) {
+					toStop.interrupt();
+				}
+				System.err.println("Could not perform benchmark: interrupted");
+				return null;
+			}
+		}
+
+		for (LoadWorker worker : workers) {
+			IOException fatalError = worker.getFatalError();
+			if (fatalError != null) {
+				System.err.println("Could not perform benchmark: " + fatalError.getMessage());
+				return null;
+			}
+		}
+
+		if (samplePath != null) {
+			List<SampleBuffer> samples = new ArrayList<>();
+			for (LoadWorker worker : workers) {
+				samples.add(worker.getSamples());
+			}
+			// a missing sample file does not invalidate the benchmark
+			SampleWriter.write(samplePath, url, samples, originNanos, originEpochMicros);
+		}
+
+		List<BenchmarkStats> results = new ArrayList<>();
+		for (int i = 0; i < profile.getPhases().size(); i++) {
+			PhaseResults merged = new PhaseResults();
+			for (LoadWorker worker : workers) {
+				merged.add(worker.getResults()[i]);
+			}
+			BenchmarkStats stats = collectResults(merged, profile.getPhases().get(i));
+			if (profile.getPhases().size() > 1) {
+				stats.setPhase(i);
+			}
+			results.add(stats);
+		}
+		return results;
+	}
+
+	/**
+	 * Converts phase results
+	 * @param results merged workers results
+	 * @param phase executed load phase
+	 * @return phase result as BenchmarkStats
+	 */
+	private static BenchmarkStats collectResults(PhaseResults results, LoadPhase phase) {
+
+		long completed = results.getCompletedRequests();
+		int seconds = phase.getSeconds();
+		Histogram histogram = results.getHistogram();
+
+		BenchmarkStats stats = new BenchmarkStats();
+		stats.setTotalRequests(completed);
+		stats.setNon2xx3xxResponses(results.getNon2xx3xxResponses());
+		stats.setConnectErrors(results.getConnectErrors());
+		stats.setReadWriteErrors(results.getReadWriteErrors());
+		stats.setTimeouts(results.getTimeouts());
+		stats.setOfferedThroughput(phase.getAverageRequestsPerSecond());
+		stats.setRequestsThroughput(completed / (double) seconds);
+		// kilobytes per second, as wrk2 reports
+		stats.setTransferThroughput(results.getReceivedBytes() / 1000.0 / seconds);
+
+		if (completed > 0) {
+			// histogram values are in microseconds, latencies are stored in milliseconds
+			stats.setLatencyHistogram(histogram);
+			stats.setAvgLatency(histogram.getMean() / 1000);
+			stats.setStdDevLatency(histogram.getStdDeviation() / 1000);
+			stats.setMaxLatency(histogram.getMaxValue() / 1000.0);
+			collectPercentiles(stats, histogram);
+		}
+
+		return stats;
+	}
+
+	/**
+	 * Fills latency percentiles and spectrum from the histogram
+	 * @param stats result to fill
+	 * @param histogram latency histogram in microseconds
+	 */
+	private static void collectPercentiles(BenchmarkStats stats, Histogram histogram) {
+
+		stats.setP50Latency(histogram.getValueAtPercentile(50) / 1000.0);
+		stats.setP75Latency(histogram.getValueAtPercentile(75) / 1000.0);
+		stats.setP90Latency(histogram.getValueAtPercentile(90) / 1000.0);
+		stats.setP99Latency(histogram.getValueAtPercentile(99) / 1000.0);
+		stats.setP999Latency(histogram.getValueAtPercentile(99.9) / 1000.0);
+		stats.setP9999Latency(histogram.getValueAtPercentile(99.99) / 1000.0);
+
+		for (HistogramIterationValue value : histogram.percentiles(SPECTRUM_TICKS_PER_HALF_DISTANCE)) {
+			stats.addSpectrumPercentile(new LatencyPercentile(value.getPercentileLevelIteratedTo(),
+					value.getValueIteratedTo() / 1000.0, value.getTotalCountToThisValue()));
+		}
+	}
+}
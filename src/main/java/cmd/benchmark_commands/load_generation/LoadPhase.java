@@ -0,0 +1,74 @@
+package cmd.benchmark_commands.load_generation;
+
+/**
+ * A load profile phase: requests rate can be constant or linearly changing for the whole phase duration
+ */
+public class LoadPhase {
+
+	// phase duration
+	private final int seconds;
+	// requests per second at the beginning of the phase
+	private final int startRequestsPerSecond;
+	// requests per second at the end of the phase
+	private final int endRequestsPerSecond;
+
+
+	/**
+	 * Constructor for constant rate phases
+	 * @param seconds phase duration
+	 * @param requestsPerSecond number of requests per second
+	 */
+	public LoadPhase(int seconds, int requestsPerSecond) {
+		this(seconds, requestsPerSecond, requestsPerSecond);
+	}
+
+	/**
+	 * Constructor for linear ramp phases
+	 * @param seconds phase duration
+	 * @param startRequestsPerSecond number of requests per second at the beginning of the phase
+	 * @param endRequestsPerSecond number of requests per second at the end of the phase
+	 */
+	public LoadPhase(int seconds, int startRequestsPerSecond, int endRequestsPerSecond) {
+		this.seconds = seconds;
+		this.startRequestsPerSecond = startRequestsPerSecond;
+		this.endRequestsPerSecond = endRequestsPerSecond;
+	}
+
+	/**
+	 * Requests rate at a certain time of the phase
+	 * @param elapsedNanos time elapsed from phase beginning in nanoseconds
+	 * @return requests per second
+	 */
+	double getRequestsPerSecondAt(long elapsedNanos) {
+		double progress = Math.min(1.0, Math.max(0.0, elapsedNanos / (seconds * 1_000_000_000.0)));
+		return startRequestsPerSecond + (endRequestsPerSecond - startRequestsPerSecond) * progress;
+	}
+
+	/**
+	 * Average requests rate of the phase
+	 * @return requests per second
+	 */
+	public double getAverageRequestsPerSecond() {
+		return (startRequestsPerSecond + endRequestsPerSecond) / 2.0;
+	}
+
+	/**
+	 * Tells whether phase parameters are consistent
+	 * @return true if duration and rates are greater than 0, false elsewhere
+	 */
+	public boolean isValid() {
+		return seconds > 0 && startRequestsPerSecond > 0 && endRequestsPerSecond > 0;
+	}
+
+	public int getSeconds() {
+		return seconds;
+	}
+
+	public int getStartRequestsPerSecond() {
+		return startRequestsPerSecond;
+	}
+
+	public int getEndRequestsPerSecond() {
+		return endRequestsPerSecond;
+	}
+}
@@ -0,0 +1,139 @@
+package cmd.benchmark_commands.load_generation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Load benchmark profile as a sequence of phases, every phase produces its own results
+ */
+public class LoadProfile {
+
+	private final List<LoadPhase> phases;
+
+
+	/**
+	 * Default constructor
+	 * @param phases phases to execute in order
+	 */
+	public LoadProfile(List<LoadPhase> phases) {
+		this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+	}
+
+	/**
+	 * Builds a single phase constant load profile
+	 * @param requestsPerSecond number of requests per second
+	 * @param seconds test duration
+	 * @return load profile
+	 */
+	public static LoadProfile constant(int requestsPerSecond, int seconds) {
+		return new LoadProfile(Collections.singletonList(new LoadPhase(seconds, requestsPerSecond)));
+	}
+
+	/**
+	 * Builds a stair-step load profile: the rate is increased by a fixed amount at every step
+	 * @param startRequestsPerSecond number of requests per second in first step
+	 * @param stepRequestsPerSecond rate increase between two consecutive steps
+	 * @param steps number of steps
+	 * @param stepSeconds duration of each step
+	 * @return load profile
+	 */
+	public static LoadProfile stairStep(int startRequestsPerSecond, int stepRequestsPerSecond, int steps,
+										int stepSeconds) {
+		List<LoadPhase> phases = new ArrayList<>();
+		for (int i = 0; i < steps; i++) {
+			phases.add(new LoadPhase(stepSeconds, startRequestsPerSecond + i * stepRequestsPerSecond));
+		}
+		return new LoadProfile(phases);
+	}
+
+	/**
+	 * Builds a linear ramp load profile, split in segments so that results are available along the ramp. The
+	 * duration is split as evenly as possible: the first seconds % segments phases last one second more
+	 * @param startRequestsPerSecond number of requests per second at the beginning of the ramp
+	 * @param endRequestsPerSecond number of requests per second at the end of the ramp
+	 * @param seconds ramp duration
+	 * @param segments number of phases the ramp is split into (the profile is not valid if greater than seconds)
+	 * @return load profile
+	 */
+	public static LoadProfile linearRamp(int startRequestsPerSecond, int endRequestsPerSecond, int seconds,
+										 int segments) {
+		List<LoadPhase> phases = new ArrayList<>();
+		int elapsed = 0;
+		for (int i = 0; i < segments; i++) {
+			int segmentSeconds = seconds / segments + (i < seconds % segments ? 1 : 0);
+			// rates follow the ramp at the segment boundaries
+			int from = rampRate(startRequestsPerSecond, endRequestsPerSecond, elapsed, seconds);
+			elapsed += segmentSeconds;
+			int to = rampRate(startRequestsPerSecond, endRequestsPerSecond, elapsed, seconds);
+			phases.add(new LoadPhase(segmentSeconds, from, to));
+		}
+		return new LoadProfile(phases);
+	}
+
+	/**
+	 * Rate of a linear ramp at a given time
+	 * @param startRequestsPerSecond number of requests per second at the beginning of the ramp
+	 * @param endRequestsPerSecond number of requests per second at the end of the ramp
+	 * @param elapsedSeconds time since the beginning of the ramp
+	 * @param seconds ramp duration
+	 * @return number of requests per second
+	 */
+	private static int rampRate(int startRequestsPerSecond, int endRequestsPerSecond, int elapsedSeconds,
+								int seconds) {
+		if (seconds <= 0) {
+			return startRequestsPerSecond;
+		}
+		return (int) (startRequestsPerSecond +
+				(long) (endRequestsPerSecond - startRequestsPerSecond) * elapsedSeconds / seconds);
+	}
+
+	/**
+	 * Builds a spike load profile: base load, sudden spike and recovery at base load
+	 * @param baseRequestsPerSecond number of requests per second before and after the spike
+	 * @param spikeRequestsPerSecond number of requests per second during the spike
+	 * @param baseSeconds duration of base load before and after the spike
+	 * @param spikeSeconds spike duration
+	 * @return load profile
+	 */
+	public static LoadProfile spike(int baseRequestsPerSecond, int spikeRequestsPerSecond, int baseSeconds,
+									int spikeSeconds) {
+		List<LoadPhase> phases = new ArrayList<>();
+		phases.add(new LoadPhase(baseSeconds, baseRequestsPerSecond));
+		phases.add(new LoadPhase(spikeSeconds, spikeRequestsPerSecond));
+		phases.add(new LoadPhase(baseSeconds, baseRequestsPerSecond));
+		return new LoadProfile(phases);
+	}
+
+	/**
+	 * Tells whether the profile can be executed
+	 * @return true if the profile has at least one phase and every phase is valid, false elsewhere
+	 */
+	public boolean isValid() {
+		if (phases.isEmpty()) {
+			return false;
+		}
+		for (LoadPhase phase : phases) {
+			if (!phase.isValid()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Complete profile duration
+	 * @return duration in seconds
+	 */
+	public int getTotalSeconds() {
+		int total = 0;
+		for (LoadPhase phase : phases) {
+			total += phase.getSeconds();
+		}
+		return total;
+	}
+
+	public List<LoadPhase> getPhases() {
+		return phases;
+	}
+}
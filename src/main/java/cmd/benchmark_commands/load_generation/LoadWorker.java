@@ -0,0 +1,253 @@
+package cmd.benchmark_commands.load_generation;
+
+import cmd.benchmark_commands.sample_capture.SampleBuffer;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single load generation thread: drives a group of connections through one selector
+ */
+class LoadWorker implements Runnable {
+
+	/**
+	 * Connection retry policy
+	 */
+	private static final long MIN_RETRY_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	/**
+	 * Schedule info
+	 */
+	private final List<LoadConnection> connections;
+	private final RequestSchedule schedule;
+	private final long endNanos;
+	private final long timeoutNanos;
+
+	/**
+	 * Results, one for each profile phase
+	 */
+	private final PhaseResults[] results;
+	private IOException fatalError;
+	// raw per-request samples, null if samples are not captured
+	private final SampleBuffer samples;
+
+	// consecutive failures, used for reconnection back-off
+	private int consecutiveFailures;
+
+
+	/**
+	 * Default constructor
+	 * @param connections connections handled by this worker
+	 * @param schedule schedule followed by the connections
+	 * @param timeoutNanos maximum time a request can stay in flight before being considered a timeout
+	 * @param captureSamples true if every request has to be recorded
+	 */
+	LoadWorker(List<LoadConnection> connections, RequestSchedule schedule, long timeoutNanos,
+			   boolean captureSamples) {
+		this.connections = connections;
+		this.schedule = schedule;
+		this.endNanos = schedule.getEndNanos();
+		this.timeoutNanos = timeoutNanos;
+		this.results = new PhaseResults[schedule.getPhasesCount()];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = new PhaseResults();
+		}
+		this.fatalError = null;
+		this.samples = captureSamples ? new SampleBuffer() : null;
+	}
+
+	@Override
+	public void run() {
+
+		try (Selector selector = Selector.open()) {
+
+			long now;
+			while ((now = System.nanoTime()) < endNanos && !Thread.currentThread().isInterrupted()) {
+
+				long nextWakeUp = dispatch(selector, now);
+
+				long waitNanos = Math.min(nextWakeUp, endNanos) - System.nanoTime();
+				if (waitNanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+					selector.select(TimeUnit.NANOSECONDS.toMillis(waitNanos));
+				} else {
+					selector.selectNow();
+				}
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handle(key);
+				}
+			}
+
+		} catch (IOException e) {
+			fatalError = e;
+		} finally {
+			for (LoadConnection connection : connections) {
+				connection.close();
+			}
+		}
+	}
+
+	/**
+	 * Opens closed connections, sends due requests and expires timed out ones
+	 * @param selector selector used by this worker
+	 * @param now current time
+	 * @return time at which the worker needs to wake up again
+	 */
+	private long dispatch(Selector selector, long now) {
+
+		long nextWakeUp = endNanos;
+
+		for (LoadConnection connection : connections) {
+
+			if (connection.isClosed()) {
+				if (connection.getReconnectAtNanos() <= now) {
+					try {
+						connection.connect(selector);
+					} catch (IOException e) {
+						getCurrentResults(now).recordConnectError();
+						connection.fail(nextRetryDelay());
+					}
+				}
+				if (connection.isClosed()) {
+					nextWakeUp = Math.min(nextWakeUp, connection.getReconnectAtNanos());
+					continue;
+				}
+			}
+
+			if (connection.isBusy()) {
+				if (now - connection.getInFlightSinceNanos() >= timeoutNanos) {
+					getCurrentResults(now).recordTimeout();
+					if (samples != null && connection.isRequestInFlight()) {
+						recordTimeoutSample(connection.getCurrentIntendedNanos(), now);
+					}
+					connection.fail(0);
+				} else {
+					nextWakeUp = Math.min(nextWakeUp, connection.getInFlightSinceNanos() + timeoutNanos);
+				}
+				continue;
+			}
+
+			if (connection.isIdle()) {
+				if (connection.getNextIntendedNanos() <= now) {
+					try {
+						connection.send();
+					} catch (IOException e) {
+						getCurrentResults(now).recordReadWriteError();
+						connection.fail(nextRetryDelay());
+					}
+				} else {
+					nextWakeUp = Math.min(nextWakeUp, connection.getNextIntendedNanos());
+				}
+			}
+		}
+
+		return nextWakeUp;
+	}
+
+	/**
+	 * Handles a ready selection key
+	 * @param key selected key
+	 */
+	private void handle(SelectionKey key) {
+
+		LoadConnection connection = (LoadConnection) key.attachment();
+		if (!key.isValid()) {
+			return;
+		}
+
+		try {
+			if (key.isConnectable()) {
+				try {
+					connection.onConnectable();
+				} catch (IOException e) {
+					getCurrentResults(System.nanoTime()).recordConnectError();
+					connection.fail(nextRetryDelay());
+					return;
+				}
+			}
+			if (key.isValid() && key.isWritable()) {
+				connection.onWritable();
+			}
+			if (key.isValid() && key.isReadable()) {
+				connection.onReadable(this);
+			}
+		} catch (IOException | HttpParseException e) {
+			getCurrentResults(System.nanoTime()).recordReadWriteError();
+			connection.fail(nextRetryDelay());
+		}
+	}
+
+	/**
+	 * Exponential back-off for reconnections after consecutive failures
+	 * @return delay in nanoseconds
+	 */
+	private long nextRetryDelay() {
+		long delay = MIN_RETRY_DELAY_NANOS << Math.min(consecutiveFailures, 10);
+		consecutiveFailures++;
+		return Math.min(delay, MAX_RETRY_DELAY_NANOS);
+	}
+
+	/**
+	 * Results of the phase running at a certain time, errors happening outside the profile are assigned to the
+	 * nearest phase
+	 * @param nanos time (System.nanoTime() based)
+	 * @return phase results
+	 */
+	private PhaseResults getCurrentResults(long nanos) {
+		int index = schedule.getPhaseIndex(nanos);
+		if (index == -1) {
+			index = (nanos < schedule.getStartNanos()) ? 0 : results.length - 1;
+		}
+		return results[index];
+	}
+
+	/**
+	 * Records a completed response in the phase its request was intended to be sent in
+	 * @param intendedNanos intended send time of the request
+	 * @param latencyNanos latency measured from the intended send time
+	 * @param statusCode HTTP response status code
+	 * @param bytes response size in bytes
+	 */
+	void recordResponse(long intendedNanos, long latencyNanos, int statusCode, long bytes) {
+		consecutiveFailures = 0;
+		int index = schedule.getPhaseIndex(intendedNanos);
+		if (index != -1) {
+			results[index].recordResponse(latencyNanos, statusCode, bytes);
+			if (samples != null) {
+				samples.add(intendedNanos, latencyNanos, statusCode, bytes, index);
+			}
+		}
+	}
+
+	/**
+	 * Records a timed out request sample in the phase its request was intended to be sent in
+	 * @param intendedNanos intended send time of the request
+	 * @param now timeout time
+	 */
+	private void recordTimeoutSample(long intendedNanos, long now) {
+		int index = schedule.getPhaseIndex(intendedNanos);
+		if (index != -1) {
+			samples.addTimeout(intendedNanos, now - intendedNanos, index);
+		}
+	}
+
+	PhaseResults[] getResults() {
+		return results;
+	}
+
+	SampleBuffer getSamples() {
+		return samples;
+	}
+
+	IOException getFatalError() {
+		return fatalError;
+	}
+}
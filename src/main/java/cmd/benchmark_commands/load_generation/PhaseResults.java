@@ -0,0 +1,100 @@
+package cmd.benchmark_commands.load_generation;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Raw results of a load profile phase, collected by a single worker or merged from many
+ */
+class PhaseResults {
+
+	/**
+	 * Histogram precision (significant decimal digits)
+	 */
+	private static final int HISTOGRAM_PRECISION = 3;
+
+	// latencies in microseconds
+	private final Histogram histogram;
+	private long completedRequests;
+	private long non2xx3xxResponses;
+	private long connectErrors;
+	private long readWriteErrors;
+	private long timeouts;
+	private long receivedBytes;
+
+
+	/**
+	 * Default constructor
+	 */
+	PhaseResults() {
+		this.histogram = new Histogram(HISTOGRAM_PRECISION);
+	}
+
+	/**
+	 * Records a completed response
+	 * @param latencyNanos latency measured from the intended send time
+	 * @param statusCode HTTP response status code
+	 * @param bytes response size in bytes
+	 */
+	void recordResponse(long latencyNanos, int statusCode, long bytes) {
+		completedRequests++;
+		receivedBytes += bytes;
+		if (statusCode < 200 || statusCode >= 400) {
+			non2xx3xxResponses++;
+		}
+		histogram.recordValue(Math.max(1, latencyNanos / 1000));
+	}
+
+	void recordConnectError() {
+		connectErrors++;
+	}
+
+	void recordReadWriteError() {
+		readWriteErrors++;
+	}
+
+	void recordTimeout() {
+		timeouts++;
+	}
+
+	/**
+	 * Adds results of another worker
+	 * @param other results to add
+	 */
+	void add(PhaseResults other) {
+		histogram.add(other.histogram);
+		completedRequests += other.completedRequests;
+		non2xx3xxResponses += other.non2xx3xxResponses;
+		connectErrors += other.connectErrors;
+		readWriteErrors += other.readWriteErrors;
+		timeouts += other.timeouts;
+		receivedBytes += other.receivedBytes;
+	}
+
+	Histogram getHistogram() {
+		return histogram;
+	}
+
+	long getCompletedRequests() {
+		return completedRequests;
+	}
+
+	long getNon2xx3xxResponses() {
+		return non2xx3xxResponses;
+	}
+
+	long getConnectErrors() {
+		return connectErrors;
+	}
+
+	long getReadWriteErrors() {
+		return readWriteErrors;
+	}
+
+	long getTimeouts() {
+		return timeouts;
+	}
+
+	long getReceivedBytes() {
+		return receivedBytes;
+	}
+}
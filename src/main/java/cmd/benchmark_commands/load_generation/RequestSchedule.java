@@ -0,0 +1,98 @@
+package cmd.benchmark_commands.load_generation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a load profile on the time line: gives intended send times and phase of each request
+ */
+class RequestSchedule {
+
+	private final List<LoadPhase> phases;
+	// phases beginning (System.nanoTime() based), one more element marks the end of the last phase
+	private final long[] phaseStartNanos;
+	// number of connections sharing the rate
+	private final int concurrency;
+
+
+	/**
+	 * Default constructor
+	 * @param profile load profile
+	 * @param startNanos profile beginning (System.nanoTime() based)
+	 * @param concurrency number of connections sharing the rate
+	 */
+	RequestSchedule(LoadProfile profile, long startNanos, int concurrency) {
+		this.phases = profile.getPhases();
+		this.concurrency = concurrency;
+		this.phaseStartNanos = new long[phases.size() + 1];
+		phaseStartNanos[0] = startNanos;
+		for (int i = 0; i < phases.size(); i++) {
+			phaseStartNanos[i + 1] = phaseStartNanos[i] + TimeUnit.SECONDS.toNanos(phases.get(i).getSeconds());
+		}
+	}
+
+	/**
+	 * Finds the phase a time belongs to
+	 * @param nanos time (System.nanoTime() based)
+	 * @return phase index, -1 if time is outside the profile
+	 */
+	int getPhaseIndex(long nanos) {
+		if (nanos < phaseStartNanos[0]) {
+			return -1;
+		}
+		for (int i = 0; i < phases.size(); i++) {
+			if (nanos < phaseStartNanos[i + 1]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Computes the intended send time of the request following the given one on the same connection
+	 * @param intendedNanos intended send time of the current request
+	 * @return intended send time of the next request
+	 */
+	long getNextIntendedNanos(long intendedNanos) {
+		int index = getPhaseIndex(intendedNanos);
+		if (index == -1) {
+			index = (intendedNanos < phaseStartNanos[0]) ? 0 : phases.size() - 1;
+		}
+		double rate = phases.get(index).getRequestsPerSecondAt(intendedNanos - phaseStartNanos[index]);
+		return intendedNanos + (long) (TimeUnit.SECONDS.toNanos(concurrency) / rate);
+	}
+
+	/**
+	 * Computes the first intended send time of a connection, connections are evenly staggered
+	 * @param connectionIndex connection index
+	 * @return intended send time of the first request
+	 */
+	long getFirstIntendedNanos(int connectionIndex) {
+		double rate = phases.get(0).getRequestsPerSecondAt(0);
+		return phaseStartNanos[0] + (long) (connectionIndex * TimeUnit.SECONDS.toNanos(1) / rate);
+	}
+
+	/**
+	 * Profile beginning
+	 * @return time (System.nanoTime() based)
+	 */
+	long getStartNanos() {
+		return phaseStartNanos[0];
+	}
+
+	/**
+	 * Profile end
+	 * @return time (System.nanoTime() based)
+	 */
+	long getEndNanos() {
+		return phaseStartNanos[phases.size()];
+	}
+
+	/**
+	 * Number of phases
+	 * @return phases amount
+	 */
+	int getPhasesCount() {
+		return phases.size();
+	}
+}
@@ -0,0 +1,280 @@
+package cmd.benchmark_commands.load_generation;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Request payload template: query parameters appended to the target url and an optional JSON body (sent through
+ * POST). Templates can contain placeholders resolved for every request:
+ * - {seq}: request sequence number,
+ * - {random}: random non negative integer,
+ * - {name}: value of the parameter called name (e.g. {n} for workload size).
+ * Query values are URL encoded, body values are inserted as they are.
+ */
+public class RequestTemplate {
+
+	/**
+	 * Built-in placeholders
+	 */
+	public static final String SEQUENCE = "seq";
+	public static final String RANDOM = "random";
+
+	// placeholder format
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z_][A-Za-z0-9_]*)}");
+
+	/**
+	 * Templates
+	 */
+	private final String queryTemplate;
+	private final String bodyTemplate;
+	private final List<Segment> query;
+	private final List<Segment> body;
+
+	/**
+	 * Parameters and per request state
+	 */
+	private final Map<String, String> parameters;
+	private final AtomicLong sequence;
+	// true if no per request placeholder is used
+	private final boolean staticRequests;
+
+
+	/**
+	 * Default constructor
+	 * @param queryTemplate query string template without leading '?' (e.g. "n={n}"), can be null
+	 * @param bodyTemplate JSON body template (e.g. "{\"n\": {n}}"), can be null for GET requests
+	 */
+	public RequestTemplate(String queryTemplate, String bodyTemplate) {
+		this(queryTemplate, bodyTemplate, Collections.emptyMap());
+	}
+
+	/**
+	 * Constructor with parameters
+	 * @param queryTemplate query string template, can be null
+	 * @param bodyTemplate JSON body template, can be null
+	 * @param parameters parameter values by name
+	 */
+	private RequestTemplate(String queryTemplate, String bodyTemplate, Map<String, String> parameters) {
+		this.queryTemplate = queryTemplate;
+		this.bodyTemplate = bodyTemplate;
+		this.query = compile(queryTemplate);
+		this.body = compile(bodyTemplate);
+		this.parameters = parameters;
+		this.sequence = new AtomicLong();
+		List<String> placeholders = getPlaceholders();
+		this.staticRequests = !placeholders.contains(SEQUENCE) && !placeholders.contains(RANDOM);
+	}
+
+	/**
+	 * Creates a GET request template
+	 * @param queryTemplate query string template without leading '?' (e.g. "n={n}")
+	 * @return new template
+	 */
+	public static RequestTemplate query(String queryTemplate) {
+		return new RequestTemplate(queryTemplate, null);
+	}
+
+	/**
+	 * Creates a copy of this template with a parameter value set (sequence numbers restart from 0)
+	 * @param name parameter name
+	 * @param value parameter value
+	 * @return new template
+	 */
+	public RequestTemplate withParameter(String name, Object value) {
+		Map<String, String> updated = new HashMap<>(parameters);
+		updated.put(name, String.valueOf(value));
+		return new RequestTemplate(queryTemplate, bodyTemplate, updated);
+	}
+
+	/**
+	 * Checks that every placeholder can be resolved
+	 * @return true if every named placeholder has a value, false elsewhere
+	 */
+	public boolean isComplete() {
+		for (String placeholder : getPlaceholders()) {
+			if (!placeholder.equals(SEQUENCE) && !placeholder.equals(RANDOM) &&
+					!parameters.containsKey(placeholder)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tells whether every request is equal to the others
+	 * @return true if no per request placeholder is used, false elsewhere
+	 */
+	public boolean isStatic() {
+		return staticRequests;
+	}
+
+	/**
+	 * Collects placeholder names used in query and body
+	 * @return placeholder names
+	 */
+	private List<String> getPlaceholders() {
+		List<String> placeholders = new ArrayList<>();
+		for (List<Segment> segments : Arrays.asList(query, body)) {
+			if (segments == null) {
+				continue;
+			}
+			for (Segment segment : segments) {
+				if (segment.placeholder != null) {
+					placeholders.add(segment.placeholder);
+				}
+			}
+		}
+		return placeholders;
+	}
+
+	/**
+	 * Tells whether requests have a body
+	 * @return true if requests are sent through POST, false elsewhere
+	 */
+	public boolean hasBody() {
+		return body != null;
+	}
+
+	/**
+	 * Resolves the template into a single url (the body, if any, is ignored), used for tools not supporting per
+	 * request generation
+	 * @param url target url
+	 * @return url with resolved query parameters
+	 */
+	public String resolveUrl(String url) {
+		if (query == null) {
+			return url;
+		}
+		return appendQuery(url, resolve(query, sequence.getAndIncrement(), true));
+	}
+
+	/**
+	 * Builds the next request
+	 * @param target target of the request
+	 * @return request as bytes
+	 */
+	byte[] buildRequest(TargetUrl target) {
+		long number = sequence.getAndIncrement();
+		String resolvedQuery = (query == null) ? null : resolve(query, number, true);
+		byte[] resolvedBody = (body == null) ? null :
+				resolve(body, number, false).getBytes(StandardCharsets.UTF_8);
+		return target.buildRequest(resolvedQuery, resolvedBody);
+	}
+
+	/**
+	 * Appends a query string to a url
+	 * @param url url, can already have a query
+	 * @param queryString query string to append
+	 * @return complete url
+	 */
+	static String appendQuery(String url, String queryString) {
+		if (queryString == null || queryString.isEmpty()) {
+			return url;
+		}
+		return url + (url.contains("?") ? "&" : "?") + queryString;
+	}
+
+	/**
+	 * Resolves placeholders
+	 * @param segments compiled template
+	 * @param number request sequence number
+	 * @param encode true if values have to be URL encoded
+	 * @return resolved template
+	 */
+	private String resolve(List<Segment> segments, long number, boolean encode) {
+		StringBuilder builder = new StringBuilder();
+		for (Segment segment : segments) {
+			if (segment.placeholder == null) {
+				builder.append(segment.literal);
+				continue;
+			}
+			String value;
+			switch (segment.placeholder) {
+				case SEQUENCE:
+					value = String.valueOf(number);
+					break;
+				case RANDOM:
+					value = String.valueOf(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE));
+					break;
+				default:
+					value = parameters.get(segment.placeholder);
+					if (value == null) {
+						// unresolved placeholders are kept as they are
+						value = "{" + segment.placeholder + "}";
+					}
+					break;
+			}
+			builder.append(encode ? encode(value) : value);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * URL encodes a query value
+	 * @param value value to encode
+	 * @return encoded value
+	 */
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException e) {
+			// UTF-8 is always supported
+			return value;
+		}
+	}
+
+	/**
+	 * Splits a template into literal and placeholder segments
+	 * @param template template, can be null
+	 * @return segments, null if template is null
+	 */
+	private static List<Segment> compile(String template) {
+		if (template == null) {
+			return null;
+		}
+		List<Segment> segments = new ArrayList<>();
+		Matcher matcher = PLACEHOLDER.matcher(template);
+		int last = 0;
+		while (matcher.find()) {
+			if (matcher.start() > last) {
+				segments.add(new Segment(template.substring(last, matcher.start()), null));
+			}
+			segments.add(new Segment(null, matcher.group(1)));
+			last = matcher.end();
+		}
+		if (last < template.length()) {
+			segments.add(new Segment(template.substring(last), null));
+		}
+		return segments;
+	}
+
+	/**
+	 * Template part: either a literal or a placeholder
+	 */
+	private static class Segment {
+
+		private final String literal;
+		private final String placeholder;
+
+		/**
+		 * Default constructor
+		 * @param literal literal text, null for placeholders
+		 * @param placeholder placeholder name, null for literals
+		 */
+		private Segment(String literal, String placeholder) {
+			this.literal = literal;
+			this.placeholder = placeholder;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package cmd.benchmark_commands.load_generation;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Benchmark target described as needed for raw HTTP/1.1 requests
+ */
+public class TargetUrl {
+
+	/**
+	 * Default ports
+	 */
+	private static final int HTTP_PORT = 80;
+	private static final int HTTPS_PORT = 443;
+
+	/**
+	 * Request line and common headers
+	 */
+	private static final String HTTP_VERSION = "HTTP/1.1";
+	private static final String USER_AGENT = "ServerlessFlowBench";
+
+	/**
+	 * Information
+	 */
+	private final String host;
+	private final int port;
+	private final String pathAndQuery;
+	private final boolean secure;
+
+
+	/**
+	 * Default constructor
+	 * @param url complete url (http or https)
+	 * @throws MalformedURLException if url is not valid or protocol is not supported
+	 */
+	public TargetUrl(String url) throws MalformedURLException {
+
+		URL parsed = new URL(url);
+
+		switch (parsed.getProtocol().toLowerCase()) {
+			case "http":
+				secure = false;
+				break;
+			case "https":
+				secure = true;
+				break;
+			default:
+				throw new MalformedURLException("Protocol '" + parsed.getProtocol() + "' not supported");
+		}
+
+		host = parsed.getHost();
+		if (parsed.getPort() != -1) {
+			port = parsed.getPort();
+		} else {
+			port = secure ? HTTPS_PORT : HTTP_PORT;
+		}
+
+		String path = parsed.getPath();
+		if (path == null || path.isEmpty()) {
+			path = "/";
+		}
+		pathAndQuery = parsed.getQuery() == null ? path : path + "?" + parsed.getQuery();
+	}
+
+	/**
+	 * Resolves target address
+	 * @return socket address of the target
+	 * @throws UnknownHostException if DNS resolution fails
+	 */
+	public InetSocketAddress resolve() throws UnknownHostException {
+		return new InetSocketAddress(InetAddress.getByName(host), port);
+	}
+
+	/**
+	 * Builds a keep-alive GET request for the target
+	 * @return request as bytes
+	 */
+	public byte[] buildGetRequest() {
+		return buildRequest(null, null);
+	}
+
+	/**
+	 * Builds a keep-alive request for the target: GET if there is no body, POST with a JSON body elsewhere
+	 * @param extraQuery query string to append to the target one, can be null
+	 * @param body JSON body, can be null
+	 * @return request as bytes
+	 */
+	public byte[] buildRequest(String extraQuery, byte[] body) {
+		StringBuilder head = new StringBuilder()
+				.append(body == null ? "GET" : "POST").append(" ")
+				.append(RequestTemplate.appendQuery(pathAndQuery, extraQuery)).append(" ")
+				.append(HTTP_VERSION).append("\r\n")
+				.append("Host: ").append(getHostHeader()).append("\r\n")
+				.append("User-Agent: ").append(USER_AGENT).append("\r\n")
+				.append("Accept: */*\r\n")
+				.append("Connection: keep-alive\r\n");
+		if (body != null) {
+			head.append("Content-Type: application/json\r\n")
+					.append("Content-Length: ").append(body.length).append("\r\n");
+		}
+		head.append("\r\n");
+
+		byte[] headBytes = head.toString().getBytes(StandardCharsets.US_ASCII);
+		if (body == null) {
+			return headBytes;
+		}
+		byte[] request = new byte[headBytes.length + body.length];
+		System.arraycopy(headBytes, 0, request, 0, headBytes.length);
+		System.arraycopy(body, 0, request, headBytes.length, body.length);
+		return request;
+	}
+
+	/**
+	 * Host header value: port is omitted when default
+	 * @return host header value
+	 */
+	public String getHostHeader() {
+		if ((secure && port == HTTPS_PORT) || (!secure && port == HTTP_PORT)) {
+			return host;
+		}
+		return host + ":" + port;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public String getPathAndQuery() {
+		return pathAndQuery;
+	}
+
+	public boolean isSecure() {
+		return secure;
+	}
+}
@@ -0,0 +1,152 @@
+package cmd.benchmark_commands.memory_matrix;
+
+import cmd.CommandUtility;
+import cmd.benchmark_commands.BenchmarkCommandExecutor;
+import cmd.benchmark_commands.load_generation.LoadProfile;
+import cmd.functionality_commands.FunctionCommandExecutor;
+import databases.influx.InfluxClient;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Memory size matrix of a function: a variant of the function is deployed for every memory amount on every
+ * provider, variants are benchmarked together and removed at the end. Results of every variant are persisted under
+ * the original function name and tagged with the memory amount.
+ */
+public class MemoryMatrixRunner {
+
+	/**
+	 * Matrix definition
+	 */
+	private final String functionName;
+	private final List<Integer> memories;
+	// one deployer for each provider, receives variant name and memory amount, deploys and persists the variant
+	private final List<BiConsumer<String, Integer>> deployers;
+
+
+	/**
+	 * Default constructor
+	 * @param functionName common name (without runtime) of the function
+	 * @param memories memory amounts in megabytes
+	 */
+	public MemoryMatrixRunner(String functionName, List<Integer> memories) {
+		this.functionName = functionName;
+		this.memories = memories;
+		this.deployers = new ArrayList<>();
+	}
+
+	/**
+	 * Adds a provider to the matrix
+	 * @param deployer deploys a variant given its name and memory amount (e.g. a FunctionCommandExecutor deploy
+	 *                 call with fixed runtime, entry point and implementation)
+	 */
+	public void addDeployer(BiConsumer<String, Integer> deployer) {
+		deployers.add(deployer);
+	}
+
+	/**
+	 * Checks matrix consistency
+	 * @return true if the matrix can be performed, false elsewhere
+	 */
+	public boolean isValid() {
+		if (functionName == null || functionName.isEmpty() || functionName.contains(CommandUtility.getRuntimeSep()) ||
+				memories == null || memories.isEmpty() || deployers.isEmpty()) {
+			return false;
+		}
+		for (Integer memory : memories) {
+			if (memory == null || memory <= 0) {
+				return false;
+			}
+		}
+		return new HashSet<>(memories).size() == memories.size();
+	}
+
+	/**
+	 * Name of the variant with a memory amount
+	 * @param memory memory amount in megabytes
+	 * @return variant common name
+	 */
+	public String getVariantName(Integer memory) {
+		return functionName + "-" + memory;
+	}
+
+	/**
+	 * Deploys every variant concurrently, performs cold start and load benchmarks on them and removes them
+	 * @param benchmarker benchmark executor (concurrency limits, keep-alive estimation and burst size)
+	 * @param concurrency number of HTTP open connections in load test
+	 * @param threadNum number of threads in load test
+	 * @param profile load profile
+	 * @param sleepIntervalMs interval in milliseconds for functions VM deletion, if null default value will be used
+	 * @param timeoutRequestMs maximum time in milliseconds before request timeout occurs in cold start measurement,
+	 *                         if null default value will be used
+	 * @param iterations number of iterations, must be specified for variants to be removed
+	 * @param ignoredColdStartValues number of request to ignore due to cold start management inconsistency
+	 * @param warmStartAverageWidth number of warm start to perform to evaluate the average warm latency
+	 */
+	public void perform(BenchmarkCommandExecutor benchmarker, Integer concurrency, Integer threadNum,
+						LoadProfile profile, Integer sleepIntervalMs, Integer timeoutRequestMs, Integer iterations,
+						Integer ignoredColdStartValues, Integer warmStartAverageWidth) {
+
+		if (!isValid()) {
+			System.err.println("Could not perform memory matrix: function name, distinct memory amounts greater " +
+					"than 0 and at least one provider must be specified");
+			return;
+		}
+
+		if (iterations == null) {
+			System.err.println("Could not perform memory matrix: iterations number must be specified");
+			return;
+		}
+
+		List<String> variantNames = new ArrayList<>();
+		for (Integer memory : memories) {
+			variantNames.add(getVariantName(memory));
+		}
+
+		System.out.println("\n" + "\u001B[33m" +
+				"Deploying " + memories.size() + " memory variants of \"" + functionName + "\"..." +
+				"\u001B[0m" + "\n");
+
+		// every variant on every provider is deployed at the same time
+		ExecutorService deployExecutor = Executors.newFixedThreadPool(memories.size() * deployers.size());
+		List<Future<?>> deployments = new ArrayList<>();
+		for (Integer memory : memories) {
+			for (BiConsumer<String, Integer> deployer : deployers) {
+				deployments.add(deployExecutor.submit(() -> deployer.accept(getVariantName(memory), memory)));
+			}
+		}
+		deployExecutor.shutdown();
+
+		try {
+			for (Future<?> deployment : deployments) {
+				try {
+					deployment.get();
+				} catch (ExecutionException e) {
+					System.err.println("Could not deploy memory variant: " + e.getCause().getMessage());
+				}
+			}
+
+			for (Integer memory : memories) {
+				InfluxClient.registerMemoryVariant(getVariantName(memory), functionName, memory);
+			}
+			benchmarker.performBenchmarks(concurrency, threadNum, profile, sleepIntervalMs, timeoutRequestMs,
+					iterations, ignoredColdStartValues, warmStartAverageWidth, variantNames);
+			System.out.println("\u001B[32m" + "Memory matrix completed!" + "\u001B[0m");
+		} catch (InterruptedException ignored) {
+			System.err.println("Memory matrix interrupted!");
+		} finally {
+			for (String variantName : variantNames) {
+				InfluxClient.unregisterMemoryVariant(variantName);
+			}
+			// deployed variants are removed even if the matrix did not complete
+			FunctionCommandExecutor.removeFunctions(variantNames);
+		}
+	}
+}
@@ -1,7 +1,12 @@
 package cmd.benchmark_commands.output_parsing;
 
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * A collection of mrk2's benchmark results
+ * A collection of load benchmark results
  */
 public class BenchmarkStats {
 	// latency average
@@ -14,6 +19,29 @@ public class BenchmarkStats {
 	private Double requestsThroughput;
 	// throughput as kilobytes per second
 	private Double transferThroughput;
+	// completed requests
+	private Long totalRequests;
+	// responses with status code other than 2xx or 3xx
+	private Long non2xx3xxResponses;
+	// socket errors
+	private Long connectErrors;
+	private Long readWriteErrors;
+	private Long timeouts;
+	// full latency distribution in microseconds, available only for in-process load tests
+	private Histogram latencyHistogram;
+	// latency percentiles
+	private Double p50Latency;
+	private Double p75Latency;
+	private Double p90Latency;
+	private Double p99Latency;
+	private Double p999Latency;
+	private Double p9999Latency;
+	// detailed latency percentile spectrum
+	private final List<LatencyPercentile> percentileSpectrum;
+	// load profile phase index, null for single phase benchmarks
+	private Integer phase;
+	// requested throughput as requests per second
+	private Double offeredThroughput;
 
 	/**
 	 * Default constructor
@@ -24,6 +52,21 @@ public class BenchmarkStats {
 		this.maxLatency = null;
 		this.requestsThroughput = null;
 		this.transferThroughput = null;
+		this.totalRequests = null;
+		this.non2xx3xxResponses = null;
+		this.connectErrors = null;
+		this.readWriteErrors = null;
+		this.timeouts = null;
+		this.latencyHistogram = null;
+		this.p50Latency = null;
+		this.p75Latency = null;
+		this.p90Latency = null;
+		this.p99Latency = null;
+		this.p999Latency = null;
+		this.p9999Latency = null;
+		this.percentileSpectrum = new ArrayList<>();
+		this.phase = null;
+		this.offeredThroughput = null;
 	}
 
 	public Double getAvgLatency() {
@@ -65,4 +108,124 @@ public class BenchmarkStats {
 	public void setTransferThroughput(Double transferThroughput) {
 		this.transferThroughput = transferThroughput;
 	}
+
+	public Long getTotalRequests() {
+		return totalRequests;
+	}
+
+	public void setTotalRequests(Long totalRequests) {
+		this.totalRequests = totalRequests;
+	}
+
+	public Long getNon2xx3xxResponses() {
+		return non2xx3xxResponses;
+	}
+
+	public void setNon2xx3xxResponses(Long non2xx3xxResponses) {
+		this.non2xx3xxResponses = non2xx3xxResponses;
+	}
+
+	public Long getConnectErrors() {
+		return connectErrors;
+	}
+
+	public void setConnectErrors(Long connectErrors) {
+		this.connectErrors = connectErrors;
+	}
+
+	public Long getReadWriteErrors() {
+		return readWriteErrors;
+	}
+
+	public void setReadWriteErrors(Long readWriteErrors) {
+		this.readWriteErrors = readWriteErrors;
+	}
+
+	public Long getTimeouts() {
+		return timeouts;
+	}
+
+	public void setTimeouts(Long timeouts) {
+		this.timeouts = timeouts;
+	}
+
+	public Histogram getLatencyHistogram() {
+		return latencyHistogram;
+	}
+
+	public void setLatencyHistogram(Histogram latencyHistogram) {
+		this.latencyHistogram = latencyHistogram;
+	}
+
+	public Double getP50Latency() {
+		return p50Latency;
+	}
+
+	public void setP50Latency(Double p50Latency) {
+		this.p50Latency = p50Latency;
+	}
+
+	public Double getP75Latency() {
+		return p75Latency;
+	}
+
+	public void setP75Latency(Double p75Latency) {
+		this.p75Latency = p75Latency;
+	}
+
+	public Double getP90Latency() {
+		return p90Latency;
+	}
+
+	public void setP90Latency(Double p90Latency) {
+		this.p90Latency = p90Latency;
+	}
+
+	public Double getP99Latency() {
+		return p99Latency;
+	}
+
+	public void setP99Latency(Double p99Latency) {
+		this.p99Latency = p99Latency;
+	}
+
+	public Double getP999Latency() {
+		return p999Latency;
+	}
+
+	public void setP999Latency(Double p999Latency) {
+		this.p999Latency = p999Latency;
+	}
+
+	public Double getP9999Latency() {
+		return p9999Latency;
+	}
+
+	public void setP9999Latency(Double p9999Latency) {
+		this.p9999Latency = p9999Latency;
+	}
+
+	public List<LatencyPercentile> getPercentileSpectrum() {
+		return percentileSpectrum;
+	}
+
+	public void addSpectrumPercentile(LatencyPercentile percentile) {
+		this.percentileSpectrum.add(percentile);
+	}
+
+	public Integer getPhase() {
+		return phase;
+	}
+
+	public void setPhase(Integer phase) {
+		this.phase = phase;
+	}
+
+	public Double getOfferedThroughput() {
+		return offeredThroughput;
+	}
+
+	public void setOfferedThroughput(Double offeredThroughput) {
+		this.offeredThroughput = offeredThroughput;
+	}
 }
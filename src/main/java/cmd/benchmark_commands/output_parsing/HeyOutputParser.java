@@ -0,0 +1,152 @@
+package cmd.benchmark_commands.output_parsing;
+
+/**
+ * Parser for hey's summary output: summary, latency distribution, status codes and errors
+ */
+public class HeyOutputParser extends OutputParser {
+
+	/**
+	 * Output sections
+	 */
+	private enum Section {
+		NONE, SUMMARY, DISTRIBUTION, STATUS_CODES, ERRORS
+	}
+
+	private Section section;
+	// test duration in seconds
+	private Double totalSeconds;
+	// received bytes
+	private Double totalBytes;
+	// responses of every status code
+	private long responses;
+
+
+	/**
+	 * Default constructor
+	 */
+	public HeyOutputParser() {
+		super();
+		this.section = Section.NONE;
+		this.totalSeconds = null;
+		this.totalBytes = null;
+		this.responses = 0;
+	}
+
+	@Override
+	public void parseLine(String line) {
+
+		String trimmed = line.trim();
+		if (trimmed.isEmpty()) {
+			return;
+		}
+
+		// section headers are not indented
+		if (!line.startsWith(" ") && !line.startsWith("\t")) {
+			if (trimmed.startsWith("Summary")) {
+				section = Section.SUMMARY;
+			} else if (trimmed.startsWith("Latency distribution")) {
+				section = Section.DISTRIBUTION;
+			} else if (trimmed.startsWith("Status code distribution")) {
+				section = Section.STATUS_CODES;
+			} else if (trimmed.startsWith("Error distribution")) {
+				section = Section.ERRORS;
+			} else {
+				section = Section.NONE;
+			}
+			return;
+		}
+
+		LineScanner scanner = new LineScanner(trimmed);
+		switch (section) {
+			case SUMMARY:
+				parseSummaryLine(trimmed, scanner);
+				break;
+			case DISTRIBUTION:
+				// e.g. "99% in 0.1000 secs"
+				Double percentile = scanner.nextNumber();
+				Double latency = scanner.numberAfter("in");
+				if (percentile != null && latency != null) {
+					collectPercentile(percentile, latency * 1000);
+				}
+				break;
+			case STATUS_CODES:
+				// e.g. "[502]	5 responses"
+				Double code = scanner.numberAfter("[");
+				Double count = scanner.numberAfter("]");
+				if (code != null && count != null) {
+					responses += count.longValue();
+					if (code < 200 || code >= 400) {
+						result.setNon2xx3xxResponses(valueOf(result.getNon2xx3xxResponses()) + count.longValue());
+					}
+				}
+				break;
+			case ERRORS:
+				// e.g. "[3]	Get "http://...": context deadline exceeded (Client.Timeout exceeded ...)"
+				Double errors = scanner.numberAfter("[");
+				if (errors != null) {
+					collectError(trimmed, errors.longValue());
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Parses a summary line (values in seconds)
+	 * @param trimmed output line without surrounding blanks
+	 * @param scanner scanner of the line
+	 */
+	private void parseSummaryLine(String trimmed, LineScanner scanner) {
+		Double value = scanner.numberAfter(":");
+		if (value == null) {
+			return;
+		}
+		if (trimmed.startsWith("Total data")) {
+			totalBytes = value;
+		} else if (trimmed.startsWith("Total")) {
+			totalSeconds = value;
+		} else if (trimmed.startsWith("Slowest")) {
+			result.setMaxLatency(value * 1000);
+		} else if (trimmed.startsWith("Average")) {
+			result.setAvgLatency(value * 1000);
+		} else if (trimmed.startsWith("Requests/sec")) {
+			result.setRequestsThroughput(value);
+		}
+	}
+
+	/**
+	 * Classifies failed requests as wrk does
+	 * @param description error description
+	 * @param count number of occurrences
+	 */
+	private void collectError(String description, long count) {
+		if (description.contains("Timeout") || description.contains("deadline exceeded")) {
+			result.setTimeouts(valueOf(result.getTimeouts()) + count);
+		} else if (description.contains("dial")) {
+			result.setConnectErrors(valueOf(result.getConnectErrors()) + count);
+		} else {
+			result.setReadWriteErrors(valueOf(result.getReadWriteErrors()) + count);
+		}
+	}
+
+	/**
+	 * Fills totals known only at the end of the output
+	 */
+	@Override
+	protected void complete() {
+		result.setTotalRequests(responses);
+		if (totalSeconds != null && totalBytes != null && totalSeconds > 0) {
+			result.setTransferThroughput(totalBytes / 1000 / totalSeconds);
+		}
+	}
+
+	/**
+	 * Null safe counter value
+	 * @param counter counter, null if never set
+	 * @return counter value, 0 if never set
+	 */
+	private static long valueOf(Long counter) {
+		return (counter == null) ? 0 : counter;
+	}
+}
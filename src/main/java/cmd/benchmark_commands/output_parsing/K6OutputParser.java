@@ -0,0 +1,180 @@
+package cmd.benchmark_commands.output_parsing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parser for k6's JSON summary (metrics object printed on a single line by the handleSummary function of the
+ * generated script), other output lines are ignored
+ */
+public class K6OutputParser extends OutputParser {
+
+	/**
+	 * Metric names used by the generated script
+	 */
+	public static final String NON_2XX_3XX_METRIC = "non_2xx_3xx";
+	public static final String TIMEOUT_METRIC = "request_timeouts";
+	public static final String CONNECT_ERROR_METRIC = "connect_errors";
+	public static final String ERROR_METRIC = "request_errors";
+
+	// numeric values of the summary, keyed by their dotted path (e.g. "http_req_duration.values.p(99)")
+	private final Map<String, Double> values;
+	// summary line being scanned
+	private String json;
+	private int position;
+
+
+	/**
+	 * Default constructor
+	 */
+	public K6OutputParser() {
+		super();
+		this.values = new HashMap<>();
+	}
+
+	@Override
+	public void parseLine(String line) {
+		String trimmed = line.trim();
+		if (!trimmed.startsWith("{")) {
+			return;
+		}
+		json = trimmed;
+		position = 0;
+		try {
+			readValue("");
+		} catch (IndexOutOfBoundsException | NumberFormatException e) {
+			System.err.println("Could not parse k6 summary: " + e.getMessage());
+		}
+		json = null;
+	}
+
+	/**
+	 * Fills the result from the summary values (durations in milliseconds, data in bytes)
+	 */
+	@Override
+	protected void complete() {
+		String duration = "http_req_duration.values.";
+		result.setAvgLatency(values.get(duration + "avg"));
+		result.setMaxLatency(values.get(duration + "max"));
+		collectPercentile(50, values.get(duration + "med"));
+		collectPercentile(75, values.get(duration + "p(75)"));
+		collectPercentile(90, values.get(duration + "p(90)"));
+		collectPercentile(99, values.get(duration + "p(99)"));
+		collectPercentile(99.9, values.get(duration + "p(99.9)"));
+		collectPercentile(99.99, values.get(duration + "p(99.99)"));
+
+		Double requests = values.get("http_reqs.values.count");
+		if (requests != null) {
+			result.setTotalRequests(requests.longValue());
+		}
+		result.setRequestsThroughput(values.get("http_reqs.values.rate"));
+		Double bytesPerSecond = values.get("data_received.values.rate");
+		if (bytesPerSecond != null) {
+			result.setTransferThroughput(bytesPerSecond / 1000);
+		}
+
+		// counters are reported only if incremented at least once
+		if (requests != null) {
+			result.setNon2xx3xxResponses(count(NON_2XX_3XX_METRIC));
+			result.setTimeouts(count(TIMEOUT_METRIC));
+			result.setConnectErrors(count(CONNECT_ERROR_METRIC));
+			result.setReadWriteErrors(count(ERROR_METRIC));
+		}
+	}
+
+	/**
+	 * Reads a counter metric
+	 * @param metric metric name
+	 * @return counter value, 0 if not reported
+	 */
+	private long count(String metric) {
+		Double value = values.get(metric + ".values.count");
+		return (value == null) ? 0 : value.longValue();
+	}
+
+	/**
+	 * Reads a JSON value, numbers are stored with their path
+	 * @param path dotted path of the value
+	 */
+	private void readValue(String path) {
+		skipBlanks();
+		char c = json.charAt(position);
+		if (c == '{') {
+			position++;
+			skipBlanks();
+			if (json.charAt(position) == '}') {
+				position++;
+				return;
+			}
+			do {
+				skipBlanks();
+				String key = readString();
+				skipBlanks();
+				// ':' separator
+				position++;
+				readValue(path.isEmpty() ? key : path + "." + key);
+				skipBlanks();
+			} while (json.charAt(position++) == ',');
+		} else if (c == '[') {
+			position++;
+			skipBlanks();
+			if (json.charAt(position) == ']') {
+				position++;
+				return;
+			}
+			int index = 0;
+			do {
+				readValue(path + "." + index++);
+				skipBlanks();
+			} while (json.charAt(position++) == ',');
+		} else if (c == '"') {
+			readString();
+		} else if (c == '-' || Character.isDigit(c)) {
+			int start = position;
+			while (position < json.length() && "+-.eE0123456789".indexOf(json.charAt(position)) >= 0) {
+				position++;
+			}
+			values.put(path, Double.parseDouble(json.substring(start, position)));
+		} else {
+			// true, false or null
+			while (position < json.length() && Character.isLetter(json.charAt(position))) {
+				position++;
+			}
+		}
+	}
+
+	/**
+	 * Reads a JSON string
+	 * @return unescaped string
+	 */
+	private String readString() {
+		// opening quote
+		position++;
+		StringBuilder builder = new StringBuilder();
+		char c;
+		while ((c = json.charAt(position++)) != '"') {
+			if (c == '\\') {
+				c = json.charAt(position++);
+				if (c == 'u') {
+					c = (char) Integer.parseInt(json.substring(position, position + 4), 16);
+					position += 4;
+				} else if (c == 'n') {
+					c = '\n';
+				} else if (c == 't') {
+					c = '\t';
+				}
+			}
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Skips JSON whitespaces
+	 */
+	private void skipBlanks() {
+		while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+			position++;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package cmd.benchmark_commands.output_parsing;
+
+/**
+ * A single entry of the latency percentile spectrum (HdrHistogram bucket)
+ */
+public class LatencyPercentile {
+	// percentile level (0 - 100)
+	private final double percentile;
+	// latency value in milliseconds
+	private final double value;
+	// number of requests with latency lower or equal to value
+	private final long totalCount;
+
+	/**
+	 * Default constructor
+	 * @param percentile percentile level (0 - 100)
+	 * @param value latency value in milliseconds
+	 * @param totalCount number of requests with latency lower or equal to value
+	 */
+	public LatencyPercentile(double percentile, double value, long totalCount) {
+		this.percentile = percentile;
+		this.value = value;
+		this.totalCount = totalCount;
+	}
+
+	public double getPercentile() {
+		return percentile;
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	public long getTotalCount() {
+		return totalCount;
+	}
+}
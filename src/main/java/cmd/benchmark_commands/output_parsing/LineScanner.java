@@ -0,0 +1,112 @@
+package cmd.benchmark_commands.output_parsing;
+
+/**
+ * Forward-only scanner over a single output line, used instead of regular expressions: numbers, units and keys are
+ * read in place without intermediate matching
+ */
+class LineScanner {
+
+	private final String line;
+	private int position;
+
+
+	/**
+	 * Default constructor
+	 * @param line line to scan
+	 */
+	LineScanner(String line) {
+		this.line = line;
+		this.position = 0;
+	}
+
+	/**
+	 * Moves after the next occurrence of a text
+	 * @param text text to search
+	 * @return true if the text has been found, false elsewhere (position unchanged)
+	 */
+	boolean skipPast(String text) {
+		int index = line.indexOf(text, position);
+		if (index < 0) {
+			return false;
+		}
+		position = index + text.length();
+		return true;
+	}
+
+	/**
+	 * Skips blanks and separators (spaces, tabs and commas)
+	 */
+	void skipBlanks() {
+		while (position < line.length()) {
+			char c = line.charAt(position);
+			if (c != ' ' && c != '\t' && c != ',') {
+				return;
+			}
+			position++;
+		}
+	}
+
+	/**
+	 * Reads the next decimal number (optionally signed, with fraction and exponent)
+	 * @return number, null if the next token is not a number (position unchanged)
+	 */
+	Double nextNumber() {
+		skipBlanks();
+		int start = position;
+		int end = position;
+		if (end < line.length() && (line.charAt(end) == '-' || line.charAt(end) == '+')) {
+			end++;
+		}
+		int digits = 0;
+		while (end < line.length() && (Character.isDigit(line.charAt(end)) || line.charAt(end) == '.')) {
+			if (line.charAt(end) != '.') {
+				digits++;
+			}
+			end++;
+		}
+		if (digits == 0) {
+			return null;
+		}
+		// exponent, only if followed by digits (e.g. not the "e" of a unit)
+		if (end + 1 < line.length() && (line.charAt(end) == 'e' || line.charAt(end) == 'E')) {
+			int exponent = end + 1;
+			if (line.charAt(exponent) == '-' || line.charAt(exponent) == '+') {
+				exponent++;
+			}
+			if (exponent < line.length() && Character.isDigit(line.charAt(exponent))) {
+				end = exponent;
+				while (end < line.length() && Character.isDigit(line.charAt(end))) {
+					end++;
+				}
+			}
+		}
+		try {
+			double value = Double.parseDouble(line.substring(start, end));
+			position = end;
+			return value;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the letters directly following the current position (e.g. the unit of a number)
+	 * @return letters, empty if there are none
+	 */
+	String nextUnit() {
+		int start = position;
+		while (position < line.length() && Character.isLetter(line.charAt(position))) {
+			position++;
+		}
+		return line.substring(start, position);
+	}
+
+	/**
+	 * Reads the number following a key
+	 * @param key text preceding the number
+	 * @return number, null if key or number are missing
+	 */
+	Double numberAfter(String key) {
+		return skipPast(key) ? nextNumber() : null;
+	}
+}
@@ -0,0 +1,127 @@
+package cmd.benchmark_commands.output_parsing;
+
+/**
+ * Streaming parser of a load generator output: lines are fed one at a time, as soon as the tool prints them, and
+ * collected in a BenchmarkStats common to every load generator
+ */
+public abstract class OutputParser {
+
+	// tolerance used to match percentile levels
+	private static final double PERCENTILE_TOLERANCE = 1e-6;
+
+	protected final BenchmarkStats result;
+	private boolean completed;
+
+
+	/**
+	 * Default constructor
+	 */
+	protected OutputParser() {
+		this.result = new BenchmarkStats();
+		this.completed = false;
+	}
+
+	/**
+	 * Parses an output line and saves data
+	 * @param line output line, without line terminator
+	 */
+	public abstract void parseLine(String line);
+
+	/**
+	 * Completes the result once every line has been parsed, does nothing by default
+	 */
+	protected void complete() {
+	}
+
+	/**
+	 * Get final result
+	 * @return BenchmarkStats containing every parsed and collected info
+	 */
+	public BenchmarkStats getResult() {
+		if (!completed) {
+			completed = true;
+			complete();
+		}
+		return result;
+	}
+
+	/**
+	 * Saves a latency percentile if it is one of the stored levels
+	 * @param percentile percentile level (0 - 100)
+	 * @param latency latency in milliseconds, can be null
+	 */
+	protected void collectPercentile(double percentile, Double latency) {
+		if (latency == null) {
+			return;
+		}
+		if (isLevel(percentile, 50)) {
+			result.setP50Latency(latency);
+		} else if (isLevel(percentile, 75)) {
+			result.setP75Latency(latency);
+		} else if (isLevel(percentile, 90)) {
+			result.setP90Latency(latency);
+		} else if (isLevel(percentile, 99)) {
+			result.setP99Latency(latency);
+		} else if (isLevel(percentile, 99.9)) {
+			result.setP999Latency(latency);
+		} else if (isLevel(percentile, 99.99)) {
+			result.setP9999Latency(latency);
+		}
+	}
+
+	/**
+	 * Compares percentile levels
+	 * @param percentile parsed percentile level
+	 * @param level stored percentile level
+	 * @return true if levels are the same, false elsewhere
+	 */
+	private static boolean isLevel(double percentile, double level) {
+		return Math.abs(percentile - level) < PERCENTILE_TOLERANCE;
+	}
+
+	/**
+	 * Converts a latency value to milliseconds
+	 * @param value latency value
+	 * @param unit latency unit as printed by load generators
+	 * @return latency in milliseconds, null if unit is unknown
+	 */
+	protected static Double toMilliseconds(double value, String unit) {
+		switch (unit) {
+			case "us":
+				return value / 1000;
+			case "ms":
+				return value;
+			case "s":
+			case "secs":
+				return value * 1000;
+			case "m":
+				return value * 60 * 1000;
+			case "h":
+				return value * 60 * 60 * 1000;
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Converts a data amount to kilobytes
+	 * @param value data amount
+	 * @param unit data unit as printed by load generators
+	 * @return amount in kilobytes, null if unit is unknown
+	 */
+	protected static Double toKilobytes(double value, String unit) {
+		switch (unit) {
+			case "B":
+			case "bytes":
+				return value / 1000;
+			case "KB":
+				return value;
+			case "MB":
+				return value * 1000;
+			case "GB":
+				return value * 1000 * 1000;
+			default:
+				return null;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package cmd.benchmark_commands.output_parsing;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Parser for wrk2's output (run with -L): in addition to wrk's output, the detailed percentile spectrum of recorded
+ * latencies is collected and used to rebuild the latency histogram
+ */
+public class Wrk2OutputParser extends WrkOutputParser {
+
+	// histogram precision (significant decimal digits), same as wrk2
+	private static final int HISTOGRAM_PRECISION = 3;
+
+	// tells whether the current section reports recorded (coordinated omission corrected) latencies
+	private boolean recorded;
+	// tells whether the following lines belong to the detailed percentile spectrum
+	private boolean spectrum;
+
+
+	/**
+	 * Default constructor
+	 */
+	public Wrk2OutputParser() {
+		super();
+		this.recorded = true;
+		this.spectrum = false;
+	}
+
+	@Override
+	public void parseLine(String line) {
+
+		String trimmed = line.trim();
+
+		if (trimmed.startsWith("Latency Distribution")) {
+
+			recorded = !trimmed.contains("Uncorrected");
+			spectrum = false;
+			super.parseLine(line);
+
+		} else if (trimmed.startsWith("Detailed Percentile spectrum")) {
+
+			spectrum = recorded;
+
+		} else if (trimmed.startsWith("#[Mean")) {
+
+			// average and standard deviation in milliseconds
+			if (recorded) {
+				LineScanner scanner = new LineScanner(trimmed);
+				Double avg = scanner.numberAfter("=");
+				Double stdDev = scanner.numberAfter("=");
+				if (avg != null && stdDev != null) {
+					result.setAvgLatency(avg);
+					result.setStdDevLatency(stdDev);
+				}
+			}
+
+		} else if (trimmed.startsWith("#[Max")) {
+
+			// maximum in milliseconds, end of the percentile spectrum
+			spectrum = false;
+			if (recorded) {
+				Double max = new LineScanner(trimmed).numberAfter("=");
+				if (max != null) {
+					result.setMaxLatency(max);
+				}
+			}
+
+		} else if (spectrum) {
+
+			// spectrum bucket: value in milliseconds, percentile (range 0 - 1), total count, 1/(1-percentile)
+			LineScanner scanner = new LineScanner(trimmed);
+			Double value = scanner.nextNumber();
+			Double percentile = scanner.nextNumber();
+			Double totalCount = scanner.nextNumber();
+			if (value != null && percentile != null && totalCount != null) {
+				result.addSpectrumPercentile(new LatencyPercentile(percentile * 100, value,
+						totalCount.longValue()));
+			}
+
+		} else {
+
+			super.parseLine(line);
+		}
+	}
+
+	/**
+	 * Rebuilds the latency histogram (in microseconds) from the percentile spectrum
+	 */
+	@Override
+	protected void complete() {
+		if (result.getPercentileSpectrum().isEmpty()) {
+			return;
+		}
+		Histogram histogram = new Histogram(HISTOGRAM_PRECISION);
+		long previousCount = 0;
+		for (LatencyPercentile percentile : result.getPercentileSpectrum()) {
+			long count = percentile.getTotalCount() - previousCount;
+			if (count > 0) {
+				histogram.recordValueWithCount(Math.round(percentile.getValue() * 1000), count);
+				previousCount = percentile.getTotalCount();
+			}
+		}
+		result.setLatencyHistogram(histogram);
+	}
+}
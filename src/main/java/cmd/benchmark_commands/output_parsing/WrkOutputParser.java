@@ -0,0 +1,139 @@
+package cmd.benchmark_commands.output_parsing;
+
+/**
+ * Parser for wrk's output (run with --latency): thread statistics, latency distribution, errors and throughput
+ */
+public class WrkOutputParser extends OutputParser {
+
+	// tells whether the following lines belong to the latency distribution
+	private boolean distribution;
+
+
+	/**
+	 * Default constructor
+	 */
+	public WrkOutputParser() {
+		super();
+		this.distribution = false;
+	}
+
+	@Override
+	public void parseLine(String line) {
+
+		String trimmed = line.trim();
+
+		if (trimmed.startsWith("Latency Distribution")) {
+
+			// only recorded (coordinated omission corrected for wrk2) latencies are considered
+			distribution = !trimmed.contains("Uncorrected");
+
+		} else if (distribution && parseDistributionLine(trimmed)) {
+
+			// percentile latency with its unit (e.g. "99.900%    5.00ms")
+			return;
+
+		} else if (trimmed.startsWith("Latency")) {
+
+			// thread statistics: average, standard deviation and maximum with their units
+			distribution = false;
+			LineScanner scanner = new LineScanner(trimmed);
+			scanner.skipPast("Latency");
+			Double avg = readLatency(scanner);
+			Double stdDev = readLatency(scanner);
+			Double max = readLatency(scanner);
+			if (avg != null && stdDev != null && max != null) {
+				result.setAvgLatency(avg);
+				result.setStdDevLatency(stdDev);
+				result.setMaxLatency(max);
+			}
+
+		} else {
+
+			distribution = false;
+			parseSummaryLine(trimmed);
+		}
+	}
+
+	/**
+	 * Parses a latency distribution line
+	 * @param trimmed output line without surrounding blanks
+	 * @return true if the line is a distribution line, false elsewhere
+	 */
+	private boolean parseDistributionLine(String trimmed) {
+		LineScanner scanner = new LineScanner(trimmed);
+		Double percentile = scanner.nextNumber();
+		if (percentile == null || !scanner.skipPast("%")) {
+			return false;
+		}
+		collectPercentile(percentile, readLatency(scanner));
+		return true;
+	}
+
+	/**
+	 * Parses requests, errors and throughput lines
+	 * @param trimmed output line without surrounding blanks
+	 */
+	protected void parseSummaryLine(String trimmed) {
+
+		LineScanner scanner = new LineScanner(trimmed);
+
+		if (trimmed.contains("requests in")) {
+
+			// completed requests
+			Double requests = scanner.nextNumber();
+			if (requests != null) {
+				result.setTotalRequests(requests.longValue());
+			}
+
+		} else if (trimmed.startsWith("Socket errors")) {
+
+			// connection, read/write and timeout errors
+			Double connect = scanner.numberAfter("connect");
+			Double read = scanner.numberAfter("read");
+			Double write = scanner.numberAfter("write");
+			Double timeout = scanner.numberAfter("timeout");
+			if (connect != null && read != null && write != null && timeout != null) {
+				result.setConnectErrors(connect.longValue());
+				result.setReadWriteErrors(read.longValue() + write.longValue());
+				result.setTimeouts(timeout.longValue());
+			}
+
+		} else if (trimmed.startsWith("Non-2xx or 3xx")) {
+
+			// non successful responses
+			Double responses = scanner.numberAfter(":");
+			if (responses != null) {
+				result.setNon2xx3xxResponses(responses.longValue());
+			}
+
+		} else if (trimmed.startsWith("Requests/sec")) {
+
+			// requests/sec throughput
+			Double throughput = scanner.numberAfter(":");
+			if (throughput != null) {
+				result.setRequestsThroughput(throughput);
+			}
+
+		} else if (trimmed.startsWith("Transfer/sec")) {
+
+			// throughput stored as kb/sec
+			Double throughput = scanner.numberAfter(":");
+			if (throughput != null) {
+				Double kilobytes = toKilobytes(throughput, scanner.nextUnit());
+				if (kilobytes != null) {
+					result.setTransferThroughput(kilobytes);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a latency with its unit
+	 * @param scanner scanner positioned before the latency
+	 * @return latency in milliseconds, null if missing or unit is unknown
+	 */
+	private static Double readLatency(LineScanner scanner) {
+		Double value = scanner.nextNumber();
+		return (value == null) ? null : toMilliseconds(value, scanner.nextUnit());
+	}
+}
@@ -0,0 +1,101 @@
+package cmd.benchmark_commands.sample_capture;
+
+import java.util.Arrays;
+
+/**
+ * In-memory columns of the requests recorded by a single load generation thread, no synchronization is performed
+ */
+public class SampleBuffer {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Sample columns
+	 */
+	// intended send times (System.nanoTime() based)
+	private long[] sendNanos;
+	private long[] latencyMicros;
+	private int[] statusCodes;
+	private long[] bytes;
+	private int[] phases;
+	private int size;
+
+
+	/**
+	 * Default constructor
+	 */
+	public SampleBuffer() {
+		this.sendNanos = new long[INITIAL_CAPACITY];
+		this.latencyMicros = new long[INITIAL_CAPACITY];
+		this.statusCodes = new int[INITIAL_CAPACITY];
+		this.bytes = new long[INITIAL_CAPACITY];
+		this.phases = new int[INITIAL_CAPACITY];
+		this.size = 0;
+	}
+
+	/**
+	 * Records a completed request
+	 * @param sendNanos intended send time (System.nanoTime() based)
+	 * @param latencyNanos latency measured from the intended send time
+	 * @param statusCode HTTP response status code
+	 * @param responseBytes response size in bytes
+	 * @param phase index of the load profile phase the request belongs to
+	 */
+	public void add(long sendNanos, long latencyNanos, int statusCode, long responseBytes, int phase) {
+		if (size == this.sendNanos.length) {
+			grow();
+		}
+		this.sendNanos[size] = sendNanos;
+		this.latencyMicros[size] = Math.max(0, latencyNanos / 1000);
+		this.statusCodes[size] = statusCode;
+		this.bytes[size] = responseBytes;
+		this.phases[size] = phase;
+		size++;
+	}
+
+	/**
+	 * Records a timed out request
+	 * @param sendNanos intended send time (System.nanoTime() based)
+	 * @param latencyNanos time elapsed from the intended send time to the timeout
+	 * @param phase index of the load profile phase the request belongs to
+	 */
+	public void addTimeout(long sendNanos, long latencyNanos, int phase) {
+		add(sendNanos, latencyNanos, SampleReader.TIMEOUT_STATUS, 0, phase);
+	}
+
+	/**
+	 * Doubles columns capacity
+	 */
+	private void grow() {
+		int capacity = sendNanos.length * 2;
+		sendNanos = Arrays.copyOf(sendNanos, capacity);
+		latencyMicros = Arrays.copyOf(latencyMicros, capacity);
+		statusCodes = Arrays.copyOf(statusCodes, capacity);
+		bytes = Arrays.copyOf(bytes, capacity);
+		phases = Arrays.copyOf(phases, capacity);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	long getSendNanos(int index) {
+		return sendNanos[index];
+	}
+
+	long getLatencyMicros(int index) {
+		return latencyMicros[index];
+	}
+
+	int getStatusCode(int index) {
+		return statusCodes[index];
+	}
+
+	long getBytes(int index) {
+		return bytes[index];
+	}
+
+	int getPhase(int index) {
+		return phases[index];
+	}
+}
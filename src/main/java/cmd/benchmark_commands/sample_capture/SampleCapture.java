@@ -0,0 +1,38 @@
+package cmd.benchmark_commands.sample_capture;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Raw per-request sample capture location: every load test writes its samples in a file of its own, grouped by run,
+ * named after the target and the test start time
+ * (e.g. benchmark_samples/20201015-103000/cpu-test__python_google_1602750600000.samples)
+ */
+public class SampleCapture {
+
+	public static final String EXTENSION = ".samples";
+
+	// root directory of sample files
+	private final Path directory;
+
+
+	/**
+	 * Default constructor
+	 * @param directory root directory of sample files, created if needed
+	 */
+	public SampleCapture(String directory) {
+		this.directory = Paths.get(directory);
+	}
+
+	/**
+	 * Path of the sample file of a load test
+	 * @param runId identifier of the benchmark run
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider name
+	 * @param millis load test start time
+	 * @return sample file path
+	 */
+	public Path getSamplePath(String runId, String functionalityName, String provider, long millis) {
+		return directory.resolve(runId).resolve(functionalityName + "_" + provider + "_" + millis + EXTENSION);
+	}
+}
@@ -0,0 +1,75 @@
+package cmd.benchmark_commands.sample_capture;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Sample file format, a single block of columns after a fixed header:
+ * - header: magic number (int), version (short), samples count (int), first send time in epoch microseconds (long),
+ *   target length (int) and target url in UTF-8, byte length of every column (int),
+ * - send times: zigzag varint delta from the previous send time (microseconds, samples sorted by send time),
+ * - latencies: varint (microseconds),
+ * - status codes: run-length encoded, zigzag varint value and varint run length,
+ * - response sizes: zigzag varint delta from the previous size (bytes),
+ * - profile phases: run-length encoded, zigzag varint value and varint run length.
+ */
+class SampleEncoding {
+
+	/**
+	 * Format info
+	 */
+	static final int MAGIC = 0x53464253; // "SFBS"
+	static final short VERSION = 1;
+	static final int COLUMNS = 5;
+
+
+	/**
+	 * Writes an unsigned variable length integer, 7 bits for each byte
+	 * @param out destination
+	 * @param value non negative value
+	 */
+	static void writeVarLong(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	/**
+	 * Reads an unsigned variable length integer
+	 * @param in source, positioned on the first byte of the value
+	 * @return decoded value
+	 * @throws BufferUnderflowException if the value is truncated
+	 */
+	static long readVarLong(ByteBuffer in) {
+		long value = 0;
+		int shift = 0;
+		byte current;
+		do {
+			current = in.get();
+			value |= (long) (current & 0x7F) << shift;
+			shift += 7;
+		} while ((current & 0x80) != 0);
+		return value;
+	}
+
+	/**
+	 * Maps signed values to unsigned ones, so that small negative deltas take few bytes
+	 * @param value signed value
+	 * @return zigzag encoded value
+	 */
+	static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Inverse of zigZag
+	 * @param value zigzag encoded value
+	 * @return signed value
+	 */
+	static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,209 @@
+package cmd.benchmark_commands.sample_capture;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped reader of sample files: samples are decoded one at a time, in send time order, directly from the
+ * mapped file without intermediate copies.
+ * Usage: while (reader.next()) { reader.getLatencyMicros(); ... }
+ */
+public class SampleReader {
+
+	// status code of timed out requests
+	public static final int TIMEOUT_STATUS = 0;
+
+	/**
+	 * File info
+	 */
+	private final String target;
+	private final int count;
+	private final long firstSendMicros;
+	// column slices of the mapped file
+	private final ByteBuffer[] columns;
+
+	/**
+	 * Cursor state
+	 */
+	private ByteBuffer send;
+	private ByteBuffer latency;
+	private ByteBuffer status;
+	private ByteBuffer bytes;
+	private ByteBuffer phase;
+	private int position;
+	private long statusRun;
+	private long phaseRun;
+
+	/**
+	 * Current sample
+	 */
+	private long sendMicros;
+	private long latencyMicros;
+	private int statusCode;
+	private long responseBytes;
+	private int phaseIndex;
+
+
+	/**
+	 * Default constructor
+	 * @param target target url of the requests
+	 * @param count number of samples
+	 * @param firstSendMicros send time of the first sample in epoch microseconds
+	 * @param columns column slices
+	 */
+	private SampleReader(String target, int count, long firstSendMicros, ByteBuffer[] columns) {
+		this.target = target;
+		this.count = count;
+		this.firstSendMicros = firstSendMicros;
+		this.columns = columns;
+		rewind();
+	}
+
+	/**
+	 * Maps a sample file
+	 * @param path file path
+	 * @return reader positioned before the first sample
+	 * @throws IOException if the file can not be read or is not a sample file
+	 */
+	public static SampleReader open(String path) throws IOException {
+		return open(Paths.get(path));
+	}
+
+	/**
+	 * Maps a sample file
+	 * @param path file path
+	 * @return reader positioned before the first sample
+	 * @throws IOException if the file can not be read or is not a sample file
+	 */
+	public static SampleReader open(Path path) throws IOException {
+
+		MappedByteBuffer file;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			// the mapping stays valid after the channel is closed
+			file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		try {
+			if (file.getInt() != SampleEncoding.MAGIC) {
+				throw new IOException("'" + path + "' is not a sample file");
+			}
+			short version = file.getShort();
+			if (version != SampleEncoding.VERSION) {
+				throw new IOException("Unsupported sample file version " + version);
+			}
+			int count = file.getInt();
+			long firstSendMicros = file.getLong();
+			byte[] target = new byte[file.getInt()];
+			file.get(target);
+
+			int[] lengths = new int[SampleEncoding.COLUMNS];
+			for (int i = 0; i < lengths.length; i++) {
+				lengths[i] = file.getInt();
+			}
+			ByteBuffer[] columns = new ByteBuffer[SampleEncoding.COLUMNS];
+			int offset = file.position();
+			for (int i = 0; i < columns.length; i++) {
+				ByteBuffer column = file.duplicate();
+				column.position(offset);
+				column.limit(offset + lengths[i]);
+				columns[i] = column.slice();
+				offset += lengths[i];
+			}
+			return new SampleReader(new String(target, StandardCharsets.UTF_8), count, firstSendMicros, columns);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("'" + path + "' is truncated");
+		}
+	}
+
+	/**
+	 * Moves the cursor before the first sample
+	 */
+	public void rewind() {
+		send = columns[0].duplicate();
+		latency = columns[1].duplicate();
+		status = columns[2].duplicate();
+		bytes = columns[3].duplicate();
+		phase = columns[4].duplicate();
+		position = 0;
+		statusRun = 0;
+		phaseRun = 0;
+		sendMicros = firstSendMicros;
+		responseBytes = 0;
+	}
+
+	/**
+	 * Decodes the next sample
+	 * @return true if a sample is available, false if every sample has been read
+	 */
+	public boolean next() {
+		if (position == count) {
+			return false;
+		}
+		sendMicros += SampleEncoding.unZigZag(SampleEncoding.readVarLong(send));
+		latencyMicros = SampleEncoding.readVarLong(latency);
+		responseBytes += SampleEncoding.unZigZag(SampleEncoding.readVarLong(bytes));
+		if (statusRun == 0) {
+			statusCode = (int) SampleEncoding.unZigZag(SampleEncoding.readVarLong(status));
+			statusRun = SampleEncoding.readVarLong(status);
+		}
+		statusRun--;
+		if (phaseRun == 0) {
+			phaseIndex = (int) SampleEncoding.unZigZag(SampleEncoding.readVarLong(phase));
+			phaseRun = SampleEncoding.readVarLong(phase);
+		}
+		phaseRun--;
+		position++;
+		return true;
+	}
+
+	public String getTarget() {
+		return target;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Intended send time of the current sample
+	 * @return epoch time in microseconds
+	 */
+	public long getSendMicros() {
+		return sendMicros;
+	}
+
+	/**
+	 * Latency of the current sample, measured from its intended send time
+	 * @return latency in microseconds
+	 */
+	public long getLatencyMicros() {
+		return latencyMicros;
+	}
+
+	/**
+	 * HTTP status code of the current sample
+	 * @return status code, TIMEOUT_STATUS if the request timed out
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public long getResponseBytes() {
+		return responseBytes;
+	}
+
+	/**
+	 * Load profile phase of the current sample
+	 * @return phase index
+	 */
+	public int getPhase() {
+		return phaseIndex;
+	}
+}
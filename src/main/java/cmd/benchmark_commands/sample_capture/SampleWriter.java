@@ -0,0 +1,158 @@
+package cmd.benchmark_commands.sample_capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writer of sample files (see SampleEncoding for the format)
+ */
+public class SampleWriter {
+
+	/**
+	 * Merges samples recorded by every load generation thread and writes them to a file, sorted by send time.
+	 * The file is written aside and moved to its path once complete, so that an interrupted write leaves no torn file.
+	 * @param path file path, parent directories are created if needed
+	 * @param target target url of the requests
+	 * @param buffers samples recorded by every thread
+	 * @param originNanos System.nanoTime() value taken at originEpochMicros
+	 * @param originEpochMicros epoch time in microseconds taken at originNanos
+	 * @return true if the file has been written, false elsewhere
+	 */
+	public static boolean write(Path path, String target, List<SampleBuffer> buffers, long originNanos,
+								long originEpochMicros) {
+
+		// (buffer, index) pairs sorted by send time
+		List<int[]> order = new ArrayList<>();
+		for (int b = 0; b < buffers.size(); b++) {
+			for (int i = 0; i < buffers.get(b).size(); i++) {
+				order.add(new int[]{b, i});
+			}
+		}
+		order.sort(Comparator.comparingLong(ref -> buffers.get(ref[0]).getSendNanos(ref[1])));
+
+		ByteArrayOutputStream sendColumn = new ByteArrayOutputStream();
+		ByteArrayOutputStream latencyColumn = new ByteArrayOutputStream();
+		ByteArrayOutputStream bytesColumn = new ByteArrayOutputStream();
+		RunLengthColumn statusColumn = new RunLengthColumn();
+		RunLengthColumn phaseColumn = new RunLengthColumn();
+
+		long firstSendMicros = 0;
+		long previousSendMicros = 0;
+		long previousBytes = 0;
+		for (int[] ref : order) {
+			SampleBuffer buffer = buffers.get(ref[0]);
+			long sendMicros = originEpochMicros + (buffer.getSendNanos(ref[1]) - originNanos) / 1000;
+			if (sendColumn.size() == 0) {
+				firstSendMicros = sendMicros;
+				previousSendMicros = sendMicros;
+			}
+			SampleEncoding.writeVarLong(sendColumn, SampleEncoding.zigZag(sendMicros - previousSendMicros));
+			previousSendMicros = sendMicros;
+
+			SampleEncoding.writeVarLong(latencyColumn, buffer.getLatencyMicros(ref[1]));
+
+			long bytes = buffer.getBytes(ref[1]);
+			SampleEncoding.writeVarLong(bytesColumn, SampleEncoding.zigZag(bytes - previousBytes));
+			previousBytes = bytes;
+
+			statusColumn.add(buffer.getStatusCode(ref[1]));
+			phaseColumn.add(buffer.getPhase(ref[1]));
+		}
+		statusColumn.flush();
+		phaseColumn.flush();
+
+		byte[] targetBytes = target.getBytes(StandardCharsets.UTF_8);
+		List<byte[]> columns = Arrays.asList(sendColumn.toByteArray(), latencyColumn.toByteArray(),
+				statusColumn.toByteArray(), bytesColumn.toByteArray(), phaseColumn.toByteArray());
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			try (OutputStream file = Files.newOutputStream(temporary);
+				 DataOutputStream out = new DataOutputStream(file)) {
+				out.writeInt(SampleEncoding.MAGIC);
+				out.writeShort(SampleEncoding.VERSION);
+				out.writeInt(order.size());
+				out.writeLong(firstSendMicros);
+				out.writeInt(targetBytes.length);
+				out.write(targetBytes);
+				for (byte[] column : columns) {
+					out.writeInt(column.length);
+				}
+				for (byte[] column : columns) {
+					out.write(column);
+				}
+			}
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException e) {
+			System.err.println("Could not write samples to '" + path + "': " + e.getMessage());
+			try {
+				Files.deleteIfExists(temporary);
+			} catch (IOException ignored) {
+				// nothing else to do
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Run-length encoded column of small integers (status codes and phases change seldom)
+	 */
+	private static class RunLengthColumn {
+
+		private final ByteArrayOutputStream out;
+		private int value;
+		private long run;
+
+
+		/**
+		 * Default constructor
+		 */
+		private RunLengthColumn() {
+			this.out = new ByteArrayOutputStream();
+			this.run = 0;
+		}
+
+		/**
+		 * Appends a value
+		 * @param next value to append
+		 */
+		private void add(int next) {
+			if (run > 0 && next == value) {
+				run++;
+				return;
+			}
+			flush();
+			value = next;
+			run = 1;
+		}
+
+		/**
+		 * Writes the current run
+		 */
+		private void flush() {
+			if (run > 0) {
+				SampleEncoding.writeVarLong(out, SampleEncoding.zigZag(value));
+				SampleEncoding.writeVarLong(out, run);
+				run = 0;
+			}
+		}
+
+		private byte[] toByteArray() {
+			return out.toByteArray();
+		}
+	}
+}
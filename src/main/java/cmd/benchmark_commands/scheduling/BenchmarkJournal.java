@@ -0,0 +1,265 @@
+package cmd.benchmark_commands.scheduling;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only benchmark journal: every completed measurement and every scheduled step is written as a line and
+ * forced to disk before the benchmark goes on, so that a run interrupted by a crash can be resumed where it stopped.
+ * Records are tab separated:
+ * - run [run identifier],
+ * - measured [functionality] [provider] [COLD_START|LOAD] [millis],
+ * - due [functionality] [provider] [COLD_START|LOAD] [due millis],
+ * - sleep [functionality] [provider] [calibrated sleep interval ms].
+ * Measurements are persisted before being journaled: after a crash the last one can be repeated, never lost.
+ */
+public class BenchmarkJournal {
+
+	/**
+	 * Record types
+	 */
+	private static final String MEASURED = "measured";
+	private static final String DUE = "due";
+	private static final String SLEEP = "sleep";
+	private static final String RUN = "run";
+	private static final String SEPARATOR = "\t";
+
+	private final Path path;
+	private final FileChannel channel;
+
+	// chain states recovered from a previous run, by functionality and provider
+	private final Map<String, ChainState> states;
+	// identifier of the journaled run, null if not recorded
+	private String runId;
+
+
+	/**
+	 * Default constructor
+	 * @param path journal file path
+	 * @param channel journal file channel, positioned after the last valid record
+	 * @param states chain states recovered from a previous run
+	 * @param runId identifier of the journaled run, can be null
+	 */
+	private BenchmarkJournal(Path path, FileChannel channel, Map<String, ChainState> states, String runId) {
+		this.path = path;
+		this.channel = channel;
+		this.states = states;
+		this.runId = runId;
+	}
+
+	/**
+	 * Creates a new journal, previous records are discarded
+	 * @param path journal file path
+	 * @return new journal
+	 * @throws IOException exception related to journal file creation
+	 */
+	public static BenchmarkJournal create(String path) throws IOException {
+		Path file = Paths.get(path);
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		channel.force(true);
+		return new BenchmarkJournal(file, channel, new HashMap<>(), null);
+	}
+
+	/**
+	 * Opens an existing journal and recovers chain states, following records are appended to it
+	 * @param path journal file path
+	 * @return journal with recovered states (none if the file does not exist)
+	 * @throws IOException exception related to journal file reading
+	 */
+	public static BenchmarkJournal resume(String path) throws IOException {
+		Path file = Paths.get(path);
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		// a record torn by the crash is dropped, so that it is not replayed and the next one starts on its own line
+		long size = channel.size();
+		long validSize = size;
+		ByteBuffer last = ByteBuffer.allocate(1);
+		while (validSize > 0) {
+			last.clear();
+			channel.read(last, validSize - 1);
+			if (last.get(0) == '\n') {
+				break;
+			}
+			validSize--;
+		}
+		if (validSize < size) {
+			channel.truncate(validSize);
+			channel.force(true);
+		}
+		channel.position(validSize);
+
+		Map<String, ChainState> states = new HashMap<>();
+		String runId = null;
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			if (line.startsWith(RUN + SEPARATOR)) {
+				runId = line.substring(RUN.length() + SEPARATOR.length());
+			} else {
+				replay(states, line);
+			}
+		}
+		return new BenchmarkJournal(file, channel, states, runId);
+	}
+
+	/**
+	 * Applies a record to the recovered states, malformed records are ignored
+	 * @param states states to update
+	 * @param line journal record
+	 */
+	private static void replay(Map<String, ChainState> states, String line) {
+		String[] fields = line.split(SEPARATOR);
+		try {
+			switch (fields[0]) {
+				case MEASURED:
+					if (fields.length == 5) {
+						getOrCreate(states, fields[1], fields[2]).measured(
+								BenchmarkScheduler.TestType.valueOf(fields[3]), Long.parseLong(fields[4]));
+					}
+					break;
+				case DUE:
+					if (fields.length == 5) {
+						getOrCreate(states, fields[1], fields[2]).scheduled(
+								BenchmarkScheduler.TestType.valueOf(fields[3]), Long.parseLong(fields[4]));
+					}
+					break;
+				case SLEEP:
+					if (fields.length == 4) {
+						getOrCreate(states, fields[1], fields[2]).calibrated(Integer.parseInt(fields[3]));
+					}
+					break;
+				default:
+					break;
+			}
+		} catch (IllegalArgumentException ignored) {
+			// torn or unknown record
+		}
+	}
+
+	/**
+	 * Gets the state of a chain, creating it if needed
+	 * @param states recovered states
+	 * @param functionalityName name of the functionality
+	 * @param provider provider name
+	 * @return chain state
+	 */
+	private static ChainState getOrCreate(Map<String, ChainState> states, String functionalityName,
+										  String provider) {
+		return states.computeIfAbsent(getKey(functionalityName, provider), key -> new ChainState());
+	}
+
+	/**
+	 * Builds the key of a chain
+	 * @param functionalityName name of the functionality
+	 * @param provider provider name
+	 * @return chain key
+	 */
+	private static String getKey(String functionalityName, String provider) {
+		return functionalityName + SEPARATOR + provider;
+	}
+
+	/**
+	 * Recovered state of a chain
+	 * @param functionalityName name of the functionality
+	 * @param provider provider name
+	 * @return chain state, null if the chain has no record
+	 */
+	public ChainState getState(String functionalityName, String provider) {
+		return states.get(getKey(functionalityName, provider));
+	}
+
+	/**
+	 * Identifier of the journaled run, results of a resumed run keep it
+	 * @return run identifier, null if not recorded
+	 */
+	public String getRunId() {
+		return runId;
+	}
+
+	/**
+	 * Records the identifier of the run
+	 * @param runId run identifier
+	 * @return true if the record is on disk, false elsewhere
+	 */
+	public boolean recordRunId(String runId) {
+		this.runId = runId;
+		return append(RUN + SEPARATOR + runId);
+	}
+
+	/**
+	 * Records a completed measurement
+	 * @param functionalityName name of the functionality
+	 * @param provider provider name
+	 * @param step completed step
+	 * @param millis completion time
+	 * @return true if the record is on disk, false elsewhere
+	 */
+	public boolean recordMeasured(String functionalityName, String provider, BenchmarkScheduler.TestType step,
+								  long millis) {
+		return append(MEASURED + SEPARATOR + getKey(functionalityName, provider) + SEPARATOR + step.name() +
+				SEPARATOR + millis);
+	}
+
+	/**
+	 * Records a scheduled step
+	 * @param functionalityName name of the functionality
+	 * @param provider provider name
+	 * @param step scheduled step
+	 * @param dueMillis time the step is due at
+	 * @return true if the record is on disk, false elsewhere
+	 */
+	public boolean recordDue(String functionalityName, String provider, BenchmarkScheduler.TestType step,
+							 long dueMillis) {
+		return append(DUE + SEPARATOR + getKey(functionalityName, provider) + SEPARATOR + step.name() +
+				SEPARATOR + dueMillis);
+	}
+
+	/**
+	 * Records a sleep interval calibrated on the keep-alive window
+	 * @param functionalityName name of the functionality
+	 * @param provider provider name
+	 * @param sleepMs sleep interval in milliseconds
+	 * @return true if the record is on disk, false elsewhere
+	 */
+	public boolean recordSleep(String functionalityName, String provider, int sleepMs) {
+		return append(SLEEP + SEPARATOR + getKey(functionalityName, provider) + SEPARATOR + sleepMs);
+	}
+
+	/**
+	 * Appends a record and forces it to disk
+	 * @param record record without line terminator
+	 * @return true if the record is on disk, false elsewhere
+	 */
+	private synchronized boolean append(String record) {
+		ByteBuffer buffer = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+			return true;
+		} catch (IOException e) {
+			System.err.println("Could not write benchmark journal '" + path + "': " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Closes the journal
+	 */
+	public synchronized void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			System.err.println("Could not close benchmark journal '" + path + "': " + e.getMessage());
+		}
+	}
+}
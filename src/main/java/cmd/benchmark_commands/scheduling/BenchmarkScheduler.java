@@ -0,0 +1,286 @@
+package cmd.benchmark_commands.scheduling;
+
+import cmd.benchmark_commands.Provider;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event driven benchmark scheduler: a single dispatcher thread takes steps from a priority queue ordered by due
+ * time and hands them to bounded worker pools. Pool sizes act as admission control, so no thread is kept
+ * sleeping while waiting for a step to be due.
+ * Every provider has its own lane (with its own pools), so tests on different providers run in parallel.
+ * Load tests share a single budget across every provider, so the client host never runs more load tests than
+ * allowed: due load steps exceeding the budget wait in FIFO order for a running load step to terminate.
+ * Benchmarks are modelled as chains of steps: every step schedules the following one of its chain.
+ */
+public class BenchmarkScheduler {
+
+	/**
+	 * Types of test, each one with its own concurrency budget
+	 */
+	public enum TestType {
+		COLD_START, LOAD
+	}
+
+	// time granted to running steps after interruption
+	private static final long SHUTDOWN_GRACE_SECONDS = 5;
+
+	/**
+	 * Queue and workers
+	 */
+	private final DelayQueue<ScheduledStep> queue;
+	private final Map<Provider, ProviderLane> lanes;
+	private final Thread dispatcher;
+
+	/**
+	 * Load tests admission, guarded by waitingLoadSteps
+	 */
+	// maximum number of concurrent load steps, on every provider
+	private final int maxLoadSteps;
+	private final Deque<ScheduledStep> waitingLoadSteps;
+	private int runningLoadSteps;
+
+	// number of chains not completed yet
+	private int activeChains;
+
+
+	/**
+	 * Constructor, initializes worker pools with specified maximum concurrency levels (cold start tests for each
+	 * provider, load tests across every provider)
+	 * @param maxColdStartConcurrency maximum concurrent cold start test amount on a provider
+	 * @param maxLoadBenchmarkConcurrency maximum concurrent load test amount, on every provider
+	 */
+	public BenchmarkScheduler(int maxColdStartConcurrency, int maxLoadBenchmarkConcurrency) {
+		this.lanes = new EnumMap<>(Provider.class);
+		for (Provider provider : Provider.values()) {
+			lanes.put(provider, new ProviderLane(Executors.newFixedThreadPool(maxColdStartConcurrency),
+					Executors.newFixedThreadPool(maxLoadBenchmarkConcurrency)));
+		}
+		this.queue = new DelayQueue<>();
+		this.maxLoadSteps = maxLoadBenchmarkConcurrency;
+		this.waitingLoadSteps = new ArrayDeque<>();
+		this.runningLoadSteps = 0;
+		this.activeChains = 0;
+		this.dispatcher = new Thread(this::dispatch, "benchmark-dispatcher");
+		this.dispatcher.setDaemon(true);
+	}
+
+	/**
+	 * Constructor, initializes a single worker pool for each provider shared by every type of test
+	 * @param maxConcurrency maximum concurrent test amount on a provider, also maximum concurrent load test amount
+	 *                       on every provider
+	 */
+	public BenchmarkScheduler(int maxConcurrency) {
+		this.lanes = new EnumMap<>(Provider.class);
+		for (Provider provider : Provider.values()) {
+			ExecutorService sharedPool = Executors.newFixedThreadPool(maxConcurrency);
+			lanes.put(provider, new ProviderLane(sharedPool, sharedPool));
+		}
+		this.queue = new DelayQueue<>();
+		this.maxLoadSteps = maxConcurrency;
+		this.waitingLoadSteps = new ArrayDeque<>();
+		this.runningLoadSteps = 0;
+		this.activeChains = 0;
+		this.dispatcher = new Thread(this::dispatch, "benchmark-dispatcher");
+		this.dispatcher.setDaemon(true);
+	}
+
+	/**
+	 * Starts steps dispatching
+	 */
+	public void start() {
+		dispatcher.start();
+	}
+
+	/**
+	 * Dispatcher loop: waits for the next due step and submits it to its pool, load steps have to be admitted by
+	 * the global load budget first
+	 */
+	private void dispatch() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				ScheduledStep step = queue.take();
+				if (step.getType() == TestType.LOAD) {
+					admitLoadStep(step);
+				} else {
+					submit(step);
+				}
+			}
+		} catch (InterruptedException ignored) {
+			// scheduler shut down
+		}
+	}
+
+	/**
+	 * Submits a due load step if the load budget allows it, elsewhere queues it until a load step terminates
+	 * @param step load step
+	 */
+	private void admitLoadStep(ScheduledStep step) {
+		synchronized (waitingLoadSteps) {
+			if (runningLoadSteps >= maxLoadSteps) {
+				waitingLoadSteps.addLast(step);
+				return;
+			}
+			runningLoadSteps++;
+		}
+		submit(step);
+	}
+
+	/**
+	 * Releases the load budget held by a terminated load step, handing it over to the first waiting one
+	 */
+	private void loadStepTerminated() {
+		ScheduledStep next;
+		synchronized (waitingLoadSteps) {
+			next = waitingLoadSteps.pollFirst();
+			if (next == null) {
+				runningLoadSteps--;
+				return;
+			}
+		}
+		submit(next);
+	}
+
+	/**
+	 * Submits a step to the pool of its lane
+	 * @param step step to execute
+	 */
+	private void submit(ScheduledStep step) {
+		try {
+			lanes.get(step.getProvider()).getPool(step.getType()).execute(() -> runStep(step));
+		} catch (RejectedExecutionException ignored) {
+			// scheduler shut down
+		}
+	}
+
+	/**
+	 * Executes a step, an unexpected failure terminates its chain
+	 * @param step step to execute
+	 */
+	private void runStep(ScheduledStep step) {
+		try {
+			step.getAction().run();
+		} catch (RuntimeException e) {
+			System.err.println("Benchmark step failed, dropping its benchmark chain: " + e.getMessage());
+			chainCompleted();
+		} finally {
+			if (step.getType() == TestType.LOAD) {
+				loadStepTerminated();
+			}
+		}
+	}
+
+	/**
+	 * Registers a new chain of steps, its first step has to be scheduled by the caller
+	 */
+	public synchronized void chainStarted() {
+		activeChains++;
+	}
+
+	/**
+	 * Notifies that a chain has no more steps to execute
+	 */
+	public synchronized void chainCompleted() {
+		activeChains--;
+		if (activeChains <= 0) {
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Schedules a step
+	 * @param provider provider whose lane has to execute the step
+	 * @param type type of test, selects the worker pool of the lane
+	 * @param delayMs time to wait before execution in milliseconds
+	 * @param action step to execute
+	 */
+	public void schedule(Provider provider, TestType type, long delayMs, Runnable action) {
+		queue.put(new ScheduledStep(provider, type, action,
+				System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs)));
+	}
+
+	/**
+	 * Waits for every registered chain to be completed
+	 * @throws InterruptedException if waiting thread is interrupted
+	 */
+	public synchronized void awaitCompletion() throws InterruptedException {
+		while (activeChains > 0) {
+			wait();
+		}
+	}
+
+	/**
+	 * Stops dispatching and worker pools, pending steps are discarded
+	 */
+	public void shutdown() {
+		dispatcher.interrupt();
+		queue.clear();
+		synchronized (waitingLoadSteps) {
+			waitingLoadSteps.clear();
+		}
+		for (ProviderLane lane : lanes.values()) {
+			lane.shutdownNow();
+		}
+		try {
+			for (ProviderLane lane : lanes.values()) {
+				lane.awaitTermination(SHUTDOWN_GRACE_SECONDS);
+			}
+		} catch (InterruptedException ignored) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Worker pools of a single provider
+	 */
+	private static class ProviderLane {
+
+		private final ExecutorService coldStartPool;
+		private final ExecutorService loadPool;
+
+		/**
+		 * Default constructor
+		 * @param coldStartPool pool used for cold start tests
+		 * @param loadPool pool used for load tests (can be the same of cold start tests)
+		 */
+		private ProviderLane(ExecutorService coldStartPool, ExecutorService loadPool) {
+			this.coldStartPool = coldStartPool;
+			this.loadPool = loadPool;
+		}
+
+		/**
+		 * Pool getter
+		 * @param type type of test
+		 * @return pool executing the type of test
+		 */
+		private ExecutorService getPool(TestType type) {
+			return (type == TestType.COLD_START) ? coldStartPool : loadPool;
+		}
+
+		/**
+		 * Stops the pools, running steps are interrupted
+		 */
+		private void shutdownNow() {
+			coldStartPool.shutdownNow();
+			loadPool.shutdownNow();
+		}
+
+		/**
+		 * Waits for pools termination
+		 * @param seconds maximum time to wait for each pool
+		 * @throws InterruptedException if waiting thread is interrupted
+		 */
+		private void awaitTermination(long seconds) throws InterruptedException {
+			coldStartPool.awaitTermination(seconds, TimeUnit.SECONDS);
+			loadPool.awaitTermination(seconds, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package cmd.benchmark_commands.scheduling;
+
+/**
+ * State of a benchmark chain (a functionality on a provider) recovered from a journal
+ */
+public class ChainState {
+	// number of completed iterations (load test is the last step of an iteration)
+	private int completedIterations;
+	// next step of the chain, null if no step has been scheduled yet
+	private BenchmarkScheduler.TestType nextStep;
+	// time the next step is due at, null if the step has to wait a whole sleep interval from now
+	private Long nextDueMillis;
+	// sleep interval calibrated on the keep-alive window, null if not estimated
+	private Integer sleepMs;
+
+
+	/**
+	 * Default constructor, state of a chain with no journal record
+	 */
+	ChainState() {
+		this.completedIterations = 0;
+		this.nextStep = null;
+		this.nextDueMillis = null;
+		this.sleepMs = null;
+	}
+
+	/**
+	 * Applies a scheduled step record
+	 * @param step scheduled step
+	 * @param dueMillis time the step is due at
+	 */
+	void scheduled(BenchmarkScheduler.TestType step, long dueMillis) {
+		nextStep = step;
+		nextDueMillis = dueMillis;
+	}
+
+	/**
+	 * Applies a completed measurement record
+	 * @param step completed step
+	 * @param millis completion time
+	 */
+	void measured(BenchmarkScheduler.TestType step, long millis) {
+		if (step == BenchmarkScheduler.TestType.COLD_START) {
+			// load test follows immediately
+			nextStep = BenchmarkScheduler.TestType.LOAD;
+			nextDueMillis = millis;
+		} else {
+			// next cold start due time was not recorded: a whole sleep interval is needed
+			completedIterations++;
+			nextStep = BenchmarkScheduler.TestType.COLD_START;
+			nextDueMillis = null;
+		}
+	}
+
+	/**
+	 * Applies a calibrated sleep interval record
+	 * @param sleepMs sleep interval in milliseconds
+	 */
+	void calibrated(int sleepMs) {
+		this.sleepMs = sleepMs;
+	}
+
+	public int getCompletedIterations() {
+		return completedIterations;
+	}
+
+	public BenchmarkScheduler.TestType getNextStep() {
+		return nextStep;
+	}
+
+	public Long getNextDueMillis() {
+		return nextDueMillis;
+	}
+
+	public Integer getSleepMs() {
+		return sleepMs;
+	}
+}
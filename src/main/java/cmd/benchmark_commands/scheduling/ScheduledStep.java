@@ -0,0 +1,68 @@
+package cmd.benchmark_commands.scheduling;
+
+import cmd.benchmark_commands.Provider;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A benchmark step waiting in the scheduler queue until its due time
+ */
+class ScheduledStep implements Delayed {
+
+	// insertion order, used to keep FIFO ordering between steps due at the same time
+	private static final AtomicLong SEQUENCE = new AtomicLong();
+
+	private final Provider provider;
+	private final BenchmarkScheduler.TestType type;
+	private final Runnable action;
+	private final long dueNanos;
+	private final long sequenceNumber;
+
+
+	/**
+	 * Default constructor
+	 * @param provider provider whose lane has to execute the step
+	 * @param type type of test
+	 * @param action step to execute
+	 * @param dueNanos time at which the step has to be executed (System.nanoTime() based)
+	 */
+	ScheduledStep(Provider provider, BenchmarkScheduler.TestType type, Runnable action, long dueNanos) {
+		this.provider = provider;
+		this.type = type;
+		this.action = action;
+		this.dueNanos = dueNanos;
+		this.sequenceNumber = SEQUENCE.getAndIncrement();
+	}
+
+	@Override
+	public long getDelay(TimeUnit unit) {
+		return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public int compareTo(Delayed other) {
+		if (other == this) {
+			return 0;
+		}
+		if (other instanceof ScheduledStep) {
+			ScheduledStep step = (ScheduledStep) other;
+			int result = Long.compare(dueNanos - step.dueNanos, 0);
+			return result != 0 ? result : Long.compare(sequenceNumber, step.sequenceNumber);
+		}
+		return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+	}
+
+	Provider getProvider() {
+		return provider;
+	}
+
+	BenchmarkScheduler.TestType getType() {
+		return type;
+	}
+
+	Runnable getAction() {
+		return action;
+	}
+}
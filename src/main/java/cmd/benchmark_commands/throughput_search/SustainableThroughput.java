@@ -0,0 +1,56 @@
+package cmd.benchmark_commands.throughput_search;
+
+import cmd.benchmark_commands.output_parsing.BenchmarkStats;
+
+/**
+ * Result of a maximum sustainable throughput search: the knee point of the functionality
+ */
+public class SustainableThroughput {
+	// highest offered rate satisfying the objective, as requests per second
+	private final int requestsPerSecond;
+	// load test result at the knee point
+	private final BenchmarkStats stats;
+	// error rate at the knee point, in [0, 1]
+	private final double errorRate;
+	// number of load tests performed during the search
+	private final int trials;
+	// true if the maximum searched rate was sustained, the real knee point is higher
+	private final boolean upperBoundReached;
+
+	/**
+	 * Default constructor
+	 * @param requestsPerSecond highest offered rate satisfying the objective
+	 * @param stats load test result at the knee point
+	 * @param errorRate error rate at the knee point
+	 * @param trials number of load tests performed during the search
+	 * @param upperBoundReached true if the maximum searched rate was sustained
+	 */
+	public SustainableThroughput(int requestsPerSecond, BenchmarkStats stats, double errorRate, int trials,
+								 boolean upperBoundReached) {
+		this.requestsPerSecond = requestsPerSecond;
+		this.stats = stats;
+		this.errorRate = errorRate;
+		this.trials = trials;
+		this.upperBoundReached = upperBoundReached;
+	}
+
+	public int getRequestsPerSecond() {
+		return requestsPerSecond;
+	}
+
+	public BenchmarkStats getStats() {
+		return stats;
+	}
+
+	public double getErrorRate() {
+		return errorRate;
+	}
+
+	public int getTrials() {
+		return trials;
+	}
+
+	public boolean isUpperBoundReached() {
+		return upperBoundReached;
+	}
+}
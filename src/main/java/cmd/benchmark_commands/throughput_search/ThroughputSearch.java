@@ -0,0 +1,201 @@
+package cmd.benchmark_commands.throughput_search;
+
+import cmd.benchmark_commands.output_parsing.BenchmarkStats;
+
+import java.util.function.IntFunction;
+
+/**
+ * Maximum sustainable throughput search under a latency objective. The offered rate is doubled until the objective
+ * is violated (or the maximum rate is reached), then the interval between the last sustained rate and the first
+ * violating one is bisected until it gets narrower than the requested resolution.
+ * A rate is sustained when p99 latency stays under the objective, the error rate stays under the threshold and the
+ * achieved throughput keeps up with the offered one.
+ */
+public class ThroughputSearch {
+
+	/**
+	 * Default objective parameters
+	 */
+	private static final double DEFAULT_MIN_ACHIEVED_RATIO = 0.9;
+
+	/**
+	 * Objective
+	 */
+	private final double sloP99Ms;
+	private final double maxErrorRate;
+	private final double minAchievedRatio;
+
+	/**
+	 * Search interval
+	 */
+	private final int minRequestsPerSecond;
+	private final int maxRequestsPerSecond;
+	private final int resolution;
+
+
+	/**
+	 * Default constructor, achieved throughput has to be at least 90% of the offered one
+	 * @param sloP99Ms maximum p99 latency in milliseconds
+	 * @param maxErrorRate maximum ratio of failed requests, in [0, 1]
+	 * @param minRequestsPerSecond lowest rate to test
+	 * @param maxRequestsPerSecond highest rate to test
+	 * @param resolution search stops when the knee point is known within this amount of requests per second
+	 */
+	public ThroughputSearch(double sloP99Ms, double maxErrorRate, int minRequestsPerSecond, int maxRequestsPerSecond,
+							int resolution) {
+		this(sloP99Ms, maxErrorRate, DEFAULT_MIN_ACHIEVED_RATIO, minRequestsPerSecond, maxRequestsPerSecond,
+				resolution);
+	}
+
+	/**
+	 * Constructor with custom achieved throughput requirement
+	 * @param sloP99Ms maximum p99 latency in milliseconds
+	 * @param maxErrorRate maximum ratio of failed requests, in [0, 1]
+	 * @param minAchievedRatio minimum ratio between achieved and offered throughput, in [0, 1]
+	 * @param minRequestsPerSecond lowest rate to test
+	 * @param maxRequestsPerSecond highest rate to test
+	 * @param resolution search stops when the knee point is known within this amount of requests per second
+	 */
+	public ThroughputSearch(double sloP99Ms, double maxErrorRate, double minAchievedRatio, int minRequestsPerSecond,
+							int maxRequestsPerSecond, int resolution) {
+		this.sloP99Ms = sloP99Ms;
+		this.maxErrorRate = maxErrorRate;
+		this.minAchievedRatio = minAchievedRatio;
+		this.minRequestsPerSecond = minRequestsPerSecond;
+		this.maxRequestsPerSecond = maxRequestsPerSecond;
+		this.resolution = resolution;
+	}
+
+	/**
+	 * Checks search parameters consistency
+	 * @return true if the search can be performed, false elsewhere
+	 */
+	public boolean isValid() {
+		return sloP99Ms > 0 && maxErrorRate >= 0 && maxErrorRate <= 1 && minAchievedRatio >= 0 &&
+				minAchievedRatio <= 1 && minRequestsPerSecond > 0 && maxRequestsPerSecond >= minRequestsPerSecond &&
+				resolution > 0;
+	}
+
+	/**
+	 * Performs the search
+	 * @param trial load test performed at the given rate, returns null if the test could not be performed
+	 * @param name description of the target, used for output
+	 * @return knee point, null if even the minimum rate is not sustained or a load test failed
+	 */
+	public SustainableThroughput search(IntFunction<BenchmarkStats> trial, String name) {
+
+		int trials = 0;
+		int sustained = -1;
+		BenchmarkStats sustainedStats = null;
+		int violated = -1;
+
+		// exponential growth
+		int rate = minRequestsPerSecond;
+		while (true) {
+			BenchmarkStats stats = trial.apply(rate);
+			trials++;
+			if (stats == null) {
+				return null;
+			}
+			boolean ok = isSustained(stats, rate);
+			printTrial(name, rate, stats, ok);
+			if (!ok) {
+				violated = rate;
+				break;
+			}
+			sustained = rate;
+			sustainedStats = stats;
+			if (rate == maxRequestsPerSecond) {
+				break;
+			}
+			rate = (int) Math.min((long) rate * 2, maxRequestsPerSecond);
+		}
+
+		if (sustained == -1) {
+			return null;
+		}
+		if (violated == -1) {
+			return new SustainableThroughput(sustained, sustainedStats, getErrorRate(sustainedStats), trials, true);
+		}
+
+		// bisection between last sustained and first violating rate
+		while (violated - sustained > resolution) {
+			rate = sustained + (violated - sustained) / 2;
+			BenchmarkStats stats = trial.apply(rate);
+			trials++;
+			if (stats == null) {
+				return null;
+			}
+			boolean ok = isSustained(stats, rate);
+			printTrial(name, rate, stats, ok);
+			if (ok) {
+				sustained = rate;
+				sustainedStats = stats;
+			} else {
+				violated = rate;
+			}
+		}
+
+		return new SustainableThroughput(sustained, sustainedStats, getErrorRate(sustainedStats), trials, false);
+	}
+
+	public double getSloP99Ms() {
+		return sloP99Ms;
+	}
+
+	/**
+	 * Checks whether a load test result satisfies the objective
+	 * @param stats load test result
+	 * @param offeredRequestsPerSecond rate requested to the load generator
+	 * @return true if the rate is sustained, false elsewhere
+	 */
+	private boolean isSustained(BenchmarkStats stats, int offeredRequestsPerSecond) {
+		if (stats.getP99Latency() == null || stats.getP99Latency() > sloP99Ms) {
+			return false;
+		}
+		if (getErrorRate(stats) > maxErrorRate) {
+			return false;
+		}
+		return stats.getRequestsThroughput() != null &&
+				stats.getRequestsThroughput() >= offeredRequestsPerSecond * minAchievedRatio;
+	}
+
+	/**
+	 * Computes the ratio of failed requests (non 2xx or 3xx responses, socket errors and timeouts) over the
+	 * attempted ones
+	 * @param stats load test result
+	 * @return error rate in [0, 1]
+	 */
+	private static double getErrorRate(BenchmarkStats stats) {
+		long failedResponses = valueOf(stats.getNon2xx3xxResponses());
+		long socketErrors = valueOf(stats.getConnectErrors()) + valueOf(stats.getReadWriteErrors()) +
+				valueOf(stats.getTimeouts());
+		long attempts = valueOf(stats.getTotalRequests()) + socketErrors;
+		if (attempts == 0) {
+			return 1;
+		}
+		return (failedResponses + socketErrors) / (double) attempts;
+	}
+
+	/**
+	 * Null safe counter value
+	 * @param counter counter, can be null if the load generator does not report it
+	 * @return counter value, 0 if not available
+	 */
+	private static long valueOf(Long counter) {
+		return (counter == null) ? 0 : counter;
+	}
+
+	/**
+	 * Prints a search step outcome
+	 * @param name description of the target
+	 * @param rate offered rate
+	 * @param stats load test result
+	 * @param sustained outcome
+	 */
+	private static void printTrial(String name, int rate, BenchmarkStats stats, boolean sustained) {
+		System.out.println(name + " @ " + rate + " req/s: p99 = " + stats.getP99Latency() + " ms, throughput = " +
+				stats.getRequestsThroughput() + " req/s, error rate = " +
+				String.format("%.4f", getErrorRate(stats)) + (sustained ? " -> sustained" : " -> violated"));
+	}
+}
@@ -0,0 +1,56 @@
+package cmd.docker_daemon_utility;
+
+import java.util.List;
+
+/**
+ * Container as listed by the Docker Engine
+ */
+public class ContainerSummary {
+	// container identifier
+	private final String id;
+	// container names, without the leading slash
+	private final List<String> names;
+	// image the container was created from
+	private final String image;
+	// container state (e.g. "running", "exited")
+	private final String state;
+
+
+	/**
+	 * Default constructor
+	 * @param id container identifier
+	 * @param names container names, without the leading slash
+	 * @param image image the container was created from
+	 * @param state container state
+	 */
+	public ContainerSummary(String id, List<String> names, String image, String state) {
+		this.id = id;
+		this.names = names;
+		this.image = image;
+		this.state = state;
+	}
+
+	/**
+	 * Tells whether the container is running
+	 * @return true if running, false elsewhere
+	 */
+	public boolean isRunning() {
+		return "running".equals(state);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public List<String> getNames() {
+		return names;
+	}
+
+	public String getImage() {
+		return image;
+	}
+
+	public String getState() {
+		return state;
+	}
+}
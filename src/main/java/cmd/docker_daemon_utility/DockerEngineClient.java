@@ -0,0 +1,585 @@
+package cmd.docker_daemon_utility;
+
+import cmd.CommandUtility;
+import org.newsclub.net.unix.AFUNIXSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+import utility.JsonParseException;
+import utility.JsonParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Client of the Docker Engine REST API over its Unix socket: every request is sent on a new connection (closed by
+ * the daemon when the response is completed), JSON responses are returned as Map and List structures.
+ * Any server listening on a Unix socket and speaking HTTP/1.1 can be used in place of the daemon.
+ */
+public class DockerEngineClient {
+
+	/**
+	 * Daemon socket location
+	 */
+	private static final String DEFAULT_SOCKET = "/var/run/docker.sock";
+	private static final String DOCKER_HOST_VARIABLE = "DOCKER_HOST";
+	private static final String UNIX_SCHEME = "unix://";
+
+	// maximum time in milliseconds to wait for data of non streaming responses
+	private static final int READ_TIMEOUT_MS = 60 * 1000;
+	// stream identifiers of multiplexed logs
+	private static final int STDERR_STREAM = 2;
+
+	// daemon socket
+	private final File socketFile;
+
+
+	/**
+	 * Default constructor
+	 * @param socketFile daemon socket
+	 */
+	public DockerEngineClient(File socketFile) {
+		this.socketFile = socketFile;
+	}
+
+	/**
+	 * Creates a client for the daemon the Docker CLI would use
+	 * @return client of the local daemon, null if the daemon is not reachable through a Unix socket (e.g. Windows
+	 * hosts or remote daemons)
+	 */
+	public static DockerEngineClient fromEnvironment() {
+		if (CommandUtility.isWindows() || !AFUNIXSocket.isSupported()) {
+			return null;
+		}
+		String host = System.getenv(DOCKER_HOST_VARIABLE);
+		File socket;
+		if (host == null || host.isEmpty()) {
+			socket = new File(DEFAULT_SOCKET);
+		} else if (host.startsWith(UNIX_SCHEME)) {
+			socket = new File(host.substring(UNIX_SCHEME.length()));
+		} else {
+			return null;
+		}
+		return socket.exists() ? new DockerEngineClient(socket) : null;
+	}
+
+	/**
+	 * Checks the daemon is running
+	 * @return true if the daemon answered, false elsewhere
+	 */
+	public boolean ping() {
+		try (Response response = request("GET", "/_ping", READ_TIMEOUT_MS)) {
+			return response.statusCode == 200;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Collects system-wide information (same as "docker info")
+	 * @return daemon information
+	 * @throws DockerException if the request fails
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> info() throws DockerException {
+		return (Map<String, Object>) getJson("/info", false);
+	}
+
+	/**
+	 * Collects image low-level information (same as "docker image inspect")
+	 * @param image image name with tag
+	 * @return image information, null if the image is not present locally
+	 * @throws DockerException if the request fails
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> inspectImage(String image) throws DockerException {
+		return (Map<String, Object>) getJson("/images/" + image + "/json", true);
+	}
+
+	/**
+	 * Tells whether an image is present locally
+	 * @param image image name with tag
+	 * @return true if present, false elsewhere
+	 * @throws DockerException if the request fails
+	 */
+	public boolean imageExists(String image) throws DockerException {
+		return inspectImage(image) != null;
+	}
+
+	/**
+	 * Collects container low-level information (same as "docker inspect")
+	 * @param container container identifier or name
+	 * @return container information, null if the container does not exist
+	 * @throws DockerException if the request fails
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> inspectContainer(String container) throws DockerException {
+		return (Map<String, Object>) getJson("/containers/" + container + "/json", true);
+	}
+
+	/**
+	 * Lists containers (same as "docker ps")
+	 * @param all true to list stopped containers too, false to list only running ones
+	 * @return containers
+	 * @throws DockerException if the request fails
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ContainerSummary> listContainers(boolean all) throws DockerException {
+		List<Object> list = (List<Object>) getJson("/containers/json?all=" + (all ? "1" : "0"), false);
+		List<ContainerSummary> containers = new ArrayList<>();
+		for (Object element : list) {
+			Map<String, Object> container = (Map<String, Object>) element;
+			List<String> names = new ArrayList<>();
+			Object containerNames = container.get("Names");
+			if (containerNames != null) {
+				for (Object name : (List<Object>) containerNames) {
+					names.add(((String) name).startsWith("/") ? ((String) name).substring(1) : (String) name);
+				}
+			}
+			containers.add(new ContainerSummary((String) container.get("Id"), names,
+					(String) container.get("Image"), (String) container.get("State")));
+		}
+		return containers;
+	}
+
+	/**
+	 * Pulls an image from its registry (same as "docker pull")
+	 * @param image image name with tag or digest
+	 * @param progress consumer of progress messages, can be null
+	 * @throws DockerException if the image can not be pulled
+	 */
+	@SuppressWarnings("unchecked")
+	public void pullImage(String image, Consumer<String> progress) throws DockerException {
+
+		// tag follows the last colon after the registry and repository path
+		String query;
+		int tagSeparator = image.lastIndexOf(':');
+		if (image.contains("@") || tagSeparator <= image.lastIndexOf('/')) {
+			query = "fromImage=" + encode(image);
+		} else {
+			query = "fromImage=" + encode(image.substring(0, tagSeparator)) + "&tag=" +
+					encode(image.substring(tagSeparator + 1));
+		}
+
+		try (Response response = request("POST", "/images/create?" + query, 0)) {
+			if (response.statusCode != 200) {
+				throw new DockerException(errorMessage(response));
+			}
+			// progress is streamed as a JSON message for each line, failures included
+			BufferedReader reader = new BufferedReader(new InputStreamReader(response.body, StandardCharsets.UTF_8));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				Map<String, Object> message = (Map<String, Object>) parseJson(line);
+				if (message.get("error") != null) {
+					throw new DockerException("Could not pull " + image + ": " + message.get("error"));
+				}
+				if (progress != null && message.get("status") != null) {
+					progress.accept(message.get("id") == null ? (String) message.get("status") :
+							message.get("id") + ": " + message.get("status"));
+				}
+			}
+		} catch (IOException e) {
+			throw new DockerException("Could not pull " + image + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Streams container logs line by line (same as "docker logs"), returns when logs end: if logs are followed, when
+	 * the container stops
+	 * @param container container identifier or name
+	 * @param follow true to keep streaming new lines until the container stops, false to stop at current ones
+	 * @param stdout consumer of standard output lines
+	 * @param stderr consumer of standard error lines (standard output consumer receives them if the container has a
+	 *               terminal attached)
+	 * @throws DockerException if logs can not be streamed
+	 */
+	@SuppressWarnings("unchecked")
+	public void streamLogs(String container, boolean follow, Consumer<String> stdout, Consumer<String> stderr)
+			throws DockerException {
+
+		Map<String, Object> details = inspectContainer(container);
+		if (details == null) {
+			throw new DockerException("No such container: " + container);
+		}
+		// with a terminal attached output is raw, elsewhere it is multiplexed in frames
+		Map<String, Object> config = (Map<String, Object>) details.get("Config");
+		boolean tty = config != null && Boolean.TRUE.equals(config.get("Tty"));
+
+		try (Response response = request("GET", "/containers/" + container + "/logs?stdout=1&stderr=1&follow=" +
+				(follow ? "1" : "0"), 0)) {
+			if (response.statusCode != 200) {
+				throw new DockerException(errorMessage(response));
+			}
+			if (tty) {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(response.body,
+						StandardCharsets.UTF_8));
+				String line;
+				while ((line = reader.readLine()) != null) {
+					stdout.accept(line);
+				}
+				return;
+			}
+
+			// frame header: stream type, 3 bytes of padding, 4 bytes of big endian payload size
+			LineSplitter out = new LineSplitter(stdout);
+			LineSplitter err = new LineSplitter(stderr);
+			byte[] header = new byte[8];
+			while (readFully(response.body, header, true)) {
+				int size = ((header[4] & 0xFF) << 24) | ((header[5] & 0xFF) << 16) | ((header[6] & 0xFF) << 8) |
+						(header[7] & 0xFF);
+				byte[] payload = new byte[size];
+				readFully(response.body, payload, false);
+				(header[0] == STDERR_STREAM ? err : out).feed(payload);
+			}
+			out.flush();
+			err.flush();
+		} catch (IOException e) {
+			throw new DockerException("Could not stream logs of " + container + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Performs a GET request with JSON response
+	 * @param path request path with query
+	 * @param notFoundAllowed true if a missing resource is an expected result
+	 * @return parsed response, null if the resource was not found and this is allowed
+	 * @throws DockerException if the request fails
+	 */
+	private Object getJson(String path, boolean notFoundAllowed) throws DockerException {
+		try (Response response = request("GET", path, READ_TIMEOUT_MS)) {
+			if (response.statusCode == 404 && notFoundAllowed) {
+				return null;
+			}
+			if (response.statusCode != 200) {
+				throw new DockerException(errorMessage(response));
+			}
+			return parseJson(new String(readAll(response.body), StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new DockerException("Could not reach Docker daemon: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Sends a request without body on a new connection
+	 * @param method HTTP method
+	 * @param path request path with query
+	 * @param readTimeoutMs maximum time in milliseconds to wait for data, 0 to wait indefinitely
+	 * @return response, with headers already read
+	 * @throws IOException if the daemon can not be reached or the response is malformed
+	 */
+	private Response request(String method, String path, int readTimeoutMs) throws IOException {
+
+		AFUNIXSocket socket = AFUNIXSocket.newInstance();
+		try {
+			socket.connect(AFUNIXSocketAddress.of(socketFile));
+			socket.setSoTimeout(readTimeoutMs);
+
+			OutputStream output = socket.getOutputStream();
+			output.write((method + " " + path + " HTTP/1.1\r\n" +
+					"Host: docker\r\n" +
+					"Content-Length: 0\r\n" +
+					"Connection: close\r\n" +
+					"\r\n").getBytes(StandardCharsets.US_ASCII));
+			output.flush();
+
+			InputStream input = new BufferedInputStream(socket.getInputStream());
+			String statusLine = readLine(input);
+			String[] status = statusLine.split(" ", 3);
+			if (status.length < 2 || !status[0].startsWith("HTTP/1.")) {
+				throw new IOException("malformed status line '" + statusLine + "'");
+			}
+			int statusCode;
+			try {
+				statusCode = Integer.parseInt(status[1]);
+			} catch (NumberFormatException e) {
+				throw new IOException("malformed status line '" + statusLine + "'");
+			}
+
+			Map<String, String> headers = new HashMap<>();
+			String header;
+			while (!(header = readLine(input)).isEmpty()) {
+				int separator = header.indexOf(':');
+				if (separator > 0) {
+					headers.put(header.substring(0, separator).trim().toLowerCase(),
+							header.substring(separator + 1).trim());
+				}
+			}
+
+			InputStream body;
+			if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+				body = new ChunkedInputStream(input);
+			} else if (headers.containsKey("content-length")) {
+				body = new LimitedInputStream(input, Long.parseLong(headers.get("content-length")));
+			} else {
+				// body ends when the connection is closed
+				body = input;
+			}
+			return new Response(socket, statusCode, body);
+
+		} catch (IOException | NumberFormatException e) {
+			socket.close();
+			throw (e instanceof IOException) ? (IOException) e : new IOException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Extracts the error message of a failed request
+	 * @param response failed response
+	 * @return daemon error message, status code if the message is not available
+	 */
+	@SuppressWarnings("unchecked")
+	private static String errorMessage(Response response) {
+		try {
+			Object error = parseJson(new String(readAll(response.body), StandardCharsets.UTF_8));
+			if (error instanceof Map && ((Map<String, Object>) error).get("message") != null) {
+				return (String) ((Map<String, Object>) error).get("message");
+			}
+		} catch (IOException | DockerException ignored) {
+			// status code is reported
+		}
+		return "Docker daemon returned status code " + response.statusCode;
+	}
+
+	/**
+	 * Parses a JSON response
+	 * @param json response text
+	 * @return parsed value
+	 * @throws DockerException if text is not valid JSON
+	 */
+	private static Object parseJson(String json) throws DockerException {
+		try {
+			return JsonParser.parse(json);
+		} catch (JsonParseException e) {
+			throw new DockerException("Malformed Docker Engine response: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads a CRLF terminated line
+	 * @param input stream to read
+	 * @return line without terminator
+	 * @throws IOException if the stream ends before the terminator
+	 */
+	private static String readLine(InputStream input) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int c;
+		while ((c = input.read()) != '\n') {
+			if (c == -1) {
+				throw new EOFException("connection closed by Docker daemon");
+			}
+			if (c != '\r') {
+				line.append((char) c);
+			}
+		}
+		return line.toString();
+	}
+
+	/**
+	 * Reads a stream until its end
+	 * @param input stream to read
+	 * @return read bytes
+	 * @throws IOException if the stream can not be read
+	 */
+	private static byte[] readAll(InputStream input) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			output.write(buffer, 0, read);
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * Fills a buffer from a stream
+	 * @param input stream to read
+	 * @param buffer buffer to fill
+	 * @param endAllowed true if the stream can end before the first byte
+	 * @return true if the buffer has been filled, false if the stream ended before the first byte
+	 * @throws IOException if the stream ends after the first byte (or before it, if not allowed)
+	 */
+	private static boolean readFully(InputStream input, byte[] buffer, boolean endAllowed) throws IOException {
+		int offset = 0;
+		while (offset < buffer.length) {
+			int read = input.read(buffer, offset, buffer.length - offset);
+			if (read == -1) {
+				if (offset == 0 && endAllowed) {
+					return false;
+				}
+				throw new EOFException("truncated log frame");
+			}
+			offset += read;
+		}
+		return true;
+	}
+
+	/**
+	 * URL encodes a query parameter
+	 * @param value parameter value
+	 * @return encoded value
+	 */
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			// UTF-8 is always supported
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Response of the daemon, closing it closes its connection
+	 */
+	private static class Response implements Closeable {
+		private final AFUNIXSocket socket;
+		private final int statusCode;
+		private final InputStream body;
+
+		Response(AFUNIXSocket socket, int statusCode, InputStream body) {
+			this.socket = socket;
+			this.statusCode = statusCode;
+			this.body = body;
+		}
+
+		@Override
+		public void close() throws IOException {
+			socket.close();
+		}
+	}
+
+	/**
+	 * Body with known length
+	 */
+	private static class LimitedInputStream extends InputStream {
+		private final InputStream input;
+		private long remaining;
+
+		LimitedInputStream(InputStream input, long length) {
+			this.input = input;
+			this.remaining = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			return (read(single, 0, 1) == -1) ? -1 : single[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int read = input.read(buffer, offset, (int) Math.min(length, remaining));
+			if (read == -1) {
+				throw new EOFException("truncated response body");
+			}
+			remaining -= read;
+			return read;
+		}
+	}
+
+	/**
+	 * Body with chunked transfer encoding, trailers are ignored
+	 */
+	private static class ChunkedInputStream extends InputStream {
+		private final InputStream input;
+		// bytes left in the current chunk, -1 when the last chunk has been read
+		private long remaining;
+
+		ChunkedInputStream(InputStream input) {
+			this.input = input;
+			this.remaining = 0;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			return (read(single, 0, 1) == -1) ? -1 : single[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (remaining == 0) {
+				String sizeLine = readLine(input);
+				int extension = sizeLine.indexOf(';');
+				try {
+					remaining = Long.parseLong((extension == -1 ? sizeLine : sizeLine.substring(0, extension))
+							.trim(), 16);
+				} catch (NumberFormatException e) {
+					throw new IOException("malformed chunk size '" + sizeLine + "'");
+				}
+				if (remaining == 0) {
+					// trailers up to the empty line
+					// noinspection StatementWithEmptyBody
+					while (!readLine(input).isEmpty()) {}
+					remaining = -1;
+				}
+			}
+			if (remaining == -1) {
+				return -1;
+			}
+			int read = input.read(buffer, offset, (int) Math.min(length, remaining));
+			if (read == -1) {
+				throw new EOFException("truncated response chunk");
+			}
+			remaining -= read;
+			if (remaining == 0) {
+				// chunk terminator
+				readLine(input);
+			}
+			return read;
+		}
+	}
+
+	/**
+	 * Splits a stream of log payloads in lines
+	 */
+	private static class LineSplitter {
+		private final Consumer<String> consumer;
+		private final ByteArrayOutputStream line;
+
+		LineSplitter(Consumer<String> consumer) {
+			this.consumer = consumer;
+			this.line = new ByteArrayOutputStream();
+		}
+
+		void feed(byte[] payload) {
+			for (byte b : payload) {
+				if (b == '\n') {
+					consumer.accept(new String(line.toByteArray(), StandardCharsets.UTF_8));
+					line.reset();
+				} else {
+					line.write(b);
+				}
+			}
+		}
+
+		/**
+		 * Delivers the last line, if not terminated
+		 */
+		void flush() {
+			if (line.size() > 0) {
+				consumer.accept(new String(line.toByteArray(), StandardCharsets.UTF_8));
+				line.reset();
+			}
+		}
+	}
+}
@@ -3,6 +3,7 @@ package cmd.docker_daemon_utility;
 import cmd.CommandExecutor;
 import cmd.StreamGobbler;
 import cmd.benchmark_commands.BenchmarkCommandUtility;
+import cmd.benchmark_commands.LoadTool;
 import cmd.functionality_commands.AmazonCommandUtility;
 import cmd.functionality_commands.GoogleCommandUtility;
 import cmd.functionality_commands.OpenWhiskCommandUtility;
@@ -12,9 +13,13 @@ import utility.PropertiesManager;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Utility for Docker related executions
@@ -35,6 +40,9 @@ public class DockerExecutor extends CommandExecutor {
 	private static final String COMPOSE_DIR = PropertiesManager.getInstance().getProperty(
 			PropertiesManager.DOCKER_COMPOSE_DIR);
 
+	// Docker Engine API client, null if the daemon can only be reached through the Docker CLI
+	private static final DockerEngineClient ENGINE = DockerEngineClient.fromEnvironment();
+
 	/**
 	 * Docker needed containers
 	 */
@@ -45,7 +53,7 @@ public class DockerExecutor extends CommandExecutor {
 	private static final String MYSQL = ComposeManager.getInstance().getMysql();
 	private static final String INFLUX = ComposeManager.getInstance().getInflux();
 	private static final String GRAFANA = ComposeManager.getInstance().getGrafana();
-	private static final String WRK2 = BenchmarkCommandUtility.getImg();
+	private static final LoadTool LOAD_TOOL = BenchmarkCommandUtility.getSelectedTool();
 
 	/**
 	 * Google cloud CLI configuration
@@ -55,6 +63,14 @@ public class DockerExecutor extends CommandExecutor {
 	private static final String GOOGLE_CONFIG_COMMAND = "docker run -it --name " + GOOGLE_CONFIG_CONTAINER +
 			" " + GOOGLE_CLI + " gcloud init";
 
+	/**
+	 * Environment check cache: checkDocker is performed by every operation, the first successful check is reused
+	 * until it expires
+	 */
+	private static final long CHECK_TTL_MS = 30 * 60 * 1000;
+	// time of the last successful check, null if the environment has not been checked
+	private static Long lastCheckMillis = null;
+
 	/**
 	 * New docker-compose start containers report this string
 	 */
@@ -67,6 +83,14 @@ public class DockerExecutor extends CommandExecutor {
 	 */
 	private static void checkDockerRunning() throws DockerException {
 
+		if (ENGINE != null) {
+			if (!ENGINE.ping()) {
+				System.err.println("Docker daemon not in execution");
+				System.exit(DOCKER_DAEMON_NOT_FOUND_EXIT_CODE);
+			}
+			return;
+		}
+
 		// build command
 		String cmd = "docker info";
 
@@ -89,6 +113,10 @@ public class DockerExecutor extends CommandExecutor {
 	 */
 	private static boolean needsDockerImage(String image) throws Exception {
 
+		if (ENGINE != null) {
+			return !ENGINE.imageExists(image);
+		}
+
 		ExecutorService executorServiceOut = Executors.newSingleThreadExecutor();
 
 		try {
@@ -99,12 +127,14 @@ public class DockerExecutor extends CommandExecutor {
 			ReplyCollector collector = new ReplyCollector();
 			Process process = buildCommand(cmd).start();
 			StreamGobbler outputGobbler = new StreamGobbler(process.getInputStream(), collector::collectResult);
-			executorServiceOut.submit(outputGobbler);
+			Future<?> output = executorServiceOut.submit(outputGobbler);
 
 			if (process.waitFor() != 0) {
 				process.destroy();
 				throw new Exception("Process exited with error");
 			}
+			// whole output is needed
+			output.get();
 			process.destroy();
 
 			// if empty image is not present locally
@@ -115,105 +145,89 @@ public class DockerExecutor extends CommandExecutor {
 	}
 
 	/**
-	 * Checks if Docker images are missing locally
+	 * Pulls a Docker image
+	 * @param image image to pull
+	 * @return true if the image has been pulled, false elsewhere
+	 * @throws InterruptedException process execution related problems
+	 * @throws IOException process start related problems
+	 */
+	private static boolean pullImage(String image) throws InterruptedException, IOException {
+
+		if (ENGINE != null) {
+			try {
+				ENGINE.pullImage(image, null);
+				return true;
+			} catch (DockerException e) {
+				System.err.println(e.getMessage());
+				return false;
+			}
+		}
+		return commandSilentExecution(PULL + image);
+	}
+
+	/**
+	 * Checks if Docker images are missing locally, missing images are pulled: both checks and pulls are performed in
+	 * parallel
 	 * @throws DockerException if images cannot be checked
 	 */
-	@SuppressWarnings("DuplicatedCode")
 	private static void checkDockerImages() throws DockerException {
 
+		List<String> images = new ArrayList<>(Arrays.asList(GOOGLE_CLI, AWS_CLI, OPENWHISK_CLI, MYSQL, INFLUX,
+				GRAFANA));
+		// load generator image is needed only if in-process load generator is not used
+		if (LOAD_TOOL != null) {
+			images.add(LOAD_TOOL.getImage());
+		}
+
+		ExecutorService executorService = Executors.newFixedThreadPool(images.size());
+
 		try {
 
-			boolean google = needsDockerImage(GOOGLE_CLI);
-			boolean amazon = needsDockerImage(AWS_CLI);
-			boolean openWhisk = needsDockerImage(OPENWHISK_CLI);
-			boolean mySql = needsDockerImage(MYSQL);
-			boolean influx = needsDockerImage(INFLUX);
-			boolean grafana = needsDockerImage(GRAFANA);
-			boolean wrk2 = needsDockerImage(WRK2);
+			List<Future<Boolean>> checks = new ArrayList<>();
+			for (String image : images) {
+				checks.add(executorService.submit(() -> needsDockerImage(image)));
+			}
+			List<String> missing = new ArrayList<>();
+			for (int i = 0; i < images.size(); i++) {
+				if (checks.get(i).get()) {
+					missing.add(images.get(i));
+				}
+			}
 
-			if (google || amazon || openWhisk || mySql || influx || grafana || wrk2) {
+			if (!missing.isEmpty()) {
 
 				System.out.println("Docker images are missing!\n" +
 						"Please wait for the following command(s) to be executed (several minutes may be needed):");
-				int counter = 1;
-
-				if (google) {
-					System.out.println(counter + ") " + "\u001B[34m" + PULL + GOOGLE_CLI + "\u001B[0m");
-					counter++;
-					if (commandSilentExecution(PULL + GOOGLE_CLI)) {
-						System.out.println("Completed!");
-					} else {
-						System.err.println("Failed!");
-						System.exit(DOCKER_MISSING_IMAGE);
-					}
-				}
-				if (amazon) {
-					System.out.println(counter + ") " + "\u001B[34m" + PULL + AWS_CLI + "\u001B[0m");
-					counter++;
-					if (commandSilentExecution(PULL + AWS_CLI)) {
-						System.out.println("Completed!");
-					} else {
-						System.err.println("Failed!");
-						System.exit(DOCKER_MISSING_IMAGE);
-					}
-				}
-				if (openWhisk) {
-					System.out.println(counter + ") " + "\u001B[34m" + PULL + OPENWHISK_CLI + "\u001B[0m");
-					counter++;
-					if (commandSilentExecution(PULL + OPENWHISK_CLI)) {
-						System.out.println("Completed!");
-					} else {
-						System.err.println("Failed!");
-						System.exit(DOCKER_MISSING_IMAGE);
-					}
+				List<Future<Boolean>> pulls = new ArrayList<>();
+				for (int i = 0; i < missing.size(); i++) {
+					System.out.println((i + 1) + ") " + "\u001B[34m" + PULL + missing.get(i) + "\u001B[0m");
+					String image = missing.get(i);
+					pulls.add(executorService.submit(() -> pullImage(image)));
 				}
-				if (mySql) {
-					System.out.println(counter + ") " + "\u001B[34m" + PULL + MYSQL + "\u001B[0m");
-					counter++;
-					if (commandSilentExecution(PULL + MYSQL)) {
-						System.out.println("Completed!");
-					} else {
-						System.err.println("Failed!");
-						System.exit(DOCKER_MISSING_IMAGE);
-					}
-				}
-				if (influx) {
-					System.out.println(counter + ") " + "\u001B[34m" + PULL + INFLUX + "\u001B[0m");
-					counter++;
-					if (commandSilentExecution(PULL + INFLUX)) {
-						System.out.println("Completed!");
-					} else {
-						System.err.println("Failed!");
-						System.exit(DOCKER_MISSING_IMAGE);
-					}
-				}
-				if (grafana) {
-					System.out.println(counter + ") " + "\u001B[34m" + PULL + GRAFANA + "\u001B[0m");
-					counter++;
-					if (commandSilentExecution(PULL + GRAFANA)) {
-						System.out.println("Completed!");
+
+				boolean failed = false;
+				for (int i = 0; i < missing.size(); i++) {
+					if (pulls.get(i).get()) {
+						System.out.println((i + 1) + ") Completed!");
 					} else {
-						System.err.println("Failed!");
-						System.exit(DOCKER_MISSING_IMAGE);
+						System.err.println((i + 1) + ") Failed!");
+						failed = true;
 					}
 				}
-				if (wrk2) {
-					System.out.println(counter + ") " + "\u001B[34m" + PULL + WRK2 + "\u001B[0m");
-					counter++;
-					if (commandSilentExecution(PULL + WRK2)) {
-						System.out.println("Completed!");
-					} else {
-						System.err.println("Failed!");
-						System.exit(DOCKER_MISSING_IMAGE);
-					}
+				if (failed) {
+					System.exit(DOCKER_MISSING_IMAGE);
 				}
 
-				counter--;
-				System.out.println(counter + " out of " + counter + " command(s) executed!");
+				System.out.println(missing.size() + " out of " + missing.size() + " command(s) executed!");
 			}
 
-		} catch (Exception e) {
-			throw new DockerException("Could not check Docker images presence: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DockerException("Could not check Docker images presence: interrupted");
+		} catch (ExecutionException e) {
+			throw new DockerException("Could not check Docker images presence: " + e.getCause().getMessage());
+		} finally {
+			executorService.shutdownNow();
 		}
 	}
 
@@ -223,6 +237,18 @@ public class DockerExecutor extends CommandExecutor {
 	 */
 	private static void checkDockerConfig() throws DockerException {
 
+		if (ENGINE != null) {
+			for (ContainerSummary container : ENGINE.listContainers(true)) {
+				if (container.getNames().contains(GOOGLE_CONFIG_CONTAINER)) {
+					return;
+				}
+			}
+			System.err.println("Google CLI initial configuration is needed!\n" +
+					"Please execute the following command in your shell:\n" +
+					"\u001B[34m" + GOOGLE_CONFIG_COMMAND + "\u001B[0m");
+			System.exit(DOCKER_NEEDS_GOOGLE_INITIALIZATION);
+		}
+
 		// build command
 		String cmd = "docker ps -a";
 
@@ -325,15 +351,30 @@ public class DockerExecutor extends CommandExecutor {
 		}
 	}
 
+	/**
+	 * Docker Engine API client getter
+	 * @return client of the local daemon, null if the daemon can only be reached through the Docker CLI
+	 */
+	public static DockerEngineClient getEngine() {
+		return ENGINE;
+	}
+
 	/**
 	 * Checks Docker daemon running and deploys composition
 	 * @throws DockerException if error occurs
 	 */
-	public static void checkDocker() throws DockerException {
+	public static synchronized void checkDocker() throws DockerException {
+
+		// verified environment is trusted until the check expires
+		if (lastCheckMillis != null && System.currentTimeMillis() - lastCheckMillis < CHECK_TTL_MS) {
+			return;
+		}
+
 		checkDockerRunning();
 		checkDockerImages();
 		checkDockerConfig();
 		createDirectoryEnv();
 		deployComposition();
+		lastCheckMillis = System.currentTimeMillis();
 	}
 }
@@ -21,14 +21,15 @@ public class BucketsCommandExecutor extends CommandExecutor {
 	 * Creates a new bucket to Google CLoud Storage
 	 * @param bucketName name of the new bucket
 	 * @param region region for bucket creation and availability
+	 * @return true if the bucket has been created and persisted, false elsewhere
 	 */
-	public static void createGoogleBucket(String bucketName, String region) {
+	public static boolean createGoogleBucket(String bucketName, String region) {
 
 		try {
 			DockerExecutor.checkDocker();
 		} catch (DockerException e) {
 			System.err.println("Could not create bucket '" + bucketName + "' on Google: " + e.getMessage());
-			return;
+			return false;
 		}
 
 		System.out.println("\n" + "\u001B[33m" +
@@ -49,14 +50,18 @@ public class BucketsCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not create bucket '" + bucketName + "' on Google");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
-			BucketsRepositoryDAO.persistGoogle(bucketName);
+			if (!BucketsRepositoryDAO.persistGoogle(bucketName)) {
+				return false;
+			}
 
 			System.out.println("'" + bucketName + "' created on Google");
+			return true;
 		} catch (InterruptedException | IOException e) {
 			System.out.println("'" + bucketName + "' creation on Google failed: " + e.getMessage());
+			return false;
 		} finally {
 			executorServiceErr.shutdown();
 		}
@@ -68,14 +73,15 @@ public class BucketsCommandExecutor extends CommandExecutor {
 	 * @param bucketName name of the new bucket
 	 * @param acl access control list for the new bucket: use static options
 	 * @param region region for bucket creation and availability
+	 * @return true if the bucket has been created and persisted, false elsewhere
 	 */
-	public static void createAmazonBucket(String bucketName, String acl, String region) {
+	public static boolean createAmazonBucket(String bucketName, String acl, String region) {
 
 		try {
 			DockerExecutor.checkDocker();
 		} catch (DockerException e) {
 			System.err.println("Could not create bucket '" + bucketName + "' on Amazon: " + e.getMessage());
-			return;
+			return false;
 		}
 
 		System.out.println("\n" + "\u001B[33m" +
@@ -96,14 +102,18 @@ public class BucketsCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not create bucket '" + bucketName + "' on Amazon");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
-			BucketsRepositoryDAO.persistAmazon(bucketName, region);
+			if (!BucketsRepositoryDAO.persistAmazon(bucketName, region)) {
+				return false;
+			}
 
 			System.out.println("'" + bucketName + "' created on Amazon");
+			return true;
 		} catch (InterruptedException | IOException e) {
 			System.out.println("'" + bucketName + "' creation on Amazon failed: " + e.getMessage());
+			return false;
 		} finally {
 			executorServiceErr.shutdown();
 		}
@@ -3,8 +3,11 @@ package cmd.functionality_commands;
 import cmd.CommandExecutor;
 import cmd.CommandUtility;
 import cmd.StreamGobbler;
+import cmd.benchmark_commands.Provider;
 import cmd.docker_daemon_utility.DockerException;
 import cmd.docker_daemon_utility.DockerExecutor;
+import cmd.functionality_commands.deployment_planning.DeploymentNode;
+import cmd.functionality_commands.deployment_planning.DeploymentPlanner;
 import cmd.functionality_commands.output_parsing.ReplyCollector;
 import cmd.functionality_commands.output_parsing.URLFinder;
 import cmd.functionality_commands.security.GoogleAuthClient;
@@ -19,6 +22,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -43,11 +47,12 @@ public class CompositionCommandExecutor extends CommandExecutor {
 
 	/**
 	 * Deploys a serverless composition handler on Google Cloud Functions
+	 * @return true if the handler is deployed, false elsewhere
 	 */
-	private static void deployGoogleCompositionHandler() {
+	private static boolean deployGoogleCompositionHandler() {
 
 		if (CompositionsRepositoryDAO.existsGoogleHandler(null)) {
-			return;
+			return true;
 		}
 		// timeout and memory set to avoid the handler being a bottleneck
 		FunctionCommandExecutor.deployGoogleCloudHandlerFunction(HANDLER_NAME,
@@ -57,15 +62,17 @@ public class CompositionCommandExecutor extends CommandExecutor {
 				512,
 				GoogleCommandUtility.IOWA,
 				PropertiesManager.getInstance().getProperty(PropertiesManager.GOOGLE_HANDLER_PATH));
+		return CompositionsRepositoryDAO.existsGoogleHandler(null);
 	}
 
 	/**
 	 * Deploys a serverless composition handler on AWS
+	 * @return true if the handler is deployed, false elsewhere
 	 */
-	private static void deployAmazonCompositionHandler() {
+	private static boolean deployAmazonCompositionHandler() {
 
 		if (CompositionsRepositoryDAO.existsAmazonHandler(null)) {
-			return;
+			return true;
 		}
 		// timeout and memory set to avoid the handler being a bottleneck
 		FunctionCommandExecutor.deployAmazonRESTHandlerFunction(HANDLER_NAME,
@@ -76,49 +83,24 @@ public class CompositionCommandExecutor extends CommandExecutor {
 				AmazonCommandUtility.OHIO,
 				PropertiesManager.getInstance().getProperty(PropertiesManager.AWS_HANDLER_PATH),
 				"orchestration_handler.zip");
-
+		return CompositionsRepositoryDAO.existsAmazonHandler(null);
 	}
 
 	/**
-	 * Deploys a workflow to Google Cloud Platform Workflows [BETA], needed serverless functions
-	 * and performs DB persistence
+	 * Deploys a workflow definition to Google Cloud Platform Workflows [BETA] and performs DB persistence, workflow
+	 * functions must have already been deployed
 	 * @param workflowName name of the workflow to deploy
-	 * @param contentFolderAbsolutePath folder containing workflow functions and definition
 	 * @param workflowRegion region for workflow deployment
-	 *                          (only GoogleCommandUtility.IOWA supported by Google at the moment)
+	 * @param contentFolderAbsolutePath folder containing workflow definition
 	 * @param yamlFileName yaml containing workflow definition file name
-	 * @param functionNames list of workflow function names (consistent ordering)
-	 * @param runtime function runtimes (same for every function!)
-	 * @param entryPoints list of workflow function entry points (consistent ordering)
-	 * @param timeouts list of workflow function timeouts is seconds (consistent ordering)
-	 * @param memory list of workflow function memory amount in megabytes (consistent ordering)
+	 * @param functionNames list of workflow function names, runtime identifier included (consistent ordering)
+	 * @param functionUrls list of workflow function URLs (consistent ordering)
 	 * @param regions list of workflow function regions of deployment (consistent ordering)
-	 * @param functionDirPaths list of workflow function directories containing implementation (consistent ordering)
+	 * @return true if the workflow has been deployed, false elsewhere
 	 */
-	public static void deployOnGoogleComposition(String workflowName, String contentFolderAbsolutePath,
-												 String workflowRegion, String yamlFileName, String[] functionNames,
-												 String runtime, String[] entryPoints, Integer[] timeouts,
-												 Integer[] memory, String[] regions, String[] functionDirPaths) {
-
-		assert functionNames.length == entryPoints.length;
-		assert functionNames.length == timeouts.length;
-		assert functionNames.length == memory.length;
-		assert functionNames.length == regions.length;
-		assert functionNames.length == functionDirPaths.length;
-
-		try {
-			workflowName = GoogleCommandUtility.applyRuntimeId(workflowName, runtime);
-			DockerExecutor.checkDocker();
-		} catch (IllegalNameException | DockerException e) {
-			System.err.println("Could not deploy workflow '" + workflowName + "': " + e.getMessage());
-			return;
-		}
-
-		deployGoogleCompositionHandler();
-
-		System.out.println("\n" + "\u001B[33m" +
-				"Deploying \"" + workflowName + "\" to Google Cloud Platform..." +
-				"\u001B[0m" + "\n");
+	private static boolean deployGoogleWorkflow(String workflowName, String workflowRegion,
+												String contentFolderAbsolutePath, String yamlFileName,
+												String[] functionNames, List<String> functionUrls, String[] regions) {
 
 		// create temporary file in which is possible to replace PLACEHOLDER without editing original file
 		Path tempYaml;
@@ -130,36 +112,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 		} catch (IOException e) {
 			System.err.println("Could not read '" + contentFolderAbsolutePath +
 					CommandUtility.getPathSep() + yamlFileName + "': " + e.getMessage());
-			return;
-		}
-
-		ArrayList<String> functionUrls = new ArrayList<>();
-
-		// publish functions
-		for (int i = 0; i < functionNames.length; i++) {
-			try {
-				functionNames[i] = GoogleCommandUtility.applyRuntimeId(functionNames[i], runtime);
-			} catch (IllegalNameException e) {
-				System.err.println("Could not deploy function '" + functionNames[i] + "' to Google Cloud Functions: " +
-						e.getMessage());
-				deleteFile(tempYaml);
-				return;
-			}
-			functionUrls.add(FunctionCommandExecutor.deployOnGoogleCloudCompositionFunction(functionNames[i],
-					runtime,
-					entryPoints[i],
-					timeouts[i],
-					memory[i],
-					regions[i],
-					contentFolderAbsolutePath + CommandUtility.getPathSep() + functionDirPaths[i]));
-			if (!functionUrls.get(functionUrls.size() - 1).equals("")) {
-				System.out.println("'" + functionNames[i] + "' deploy on Google Cloud Platform completed");
-			}
-		}
-		if (functionUrls.contains("")) {
-			System.err.println("Error deploying functions!");
-			deleteFile(tempYaml);
-			return;
+			return false;
 		}
 
 		// yaml file: replacing placeholders
@@ -174,7 +127,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 		} catch (IOException e) {
 			System.err.println("Could not parse '" + yamlFileName + "': " + e.getMessage());
 			deleteFile(tempYaml);
-			return;
+			return false;
 		}
 
 		ExecutorService executorServiceOut = Executors.newSingleThreadExecutor();
@@ -194,7 +147,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 				System.err.println("Could not deploy workflow '" + workflowName + "' on Google Cloud Platform");
 				process.destroy();
 				deleteFile(tempYaml);
-				return;
+				return false;
 			}
 
 			// delete temporary file
@@ -210,82 +163,41 @@ public class CompositionCommandExecutor extends CommandExecutor {
 			process.destroy();
 
 			CompositionsRepositoryDAO.persistGoogle(workflowName, workflowRegion, functionNames, regions);
+			return true;
 		} catch (InterruptedException | IOException e) {
 			System.err.println("Could not deploy workflow '" + workflowName + "' on Google Cloud Platform: " +
 					e.getMessage());
+			return false;
 		} finally {
 			executorServiceOut.shutdown();
 		}
 	}
 
 	/**
-	 * Deploys a state machine to AWS Step Functions, needed serverless functions and performs DB persistence
+	 * Deploys a state machine definition to AWS Step Functions and performs DB persistence, state machine functions
+	 * must have already been deployed
 	 * @param machineName name of the state machine to deploy
-	 * @param contentFolderAbsolutePath folder containing state machine functions and definition
 	 * @param machineRegion region for state machine deployment
+	 * @param contentFolderAbsolutePath folder containing state machine definition
 	 * @param jsonFileName json containing state machine definition file name
-	 * @param functionNames list of state machine function names (consistent ordering)
-	 * @param runtime function runtimes (same for every function!)
-	 * @param entryPoints list of state machine function entry points (consistent ordering)
-	 * @param timeouts list of state machine function timeouts is seconds (consistent ordering)
-	 * @param memory list of state machine function memory amount in megabytes (consistent ordering)
+	 * @param functionNames list of state machine function names, runtime identifier included (consistent ordering)
+	 * @param functionArns list of state machine function ARNs (consistent ordering)
 	 * @param regions list of state machine function regions of deployment (consistent ordering)
-	 * @param zipFileNames list of state machine function file names of zipped implementations
+	 * @return true if the state machine has been deployed, false elsewhere
 	 */
-	public static void deployOnAmazonComposition(String machineName, String contentFolderAbsolutePath,
-												 String machineRegion, String jsonFileName, String[] functionNames,
-												 String runtime, String[] entryPoints, Integer[] timeouts,
-												 Integer[] memory, String[] regions, String[] zipFileNames) {
+	private static boolean deployAmazonStateMachine(String machineName, String machineRegion,
+													String contentFolderAbsolutePath, String jsonFileName,
+													String[] functionNames, List<String> functionArns,
+													String[] regions) {
 
-		assert functionNames.length == entryPoints.length;
-		assert functionNames.length == timeouts.length;
-		assert functionNames.length == memory.length;
-		assert functionNames.length == regions.length;
-		assert functionNames.length == zipFileNames.length;
-
-		try {
-			machineName = AmazonCommandUtility.applyRuntimeId(machineName, runtime);
-			DockerExecutor.checkDocker();
-		} catch (IllegalNameException | DockerException e) {
-			System.err.println("Could not deploy state machine '" + machineName + "': " + e.getMessage());
-			return;
-		}
-
-		deployAmazonCompositionHandler();
-
-		System.out.println("\n" + "\u001B[33m" +
-				"Deploying \"" + machineName + "\" to Amazon Web Services..." +
-				"\u001B[0m" + "\n");
-
-		String json = "";
+		String json;
 
 		try {
 			json = new String(Files.readAllBytes(Paths.get(contentFolderAbsolutePath + CommandUtility.getPathSep()
 					+ jsonFileName)));
 		} catch (IOException e) {
 			System.err.println("Could not load JSON file for '" + machineName + "': " + e.getMessage());
-		}
-
-		// noinspection SpellCheckingInspection
-		ArrayList<String> functionArns = new ArrayList<>();
-
-		// publish functions
-		for (int i = 0; i < functionNames.length; i++) {
-			// deploy function
-			try {
-				functionNames[i] = AmazonCommandUtility.applyRuntimeId(functionNames[i], runtime);
-				functionArns.add(FunctionCommandExecutor.deployOnAmazonLambdaFunctions(functionNames[i],
-						runtime,
-						entryPoints[i],
-						timeouts[i],
-						memory[i],
-						regions[i],
-						contentFolderAbsolutePath,
-						zipFileNames[i]));
-			} catch (InterruptedException | IOException | IllegalNameException e) {
-				System.err.println("Could not deploy '" + functionNames[i] + "' to AWS Lambda: " + e.getMessage());
-				return;
-			}
+			return false;
 		}
 
 		// json file: replacing placeholders
@@ -319,7 +231,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not deploy state machine '" + machineName + "' on Step Functions");
 				process.destroy();
-				return;
+				return false;
 			}
 			String machineArn = machineArnCollector.getResult();
 			pattern = Pattern.compile(arnRegex);
@@ -329,7 +241,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 			} else {
 				System.err.println("Could not deploy state machine '" + machineName + "' on Step Functions");
 				process.destroy();
-				return;
+				return false;
 			}
 
 			String url = CompositionsRepositoryDAO.getAmazonHandlerUrl(null);
@@ -342,36 +254,28 @@ public class CompositionCommandExecutor extends CommandExecutor {
 			process.destroy();
 
 			CompositionsRepositoryDAO.persistAmazon(machineName, machineArn, machineRegion, functionNames, regions);
+			return true;
 		} catch (InterruptedException | IOException e) {
 			System.err.println("Could not deploy state machine '" + machineName + "' on Step Functions: " +
 					e.getMessage());
+			return false;
 		} finally {
 			executorServiceOut.shutdown();
 			executorServiceErr.shutdown();
 		}
 	}
 
-	public static void deployOnOpenWhiskComposition(String compositionName, String contentFolderAbsolutePath,
-													String javascriptFileName, String[] functionNames, String runtime,
-													String[] entryPoints, Integer[] timeouts, Integer[] memory,
-													String[] zipFileNames) {
-
-		assert functionNames.length == entryPoints.length;
-		assert functionNames.length == timeouts.length;
-		assert functionNames.length == memory.length;
-		assert functionNames.length == zipFileNames.length;
-
-		try {
-			compositionName = OpenWhiskCommandUtility.applyRuntimeId(compositionName, runtime);
-			DockerExecutor.checkDocker();
-		} catch (IllegalNameException | DockerException e) {
-			System.err.println("Could not deploy composition '" + compositionName + "': " + e.getMessage());
-			return;
-		}
-
-		System.out.println("\n" + "\u001B[33m" +
-				"Deploying \"" + compositionName + "\" to OpenWhisk..." +
-				"\u001B[0m" + "\n");
+	/**
+	 * Deploys a composition definition to OpenWhisk as a conductor action and performs DB persistence, composition
+	 * functions must have already been deployed
+	 * @param compositionName name of the composition to deploy
+	 * @param contentFolderAbsolutePath folder containing composition definition
+	 * @param javascriptFileName javascript containing composition definition file name
+	 * @param functionNames list of composition function names, runtime identifier included (consistent ordering)
+	 * @return true if the composition has been deployed, false elsewhere
+	 */
+	private static boolean deployOpenWhiskConductor(String compositionName, String contentFolderAbsolutePath,
+													String javascriptFileName, String[] functionNames) {
 
 		// create temporary file in which is possible to replace PLACEHOLDER without editing original file
 		Path tempJs;
@@ -383,36 +287,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 		} catch (IOException e) {
 			System.err.println("Could not read '" + contentFolderAbsolutePath +
 					CommandUtility.getPathSep() + javascriptFileName + "': " + e.getMessage());
-			return;
-		}
-
-		ArrayList<String> deployedFunctions = new ArrayList<>();
-
-		// publish functions
-		for (int i = 0; i < functionNames.length; i++) {
-			try {
-				functionNames[i] = OpenWhiskCommandUtility.applyRuntimeId(functionNames[i], runtime);
-			} catch (IllegalNameException e) {
-				System.err.println("Could not deploy function '" + functionNames[i] + "' to OpenWhisk: " +
-						e.getMessage());
-				deleteFile(tempJs);
-				return;
-			}
-			deployedFunctions.add(FunctionCommandExecutor.deployOnOpenWhiskCompositions(functionNames[i],
-					runtime,
-					entryPoints[i],
-					timeouts[i],
-					memory[i],
-					contentFolderAbsolutePath,
-					zipFileNames[i]));
-			if (!deployedFunctions.get(deployedFunctions.size() - 1).equals("")) {
-				System.out.println("'" + functionNames[i] + "' deploy on OpenWhisk completed");
-			}
-		}
-		if (deployedFunctions.contains("")) {
-			System.err.println("Error deploying functions!");
-			deleteFile(tempJs);
-			return;
+			return false;
 		}
 
 		// javascript file: replacing placeholders
@@ -427,7 +302,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 		} catch (IOException e) {
 			System.err.println("Could not parse '" + javascriptFileName + "': " + e.getMessage());
 			deleteFile(tempJs);
-			return;
+			return false;
 		}
 
 		// create temporary json file to save composition description
@@ -437,7 +312,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 		} catch (IOException e) {
 			System.err.println("Could not parse '" + javascriptFileName + "': " + e.getMessage());
 			deleteFile(tempJs);
-			return;
+			return false;
 		}
 
 		ExecutorService executorServiceOut = Executors.newSingleThreadExecutor();
@@ -462,7 +337,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 				process.destroy();
 				deleteFile(tempJs);
 				deleteFile(tempJson);
-				return;
+				return false;
 			}
 
 			// delete javascript temporary file
@@ -476,7 +351,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 			} catch (IOException e) {
 				System.err.println("Could not parse '" + javascriptFileName + "': " + e.getMessage());
 				deleteFile(tempJson);
-				return;
+				return false;
 			}
 
 			// deploy composition
@@ -489,7 +364,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 				System.err.println("Could not deploy composition '" + compositionName + "' on OpenWhisk");
 				process.destroy();
 				deleteFile(tempJson);
-				return;
+				return false;
 			}
 
 			// delete json temporary file
@@ -504,7 +379,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 				System.err.println("Could not enable composition web reachability for '" + compositionName +
 						"' on OpenWhisk");
 				process.destroy();
-				return;
+				return false;
 			}
 
 			// get composition url
@@ -519,7 +394,7 @@ public class CompositionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not obtain '" + compositionName + "' url on OpenWhisk");
 				process.destroy();
-				return;
+				return false;
 			}
 
 			String url = urlFinder.getResult();
@@ -529,18 +404,230 @@ public class CompositionCommandExecutor extends CommandExecutor {
 			process.destroy();
 
 			CompositionsRepositoryDAO.persistOpenWhisk(compositionName, url, functionNames);
+			return true;
 		} catch (InterruptedException | IOException e) {
 			System.err.println("Could not deploy composition '" + compositionName + "' on OpenWhisk: " +
 					e.getMessage());
 			// silent because if fails has already been deleted
 			deleteFile(tempJs, true);
 			deleteFile(tempJson, true);
+			return false;
 		} finally {
 			executorServiceOut.shutdown();
 			executorServiceErr.shutdown();
 		}
 	}
 
+	/**
+	 * Plans the deploy of a workflow to Google Cloud Platform Workflows [BETA]: every workflow function is a node of
+	 * the plan, the workflow node depends on them and on the composition handler node (planned if not yet present)
+	 * @param planner deployment planner
+	 * @param workflowName name of the workflow to deploy
+	 * @param contentFolderAbsolutePath folder containing workflow functions and definition
+	 * @param workflowRegion region for workflow deployment
+	 *                          (only GoogleCommandUtility.IOWA supported by Google at the moment)
+	 * @param yamlFileName yaml containing workflow definition file name
+	 * @param functionNames list of workflow function names (consistent ordering)
+	 * @param runtime function runtimes (same for every function!)
+	 * @param entryPoints list of workflow function entry points (consistent ordering)
+	 * @param timeouts list of workflow function timeouts is seconds (consistent ordering)
+	 * @param memory list of workflow function memory amount in megabytes (consistent ordering)
+	 * @param regions list of workflow function regions of deployment (consistent ordering)
+	 * @param functionDirPaths list of workflow function directories containing implementation (consistent ordering)
+	 * @param dependencies further nodes to complete before workflow deployment (e.g. buckets)
+	 * @return workflow node, null if names are not valid
+	 */
+	public static DeploymentNode planOnGoogleComposition(DeploymentPlanner planner, String workflowName,
+														 String contentFolderAbsolutePath, String workflowRegion,
+														 String yamlFileName, String[] functionNames,
+														 String runtime, String[] entryPoints, Integer[] timeouts,
+														 Integer[] memory, String[] regions,
+														 String[] functionDirPaths, DeploymentNode... dependencies) {
+
+		assert functionNames.length == entryPoints.length;
+		assert functionNames.length == timeouts.length;
+		assert functionNames.length == memory.length;
+		assert functionNames.length == regions.length;
+		assert functionNames.length == functionDirPaths.length;
+
+		String[] names = new String[functionNames.length];
+		try {
+			workflowName = GoogleCommandUtility.applyRuntimeId(workflowName, runtime);
+			for (int i = 0; i < functionNames.length; i++) {
+				names[i] = GoogleCommandUtility.applyRuntimeId(functionNames[i], runtime);
+			}
+		} catch (IllegalNameException e) {
+			System.err.println("Could not plan workflow '" + workflowName + "': " + e.getMessage());
+			return null;
+		}
+
+		List<DeploymentNode> requirements = new ArrayList<>(Arrays.asList(dependencies));
+		DeploymentNode handler = planner.getNode(HANDLER_NAME, Provider.GOOGLE);
+		if (handler == null) {
+			handler = planner.addNode(HANDLER_NAME, Provider.GOOGLE,
+					CompositionCommandExecutor::deployGoogleCompositionHandler);
+		}
+		requirements.add(handler);
+
+		String[] functionUrls = new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			int index = i;
+			requirements.add(planner.addNode(names[i], Provider.GOOGLE, () -> {
+				functionUrls[index] = FunctionCommandExecutor.deployOnGoogleCloudCompositionFunction(names[index],
+						runtime,
+						entryPoints[index],
+						timeouts[index],
+						memory[index],
+						regions[index],
+						contentFolderAbsolutePath + CommandUtility.getPathSep() + functionDirPaths[index]);
+				return !functionUrls[index].equals("");
+			}));
+		}
+
+		String workflow = workflowName;
+		return planner.addNode(workflow, Provider.GOOGLE,
+				() -> deployGoogleWorkflow(workflow, workflowRegion, contentFolderAbsolutePath, yamlFileName, names,
+						Arrays.asList(functionUrls), regions),
+				requirements.toArray(new DeploymentNode[0]));
+	}
+
+	/**
+	 * Plans the deploy of a state machine to AWS Step Functions: every state machine function is a node of the plan,
+	 * the state machine node depends on them and on the composition handler node (planned if not yet present)
+	 * @param planner deployment planner
+	 * @param machineName name of the state machine to deploy
+	 * @param contentFolderAbsolutePath folder containing state machine functions and definition
+	 * @param machineRegion region for state machine deployment
+	 * @param jsonFileName json containing state machine definition file name
+	 * @param functionNames list of state machine function names (consistent ordering)
+	 * @param runtime function runtimes (same for every function!)
+	 * @param entryPoints list of state machine function entry points (consistent ordering)
+	 * @param timeouts list of state machine function timeouts is seconds (consistent ordering)
+	 * @param memory list of state machine function memory amount in megabytes (consistent ordering)
+	 * @param regions list of state machine function regions of deployment (consistent ordering)
+	 * @param zipFileNames list of state machine function file names of zipped implementations
+	 * @param dependencies further nodes to complete before state machine deployment (e.g. buckets)
+	 * @return state machine node, null if names are not valid
+	 */
+	public static DeploymentNode planOnAmazonComposition(DeploymentPlanner planner, String machineName,
+														 String contentFolderAbsolutePath, String machineRegion,
+														 String jsonFileName, String[] functionNames,
+														 String runtime, String[] entryPoints, Integer[] timeouts,
+														 Integer[] memory, String[] regions, String[] zipFileNames,
+														 DeploymentNode... dependencies) {
+
+		assert functionNames.length == entryPoints.length;
+		assert functionNames.length == timeouts.length;
+		assert functionNames.length == memory.length;
+		assert functionNames.length == regions.length;
+		assert functionNames.length == zipFileNames.length;
+
+		String[] names = new String[functionNames.length];
+		try {
+			machineName = AmazonCommandUtility.applyRuntimeId(machineName, runtime);
+			for (int i = 0; i < functionNames.length; i++) {
+				names[i] = AmazonCommandUtility.applyRuntimeId(functionNames[i], runtime);
+			}
+		} catch (IllegalNameException e) {
+			System.err.println("Could not plan state machine '" + machineName + "': " + e.getMessage());
+			return null;
+		}
+
+		List<DeploymentNode> requirements = new ArrayList<>(Arrays.asList(dependencies));
+		DeploymentNode handler = planner.getNode(HANDLER_NAME, Provider.AMAZON);
+		if (handler == null) {
+			handler = planner.addNode(HANDLER_NAME, Provider.AMAZON,
+					CompositionCommandExecutor::deployAmazonCompositionHandler);
+		}
+		requirements.add(handler);
+
+		// noinspection SpellCheckingInspection
+		String[] functionArns = new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			int index = i;
+			requirements.add(planner.addNode(names[i], Provider.AMAZON, () -> {
+				try {
+					functionArns[index] = FunctionCommandExecutor.deployOnAmazonLambdaFunctions(names[index],
+							runtime,
+							entryPoints[index],
+							timeouts[index],
+							memory[index],
+							regions[index],
+							contentFolderAbsolutePath,
+							zipFileNames[index]);
+				} catch (InterruptedException | IOException e) {
+					System.err.println("Could not deploy '" + names[index] + "' to AWS Lambda: " + e.getMessage());
+					return false;
+				}
+				return !functionArns[index].equals("");
+			}));
+		}
+
+		String machine = machineName;
+		return planner.addNode(machine, Provider.AMAZON,
+				() -> deployAmazonStateMachine(machine, machineRegion, contentFolderAbsolutePath, jsonFileName, names,
+						Arrays.asList(functionArns), regions),
+				requirements.toArray(new DeploymentNode[0]));
+	}
+
+	/**
+	 * Plans the deploy of a composition to OpenWhisk: every composition function is a node of the plan, the
+	 * composition node depends on them
+	 * @param planner deployment planner
+	 * @param compositionName name of the composition to deploy
+	 * @param contentFolderAbsolutePath folder containing composition functions and definition
+	 * @param javascriptFileName javascript containing composition definition file name
+	 * @param functionNames list of composition function names (consistent ordering)
+	 * @param runtime function runtimes (same for every function!)
+	 * @param entryPoints list of composition function entry points (consistent ordering)
+	 * @param timeouts list of composition function timeouts is seconds (consistent ordering)
+	 * @param memory list of composition function memory amount in megabytes (consistent ordering)
+	 * @param zipFileNames list of composition function file names of zipped implementations
+	 * @param dependencies further nodes to complete before composition deployment
+	 * @return composition node, null if names are not valid
+	 */
+	public static DeploymentNode planOnOpenWhiskComposition(DeploymentPlanner planner, String compositionName,
+															String contentFolderAbsolutePath,
+															String javascriptFileName, String[] functionNames,
+															String runtime, String[] entryPoints, Integer[] timeouts,
+															Integer[] memory, String[] zipFileNames,
+															DeploymentNode... dependencies) {
+
+		assert functionNames.length == entryPoints.length;
+		assert functionNames.length == timeouts.length;
+		assert functionNames.length == memory.length;
+		assert functionNames.length == zipFileNames.length;
+
+		String[] names = new String[functionNames.length];
+		try {
+			compositionName = OpenWhiskCommandUtility.applyRuntimeId(compositionName, runtime);
+			for (int i = 0; i < functionNames.length; i++) {
+				names[i] = OpenWhiskCommandUtility.applyRuntimeId(functionNames[i], runtime);
+			}
+		} catch (IllegalNameException e) {
+			System.err.println("Could not plan composition '" + compositionName + "': " + e.getMessage());
+			return null;
+		}
+
+		List<DeploymentNode> requirements = new ArrayList<>(Arrays.asList(dependencies));
+		for (int i = 0; i < names.length; i++) {
+			int index = i;
+			requirements.add(planner.addNode(names[i], Provider.OPENWHISK,
+					() -> !FunctionCommandExecutor.deployOnOpenWhiskCompositions(names[index],
+							runtime,
+							entryPoints[index],
+							timeouts[index],
+							memory[index],
+							contentFolderAbsolutePath,
+							zipFileNames[index]).equals("")));
+		}
+
+		String composition = compositionName;
+		return planner.addNode(composition, Provider.OPENWHISK,
+				() -> deployOpenWhiskConductor(composition, contentFolderAbsolutePath, javascriptFileName, names),
+				requirements.toArray(new DeploymentNode[0]));
+	}
+
 	/**
 	 * Removes a workflow from Google Cloud Platform Workflows [BETA]
 	 * @param workflowName name of the workflow to remove
@@ -1,9 +1,13 @@
 package cmd.functionality_commands;
 
 import cmd.CommandExecutor;
+import cmd.CommandUtility;
 import cmd.docker_daemon_utility.DockerException;
 import cmd.docker_daemon_utility.DockerExecutor;
 import cmd.StreamGobbler;
+import cmd.functionality_commands.amazon_api.AmazonApiClient;
+import cmd.functionality_commands.amazon_api.AmazonApiException;
+import cmd.functionality_commands.amazon_api.RestFunctionDeployment;
 import cmd.functionality_commands.output_parsing.URLFinder;
 import cmd.functionality_commands.output_parsing.ReplyCollector;
 import databases.mysql.CloudEntityData;
@@ -12,6 +16,7 @@ import databases.mysql.daos.FunctionsRepositoryDAO;
 import utility.PropertiesManager;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -22,6 +27,17 @@ import java.util.concurrent.Executors;
 @SuppressWarnings({"DuplicatedCode", "SameParameterValue"})
 public class FunctionCommandExecutor extends CommandExecutor {
 
+	// client used to deploy on AWS without CLI containers, null to use AWS CLI
+	private static volatile AmazonApiClient amazonApiClient = null;
+
+	/**
+	 * Enables deployment of Amazon functions through AWS APIs instead of AWS CLI containers
+	 * @param client AWS APIs client, null to use AWS CLI
+	 */
+	public static void setAmazonApiClient(AmazonApiClient client) {
+		amazonApiClient = client;
+	}
+
 	/**
 	 * Deploys a composition handler to Google Cloud Functions and persists on DB
 	 * @param functionName name of the handler
@@ -49,13 +65,14 @@ public class FunctionCommandExecutor extends CommandExecutor {
 	 * @param memory function memory amount in megabytes
 	 * @param region function region of deployment
 	 * @param directoryAbsolutePath path of the directory containing function implementation
+	 * @return true if the function has been deployed and persisted, false elsewhere
 	 */
-	public static void deployOnGoogleCloudFunction(String functionName, String runtime, String entryPoint,
-													Integer timeout, Integer memory, String region,
-													String directoryAbsolutePath) {
+	public static boolean deployOnGoogleCloudFunction(String functionName, String runtime, String entryPoint,
+													  Integer timeout, Integer memory, String region,
+													  String directoryAbsolutePath) {
 
-		deployOnGoogleCloudFunctions(functionName, runtime, entryPoint, timeout, memory, region,
-				directoryAbsolutePath, 1);
+		return !deployOnGoogleCloudFunctions(functionName, runtime, entryPoint, timeout, memory, region,
+				directoryAbsolutePath, 1).isEmpty();
 	}
 
 	/**
@@ -88,7 +105,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 	 * @param directoryAbsolutePath path of the directory containing function implementation
 	 * @param functionality 0 for handler deployment and persistence, 1 for function deployment and persistence,
 	 *                         2 for deployment only
-	 * @return function URL
+	 * @return function URL, empty if deployment or persistence failed
 	 */
 	private static String deployOnGoogleCloudFunctions(String functionName, String runtime, String entryPoint,
 													Integer timeout, Integer memory, String region,
@@ -148,20 +165,22 @@ public class FunctionCommandExecutor extends CommandExecutor {
 
 			process.destroy();
 
+			boolean persisted;
 			switch (functionality) {
 				case 0:
 					// handler
-					CompositionsRepositoryDAO.persistGoogleHandler(functionName, url, region);
+					persisted = CompositionsRepositoryDAO.persistGoogleHandler(functionName, url, region);
 					break;
 				case 1:
 					// function to persist
-					FunctionsRepositoryDAO.persistGoogle(functionName, url, region);
+					persisted = FunctionsRepositoryDAO.persistGoogle(functionName, url, region);
 					break;
 				default:
+					persisted = true;
 					break;
 			}
 
-			return url;
+			return persisted ? url : "";
 		} catch (InterruptedException | IOException e) {
 			System.err.println("Could not deploy function '" + functionName + "': " + e.getMessage());
 			return "";
@@ -200,14 +219,14 @@ public class FunctionCommandExecutor extends CommandExecutor {
 	 * @param region function region of deployment
 	 * @param zipFolderAbsolutePath path of the folder containing function zipped implementation
 	 * @param zipFileName file name of the zipped implementation
+	 * @return true if the function has been deployed and persisted, false elsewhere
 	 */
-	public static void deployOnAmazonRESTFunction(String functionName, String runtime, String entryPoint,
-												  Integer timeout, Integer memory, String region,
-												  String zipFolderAbsolutePath, String zipFileName) {
-
-		deployOnAmazonRESTFunctions(functionName, runtime, entryPoint, timeout, memory, region, zipFolderAbsolutePath,
-				zipFileName, false);
+	public static boolean deployOnAmazonRESTFunction(String functionName, String runtime, String entryPoint,
+													 Integer timeout, Integer memory, String region,
+													 String zipFolderAbsolutePath, String zipFileName) {
 
+		return deployOnAmazonRESTFunctions(functionName, runtime, entryPoint, timeout, memory, region,
+				zipFolderAbsolutePath, zipFileName, false);
 	}
 
 	/**
@@ -228,6 +247,19 @@ public class FunctionCommandExecutor extends CommandExecutor {
 														Integer timeout, Integer memory, String region,
 														String zipFolderAbsolutePath, String zipFileName)
 			throws IOException, InterruptedException {
+
+		AmazonApiClient client = amazonApiClient;
+		if (client != null) {
+			try {
+				return client.createFunction(functionName, runtime, entryPoint, timeout, memory, region,
+						PropertiesManager.getInstance().getProperty(PropertiesManager.AWS_LAMBDA_EXEC_ROLE),
+						Paths.get(zipFolderAbsolutePath, zipFileName));
+			} catch (AmazonApiException e) {
+				System.err.println("Could not deploy '" + functionName + "' on AWS Lambda: " + e.getMessage());
+				return "";
+			}
+		}
+
 		Process process;
 		StreamGobbler outputGobbler;
 		StreamGobbler errorGobbler;
@@ -286,24 +318,49 @@ public class FunctionCommandExecutor extends CommandExecutor {
 	 * @param zipFolderAbsolutePath path of the folder containing function zipped implementation
 	 * @param zipFileName file name of the zipped implementation
 	 * @param handler true if an handler is being deployed, false for functions
+	 * @return true if the function has been deployed and persisted, false elsewhere
 	 */
-	private static void deployOnAmazonRESTFunctions(String functionName, String runtime, String entryPoint,
+	private static boolean deployOnAmazonRESTFunctions(String functionName, String runtime, String entryPoint,
 												  Integer timeout, Integer memory, String region,
 												  String zipFolderAbsolutePath, String zipFileName, boolean handler) {
 
+		AmazonApiClient client = amazonApiClient;
+
 		try {
 			functionName = AmazonCommandUtility.applyRuntimeId(functionName, runtime);
-			DockerExecutor.checkDocker();
+			// AWS CLI containers are not needed when AWS APIs are called directly
+			if (client == null) {
+				DockerExecutor.checkDocker();
+			}
 		} catch (IllegalNameException | DockerException e) {
 			System.err.println("Could not deploy function '" + functionName + "' to AWS Lambda: " +
 					e.getMessage());
-			return;
+			return false;
 		}
 
 		System.out.println("\n" + "\u001B[33m" +
 				"Deploying \"" + functionName + "\" to Amazon Web Services..." +
 				"\u001B[0m" + "\n");
 
+		if (client != null) {
+			try {
+				RestFunctionDeployment deployment = client.deployRestFunction(functionName, runtime, entryPoint,
+						timeout, memory, region,
+						PropertiesManager.getInstance().getProperty(PropertiesManager.AWS_LAMBDA_EXEC_ROLE),
+						Paths.get(zipFolderAbsolutePath, zipFileName), "benchmark");
+				System.out.println("\u001B[32m" + "Deployed function to: " + deployment.getUrl() + "\u001B[0m");
+				if (handler) {
+					return CompositionsRepositoryDAO.persistAmazonHandler(functionName, deployment.getUrl(),
+							deployment.getApiId(), region);
+				}
+				return FunctionsRepositoryDAO.persistAmazon(functionName, deployment.getUrl(), deployment.getApiId(),
+						region);
+			} catch (AmazonApiException e) {
+				System.err.println("\"" + functionName + "\" function deploy failed: " + e.getMessage());
+				return false;
+			}
+		}
+
 		ExecutorService executorServiceOut = Executors.newSingleThreadExecutor();
 		ExecutorService executorServiceErr = Executors.newSingleThreadExecutor();
 
@@ -312,7 +369,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			String lambdaARN = deployOnAmazonLambdaFunctions(functionName, runtime, entryPoint, timeout, memory, region,
 					zipFolderAbsolutePath, zipFileName);
 			if (lambdaARN.equals("")) {
-				return;
+				return false;
 			}
 
 			Process process;
@@ -328,7 +385,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not create api on API Gateway for '" + functionName + "'");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
 			System.out.println("Create api on API Gateway completed for '" + functionName + "'");
@@ -345,14 +402,14 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not get api id for '" + functionName + "'");
 				process.destroy();
-				return;
+				return false;
 			}
 			String apiId = apiIdReplyCollector.getResult();
 			if (apiId.contains("\t")) {
 				System.err.println("Too many APIs with the same name ('" + functionName +
 						"'), could not continue execution");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
 			System.out.println("Get api id completed for '" + functionName + "'");
@@ -368,7 +425,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not get api parent id for '" + functionName + "'");
 				process.destroy();
-				return;
+				return false;
 			}
 			String apiParentId = apiParentIdReplyCollector.getResult();
 			process.destroy();
@@ -383,7 +440,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not create resource on api for '" + functionName + "'");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
 			System.out.println("Create resource on api completed for '" + functionName + "'");
@@ -400,7 +457,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not get api resource id for '" + functionName + "'");
 				process.destroy();
-				return;
+				return false;
 			}
 			String apiResourceId = apiResourceIdReplyCollector.getResult();
 			process.destroy();
@@ -415,7 +472,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not create api method for '" + functionName + "'");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
 			System.out.println("Create api method completed for '" + functionName + "'");
@@ -429,7 +486,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not link api method and lambda function '" + functionName + "'");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
 			System.out.println("Link api method and lambda function '" + functionName + "' completed");
@@ -443,7 +500,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not deploy api for '" + functionName + "'");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
 			System.out.println("Deploy api completed for '" + functionName + "'");
@@ -457,7 +514,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			if (process.waitFor() != 0) {
 				System.err.println("Could not authorize api gateway for '" + functionName + "' execution");
 				process.destroy();
-				return;
+				return false;
 			}
 			process.destroy();
 			System.out.println("Authorize api gateway for '" + functionName + "' execution completed");
@@ -469,12 +526,12 @@ public class FunctionCommandExecutor extends CommandExecutor {
 			process.destroy();
 
 			if (handler) {
-				CompositionsRepositoryDAO.persistAmazonHandler(functionName, url, apiId, region);
-			} else {
-				FunctionsRepositoryDAO.persistAmazon(functionName, url, apiId, region);
+				return CompositionsRepositoryDAO.persistAmazonHandler(functionName, url, apiId, region);
 			}
+			return FunctionsRepositoryDAO.persistAmazon(functionName, url, apiId, region);
 		} catch (InterruptedException | IOException e) {
 			System.err.println("\"" + functionName + "\" function deploy failed: " + e.getMessage());
+			return false;
 		} finally {
 			executorServiceOut.shutdown();
 			executorServiceErr.shutdown();
@@ -490,13 +547,15 @@ public class FunctionCommandExecutor extends CommandExecutor {
 	 * @param memory function memory amount in megabytes
 	 * @param zipFolderAbsolutePath path of the folder containing function zipped implementation
 	 * @param zipFileName file name of the zipped implementation
+	 * @return true if the function has been deployed and persisted, false elsewhere
 	 */
-	public static void deployOnOpenWhisk(String functionName, String runtime, String entryPoint, Integer timeout,
-										 Integer memory, String zipFolderAbsolutePath, String zipFileName) {
+	public static boolean deployOnOpenWhisk(String functionName, String runtime, String entryPoint, Integer timeout,
+											Integer memory, String zipFolderAbsolutePath, String zipFileName) {
 
-		deployOnOpenWhisk(functionName, runtime, entryPoint, timeout, memory, zipFolderAbsolutePath, zipFileName,
+		return !deployOnOpenWhisk(functionName, runtime, entryPoint, timeout, memory, zipFolderAbsolutePath,
+				zipFileName,
 				Boolean.valueOf(PropertiesManager.getInstance().getProperty(PropertiesManager.OPENWHISK_SSL_IGNORE)),
-				1);
+				1).isEmpty();
 	}
 
 	/**
@@ -530,7 +589,7 @@ public class FunctionCommandExecutor extends CommandExecutor {
 	 * @param zipFileName file name of the zipped implementation
 	 * @param functionality 0 for handler deployment and persistence, 1 for function deployment and persistence,
 	 *                         2 for deployment only
-	 * @return function URL
+	 * @return function name, empty if deployment or persistence failed
 	 */
 	private static String deployOnOpenWhisk(String functionName, String runtime, String entryPoint,
 											Integer timeout, Integer memory, String zipFolderAbsolutePath,
@@ -607,7 +666,9 @@ public class FunctionCommandExecutor extends CommandExecutor {
 				process.destroy();
 
 				// function to persist
-				FunctionsRepositoryDAO.persistOpenWhisk(functionName, url);
+				if (!FunctionsRepositoryDAO.persistOpenWhisk(functionName, url)) {
+					return "";
+				}
 			}
 
 			return functionName;
@@ -855,4 +916,79 @@ public class FunctionCommandExecutor extends CommandExecutor {
 
 		FunctionsRepositoryDAO.dropOpenWhisk();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Removes some functions from every provider, the other deployed functions are kept
+	 * @param functionNames common names (without runtime) of the functions to remove
+	 */
+	public static void removeFunctions(List<String> functionNames) {
+
+		try {
+			DockerExecutor.checkDocker();
+		} catch (DockerException e) {
+			System.err.println("Could not remove functions: " + e.getMessage());
+			return;
+		}
+
+		System.out.println("\n" + "\u001B[33m" +
+				"Removing functions " + functionNames + "..." +
+				"\u001B[0m" + "\n");
+
+		List<CloudEntityData> googles = FunctionsRepositoryDAO.getGoogles();
+		if (googles != null) {
+			for (CloudEntityData elem : googles) {
+				if (!functionNames.contains(getCommonName(elem.getEntityName()))) {
+					continue;
+				}
+				try {
+					removeGoogleFunction(elem.getEntityName(), elem.getRegion());
+					FunctionsRepositoryDAO.deleteGoogle(elem.getEntityName());
+				} catch (IOException | InterruptedException e) {
+					System.err.println("Could not delete '" + elem.getEntityName() + "': " + e.getMessage());
+				}
+			}
+		}
+
+		List<CloudEntityData> amazons = FunctionsRepositoryDAO.getAmazons();
+		if (amazons != null) {
+			for (CloudEntityData elem : amazons) {
+				if (!functionNames.contains(getCommonName(elem.getEntityName()))) {
+					continue;
+				}
+				try {
+					removeLambdaFunction(elem.getEntityName(), elem.getRegion());
+					removeGatewayApi(elem.getEntityName(), elem.getId(), elem.getRegion());
+					FunctionsRepositoryDAO.deleteAmazon(elem.getEntityName());
+				} catch (InterruptedException | IOException e) {
+					System.err.println("Could not delete '" + elem.getEntityName() + "': " + e.getMessage());
+				}
+			}
+		}
+
+		List<CloudEntityData> openWhisks = FunctionsRepositoryDAO.getOpenWhisks();
+		if (openWhisks != null) {
+			for (CloudEntityData elem : openWhisks) {
+				if (!functionNames.contains(getCommonName(elem.getEntityName()))) {
+					continue;
+				}
+				try {
+					removeOpenWhiskAction(elem.getEntityName());
+					FunctionsRepositoryDAO.deleteOpenWhisk(elem.getEntityName());
+				} catch (IOException | InterruptedException e) {
+					System.err.println("Could not delete '" + elem.getEntityName() + "': " + e.getMessage());
+				}
+			}
+		}
+
+		System.out.println("\u001B[32m" + "\nFunctions removal completed!\n" + "\u001B[0m");
+	}
+
+	/**
+	 * Extracts the common name of a deployed function
+	 * @param functionName deployed function name, with runtime identifier
+	 * @return name without runtime identifier
+	 */
+	private static String getCommonName(String functionName) {
+		return functionName.split(CommandUtility.getRuntimeSep())[0];
+	}
+}
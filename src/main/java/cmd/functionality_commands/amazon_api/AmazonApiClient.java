@@ -0,0 +1,403 @@
+package cmd.functionality_commands.amazon_api;
+
+import cmd.benchmark_commands.load_generation.TargetUrl;
+import utility.JsonParseException;
+import utility.JsonParser;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * In-process client of the AWS Lambda and API Gateway APIs: requests are signed with Signature Version 4 and sent
+ * on keep-alive connections (one pool for each service endpoint), so no AWS CLI container is needed.
+ * Independent requests of a deployment are sent concurrently on the two services, requests depending on previous
+ * ones are sent only after their success.
+ */
+public class AmazonApiClient {
+
+	/**
+	 * Services
+	 */
+	private static final String LAMBDA = "lambda";
+	private static final String GATEWAY = "apigateway";
+	private static final String LAMBDA_FUNCTIONS_PATH = "/2015-03-31/functions";
+
+	// maximum time in milliseconds for connection and for each read
+	private static final int TIMEOUT_MS = 60 * 1000;
+	// maximum number of resources listed while looking for the API root resource
+	private static final int RESOURCES_LIMIT = 500;
+
+	private final AwsCredentials credentials;
+	// endpoint used for every service instead of the regional ones (e.g. a local stub), null if not overridden
+	private final String endpointOverride;
+	// idle keep-alive connections by service and region
+	private final Map<String, Deque<AmazonConnection>> idleConnections;
+	// runs requests on a service while the calling thread works on the other one
+	private final ExecutorService executor;
+
+
+	/**
+	 * Default constructor
+	 * @param credentials access keys used to sign requests
+	 * @param endpointOverride endpoint used for every service (e.g. "http://localhost:4566"), null for the AWS
+	 *                         regional endpoints
+	 */
+	public AmazonApiClient(AwsCredentials credentials, String endpointOverride) {
+		this.credentials = credentials;
+		this.endpointOverride = endpointOverride;
+		this.idleConnections = new HashMap<>();
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "amazon-api-client");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Creates a client using the credentials of the AWS CLI configuration folder
+	 * @param folder path of the folder containing the "credentials" file
+	 * @param endpointOverride endpoint used for every service, null for the AWS regional endpoints
+	 * @return client, null if credentials are not available
+	 */
+	public static AmazonApiClient fromAuthFolder(String folder, String endpointOverride) {
+		AwsCredentials credentials = AwsCredentials.fromAuthFolder(folder);
+		return credentials == null ? null : new AmazonApiClient(credentials, endpointOverride);
+	}
+
+	/**
+	 * Creates and publishes a Lambda function
+	 * @param functionName name of the function
+	 * @param runtime runtime of the function
+	 * @param entryPoint function entry point path
+	 * @param timeout function timeout in seconds
+	 * @param memory function memory amount in megabytes
+	 * @param region function region of deployment
+	 * @param role ARN of the function execution role
+	 * @param zipFile zipped implementation
+	 * @return ARN of the function
+	 * @throws AmazonApiException if the function can not be created
+	 */
+	public String createFunction(String functionName, String runtime, String entryPoint, Integer timeout,
+								 Integer memory, String region, String role, Path zipFile)
+			throws AmazonApiException {
+
+		String code;
+		try {
+			code = Base64.getEncoder().encodeToString(Files.readAllBytes(zipFile));
+		} catch (IOException e) {
+			throw new AmazonApiException("Could not read '" + zipFile + "': " + e.getMessage());
+		}
+
+		Map<String, Object> function = call(LAMBDA, region, new AmazonConnection.Request("POST",
+				LAMBDA_FUNCTIONS_PATH, "",
+				JsonParser.toJson(object("FunctionName", functionName,
+						"Runtime", runtime,
+						"Role", role,
+						"Handler", entryPoint,
+						"Timeout", timeout,
+						"MemorySize", memory,
+						"Publish", true,
+						"Code", object("ZipFile", code)))));
+		System.out.println("'" + functionName + "' deploy on AWS Lambda completed");
+		return getString(function, "FunctionArn");
+	}
+
+	/**
+	 * Creates and publishes a Lambda function, exposes it with a new API Gateway REST API (ANY method on the
+	 * function name resource) and deploys the API
+	 * @param functionName name of the function
+	 * @param runtime runtime of the function
+	 * @param entryPoint function entry point path
+	 * @param timeout function timeout in seconds
+	 * @param memory function memory amount in megabytes
+	 * @param region function region of deployment
+	 * @param role ARN of the function execution role
+	 * @param zipFile zipped implementation
+	 * @param stageName name of the API deployment stage
+	 * @return deployed function information
+	 * @throws AmazonApiException if a step of the deployment fails
+	 */
+	@SuppressWarnings("SpellCheckingInspection")
+	public RestFunctionDeployment deployRestFunction(String functionName, String runtime, String entryPoint,
+													 Integer timeout, Integer memory, String region, String role,
+													 Path zipFile, String stageName) throws AmazonApiException {
+
+		// the function and the API do not depend on each other until the integration
+		Future<String> functionArnFuture = executor.submit(() -> createFunction(functionName, runtime, entryPoint,
+				timeout, memory, region, role, zipFile));
+
+		String apiId;
+		String resourceId;
+		try {
+			Map<String, Object> api = call(GATEWAY, region, new AmazonConnection.Request("POST", "/restapis", "",
+					JsonParser.toJson(object("name", functionName, "description", functionName + " function API"))));
+			apiId = getString(api, "id");
+			System.out.println("Create api on API Gateway completed for '" + functionName + "'");
+
+			String rootId = api.get("rootResourceId") instanceof String ? (String) api.get("rootResourceId") :
+					findRootResource(apiId, region);
+			Map<String, Object> resource = call(GATEWAY, region, new AmazonConnection.Request("POST",
+					"/restapis/" + SigV4Signer.encode(apiId) + "/resources/" + SigV4Signer.encode(rootId), "",
+					JsonParser.toJson(object("pathPart", functionName))));
+			resourceId = getString(resource, "id");
+			System.out.println("Create resource on api completed for '" + functionName + "'");
+		} catch (AmazonApiException e) {
+			awaitQuietly(functionArnFuture);
+			throw e;
+		}
+
+		String functionArn = await(functionArnFuture);
+
+		// permission is granted on Lambda while the API is completed and deployed
+		String[] arnParts = functionArn.split(":");
+		if (arnParts.length < 7) {
+			throw new AmazonApiException("Unexpected function ARN '" + functionArn + "'");
+		}
+		String sourceArn = "arn:" + arnParts[1] + ":execute-api:" + region + ":" + arnParts[4] + ":" + apiId +
+				"/*/*/" + functionName;
+		Future<Map<String, Object>> permissionFuture = executor.submit(() -> call(LAMBDA, region,
+				new AmazonConnection.Request("POST",
+						LAMBDA_FUNCTIONS_PATH + "/" + SigV4Signer.encode(functionName) + "/policy", "",
+						JsonParser.toJson(object("StatementId", functionName,
+								"Action", "lambda:InvokeFunction",
+								"Principal", "apigateway.amazonaws.com",
+								"SourceArn", sourceArn)))));
+
+		String methodPath = "/restapis/" + SigV4Signer.encode(apiId) + "/resources/" +
+				SigV4Signer.encode(resourceId) + "/methods/ANY";
+		try {
+			// each request needs the previous one to be completed: the deployment is created only on a complete API
+			call(GATEWAY, region, new AmazonConnection.Request("PUT", methodPath, "",
+					JsonParser.toJson(object("authorizationType", "NONE"))));
+			call(GATEWAY, region, new AmazonConnection.Request("PUT", methodPath + "/integration", "",
+					JsonParser.toJson(object("type", "AWS_PROXY",
+							"httpMethod", "POST",
+							"uri", "arn:aws:apigateway:" + region + ":" + LAMBDA + ":path" +
+									LAMBDA_FUNCTIONS_PATH + "/" + functionArn + "/invocations"))));
+			call(GATEWAY, region, new AmazonConnection.Request("POST",
+					"/restapis/" + SigV4Signer.encode(apiId) + "/deployments", "",
+					JsonParser.toJson(object("stageName", stageName))));
+			System.out.println("Deploy api completed for '" + functionName + "'");
+		} catch (AmazonApiException e) {
+			awaitQuietly(permissionFuture);
+			throw e;
+		}
+		await(permissionFuture);
+		System.out.println("Authorize api gateway for '" + functionName + "' execution completed");
+
+		// noinspection SpellCheckingInspection
+		String url = "https://" + apiId + ".execute-api." + region + ".amazonaws.com/" + stageName + "/" +
+				functionName;
+		return new RestFunctionDeployment(functionArn, apiId, url);
+	}
+
+	/**
+	 * Looks for the root resource of an API
+	 * @param apiId API id
+	 * @param region API region of deployment
+	 * @return root resource id
+	 * @throws AmazonApiException if resources can not be listed or root is missing
+	 */
+	@SuppressWarnings("unchecked")
+	private String findRootResource(String apiId, String region) throws AmazonApiException {
+		Map<String, Object> resources = call(GATEWAY, region, new AmazonConnection.Request("GET",
+				"/restapis/" + SigV4Signer.encode(apiId) + "/resources", "limit=" + RESOURCES_LIMIT, null));
+		// items are embedded in hypermedia responses, a single item is not wrapped in a list
+		Object items = resources.get("item");
+		if (items == null && resources.get("_embedded") instanceof Map) {
+			items = ((Map<String, Object>) resources.get("_embedded")).get("item");
+		}
+		List<Object> itemList = items instanceof List ? (List<Object>) items : Collections.singletonList(items);
+		for (Object item : itemList) {
+			if (item instanceof Map && "/".equals(((Map<String, Object>) item).get("path"))) {
+				return getString((Map<String, Object>) item, "id");
+			}
+		}
+		throw new AmazonApiException("Could not find root resource of API '" + apiId + "'");
+	}
+
+	/**
+	 * Sends a request on a keep-alive connection
+	 * @param service service signing name
+	 * @param region service region
+	 * @param request request to send
+	 * @return parsed response body
+	 * @throws AmazonApiException if the request fails
+	 */
+	private Map<String, Object> call(String service, String region, AmazonConnection.Request request)
+			throws AmazonApiException {
+
+		AmazonConnection connection = borrowConnection(service, region);
+		AmazonConnection.Response response;
+		try {
+			response = connection.send(Collections.singletonList(request)).get(0);
+		} catch (IOException e) {
+			connection.close();
+			throw new AmazonApiException("Could not reach " + service + " endpoint: " + e.getMessage());
+		}
+		releaseConnection(service, region, connection);
+
+		if (response.getStatusCode() / 100 != 2) {
+			throw new AmazonApiException(request.getMethod() + " " + request.getPath() + " failed: " +
+					errorMessage(response));
+		}
+		return parseJson(response.getBody());
+	}
+
+	/**
+	 * Takes an idle connection to a service endpoint, a new one is created if none is available
+	 * @param service service signing name
+	 * @param region service region
+	 * @return connection for exclusive use
+	 * @throws AmazonApiException if the endpoint is not a valid url
+	 */
+	private AmazonConnection borrowConnection(String service, String region) throws AmazonApiException {
+		synchronized (idleConnections) {
+			Deque<AmazonConnection> idle = idleConnections.get(service + "@" + region);
+			if (idle != null && !idle.isEmpty()) {
+				return idle.pop();
+			}
+		}
+		String endpoint = endpointOverride != null ? endpointOverride :
+				"https://" + service + "." + region + ".amazonaws.com";
+		try {
+			return new AmazonConnection(new TargetUrl(endpoint), new SigV4Signer(credentials, region, service),
+					TIMEOUT_MS);
+		} catch (MalformedURLException e) {
+			throw new AmazonApiException("Invalid endpoint '" + endpoint + "': " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gives a connection back to the pool, closed connections are discarded
+	 * @param service service signing name
+	 * @param region service region
+	 * @param connection connection no longer used
+	 */
+	private void releaseConnection(String service, String region, AmazonConnection connection) {
+		if (!connection.isOpen()) {
+			return;
+		}
+		synchronized (idleConnections) {
+			idleConnections.computeIfAbsent(service + "@" + region, key -> new ArrayDeque<>()).push(connection);
+		}
+	}
+
+	/**
+	 * Waits for a concurrent request
+	 * @param future request result
+	 * @param <T> result type
+	 * @return result
+	 * @throws AmazonApiException if the request failed
+	 */
+	private static <T> T await(Future<T> future) throws AmazonApiException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof AmazonApiException) {
+				throw (AmazonApiException) e.getCause();
+			}
+			throw new AmazonApiException(String.valueOf(e.getCause()));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AmazonApiException("Interrupted while waiting for AWS response");
+		}
+	}
+
+	/**
+	 * Waits for a concurrent request whose outcome is no longer relevant (a related request already failed)
+	 * @param future request result
+	 */
+	private static void awaitQuietly(Future<?> future) {
+		try {
+			await(future);
+		} catch (AmazonApiException ignored) {
+			// the failure already reported prevails
+		}
+	}
+
+	/**
+	 * Extracts the error message of a failed request
+	 * @param response failed response
+	 * @return service error message, status code if the message is not available
+	 */
+	private static String errorMessage(AmazonConnection.Response response) {
+		String type = response.getHeaders().get("x-amzn-errortype");
+		String message = null;
+		try {
+			Map<String, Object> error = parseJson(response.getBody());
+			Object value = error.containsKey("message") ? error.get("message") : error.get("Message");
+			message = value == null ? null : value.toString();
+		} catch (AmazonApiException ignored) {
+			// status code is reported
+		}
+		if (message == null) {
+			message = "status code " + response.getStatusCode();
+		}
+		return type == null ? message : type.split(":")[0] + ": " + message;
+	}
+
+	/**
+	 * Parses a JSON object
+	 * @param json response body
+	 * @return parsed object, empty if body is empty
+	 * @throws AmazonApiException if body is not a JSON object
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> parseJson(String json) throws AmazonApiException {
+		if (json.trim().isEmpty()) {
+			return new HashMap<>();
+		}
+		try {
+			Object parsed = JsonParser.parse(json);
+			if (parsed instanceof Map) {
+				return (Map<String, Object>) parsed;
+			}
+		} catch (JsonParseException ignored) {
+			// reported below
+		}
+		throw new AmazonApiException("Malformed AWS response: " + json);
+	}
+
+	/**
+	 * Extracts a mandatory string field
+	 * @param object parsed response
+	 * @param key field name
+	 * @return field value
+	 * @throws AmazonApiException if the field is missing
+	 */
+	private static String getString(Map<String, Object> object, String key) throws AmazonApiException {
+		Object value = object.get(key);
+		if (value == null) {
+			throw new AmazonApiException("Missing '" + key + "' in AWS response");
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Builds a JSON object
+	 * @param keysAndValues alternated keys and values (String, Number, Boolean or nested object)
+	 * @return object
+	 */
+	private static Map<String, Object> object(Object... keysAndValues) {
+		Map<String, Object> object = new LinkedHashMap<>();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			object.put((String) keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return object;
+	}
+}
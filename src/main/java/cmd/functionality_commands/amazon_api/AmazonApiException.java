@@ -0,0 +1,17 @@
+package cmd.functionality_commands.amazon_api;
+
+/**
+ * Exception raised in case an AWS API request fails
+ */
+public class AmazonApiException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Default constructor
+	 * @param message exception message
+	 */
+	public AmazonApiException(String message) {
+		super(message);
+	}
+}
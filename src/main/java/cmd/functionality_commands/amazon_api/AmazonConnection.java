@@ -0,0 +1,339 @@
+package cmd.functionality_commands.amazon_api;
+
+import cmd.benchmark_commands.load_generation.TargetUrl;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keep-alive HTTP/1.1 connection to an AWS service endpoint: requests are signed and can be pipelined, responses
+ * are read in request order
+ */
+class AmazonConnection implements Closeable {
+
+	private static final String USER_AGENT = "ServerlessFlowBench";
+
+	private final TargetUrl endpoint;
+	private final SigV4Signer signer;
+	private final int timeoutMs;
+
+	private Socket socket;
+	private InputStream input;
+	private OutputStream output;
+	// true once a response has been read on the current socket
+	private boolean reused;
+
+
+	/**
+	 * Default constructor, the connection is opened at the first request
+	 * @param endpoint service endpoint
+	 * @param signer signer for the service and region of the endpoint
+	 * @param timeoutMs maximum time in milliseconds for connection and for each read
+	 */
+	AmazonConnection(TargetUrl endpoint, SigV4Signer signer, int timeoutMs) {
+		this.endpoint = endpoint;
+		this.signer = signer;
+		this.timeoutMs = timeoutMs;
+	}
+
+	/**
+	 * Sends requests pipelined and reads their responses. Requests left unanswered because the server announced
+	 * the connection close are sent again on a new connection, a stale keep-alive connection is retried once
+	 * @param requests requests to send, in order
+	 * @return responses, in request order
+	 * @throws IOException if the endpoint can not be reached or a response is malformed
+	 */
+	List<Response> send(List<Request> requests) throws IOException {
+
+		List<Response> responses = new ArrayList<>();
+		boolean retried = false;
+
+		while (responses.size() < requests.size()) {
+			List<Request> pending = requests.subList(responses.size(), requests.size());
+			if (socket == null) {
+				connect();
+			}
+			boolean reusedSocket = reused;
+			int answered = responses.size();
+			try {
+				for (Request request : pending) {
+					output.write(serialize(request));
+				}
+				output.flush();
+				for (int i = 0; i < pending.size() && socket != null; i++) {
+					responses.add(readResponse());
+				}
+			} catch (IOException e) {
+				close();
+				// a stale keep-alive connection fails before answering, its requests were not processed
+				if (retried || !reusedSocket || responses.size() > answered) {
+					throw e;
+				}
+				retried = true;
+			}
+		}
+		return responses;
+	}
+
+	/**
+	 * Opens the socket, with TLS handshake for https endpoints
+	 * @throws IOException if the endpoint can not be reached
+	 */
+	private void connect() throws IOException {
+		Socket plain = new Socket();
+		try {
+			plain.setTcpNoDelay(true);
+			plain.setSoTimeout(timeoutMs);
+			plain.connect(new InetSocketAddress(endpoint.getHost(), endpoint.getPort()), timeoutMs);
+			if (endpoint.isSecure()) {
+				SSLSocket sslSocket = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+						.createSocket(plain, endpoint.getHost(), endpoint.getPort(), true);
+				SSLParameters parameters = sslSocket.getSSLParameters();
+				parameters.setEndpointIdentificationAlgorithm("HTTPS");
+				sslSocket.setSSLParameters(parameters);
+				sslSocket.startHandshake();
+				socket = sslSocket;
+			} else {
+				socket = plain;
+			}
+		} catch (IOException e) {
+			plain.close();
+			throw e;
+		}
+		input = new BufferedInputStream(socket.getInputStream());
+		// pipelined requests are flushed together
+		output = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+		reused = false;
+	}
+
+	/**
+	 * Builds the signed request bytes
+	 * @param request request to serialize
+	 * @return request as bytes
+	 */
+	private byte[] serialize(Request request) {
+		byte[] body = request.body == null ? new byte[0] : request.body.getBytes(StandardCharsets.UTF_8);
+		String target = request.query.isEmpty() ? request.path : request.path + "?" + request.query;
+
+		StringBuilder head = new StringBuilder()
+				.append(request.method).append(" ").append(target).append(" HTTP/1.1\r\n")
+				.append("Host: ").append(endpoint.getHostHeader()).append("\r\n")
+				.append("User-Agent: ").append(USER_AGENT).append("\r\n")
+				.append("Accept: application/json\r\n")
+				.append("Connection: keep-alive\r\n");
+		for (Map.Entry<String, String> header : signer.sign(request.method, endpoint.getHostHeader(), request.path,
+				request.query, body, System.currentTimeMillis()).entrySet()) {
+			head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+		}
+		if (request.body != null) {
+			head.append("Content-Type: application/json\r\n");
+		}
+		head.append("Content-Length: ").append(body.length).append("\r\n\r\n");
+
+		byte[] headBytes = head.toString().getBytes(StandardCharsets.UTF_8);
+		byte[] bytes = new byte[headBytes.length + body.length];
+		System.arraycopy(headBytes, 0, bytes, 0, headBytes.length);
+		System.arraycopy(body, 0, bytes, headBytes.length, body.length);
+		return bytes;
+	}
+
+	/**
+	 * Reads a complete response, the connection is closed if the server asks to
+	 * @return response
+	 * @throws IOException if the connection fails or the response is malformed
+	 */
+	private Response readResponse() throws IOException {
+
+		String statusLine = readLine();
+		String[] status = statusLine.split(" ", 3);
+		int statusCode;
+		try {
+			statusCode = Integer.parseInt(status[1]);
+		} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+			throw new IOException("malformed status line '" + statusLine + "'");
+		}
+
+		Map<String, String> headers = new HashMap<>();
+		String header;
+		while (!(header = readLine()).isEmpty()) {
+			int separator = header.indexOf(':');
+			if (separator > 0) {
+				headers.put(header.substring(0, separator).trim().toLowerCase(),
+						header.substring(separator + 1).trim());
+			}
+		}
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		boolean closing = "close".equalsIgnoreCase(headers.get("connection"));
+		try {
+			if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+				long chunkSize;
+				while ((chunkSize = Long.parseLong(readLine().split(";")[0].trim(), 16)) > 0) {
+					readFully(body, chunkSize);
+					readLine();
+				}
+				// trailers are ignored
+				String trailer;
+				do {
+					trailer = readLine();
+				} while (!trailer.isEmpty());
+			} else if (headers.containsKey("content-length")) {
+				readFully(body, Long.parseLong(headers.get("content-length")));
+			} else if (statusCode != 204 && statusCode != 304) {
+				// body ends when the connection is closed
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = input.read(buffer)) != -1) {
+					body.write(buffer, 0, read);
+				}
+				closing = true;
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("malformed response body framing");
+		}
+
+		reused = true;
+		if (closing) {
+			close();
+		}
+		return new Response(statusCode, headers, new String(body.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads a CRLF terminated line
+	 * @return line without terminator
+	 * @throws IOException if the stream ends before the terminator
+	 */
+	private String readLine() throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int c;
+		while ((c = input.read()) != '\n') {
+			if (c == -1) {
+				throw new EOFException("connection closed by " + endpoint.getHost());
+			}
+			if (c != '\r') {
+				line.write(c);
+			}
+		}
+		return new String(line.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Copies a fixed amount of bytes from the connection
+	 * @param destination stream to write
+	 * @param length number of bytes to copy
+	 * @throws IOException if the connection ends before
+	 */
+	private void readFully(ByteArrayOutputStream destination, long length) throws IOException {
+		byte[] buffer = new byte[8192];
+		while (length > 0) {
+			int read = input.read(buffer, 0, (int) Math.min(buffer.length, length));
+			if (read == -1) {
+				throw new EOFException("connection closed by " + endpoint.getHost());
+			}
+			destination.write(buffer, 0, read);
+			length -= read;
+		}
+	}
+
+	/**
+	 * Tells whether the connection can send other requests without reconnecting
+	 * @return true if the socket is open, false elsewhere
+	 */
+	boolean isOpen() {
+		return socket != null;
+	}
+
+	@Override
+	public void close() {
+		if (socket != null) {
+			try {
+				socket.close();
+			} catch (IOException ignored) {
+				// connection is discarded anyway
+			}
+			socket = null;
+		}
+	}
+
+	/**
+	 * AWS API request
+	 */
+	static class Request {
+		private final String method;
+		private final String path;
+		private final String query;
+		private final String body;
+
+		/**
+		 * Default constructor
+		 * @param method HTTP method
+		 * @param path request path, segments already percent encoded
+		 * @param query request query, parameters already percent encoded, empty if none
+		 * @param body JSON body, null if none
+		 */
+		Request(String method, String path, String query, String body) {
+			this.method = method;
+			this.path = path;
+			this.query = query;
+			this.body = body;
+		}
+
+		String getMethod() {
+			return method;
+		}
+
+		String getPath() {
+			return path;
+		}
+	}
+
+	/**
+	 * AWS API response
+	 */
+	static class Response {
+		private final int statusCode;
+		private final Map<String, String> headers;
+		private final String body;
+
+		/**
+		 * Default constructor
+		 * @param statusCode HTTP status code
+		 * @param headers headers, names in lowercase
+		 * @param body response body
+		 */
+		Response(int statusCode, Map<String, String> headers, String body) {
+			this.statusCode = statusCode;
+			this.headers = headers;
+			this.body = body;
+		}
+
+		int getStatusCode() {
+			return statusCode;
+		}
+
+		Map<String, String> getHeaders() {
+			return headers;
+		}
+
+		String getBody() {
+			return body;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package cmd.functionality_commands.amazon_api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AWS access keys, as stored by the AWS CLI in its credentials file
+ */
+public class AwsCredentials {
+
+	// profile used when AWS_PROFILE is not set
+	private static final String DEFAULT_PROFILE = "default";
+	private static final String PROFILE_VARIABLE = "AWS_PROFILE";
+
+	private final String accessKeyId;
+	private final String secretAccessKey;
+	// temporary credentials token, null for long term credentials
+	private final String sessionToken;
+
+
+	/**
+	 * Default constructor
+	 * @param accessKeyId access key identifier
+	 * @param secretAccessKey secret access key
+	 * @param sessionToken session token of temporary credentials, null for long term credentials
+	 */
+	public AwsCredentials(String accessKeyId, String secretAccessKey, String sessionToken) {
+		this.accessKeyId = accessKeyId;
+		this.secretAccessKey = secretAccessKey;
+		this.sessionToken = sessionToken;
+	}
+
+	/**
+	 * Loads credentials from the AWS CLI configuration folder (the one mounted in AWS CLI containers), the profile
+	 * is selected by the AWS_PROFILE environment variable, "default" if not set
+	 * @param folder path of the folder containing the "credentials" file
+	 * @return credentials, null if the file or the profile keys are missing
+	 */
+	public static AwsCredentials fromAuthFolder(String folder) {
+
+		String profile = System.getenv(PROFILE_VARIABLE);
+		if (profile == null || profile.isEmpty()) {
+			profile = DEFAULT_PROFILE;
+		}
+
+		Path file = Paths.get(folder, "credentials");
+		List<String> lines;
+		try {
+			lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			System.err.println("Could not read AWS credentials '" + file + "': " + e.getMessage());
+			return null;
+		}
+
+		// ini format: [profile] sections of key = value lines
+		Map<String, String> keys = new HashMap<>();
+		boolean inProfile = false;
+		for (String line : lines) {
+			line = line.trim();
+			if (line.startsWith("[") && line.endsWith("]")) {
+				inProfile = line.substring(1, line.length() - 1).trim().equals(profile);
+			} else if (inProfile && line.contains("=") && !line.startsWith("#") && !line.startsWith(";")) {
+				int separator = line.indexOf('=');
+				keys.put(line.substring(0, separator).trim().toLowerCase(), line.substring(separator + 1).trim());
+			}
+		}
+
+		if (keys.get("aws_access_key_id") == null || keys.get("aws_secret_access_key") == null) {
+			System.err.println("Could not find AWS access keys of profile '" + profile + "' in '" + file + "'");
+			return null;
+		}
+		return new AwsCredentials(keys.get("aws_access_key_id"), keys.get("aws_secret_access_key"),
+				keys.get("aws_session_token"));
+	}
+
+	public String getAccessKeyId() {
+		return accessKeyId;
+	}
+
+	public String getSecretAccessKey() {
+		return secretAccessKey;
+	}
+
+	public String getSessionToken() {
+		return sessionToken;
+	}
+}
@@ -0,0 +1,38 @@
+package cmd.functionality_commands.amazon_api;
+
+/**
+ * Lambda function exposed through an API Gateway REST API
+ */
+public class RestFunctionDeployment {
+	// ARN of the Lambda function
+	private final String functionArn;
+	// id of the REST API
+	private final String apiId;
+	// invocation url
+	private final String url;
+
+
+	/**
+	 * Default constructor
+	 * @param functionArn ARN of the Lambda function
+	 * @param apiId id of the REST API
+	 * @param url invocation url
+	 */
+	public RestFunctionDeployment(String functionArn, String apiId, String url) {
+		this.functionArn = functionArn;
+		this.apiId = apiId;
+		this.url = url;
+	}
+
+	public String getFunctionArn() {
+		return functionArn;
+	}
+
+	public String getApiId() {
+		return apiId;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+}
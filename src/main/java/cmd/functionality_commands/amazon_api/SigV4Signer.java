@@ -0,0 +1,203 @@
+package cmd.functionality_commands.amazon_api;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * AWS Signature Version 4 request signer for a service in a region
+ */
+public class SigV4Signer {
+
+	private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+	private static final String TERMINATOR = "aws4_request";
+	// characters never percent encoded
+	private static final String UNRESERVED = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_.~";
+
+	private final AwsCredentials credentials;
+	private final String region;
+	private final String service;
+
+
+	/**
+	 * Default constructor
+	 * @param credentials access keys used to sign
+	 * @param region region of the service endpoint
+	 * @param service service signing name (e.g. "lambda", "apigateway")
+	 */
+	public SigV4Signer(AwsCredentials credentials, String region, String service) {
+		this.credentials = credentials;
+		this.region = region;
+		this.service = service;
+	}
+
+	/**
+	 * Signs a request: host, x-amz-date and x-amz-security-token (if any) are the signed headers
+	 * @param method HTTP method
+	 * @param host host header value
+	 * @param path request path, segments already percent encoded
+	 * @param query request query, parameters already percent encoded, empty if none
+	 * @param payload request body, empty if none
+	 * @param epochMillis signing time
+	 * @return headers to add to the request (host excluded)
+	 */
+	public Map<String, String> sign(String method, String host, String path, String query, byte[] payload,
+									long epochMillis) {
+
+		SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		String amzDate = format.format(new Date(epochMillis));
+		String date = amzDate.substring(0, 8);
+
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put("X-Amz-Date", amzDate);
+		String canonicalHeaders = "host:" + host + "\n" + "x-amz-date:" + amzDate + "\n";
+		String signedHeaders = "host;x-amz-date";
+		if (credentials.getSessionToken() != null) {
+			headers.put("X-Amz-Security-Token", credentials.getSessionToken());
+			canonicalHeaders += "x-amz-security-token:" + credentials.getSessionToken() + "\n";
+			signedHeaders += ";x-amz-security-token";
+		}
+
+		String canonicalRequest = method + "\n" +
+				canonicalUri(path) + "\n" +
+				canonicalQuery(query) + "\n" +
+				canonicalHeaders + "\n" +
+				signedHeaders + "\n" +
+				hex(sha256(payload));
+
+		String scope = date + "/" + region + "/" + service + "/" + TERMINATOR;
+		String stringToSign = ALGORITHM + "\n" +
+				amzDate + "\n" +
+				scope + "\n" +
+				hex(sha256(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+		byte[] key = hmac(("AWS4" + credentials.getSecretAccessKey()).getBytes(StandardCharsets.UTF_8), date);
+		key = hmac(key, region);
+		key = hmac(key, service);
+		key = hmac(key, TERMINATOR);
+		String signature = hex(hmac(key, stringToSign));
+
+		headers.put("Authorization", ALGORITHM + " " +
+				"Credential=" + credentials.getAccessKeyId() + "/" + scope + ", " +
+				"SignedHeaders=" + signedHeaders + ", " +
+				"Signature=" + signature);
+		return headers;
+	}
+
+	/**
+	 * Percent encodes a string as required by AWS (RFC 3986, unreserved characters excluded)
+	 * @param value string to encode
+	 * @return encoded string
+	 */
+	public static String encode(String value) {
+		StringBuilder encoded = new StringBuilder();
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			if (UNRESERVED.indexOf(b) >= 0) {
+				encoded.append((char) b);
+			} else {
+				encoded.append('%').append(String.format("%02X", b & 0xff));
+			}
+		}
+		return encoded.toString();
+	}
+
+	/**
+	 * Builds the canonical URI: services other than S3 require path segments to be encoded twice
+	 * @param path request path, segments already percent encoded
+	 * @return canonical URI
+	 */
+	private static String canonicalUri(String path) {
+		if (path.isEmpty() || path.equals("/")) {
+			return "/";
+		}
+		StringBuilder uri = new StringBuilder();
+		for (String segment : path.substring(1).split("/", -1)) {
+			uri.append('/').append(encode(segment));
+		}
+		return uri.toString();
+	}
+
+	/**
+	 * Builds the canonical query string: parameters sorted by name, then by value
+	 * @param query request query, parameters already percent encoded
+	 * @return canonical query string
+	 */
+	private static String canonicalQuery(String query) {
+		if (query.isEmpty()) {
+			return "";
+		}
+		// name and value are compared separately: sorting whole "name=value" pairs puts "a-b=1" before "a=1"
+		String[] pairs = query.split("&");
+		String[][] parameters = new String[pairs.length][];
+		for (int i = 0; i < pairs.length; i++) {
+			int separator = pairs[i].indexOf('=');
+			parameters[i] = separator < 0 ? new String[]{pairs[i], ""} :
+					new String[]{pairs[i].substring(0, separator), pairs[i].substring(separator + 1)};
+		}
+		Arrays.sort(parameters, Comparator.<String[], String>comparing(parameter -> parameter[0])
+				.thenComparing(parameter -> parameter[1]));
+
+		StringBuilder canonical = new StringBuilder();
+		for (String[] parameter : parameters) {
+			if (canonical.length() > 0) {
+				canonical.append('&');
+			}
+			canonical.append(parameter[0]).append('=').append(parameter[1]);
+		}
+		return canonical.toString();
+	}
+
+	/**
+	 * Computes a SHA-256 digest
+	 * @param data data to digest
+	 * @return digest
+	 */
+	private static byte[] sha256(byte[] data) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(data);
+		} catch (GeneralSecurityException e) {
+			// SHA-256 is always available
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Computes a HMAC-SHA256
+	 * @param key key
+	 * @param data data to authenticate
+	 * @return message authentication code
+	 */
+	private static byte[] hmac(byte[] key, String data) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(key, "HmacSHA256"));
+			return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			// HmacSHA256 is always available
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Lowercase hexadecimal encoding
+	 * @param data bytes to encode
+	 * @return encoded bytes
+	 */
+	private static String hex(byte[] data) {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : data) {
+			hex.append(String.format("%02x", b & 0xff));
+		}
+		return hex.toString();
+	}
+}
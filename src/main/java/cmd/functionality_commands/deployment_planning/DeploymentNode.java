@@ -0,0 +1,122 @@
+package cmd.functionality_commands.deployment_planning;
+
+import cmd.benchmark_commands.Provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Node of a deployment plan: a single deploy action on a provider and the nodes it depends on
+ */
+public class DeploymentNode {
+
+	/**
+	 * Node states
+	 */
+	public enum State {
+		PENDING, RUNNING, COMPLETED, FAILED, SKIPPED
+	}
+
+	/**
+	 * Node definition
+	 */
+	private final String name;
+	private final Provider provider;
+	private final BooleanSupplier action;
+	private final List<DeploymentNode> dependencies;
+	// nodes depending on this one
+	private final List<DeploymentNode> dependents;
+
+	/**
+	 * Execution state, guarded by the planner
+	 */
+	private volatile State state;
+	private int pendingDependencies;
+	private long startMillis;
+	private long elapsedMillis;
+
+
+	/**
+	 * Default constructor
+	 * @param name name of the deployed entity, unique on its provider
+	 * @param provider provider the entity is deployed on
+	 * @param action deploy action, returns true on success
+	 * @param dependencies nodes to complete before this one
+	 */
+	DeploymentNode(String name, Provider provider, BooleanSupplier action, List<DeploymentNode> dependencies) {
+		this.name = name;
+		this.provider = provider;
+		this.action = action;
+		this.dependencies = Collections.unmodifiableList(new ArrayList<>(dependencies));
+		this.dependents = new ArrayList<>();
+		this.state = State.PENDING;
+		this.pendingDependencies = dependencies.size();
+		this.startMillis = 0;
+		this.elapsedMillis = 0;
+		for (DeploymentNode dependency : dependencies) {
+			dependency.dependents.add(this);
+		}
+	}
+
+	/**
+	 * Marks the node as running
+	 */
+	void started() {
+		state = State.RUNNING;
+		startMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * Marks the node as terminated
+	 * @param success true if the deploy action succeeded, false elsewhere
+	 */
+	void terminated(boolean success) {
+		state = success ? State.COMPLETED : State.FAILED;
+		elapsedMillis = System.currentTimeMillis() - startMillis;
+	}
+
+	/**
+	 * Marks the node as skipped because of a failed dependency
+	 */
+	void skipped() {
+		state = State.SKIPPED;
+	}
+
+	/**
+	 * Notifies the completion of a dependency
+	 * @return true if every dependency has been completed, false elsewhere
+	 */
+	boolean dependencyCompleted() {
+		return --pendingDependencies == 0;
+	}
+
+	BooleanSupplier getAction() {
+		return action;
+	}
+
+	List<DeploymentNode> getDependents() {
+		return dependents;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Provider getProvider() {
+		return provider;
+	}
+
+	public List<DeploymentNode> getDependencies() {
+		return dependencies;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+}
@@ -0,0 +1,254 @@
+package cmd.functionality_commands.deployment_planning;
+
+import cmd.benchmark_commands.Provider;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Deployment planner: deploy actions are registered as nodes of a dependency graph and executed as soon as every
+ * node they depend on has been completed, so independent nodes are deployed concurrently.
+ * Every provider has its own worker pool, whose size limits the concurrent deploys on that provider.
+ * Dependencies have to be registered before the nodes depending on them, so the graph can not contain cycles.
+ * When a node fails every node depending on it, directly or not, is skipped.
+ */
+public class DeploymentPlanner {
+
+	/**
+	 * Plan
+	 */
+	// registered nodes, in registration order
+	private final List<DeploymentNode> nodes;
+	// nodes by provider and name
+	private final Map<Provider, Map<String, DeploymentNode>> nodesByName;
+
+	/**
+	 * Execution
+	 */
+	private final Map<Provider, Integer> concurrencyLimits;
+	private Map<Provider, ExecutorService> pools;
+	// number of nodes completed, failed or skipped
+	private int terminatedNodes;
+	private boolean executed;
+
+
+	/**
+	 * Default constructor
+	 * @param googleConcurrency maximum number of concurrent deploys on Google Cloud Platform
+	 * @param amazonConcurrency maximum number of concurrent deploys on Amazon Web Services
+	 * @param openWhiskConcurrency maximum number of concurrent deploys on OpenWhisk
+	 */
+	public DeploymentPlanner(int googleConcurrency, int amazonConcurrency, int openWhiskConcurrency) {
+		this.nodes = new ArrayList<>();
+		this.nodesByName = new EnumMap<>(Provider.class);
+		this.concurrencyLimits = new EnumMap<>(Provider.class);
+		concurrencyLimits.put(Provider.GOOGLE, googleConcurrency);
+		concurrencyLimits.put(Provider.AMAZON, amazonConcurrency);
+		concurrencyLimits.put(Provider.OPENWHISK, openWhiskConcurrency);
+		for (Provider provider : Provider.values()) {
+			if (concurrencyLimits.get(provider) < 1) {
+				throw new IllegalArgumentException("concurrency limit must be positive");
+			}
+			nodesByName.put(provider, new HashMap<>());
+		}
+		this.terminatedNodes = 0;
+		this.executed = false;
+	}
+
+	/**
+	 * Registers a deploy action
+	 * @param name name of the deployed entity, unique on its provider
+	 * @param provider provider the entity is deployed on
+	 * @param action deploy action, returns true on success
+	 * @param dependencies nodes to complete before this one, already registered in this planner
+	 * @return registered node
+	 */
+	public synchronized DeploymentNode addNode(String name, Provider provider, BooleanSupplier action,
+											   DeploymentNode... dependencies) {
+		if (executed) {
+			throw new IllegalStateException("plan has already been executed");
+		}
+		if (nodesByName.get(provider).containsKey(name)) {
+			throw new IllegalArgumentException("'" + name + "' already planned on " + provider.getLabel());
+		}
+		for (DeploymentNode dependency : dependencies) {
+			if (getNode(dependency.getName(), dependency.getProvider()) != dependency) {
+				throw new IllegalArgumentException("'" + dependency.getName() + "' does not belong to this plan");
+			}
+		}
+		DeploymentNode node = new DeploymentNode(name, provider, action, Arrays.asList(dependencies));
+		nodes.add(node);
+		nodesByName.get(provider).put(name, node);
+		return node;
+	}
+
+	/**
+	 * Looks for a registered node
+	 * @param name name of the deployed entity
+	 * @param provider provider the entity is deployed on
+	 * @return node, null if not registered
+	 */
+	public synchronized DeploymentNode getNode(String name, Provider provider) {
+		return nodesByName.get(provider).get(name);
+	}
+
+	/**
+	 * Executes the plan and waits for its termination
+	 * @return true if every node has been completed, false elsewhere
+	 */
+	public boolean execute() {
+		long startMillis = System.currentTimeMillis();
+
+		synchronized (this) {
+			if (executed) {
+				throw new IllegalStateException("plan has already been executed");
+			}
+			executed = true;
+			pools = new EnumMap<>(Provider.class);
+			for (Provider provider : Provider.values()) {
+				pools.put(provider, Executors.newFixedThreadPool(concurrencyLimits.get(provider)));
+			}
+			for (DeploymentNode node : nodes) {
+				if (node.getDependencies().isEmpty()) {
+					submit(node);
+				}
+			}
+		}
+
+		try {
+			synchronized (this) {
+				while (terminatedNodes < nodes.size()) {
+					wait();
+				}
+			}
+		} catch (InterruptedException e) {
+			System.err.println("Deployment interrupted: " + e.getMessage());
+			Thread.currentThread().interrupt();
+		} finally {
+			for (ExecutorService pool : pools.values()) {
+				pool.shutdownNow();
+			}
+		}
+
+		return printSummary(System.currentTimeMillis() - startMillis);
+	}
+
+	/**
+	 * Submits a node whose dependencies have been completed to its provider pool
+	 * @param node node to execute
+	 */
+	private void submit(DeploymentNode node) {
+		pools.get(node.getProvider()).execute(() -> run(node));
+	}
+
+	/**
+	 * Executes a node deploy action and schedules the nodes it unlocks
+	 * @param node node to execute
+	 */
+	private void run(DeploymentNode node) {
+		synchronized (this) {
+			node.started();
+		}
+		System.out.println("\u001B[33m" + progress() + "Deploying '" + node.getName() + "' on " +
+				node.getProvider().getLabel() + "..." + "\u001B[0m");
+
+		boolean success;
+		try {
+			success = node.getAction().getAsBoolean();
+		} catch (RuntimeException e) {
+			System.err.println("Unexpected error deploying '" + node.getName() + "' on " +
+					node.getProvider().getLabel() + ": " + e.getMessage());
+			success = false;
+		}
+
+		synchronized (this) {
+			node.terminated(success);
+			terminatedNodes++;
+			if (success) {
+				System.out.println("\u001B[32m" + progress() + "'" + node.getName() + "' deployed on " +
+						node.getProvider().getLabel() + " in " + formatSeconds(node.getElapsedMillis()) +
+						"\u001B[0m");
+				for (DeploymentNode dependent : node.getDependents()) {
+					if (dependent.dependencyCompleted() && dependent.getState() == DeploymentNode.State.PENDING) {
+						submit(dependent);
+					}
+				}
+			} else {
+				System.err.println(progress() + "Could not deploy '" + node.getName() + "' on " +
+						node.getProvider().getLabel() + " (" + formatSeconds(node.getElapsedMillis()) + ")");
+				skipDependents(node);
+			}
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Skips every pending node depending, directly or not, on a failed node
+	 * @param failed failed node
+	 */
+	private void skipDependents(DeploymentNode failed) {
+		Deque<DeploymentNode> toVisit = new ArrayDeque<>(failed.getDependents());
+		while (!toVisit.isEmpty()) {
+			DeploymentNode node = toVisit.pop();
+			if (node.getState() != DeploymentNode.State.PENDING) {
+				continue;
+			}
+			node.skipped();
+			terminatedNodes++;
+			System.err.println(progress() + "Skipping '" + node.getName() + "' on " +
+					node.getProvider().getLabel() + ": '" + failed.getName() + "' deploy failed");
+			toVisit.addAll(node.getDependents());
+		}
+	}
+
+	/**
+	 * Prints the outcome of the plan execution
+	 * @param elapsedMillis plan execution time in milliseconds
+	 * @return true if every node has been completed, false elsewhere
+	 */
+	private synchronized boolean printSummary(long elapsedMillis) {
+		int completed = 0;
+		List<String> notCompleted = new ArrayList<>();
+		for (DeploymentNode node : nodes) {
+			if (node.getState() == DeploymentNode.State.COMPLETED) {
+				completed++;
+			} else {
+				notCompleted.add(node.getName() + " (" + node.getProvider().getLabel() + ", " +
+						node.getState().name().toLowerCase() + ")");
+			}
+		}
+		System.out.println("\n" + "\u001B[35m" + completed + "/" + nodes.size() + " deploys completed in " +
+				formatSeconds(elapsedMillis) + "\u001B[0m");
+		if (!notCompleted.isEmpty()) {
+			System.err.println("Not deployed: " + String.join(", ", notCompleted));
+		}
+		return notCompleted.isEmpty();
+	}
+
+	/**
+	 * Progress prefix of node reports
+	 * @return number of terminated nodes over plan size
+	 */
+	private synchronized String progress() {
+		return "[" + terminatedNodes + "/" + nodes.size() + "] ";
+	}
+
+	/**
+	 * Formats a time interval
+	 * @param millis time interval in milliseconds
+	 * @return time interval in seconds
+	 */
+	private static String formatSeconds(long millis) {
+		return String.format(Locale.ROOT, "%.1fs", millis / 1000.0);
+	}
+}
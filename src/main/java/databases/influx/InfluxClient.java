@@ -1,7 +1,16 @@
 package databases.influx;
 
 import cmd.CommandUtility;
+import cmd.benchmark_commands.keep_alive.KeepAliveEstimate;
+import cmd.benchmark_commands.keep_alive.SurvivalPoint;
+import cmd.benchmark_commands.latency_probe.BurstColdStart;
+import cmd.benchmark_commands.latency_probe.ColdStartCost;
+import cmd.benchmark_commands.latency_probe.LatencyEstimate;
+import cmd.benchmark_commands.latency_probe.PhaseTimings;
+import cmd.benchmark_commands.latency_probe.WarmUpCurve;
 import cmd.benchmark_commands.output_parsing.BenchmarkStats;
+import cmd.benchmark_commands.output_parsing.LatencyPercentile;
+import cmd.benchmark_commands.throughput_search.SustainableThroughput;
 import org.influxdb.InfluxDB;
 import org.influxdb.InfluxDBFactory;
 import org.influxdb.dto.BatchPoints;
@@ -9,10 +18,16 @@ import org.influxdb.dto.Point;
 import org.influxdb.dto.Pong;
 import utility.PropertiesManager;
 
+import java.text.SimpleDateFormat;
+import java.util.AbstractMap;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
- * An influxDB client offering functionalities to export benchmark result to the time series database
+ * An influxDB client offering functionalities to export benchmark result to the time series database.
+ * Every metric is a measurement, series are identified by function, runtime, provider, memory and run_id tags.
  */
 @SuppressWarnings("DuplicatedCode")
 public class InfluxClient {
@@ -25,7 +40,28 @@ public class InfluxClient {
 			PropertiesManager.getInstance().getProperty(PropertiesManager.INFLUX_PORT);
 	private static final String DB_USR = PropertiesManager.getInstance().getProperty(PropertiesManager.INFLUX_USR);
 	private static final String DB_PASS = PropertiesManager.getInstance().getProperty(PropertiesManager.INFLUX_PASS);
-	private static final String DB_NAME = PropertiesManager.getInstance().getProperty(PropertiesManager.INFLUX_DB);
+	static final String DB_NAME = PropertiesManager.getInstance().getProperty(PropertiesManager.INFLUX_DB);
+
+	/**
+	 * Series tags: the metric is the measurement, tags identify the series of a function
+	 */
+	static final String FUNCTION_TAG = "function";
+	static final String RUNTIME_TAG = "runtime";
+	static final String PROVIDER_TAG = "provider";
+	static final String MEMORY_TAG = "memory";
+	static final String RUN_ID_TAG = "run_id";
+
+	// identifier of the current benchmark run, distinguishes series of different runs
+	private static volatile String runId = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+
+	/**
+	 * Memory matrix variants: variant common name -> (function common name, memory amount in megabytes)
+	 */
+	private static final Map<String, Map.Entry<String, Integer>> MEMORY_VARIANTS = new ConcurrentHashMap<>();
+
+	// single long-lived writer shared by every insertion, points are written asynchronously in batches
+	private static final InfluxWriter WRITER = new InfluxWriter(InfluxClient::openConnection, DB_NAME,
+			"defaultPolicy");
 
 
 	/**
@@ -47,13 +83,19 @@ public class InfluxClient {
 	}
 
 	/**
-	 * Closes an InfluxDB connection
-	 * @param connection InfluxDB connection to close
+	 * Connects to time series database and prepares the connection for writes
+	 * @return instance of InfluxDB connection, null if the database is unreachable
 	 */
-	private static void closeConnection(InfluxDB connection) {
-
-		connection.close();
+	static InfluxDB openConnection() {
 
+		InfluxDB connection = getConnection();
+		if (connection == null) {
+			return null;
+		}
+		initDatabase(connection);
+		connection.setRetentionPolicy("defaultPolicy");
+		connection.setDatabase(DB_NAME);
+		return connection;
 	}
 
 	/**
@@ -68,13 +110,49 @@ public class InfluxClient {
 		}
 	}
 
+	/**
+	 * Identifier of the current benchmark run
+	 * @return run identifier, by default the client start time (yyyyMMdd-HHmmss)
+	 */
+	public static String getRunId() {
+		return runId;
+	}
+
+	/**
+	 * Sets the identifier of the current benchmark run (e.g. the one of a resumed run), following results are tagged
+	 * with it
+	 * @param runId run identifier
+	 */
+	public static void setRunId(String runId) {
+		InfluxClient.runId = runId;
+	}
+
+	/**
+	 * Registers a memory matrix variant: its results are persisted under the original function name and tagged with
+	 * the memory amount, so that every variant belongs to the same series
+	 * @param variantName common name (without runtime) of the deployed variant
+	 * @param functionName common name (without runtime) of the original function
+	 * @param memory variant memory amount in megabytes
+	 */
+	public static void registerMemoryVariant(String variantName, String functionName, int memory) {
+		MEMORY_VARIANTS.put(variantName, new AbstractMap.SimpleImmutableEntry<>(functionName, memory));
+	}
+
+	/**
+	 * Removes a memory matrix variant registration
+	 * @param variantName common name (without runtime) of the deployed variant
+	 */
+	public static void unregisterMemoryVariant(String variantName) {
+		MEMORY_VARIANTS.remove(variantName);
+	}
+
 	/**
 	 * Inserts a Cold Start Benchmark result
 	 * @param functionalityName name of the functionality tested
 	 * @param provider provider associated to the result
 	 * @param latency latency result in milliseconds
 	 * @param millis measurement timestamp
-	 * @return true if insertion has been completed, false elsewhere
+	 * @return true if the result has been queued for insertion, false elsewhere
 	 */
 	public static boolean insertColdPoint(String functionalityName, String provider, double latency, long millis) {
 
@@ -82,28 +160,106 @@ public class InfluxClient {
 			return false;
 		}
 
-		String[] parts = splitNameEnv(functionalityName);
-		String runtime = parts[1];
-		String name = parts[0];
-
-		Point cold_start_latency =  Point.measurement("cold_start_latency_" + name)
-				.time(millis, TimeUnit.MILLISECONDS)
-				.addField("runtime", runtime)
-				.addField("provider", provider)
+		Point cold_start_latency =  newPoint("cold_start_latency", functionalityName, provider, millis)
 				.addField("value", latency)
 				.build();
 
-		InfluxDB connection = getConnection();
-		if (connection == null) {
+		return WRITER.enqueue(newBatch(cold_start_latency));
+	}
+
+	/**
+	 * Inserts a Cold Start Benchmark result with the uncertainty of the warm latency it is evaluated against
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param coldStart cold start evaluation result
+	 * @param millis measurement timestamp
+	 * @return true if the result has been queued for insertion, false elsewhere
+	 */
+	public static boolean insertColdPoint(String functionalityName, String provider, ColdStartCost coldStart,
+										  long millis) {
+
+		if (functionalityName == null || provider == null || coldStart == null) {
 			return false;
-		} else {
-			initDatabase(connection);
-			connection.setRetentionPolicy("defaultPolicy");
-			connection.setDatabase(DB_NAME);
-			connection.write(cold_start_latency);
-			closeConnection(connection);
-			return true;
 		}
+
+		LatencyEstimate warmLatency = coldStart.getWarmLatency();
+		Point cold_start_latency =  newPoint("cold_start_latency", functionalityName, provider, millis)
+				.addField("value", coldStart.getCost())
+				.addField("ci_lower", coldStart.getCostLowerBound())
+				.addField("ci_upper", coldStart.getCostUpperBound())
+				.addField("warm_latency", warmLatency.getValue())
+				.addField("warm_samples", warmLatency.getSamples())
+				.build();
+
+		return WRITER.enqueue(newBatch(cold_start_latency));
+	}
+
+	/**
+	 * Inserts a Burst Cold Start Benchmark result (scale-out from zero instances)
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param burst burst cold start evaluation result
+	 * @param millis measurement timestamp
+	 * @return true if the result has been queued for insertion, false elsewhere
+	 */
+	public static boolean insertBurstColdStart(String functionalityName, String provider, BurstColdStart burst,
+											   long millis) {
+
+		if (functionalityName == null || provider == null || burst == null || burst.getScaleOutLatency() == null) {
+			return false;
+		}
+
+		// every latency result is to be considered in milliseconds
+		BatchPoints batch = newBatch();
+
+		Point scale_out_latency = newPoint("scale_out_latency", functionalityName, provider, millis)
+				.tag("burst_size", String.valueOf(burst.getBurstSize()))
+				.addField("value", burst.getScaleOutLatency())
+				.addField("cold_starts", burst.getColdStarts())
+				.addField("failures", burst.getFailures())
+				.addField("warm_latency", burst.getWarmLatency().getValue())
+				.build();
+		batch.point(scale_out_latency);
+
+		// latency distribution of the burst, one series for each percentile
+		for (String percentile : new String[]{"50", "90", "99"}) {
+			Point point = newPoint("scale_out_percentile", functionalityName, provider, millis)
+					.tag("burst_size", String.valueOf(burst.getBurstSize()))
+					.tag("percentile", percentile)
+					.addField("value", burst.getLatencyPercentile(Double.parseDouble(percentile)))
+					.build();
+			batch.point(point);
+		}
+
+		return WRITER.enqueue(batch);
+	}
+
+	/**
+	 * Inserts the phase breakdown of a Cold Start request
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param timings phase timings of the cold start request
+	 * @param millis measurement timestamp
+	 * @return true if the result has been queued for insertion, false elsewhere
+	 */
+	public static boolean insertColdStartPhases(String functionalityName, String provider, PhaseTimings timings,
+												long millis) {
+
+		if (functionalityName == null || provider == null || timings == null) {
+			return false;
+		}
+
+		// one series for each phase (every latency result is to be considered in milliseconds)
+		BatchPoints batch = newBatch();
+
+		addPhasePoint(batch, functionalityName, provider, PhaseTimings.DNS, timings.getDnsMs(), millis);
+		addPhasePoint(batch, functionalityName, provider, PhaseTimings.CONNECT, timings.getConnectMs(), millis);
+		addPhasePoint(batch, functionalityName, provider, PhaseTimings.TLS, timings.getTlsMs(), millis);
+		addPhasePoint(batch, functionalityName, provider, PhaseTimings.TTFB, timings.getTtfbMs(), millis);
+		addPhasePoint(batch, functionalityName, provider, PhaseTimings.TRANSFER, timings.getTransferMs(), millis);
+		addPhasePoint(batch, functionalityName, provider, PhaseTimings.TOTAL, timings.getTotalMs(), millis);
+
+		return WRITER.enqueue(batch);
 	}
 
 	/**
@@ -112,81 +268,379 @@ public class InfluxClient {
 	 * @param provider provider associated to the result
 	 * @param stats benchmark result
 	 * @param millis measurement timestamp
-	 * @return true if insertion has been completed, false elsewhere
+	 * @return true if the result has been queued for insertion, false elsewhere
 	 */
 	public static boolean insertLoadPoints(String functionalityName, String provider, BenchmarkStats stats,
 										   long millis) {
 
+		BatchPoints batch = buildLoadBatch(functionalityName, provider, stats, millis);
+		return batch != null && WRITER.enqueue(batch);
+	}
+
+	/**
+	 * Builds the points of a Load Benchmark result, without queueing them
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param stats benchmark result
+	 * @param millis measurement timestamp
+	 * @return batch containing every point, null if the result is incomplete
+	 */
+	static BatchPoints buildLoadBatch(String functionalityName, String provider, BenchmarkStats stats, long millis) {
+
+		// standard deviation and transfer throughput are not reported by every load generator
 		if (functionalityName == null || provider == null || stats == null
-				|| stats.getAvgLatency() == null || stats.getMaxLatency() == null || stats.getStdDevLatency() == null
-				|| stats.getRequestsThroughput() == null || stats.getTransferThroughput() == null) {
-			return false;
+				|| stats.getRequestsThroughput() == null) {
+			return null;
 		}
 
-		String[] parts = splitNameEnv(functionalityName);
-		String runtime = parts[1];
-		String name = parts[0];
-
 		// insert multiple points at a time using a batch (every latency result is to be considered in milliseconds)
-		BatchPoints batch = BatchPoints
-				.database(DB_NAME)
-				.retentionPolicy("defaultPolicy")
+		BatchPoints batch = newBatch();
+
+		// latencies are not available if no request has been completed (e.g. every request timed out)
+		if (stats.getAvgLatency() != null && stats.getMaxLatency() != null) {
+			Point avg_latency = newLoadPoint("avg_latency", functionalityName, provider, stats, millis)
+					.addField("value", stats.getAvgLatency())
+					.build();
+			batch.point(avg_latency);
+
+			if (stats.getStdDevLatency() != null) {
+				Point std_latency_dev = newLoadPoint("std_latency_dev", functionalityName, provider, stats, millis)
+						.addField("value", stats.getStdDevLatency())
+						.build();
+				batch.point(std_latency_dev);
+			}
+
+			Point max_latency = newLoadPoint("max_latency", functionalityName, provider, stats, millis)
+					.addField("value", stats.getMaxLatency())
+					.build();
+			batch.point(max_latency);
+		}
+
+		Point requests_throughput = newLoadPoint("requests_throughput", functionalityName, provider, stats, millis)
+				.addField("value", stats.getRequestsThroughput())
 				.build();
+		batch.point(requests_throughput);
 
-		Point avg_latency = Point.measurement("avg_latency_" + name)
-				.time(millis, TimeUnit.MILLISECONDS)
-				.addField("runtime", runtime)
-				.addField("provider", provider)
+		if (stats.getTransferThroughput() != null) {
+			Point transfer_throughput = newLoadPoint("transfer_throughput", functionalityName, provider, stats,
+					millis)
+					.addField("value", stats.getTransferThroughput())
+					.build();
+			batch.point(transfer_throughput);
+		}
+
+		if (stats.getOfferedThroughput() != null) {
+			Point offered_throughput = newLoadPoint("offered_throughput", functionalityName, provider, stats, millis)
+					.addField("value", stats.getOfferedThroughput())
+					.build();
+			batch.point(offered_throughput);
+		}
+
+		// request outcomes, counters not reported by the load generator are omitted
+		Point.Builder outcomes = newLoadPoint("request_outcomes", functionalityName, provider, stats, millis);
+		boolean counted = addCounterField(outcomes, "completed", stats.getTotalRequests());
+		counted |= addCounterField(outcomes, "non_2xx_3xx", stats.getNon2xx3xxResponses());
+		counted |= addCounterField(outcomes, "connect_errors", stats.getConnectErrors());
+		counted |= addCounterField(outcomes, "read_write_errors", stats.getReadWriteErrors());
+		counted |= addCounterField(outcomes, "timeouts", stats.getTimeouts());
+		if (counted) {
+			batch.point(outcomes.build());
+		}
+
+		// tail latency percentiles, one series for each percentile
+		addPercentilePoint(batch, functionalityName, provider, stats, "50", stats.getP50Latency(), millis);
+		addPercentilePoint(batch, functionalityName, provider, stats, "75", stats.getP75Latency(), millis);
+		addPercentilePoint(batch, functionalityName, provider, stats, "90", stats.getP90Latency(), millis);
+		addPercentilePoint(batch, functionalityName, provider, stats, "99", stats.getP99Latency(), millis);
+		addPercentilePoint(batch, functionalityName, provider, stats, "99.9", stats.getP999Latency(), millis);
+		addPercentilePoint(batch, functionalityName, provider, stats, "99.99", stats.getP9999Latency(), millis);
+
+		// detailed spectrum (HdrHistogram buckets)
+		for (LatencyPercentile percentile : stats.getPercentileSpectrum()) {
+			Point spectrum = newLoadPoint("latency_spectrum", functionalityName, provider, stats, millis)
+					.tag("percentile", String.valueOf(percentile.getPercentile()))
+					.addField("value", percentile.getValue())
+					.addField("total_count", percentile.getTotalCount())
+					.build();
+			batch.point(spectrum);
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Inserts an instance keep-alive window estimate with its survival curve
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param estimate keep-alive window estimate
+	 * @param millis measurement timestamp
+	 * @return true if the result has been queued for insertion, false elsewhere
+	 */
+	public static boolean insertKeepAliveEstimate(String functionalityName, String provider,
+												  KeepAliveEstimate estimate, long millis) {
+
+		if (functionalityName == null || provider == null || estimate == null) {
+			return false;
+		}
+
+		// every interval is to be considered in milliseconds
+		BatchPoints batch = newBatch();
+
+		Point.Builder builder = newPoint("keep_alive", functionalityName, provider, millis)
+				.addField("recommended_sleep", estimate.getRecommendedSleepMs())
+				.addField("probes", estimate.getProbes());
+		if (estimate.getKeepAliveMs() != null) {
+			builder.addField("value", estimate.getKeepAliveMs());
+		}
+		batch.point(builder.build());
+
+		// survival curve, one series for each probed idle interval
+		for (SurvivalPoint point : estimate.getSurvivalCurve()) {
+			Point survival = newPoint("keep_alive_survival", functionalityName, provider, millis)
+					.tag("idle_ms", String.valueOf(point.getIdleMs()))
+					.addField("value", point.getSurvival())
+					.addField("observations", point.getObservations())
+					.build();
+			batch.point(survival);
+		}
+
+		return WRITER.enqueue(batch);
+	}
+
+	/**
+	 * Inserts the warm-up curve aggregated across the iterations performed so far: one series for each request index
+	 * following the cold start, with latency percentile bands (the last point of each series is the up to date one)
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param curve warm-up curve
+	 * @param steadyStateTolerance maximum relative gap from steady state latency used to find the steady state
+	 * @param millis measurement timestamp
+	 * @return true if the result has been queued for insertion, false elsewhere
+	 */
+	public static boolean insertWarmUpCurve(String functionalityName, String provider, WarmUpCurve curve,
+											double steadyStateTolerance, long millis) {
+
+		if (functionalityName == null || provider == null || curve == null || curve.getIterations() == 0) {
+			return false;
+		}
+
+		// every latency result is to be considered in milliseconds
+		BatchPoints batch = newBatch();
+
+		// no steady state point is written until the curve reaches it
+		Integer steadyStateIndex = curve.getSteadyStateIndex(steadyStateTolerance);
+		if (steadyStateIndex != null) {
+			Point steady_state = newPoint("warm_up_steady_state", functionalityName, provider, millis)
+					.addField("value", steadyStateIndex)
+					.addField("iterations", curve.getIterations())
+					.build();
+			batch.point(steady_state);
+		}
+
+		// request index 0 is the cold request
+		for (int i = 0; i < curve.getLength(); i++) {
+			Point point = newPoint("warm_up_latency", functionalityName, provider, millis)
+					.tag("request_index", String.valueOf(i))
+					.addField("p10", curve.getPercentile(i, WarmUpCurve.LOWER_BAND))
+					.addField("p50", curve.getPercentile(i, WarmUpCurve.MEDIAN))
+					.addField("p90", curve.getPercentile(i, WarmUpCurve.UPPER_BAND))
+					.addField("iterations", curve.getIterations())
+					.build();
+			batch.point(point);
+		}
+
+		return WRITER.enqueue(batch);
+	}
+
+	/**
+	 * Inserts a maximum sustainable throughput search result
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param result knee point found by the search
+	 * @param sloP99Ms p99 latency objective in milliseconds used in the search
+	 * @param millis measurement timestamp
+	 * @return true if the result has been queued for insertion, false elsewhere
+	 */
+	public static boolean insertSustainableThroughput(String functionalityName, String provider,
+													  SustainableThroughput result, double sloP99Ms, long millis) {
+
+		if (functionalityName == null || provider == null || result == null || result.getStats() == null) {
+			return false;
+		}
+
+		Point.Builder builder = newPoint("max_sustainable_throughput", functionalityName, provider, millis)
+				.addField("value", result.getRequestsPerSecond())
+				.addField("slo_p99", sloP99Ms)
+				.addField("error_rate", result.getErrorRate())
+				.addField("upper_bound_reached", result.isUpperBoundReached());
+		if (result.getStats().getP99Latency() != null) {
+			builder.addField("p99_latency", result.getStats().getP99Latency());
+		}
+		if (result.getStats().getRequestsThroughput() != null) {
+			builder.addField("achieved_throughput", result.getStats().getRequestsThroughput());
+		}
+		Point max_sustainable_throughput = builder.build();
+
+		return WRITER.enqueue(newBatch(max_sustainable_throughput));
+	}
+
+	/**
+	 * Inserts a load benchmark result of an input size sweep
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param parameter name of the swept request parameter
+	 * @param inputSize value of the swept request parameter
+	 * @param stats benchmark result
+	 * @param millis measurement timestamp
+	 * @return true if the result has been queued for insertion, false elsewhere
+	 */
+	public static boolean insertInputScalingPoint(String functionalityName, String provider, String parameter,
+												  long inputSize, BenchmarkStats stats, long millis) {
+
+		if (functionalityName == null || provider == null || parameter == null || stats == null
+				|| stats.getAvgLatency() == null || stats.getRequestsThroughput() == null) {
+			return false;
+		}
+
+		// every latency result is to be considered in milliseconds
+		Point.Builder builder = newPoint("input_scaling", functionalityName, provider, millis)
+				.tag("parameter", parameter)
+				.tag("input_size", String.valueOf(inputSize))
 				.addField("value", stats.getAvgLatency())
-				.build();
-		batch.point(avg_latency);
+				.addField("requests_throughput", stats.getRequestsThroughput());
+		if (stats.getP50Latency() != null) {
+			builder.addField("p50_latency", stats.getP50Latency());
+		}
+		if (stats.getP99Latency() != null) {
+			builder.addField("p99_latency", stats.getP99Latency());
+		}
+		Point input_scaling = builder.build();
 
-		Point std_latency_dev = Point.measurement("std_latency_dev_" + name)
-				.time(millis, TimeUnit.MILLISECONDS)
-				.addField("runtime", runtime)
-				.addField("provider", provider)
-				.addField("value", stats.getStdDevLatency())
-				.build();
-		batch.point(std_latency_dev);
+		return WRITER.enqueue(newBatch(input_scaling));
+	}
 
-		Point max_latency = Point.measurement("max_latency_" + name)
-				.time(millis, TimeUnit.MILLISECONDS)
-				.addField("runtime", runtime)
-				.addField("provider", provider)
-				.addField("value", stats.getMaxLatency())
+	/**
+	 * Creates an empty batch
+	 * @return new batch
+	 */
+	private static BatchPoints newBatch() {
+		return BatchPoints
+				.database(DB_NAME)
+				.retentionPolicy("defaultPolicy")
 				.build();
-		batch.point(max_latency);
+	}
 
-		Point requests_throughput = Point.measurement("requests_throughput_" + name)
-				.time(millis, TimeUnit.MILLISECONDS)
-				.addField("runtime", runtime)
-				.addField("provider", provider)
-				.addField("value", stats.getRequestsThroughput())
-				.build();
-		batch.point(requests_throughput);
+	/**
+	 * Creates a batch containing a single point
+	 * @param point point to insert
+	 * @return new batch
+	 */
+	private static BatchPoints newBatch(Point point) {
+		BatchPoints batch = newBatch();
+		batch.point(point);
+		return batch;
+	}
 
-		Point transfer_throughput = Point.measurement("transfer_throughput_" + name)
-				.time(millis, TimeUnit.MILLISECONDS)
-				.addField("runtime", runtime)
-				.addField("provider", provider)
-				.addField("value", stats.getTransferThroughput())
-				.build();
-		batch.point(transfer_throughput);
+	/**
+	 * Creates a point builder of a metric, tagged with function common name, runtime, provider, run identifier and
+	 * memory amount (memory matrix variants only, reported with the original function name)
+	 * @param metric metric name, used as measurement
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param millis measurement timestamp
+	 * @return point builder
+	 */
+	private static Point.Builder newPoint(String metric, String functionalityName, String provider, long millis) {
+		String[] parts = splitNameEnv(functionalityName);
+		String name = parts[0];
+		String runtime = parts[1];
 
+		Point.Builder builder = Point.measurement(metric)
+				.time(millis, TimeUnit.MILLISECONDS)
+				.tag(RUNTIME_TAG, runtime)
+				.tag(PROVIDER_TAG, provider)
+				.tag(RUN_ID_TAG, runId);
+		Map.Entry<String, Integer> variant = MEMORY_VARIANTS.get(name);
+		if (variant != null) {
+			builder.tag(FUNCTION_TAG, variant.getKey())
+					.tag(MEMORY_TAG, String.valueOf(variant.getValue()));
+		} else {
+			builder.tag(FUNCTION_TAG, name);
+		}
+		return builder;
+	}
 
-		InfluxDB connection = getConnection();
+	/**
+	 * Creates a load benchmark point builder, tagged with the load profile phase if available
+	 * @param metric metric name, used as measurement
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param stats benchmark result
+	 * @param millis measurement timestamp
+	 * @return point builder
+	 */
+	private static Point.Builder newLoadPoint(String metric, String functionalityName, String provider,
+											  BenchmarkStats stats, long millis) {
+		Point.Builder builder = newPoint(metric, functionalityName, provider, millis);
+		if (stats.getPhase() != null) {
+			builder.tag("phase", String.valueOf(stats.getPhase()));
+		}
+		return builder;
+	}
 
-		if (connection == null) {
+	/**
+	 * Adds a counter field to a point
+	 * @param builder point to fill
+	 * @param field field name
+	 * @param count counter value, null if not available
+	 * @return true if the field has been added, false elsewhere
+	 */
+	private static boolean addCounterField(Point.Builder builder, String field, Long count) {
+		if (count == null) {
 			return false;
-		} else {
-			initDatabase(connection);
-			connection.setRetentionPolicy("defaultPolicy");
-			connection.setDatabase(DB_NAME);
-			connection.write(batch);
-			closeConnection(connection);
-			return true;
 		}
+		builder.addField(field, count);
+		return true;
+	}
+
+	/**
+	 * Adds a request phase latency point to a batch
+	 * @param batch batch to fill
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param phase request phase used as tag
+	 * @param latency latency in milliseconds
+	 * @param millis measurement timestamp
+	 */
+	private static void addPhasePoint(BatchPoints batch, String functionalityName, String provider, String phase,
+									  double latency, long millis) {
+		Point point = newPoint("cold_start_phases", functionalityName, provider, millis)
+				.tag("phase", phase)
+				.addField("value", latency)
+				.build();
+		batch.point(point);
+	}
 
+	/**
+	 * Adds a latency percentile point to a batch, if the percentile is available
+	 * @param batch batch to fill
+	 * @param functionalityName name of the functionality tested
+	 * @param provider provider associated to the result
+	 * @param stats benchmark result the percentile belongs to
+	 * @param percentile percentile level used as tag
+	 * @param latency latency in milliseconds, can be null
+	 * @param millis measurement timestamp
+	 */
+	private static void addPercentilePoint(BatchPoints batch, String functionalityName, String provider,
+										   BenchmarkStats stats, String percentile, Double latency, long millis) {
+		if (latency == null) {
+			return;
+		}
+		Point point = newLoadPoint("latency_percentile", functionalityName, provider, stats, millis)
+				.tag("percentile", percentile)
+				.addField("value", latency)
+				.build();
+		batch.point(point);
 	}
 
 	/**
@@ -194,7 +648,7 @@ public class InfluxClient {
 	 * @param completeName joined name
 	 * @return String[], name in position 0, runtime in position 1
 	 */
-	private static String[] splitNameEnv(String completeName) {
+	static String[] splitNameEnv(String completeName) {
 
 		String separator = CommandUtility.getRuntimeSep();
 		String[] parts = completeName.split(separator);
@@ -0,0 +1,344 @@
+package databases.influx;
+
+import org.influxdb.InfluxDB;
+import org.influxdb.dto.BatchPoints;
+import org.influxdb.dto.Point;
+import org.influxdb.dto.Query;
+import org.influxdb.dto.QueryResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migration of results persisted with the previous schema (one measurement for each metric and function, e.g.
+ * "avg_latency_cpu-test", with runtime and provider as fields) to the tag based one (e.g. "avg_latency" measurement
+ * with function, runtime, provider, memory and run_id tags).
+ * Every old measurement is split in time chunks rewritten in parallel, migrated points get the "migrated" run
+ * identifier. Migration can be repeated: rewritten points overwrite the ones of a previous attempt.
+ */
+public class InfluxMigration {
+
+	// run identifier of migrated points
+	public static final String MIGRATED_RUN_ID = "migrated";
+
+	// metrics persisted by InfluxClient, the longest matching prefix of an old measurement is its metric
+	private static final List<String> METRICS = Arrays.asList("cold_start_latency", "cold_start_phases",
+			"scale_out_latency", "scale_out_percentile", "avg_latency", "std_latency_dev", "max_latency",
+			"requests_throughput", "transfer_throughput", "offered_throughput", "latency_percentile",
+			"latency_spectrum", "keep_alive", "keep_alive_survival", "max_sustainable_throughput", "input_scaling");
+
+	// maximum number of points of a single write
+	private static final int WRITE_BATCH_SIZE = 5000;
+
+	/**
+	 * Migration parameters
+	 */
+	private final long chunkMs;
+	private final int threads;
+	private final boolean dropOldMeasurements;
+
+
+	/**
+	 * Default constructor
+	 * @param chunkMs time window in milliseconds of the points rewritten by a single task
+	 * @param threads number of chunks rewritten at the same time
+	 * @param dropOldMeasurements true if old measurements have to be dropped once completely migrated
+	 */
+	public InfluxMigration(long chunkMs, int threads, boolean dropOldMeasurements) {
+		this.chunkMs = chunkMs;
+		this.threads = threads;
+		this.dropOldMeasurements = dropOldMeasurements;
+	}
+
+	/**
+	 * Migrates every measurement of the previous schema
+	 * @return true if every point has been migrated, false elsewhere
+	 */
+	public boolean migrate() {
+
+		if (chunkMs <= 0 || threads <= 0) {
+			System.err.println("Could not migrate influx db: chunk size and threads number must be greater than 0");
+			return false;
+		}
+
+		InfluxDB connection = InfluxClient.openConnection();
+		if (connection == null) {
+			System.err.println("Could not migrate influx db: database unreachable");
+			return false;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		boolean success = true;
+		try {
+			for (String measurement : getOldMeasurements(connection)) {
+				success &= migrateMeasurement(connection, executor, measurement);
+			}
+		} catch (RuntimeException e) {
+			System.err.println("Could not migrate influx db: " + e.getMessage());
+			success = false;
+		} finally {
+			executor.shutdownNow();
+			connection.close();
+		}
+
+		if (success) {
+			System.out.println("\u001B[32m" + "Influx db migration completed!" + "\u001B[0m");
+		} else {
+			System.err.println("Influx db migration not completed, it can be repeated");
+		}
+		return success;
+	}
+
+	/**
+	 * Migrates a measurement, chunks are rewritten in parallel
+	 * @param connection InfluxDB connection
+	 * @param executor chunk executor
+	 * @param measurement old measurement name
+	 * @return true if every chunk has been migrated, false elsewhere
+	 */
+	private boolean migrateMeasurement(InfluxDB connection, ExecutorService executor, String measurement) {
+
+		String metric = getMetric(measurement);
+		String function = measurement.substring(metric.length() + 1);
+		Map<String, String> fieldTypes = getFieldTypes(connection, measurement);
+
+		Long first = getBoundTime(connection, measurement, "ASC");
+		Long last = getBoundTime(connection, measurement, "DESC");
+		if (first == null || last == null) {
+			// empty measurement
+			return true;
+		}
+
+		System.out.println("\u001B[33m" + "Migrating \"" + measurement + "\" to \"" + metric + "\"..." + "\u001B[0m");
+
+		List<Future<Integer>> chunks = new ArrayList<>();
+		for (long start = first; start <= last; start += chunkMs) {
+			long chunkStart = start;
+			long chunkEnd = Math.min(start + chunkMs, last + 1);
+			chunks.add(executor.submit(() ->
+					migrateChunk(connection, measurement, metric, function, fieldTypes, chunkStart, chunkEnd)));
+		}
+
+		boolean success = true;
+		int migrated = 0;
+		for (Future<Integer> chunk : chunks) {
+			try {
+				migrated += chunk.get();
+			} catch (ExecutionException e) {
+				System.err.println("Could not migrate a chunk of '" + measurement + "': " + e.getCause().getMessage());
+				success = false;
+			} catch (InterruptedException ignored) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		System.out.println("Migrated " + migrated + " points of \"" + measurement + "\"");
+
+		if (success && dropOldMeasurements) {
+			// old points are removed only when all of them have been rewritten
+			query(connection, "DROP MEASUREMENT \"" + measurement + "\"");
+		}
+		return success;
+	}
+
+	/**
+	 * Rewrites the points of a time chunk with the tag based schema
+	 * @param connection InfluxDB connection
+	 * @param measurement old measurement name
+	 * @param metric metric name, new measurement name
+	 * @param function function common name
+	 * @param fieldTypes old field types by field name
+	 * @param startMs chunk start (included) in milliseconds
+	 * @param endMs chunk end (excluded) in milliseconds
+	 * @return number of migrated points
+	 */
+	private static int migrateChunk(InfluxDB connection, String measurement, String metric, String function,
+									Map<String, String> fieldTypes, long startMs, long endMs) {
+
+		// grouping by every tag separates old tags from fields
+		QueryResult result = query(connection, "SELECT * FROM \"" + measurement + "\" WHERE time >= " + startMs +
+				"ms AND time < " + endMs + "ms GROUP BY *");
+
+		List<Point> points = new ArrayList<>();
+		for (QueryResult.Series series : getSeries(result)) {
+			List<String> columns = series.getColumns();
+			for (List<Object> row : series.getValues()) {
+				Point.Builder builder = Point.measurement(metric)
+						.time(((Number) row.get(0)).longValue(), TimeUnit.MILLISECONDS);
+				if (series.getTags() != null) {
+					// tags missing in a series are reported as empty
+					series.getTags().forEach((tag, value) -> {
+						if (value != null && !value.isEmpty()) {
+							builder.tag(tag, value);
+						}
+					});
+				}
+				builder.tag(InfluxClient.FUNCTION_TAG, function)
+						.tag(InfluxClient.RUN_ID_TAG, MIGRATED_RUN_ID);
+
+				boolean hasFields = false;
+				for (int i = 1; i < columns.size(); i++) {
+					String column = columns.get(i);
+					Object value = row.get(i);
+					if (value == null) {
+						continue;
+					}
+					if (column.equals(InfluxClient.RUNTIME_TAG) || column.equals(InfluxClient.PROVIDER_TAG)) {
+						// runtime and provider were persisted as fields
+						builder.tag(column, String.valueOf(value));
+					} else {
+						addField(builder, column, value, fieldTypes.get(column));
+						hasFields = true;
+					}
+				}
+				if (hasFields) {
+					points.add(builder.build());
+				}
+			}
+		}
+
+		for (int i = 0; i < points.size(); i += WRITE_BATCH_SIZE) {
+			BatchPoints batch = BatchPoints
+					.database(InfluxClient.DB_NAME)
+					.retentionPolicy("defaultPolicy")
+					.build();
+			for (Point point : points.subList(i, Math.min(i + WRITE_BATCH_SIZE, points.size()))) {
+				batch.point(point);
+			}
+			connection.write(batch);
+		}
+		return points.size();
+	}
+
+	/**
+	 * Adds a field keeping its original type (JSON query results report integers as floating point numbers, a
+	 * different type would conflict with points persisted by the new schema)
+	 * @param builder point builder
+	 * @param name field name
+	 * @param value field value
+	 * @param type field type as reported by SHOW FIELD KEYS, can be null
+	 */
+	private static void addField(Point.Builder builder, String name, Object value, String type) {
+		if (value instanceof Number && "integer".equals(type)) {
+			builder.addField(name, ((Number) value).longValue());
+		} else if (value instanceof Number) {
+			builder.addField(name, ((Number) value).doubleValue());
+		} else if (value instanceof Boolean) {
+			builder.addField(name, (Boolean) value);
+		} else {
+			builder.addField(name, String.valueOf(value));
+		}
+	}
+
+	/**
+	 * Lists measurements of the previous schema
+	 * @param connection InfluxDB connection
+	 * @return old measurement names
+	 */
+	private static List<String> getOldMeasurements(InfluxDB connection) {
+		List<String> measurements = new ArrayList<>();
+		for (QueryResult.Series series : getSeries(query(connection, "SHOW MEASUREMENTS"))) {
+			for (List<Object> row : series.getValues()) {
+				String measurement = String.valueOf(row.get(0));
+				if (getMetric(measurement) != null) {
+					measurements.add(measurement);
+				}
+			}
+		}
+		return measurements;
+	}
+
+	/**
+	 * Finds the metric of an old measurement
+	 * @param measurement measurement name
+	 * @return metric name, null if the measurement does not belong to the previous schema
+	 */
+	private static String getMetric(String measurement) {
+		if (METRICS.contains(measurement)) {
+			// measurement of the tag based schema
+			return null;
+		}
+		return METRICS.stream()
+				.filter(metric -> measurement.startsWith(metric + "_") && measurement.length() > metric.length() + 1)
+				.max(Comparator.comparingInt(String::length))
+				.orElse(null);
+	}
+
+	/**
+	 * Gets the field types of a measurement
+	 * @param connection InfluxDB connection
+	 * @param measurement measurement name
+	 * @return field types by field name
+	 */
+	private static Map<String, String> getFieldTypes(InfluxDB connection, String measurement) {
+		Map<String, String> types = new HashMap<>();
+		for (QueryResult.Series series : getSeries(query(connection,
+				"SHOW FIELD KEYS FROM \"" + measurement + "\""))) {
+			for (List<Object> row : series.getValues()) {
+				types.put(String.valueOf(row.get(0)), String.valueOf(row.get(1)));
+			}
+		}
+		return types;
+	}
+
+	/**
+	 * Gets the time of the first or last point of a measurement
+	 * @param connection InfluxDB connection
+	 * @param measurement measurement name
+	 * @param order "ASC" for the first point, "DESC" for the last one
+	 * @return time in milliseconds, null if the measurement is empty
+	 */
+	private static Long getBoundTime(InfluxDB connection, String measurement, String order) {
+		for (QueryResult.Series series : getSeries(query(connection,
+				"SELECT * FROM \"" + measurement + "\" ORDER BY time " + order + " LIMIT 1"))) {
+			for (List<Object> row : series.getValues()) {
+				return ((Number) row.get(0)).longValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Performs a query, times are reported in milliseconds
+	 * @param connection InfluxDB connection
+	 * @param command query
+	 * @return query result
+	 */
+	private static QueryResult query(InfluxDB connection, String command) {
+		QueryResult result = connection.query(new Query(command, InfluxClient.DB_NAME), TimeUnit.MILLISECONDS);
+		if (result.hasError()) {
+			throw new IllegalStateException(result.getError());
+		}
+		return result;
+	}
+
+	/**
+	 * Collects the series of a query result
+	 * @param result query result
+	 * @return series, empty if none
+	 */
+	private static List<QueryResult.Series> getSeries(QueryResult result) {
+		List<QueryResult.Series> series = new ArrayList<>();
+		if (result.getResults() == null) {
+			return series;
+		}
+		for (QueryResult.Result statement : result.getResults()) {
+			if (statement.hasError()) {
+				throw new IllegalStateException(statement.getError());
+			}
+			if (statement.getSeries() != null) {
+				series.addAll(statement.getSeries());
+			}
+		}
+		return series;
+	}
+}
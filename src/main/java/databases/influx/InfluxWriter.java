@@ -0,0 +1,308 @@
+package databases.influx;
+
+import org.influxdb.InfluxDB;
+import org.influxdb.InfluxDBIOException;
+import org.influxdb.dto.BatchPoints;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous InfluxDB writer: points are queued in line protocol and a single background thread writes them in
+ * batches (when the batch is full or the flush interval elapses) on a long-lived connection.
+ * When the database is unreachable, or the queue is full, points are appended to a local spill file, replayed as
+ * soon as the database can be reached again (also by the following executions). Callers never block on the database.
+ * Points rejected by the database (e.g. field type conflicts) would never be written: they are isolated and dropped.
+ */
+class InfluxWriter {
+
+	/**
+	 * Batching parameters
+	 */
+	private static final int QUEUE_CAPACITY = 100000;
+	private static final int BATCH_SIZE = 5000;
+	private static final long FLUSH_INTERVAL_MS = 1000;
+
+	/**
+	 * Failure management parameters
+	 */
+	// minimum time between two connection attempts
+	private static final long RETRY_INTERVAL_MS = 30 * 1000;
+	// time granted to the writer thread to flush the queue at shutdown
+	private static final long SHUTDOWN_TIMEOUT_MS = 30 * 1000;
+	private static final String SPILL_FILE = "influx_spill.lp";
+
+	/**
+	 * Database info
+	 */
+	// opens and initializes a connection, returns null if the database is unreachable
+	private final Supplier<InfluxDB> connector;
+	private final String database;
+	private final String retentionPolicy;
+
+	/**
+	 * Writer state
+	 */
+	private final BlockingQueue<String> queue;
+	private final Path spillPath;
+	private final Object spillLock;
+	private final Thread worker;
+	private volatile boolean closed;
+
+	// used by the writer thread only
+	private InfluxDB connection;
+	private long lastAttemptMillis;
+
+
+	/**
+	 * Default constructor, starts the writer thread and registers its flush at JVM shutdown
+	 * @param connector opens and initializes a connection, returns null if the database is unreachable
+	 * @param database database name
+	 * @param retentionPolicy retention policy name
+	 */
+	InfluxWriter(Supplier<InfluxDB> connector, String database, String retentionPolicy) {
+		this.connector = connector;
+		this.database = database;
+		this.retentionPolicy = retentionPolicy;
+		this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		this.spillPath = Paths.get(SPILL_FILE);
+		this.spillLock = new Object();
+		this.closed = false;
+		this.connection = null;
+		this.lastAttemptMillis = 0;
+
+		this.worker = new Thread(this::run, "influx-writer");
+		this.worker.setDaemon(true);
+		this.worker.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(this::close, "influx-writer-shutdown"));
+	}
+
+	/**
+	 * Queues every point of a batch, points not fitting in the queue are spilled to disk
+	 * @param batch points to write
+	 * @return true if points have been queued or spilled, false if they have been lost
+	 */
+	boolean enqueue(BatchPoints batch) {
+		List<String> overflow = new ArrayList<>();
+		for (String line : batch.lineProtocol().split("\n")) {
+			if (line.isEmpty()) {
+				continue;
+			}
+			if (closed || !queue.offer(line)) {
+				overflow.add(line);
+			}
+		}
+		return overflow.isEmpty() || spill(overflow);
+	}
+
+	/**
+	 * Writer thread body: collects batches and writes them until the writer is closed and the queue is empty
+	 */
+	private void run() {
+		List<String> batch = new ArrayList<>(BATCH_SIZE);
+		while (!closed || !queue.isEmpty()) {
+			try {
+				String first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				if (first != null) {
+					batch.add(first);
+					// wait for the batch to fill up, at most for the flush interval
+					long deadline = System.currentTimeMillis() + FLUSH_INTERVAL_MS;
+					while (batch.size() < BATCH_SIZE) {
+						queue.drainTo(batch, BATCH_SIZE - batch.size());
+						long remaining = deadline - System.currentTimeMillis();
+						if (batch.size() >= BATCH_SIZE || remaining <= 0 || closed) {
+							break;
+						}
+						String next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+						if (next == null) {
+							break;
+						}
+						batch.add(next);
+					}
+				}
+			} catch (InterruptedException ignored) {
+				closed = true;
+			}
+
+			if (!batch.isEmpty()) {
+				write(batch);
+				batch.clear();
+			} else if (connect()) {
+				// idle: a good moment to replay points spilled while the database was unreachable
+				replaySpill();
+			}
+		}
+
+		if (connection != null) {
+			connection.close();
+			connection = null;
+		}
+	}
+
+	/**
+	 * Writes a batch, spilling it to disk if the database is unreachable
+	 * @param lines points in line protocol
+	 */
+	private void write(List<String> lines) {
+		if (!connect()) {
+			spill(lines);
+			return;
+		}
+		try {
+			writeIsolatingRejected(lines);
+		} catch (InfluxDBIOException e) {
+			System.err.println("Could not write to influx db, spilling " + lines.size() + " points: " +
+					e.getMessage());
+			disconnect();
+			spill(lines);
+		}
+	}
+
+	/**
+	 * Writes points, a batch rejected by the database is split in halves until rejected points are isolated and
+	 * dropped, so that they do not hold back the valid ones (points written twice are overwritten with the same values)
+	 * @param lines points in line protocol
+	 * @return number of dropped points
+	 * @throws InfluxDBIOException if the database is unreachable
+	 */
+	private int writeIsolatingRejected(List<String> lines) {
+		try {
+			connection.write(database, retentionPolicy, InfluxDB.ConsistencyLevel.ONE, lines);
+			return 0;
+		} catch (InfluxDBIOException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			if (lines.size() == 1) {
+				System.err.println("Dropping point rejected by influx db: " + e.getMessage() + "\n" + lines.get(0));
+				return 1;
+			}
+			int middle = lines.size() / 2;
+			return writeIsolatingRejected(lines.subList(0, middle)) +
+					writeIsolatingRejected(lines.subList(middle, lines.size()));
+		}
+	}
+
+	/**
+	 * Makes sure a connection is available, new attempts are performed at most every RETRY_INTERVAL_MS
+	 * @return true if the database is reachable, false elsewhere
+	 */
+	private boolean connect() {
+		if (connection != null) {
+			return true;
+		}
+		long now = System.currentTimeMillis();
+		if (now - lastAttemptMillis < RETRY_INTERVAL_MS) {
+			return false;
+		}
+		lastAttemptMillis = now;
+		try {
+			connection = connector.get();
+		} catch (RuntimeException e) {
+			System.err.println("Could not connect to influx db: " + e.getMessage());
+			connection = null;
+		}
+		return connection != null;
+	}
+
+	/**
+	 * Drops the current connection after a failure
+	 */
+	private void disconnect() {
+		try {
+			connection.close();
+		} catch (RuntimeException ignored) {
+			// connection already unusable
+		}
+		connection = null;
+		lastAttemptMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * Appends points to the spill file
+	 * @param lines points in line protocol
+	 * @return true if points are on disk, false elsewhere
+	 */
+	private boolean spill(List<String> lines) {
+		synchronized (spillLock) {
+			try {
+				Files.write(spillPath, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+						StandardOpenOption.APPEND);
+				return true;
+			} catch (IOException e) {
+				System.err.println("Could not spill " + lines.size() + " points to '" + spillPath + "': " +
+						e.getMessage());
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Writes spilled points to the database, points are spilled again only if the database becomes unreachable
+	 */
+	private void replaySpill() {
+		List<String> lines;
+		synchronized (spillLock) {
+			if (!Files.exists(spillPath)) {
+				return;
+			}
+			try {
+				String content = new String(Files.readAllBytes(spillPath), StandardCharsets.UTF_8);
+				Files.delete(spillPath);
+				// a point torn by a crash while spilling is dropped, it would make the whole batch fail
+				content = content.substring(0, content.lastIndexOf('\n') + 1);
+				lines = new ArrayList<>();
+				for (String line : content.split("\n")) {
+					if (!line.isEmpty()) {
+						lines.add(line);
+					}
+				}
+			} catch (IOException e) {
+				System.err.println("Could not read spilled points from '" + spillPath + "': " + e.getMessage());
+				return;
+			}
+		}
+
+		int written = 0;
+		int dropped = 0;
+		try {
+			while (written < lines.size()) {
+				int end = Math.min(written + BATCH_SIZE, lines.size());
+				dropped += writeIsolatingRejected(lines.subList(written, end));
+				written = end;
+			}
+			System.out.println("Replayed " + (written - dropped) + " spilled points to influx db" +
+					(dropped == 0 ? "" : ", " + dropped + " rejected points dropped"));
+		} catch (InfluxDBIOException e) {
+			System.err.println("Could not replay spilled points: " + e.getMessage());
+			disconnect();
+			spill(lines.subList(written, lines.size()));
+		}
+	}
+
+	/**
+	 * Stops the writer: queued points are written (or spilled if the database is unreachable)
+	 */
+	void close() {
+		closed = true;
+		try {
+			worker.join(SHUTDOWN_TIMEOUT_MS);
+		} catch (InterruptedException ignored) {
+			// remaining points are spilled
+		}
+		List<String> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		if (!remaining.isEmpty()) {
+			spill(remaining);
+		}
+	}
+}
@@ -134,13 +134,14 @@ public class BucketsRepositoryDAO extends DAO {
 	/**
 	 * Persists a new Google Cloud Storage bucket to database
 	 * @param bucketName name of the bucket
+	 * @return true if the bucket has been persisted, false elsewhere
 	 */
-	public static void persistGoogle(String bucketName) {
+	public static boolean persistGoogle(String bucketName) {
 		try {
 			Connection connection = MySQLConnect.connectDatabase();
 			if (connection == null) {
 				System.err.println("Could not connect to database, please check your connection");
-				return;
+				return false;
 			}
 			initTables(connection, GOOGLE);
 
@@ -149,8 +150,10 @@ public class BucketsRepositoryDAO extends DAO {
 			preparedStatement.execute();
 			preparedStatement.close();
 			MySQLConnect.closeConnection(connection);
+			return true;
 		} catch (SQLException e) {
 			System.err.println("Could not perform insertion: " + e.getMessage());
+			return false;
 		}
 	}
 
@@ -158,13 +161,14 @@ public class BucketsRepositoryDAO extends DAO {
 	 * Persists a new Amazon S3 bucket to database
 	 * @param bucketName name of the bucket
 	 * @param region bucket region
+	 * @return true if the bucket has been persisted, false elsewhere
 	 */
-	public static void persistAmazon(String bucketName, String region) {
+	public static boolean persistAmazon(String bucketName, String region) {
 		try {
 			Connection connection = MySQLConnect.connectDatabase();
 			if (connection == null) {
 				System.err.println("Could not connect to database, please check your connection");
-				return;
+				return false;
 			}
 			initTables(connection, AMAZON);
 
@@ -174,8 +178,10 @@ public class BucketsRepositoryDAO extends DAO {
 			preparedStatement.execute();
 			preparedStatement.close();
 			MySQLConnect.closeConnection(connection);
+			return true;
 		} catch (SQLException e) {
 			System.err.println("Could not perform insertion: " + e.getMessage());
+			return false;
 		}
 	}
 
@@ -350,13 +350,14 @@ public class CompositionsRepositoryDAO extends DAO {
 	 * @param functionName name of the handler
 	 * @param url url of the handler
 	 * @param region region of deployment for the handler
+	 * @return true if the handler has been persisted, false elsewhere
 	 */
-	public static void persistGoogleHandler(String functionName, String url, String region) {
+	public static boolean persistGoogleHandler(String functionName, String url, String region) {
 		try {
 			Connection connection = MySQLConnect.connectDatabase();
 			if (connection == null) {
 				System.err.println("Could not connect to database, please check your connection");
-				return;
+				return false;
 			}
 			initTables(connection, GOOGLE);
 
@@ -367,8 +368,10 @@ public class CompositionsRepositoryDAO extends DAO {
 			preparedStatement.execute();
 			preparedStatement.close();
 			MySQLConnect.closeConnection(connection);
+			return true;
 		} catch (SQLException e) {
 			System.err.println("Could not perform insertion: " + e.getMessage());
+			return false;
 		}
 	}
 
@@ -378,13 +381,14 @@ public class CompositionsRepositoryDAO extends DAO {
 	 * @param url url of the handler
 	 * @param apiId id of the api associated to the handler
 	 * @param region region of deployment for the handler
+	 * @return true if the handler has been persisted, false elsewhere
 	 */
-	public static void persistAmazonHandler(String functionName, String url, String apiId, String region) {
+	public static boolean persistAmazonHandler(String functionName, String url, String apiId, String region) {
 		try {
 			Connection connection = MySQLConnect.connectDatabase();
 			if (connection == null) {
 				System.err.println("Could not connect to database, please check your connection");
-				return;
+				return false;
 			}
 			initTables(connection, AMAZON);
 
@@ -396,8 +400,10 @@ public class CompositionsRepositoryDAO extends DAO {
 			preparedStatement.execute();
 			preparedStatement.close();
 			MySQLConnect.closeConnection(connection);
+			return true;
 		} catch (SQLException e) {
 			System.err.println("Could not perform insertion: " + e.getMessage());
+			return false;
 		}
 	}
 
@@ -80,6 +80,19 @@ public class FunctionsRepositoryDAO extends DAO {
 	private static final String SELECT_OPENWHISK_FUNCTIONS_URL = "SELECT function_name, url FROM " +
 			PropertiesManager.getInstance().getProperty(PropertiesManager.MYSQL_DB) + ".openwhisk_serverless_functions";
 
+	private static final String DELETE_GOOGLE_FUNCTION = "DELETE FROM " +
+			PropertiesManager.getInstance().getProperty(PropertiesManager.MYSQL_DB) + ".google_serverless_functions " +
+			"WHERE function_name = ?";
+
+	private static final String DELETE_AMAZON_FUNCTION = "DELETE FROM " +
+			PropertiesManager.getInstance().getProperty(PropertiesManager.MYSQL_DB) + ".amazon_serverless_functions " +
+			"WHERE function_name = ?";
+
+	private static final String DELETE_OPENWHISK_FUNCTION = "DELETE FROM " +
+			PropertiesManager.getInstance().getProperty(PropertiesManager.MYSQL_DB) +
+			".openwhisk_serverless_functions " +
+			"WHERE function_name = ?";
+
 	private static final String DROP_GOOGLE_FUNCTIONS = "DROP TABLE IF EXISTS " +
 			PropertiesManager.getInstance().getProperty(PropertiesManager.MYSQL_DB) + ".google_serverless_functions";
 
@@ -181,18 +194,84 @@ public class FunctionsRepositoryDAO extends DAO {
 		}
 	}
 
+	/**
+	 * Removes a Google Cloud Functions function from database
+	 * @param functionName name of the function
+	 */
+	public static void deleteGoogle(String functionName) {
+		deleteFunction(GOOGLE, functionName);
+	}
+
+	/**
+	 * Removes an Amazon Lambda and Api Gateway function from database
+	 * @param functionName name of the function
+	 */
+	public static void deleteAmazon(String functionName) {
+		deleteFunction(AMAZON, functionName);
+	}
+
+	/**
+	 * Removes an OpenWhisk function from database
+	 * @param functionName name of the function
+	 */
+	public static void deleteOpenWhisk(String functionName) {
+		deleteFunction(OPENWHISK, functionName);
+	}
+
+	/**
+	 * Generic single function removal
+	 * @param provider select which provider table the function is removed from
+	 * @param functionName name of the function
+	 */
+	private static void deleteFunction(String provider, String functionName) {
+		try {
+			Connection connection = MySQLConnect.connectDatabase();
+			if (connection == null) {
+				System.err.println("Could not connect to database, please check your connection");
+				return;
+			}
+			initTables(connection, provider);
+
+			String query;
+			switch (provider) {
+				case GOOGLE:
+					query = DELETE_GOOGLE_FUNCTION;
+					break;
+				case AMAZON:
+					query = DELETE_AMAZON_FUNCTION;
+					break;
+				case OPENWHISK:
+					query = DELETE_OPENWHISK_FUNCTION;
+					break;
+				default:
+					System.err.println("Provider not supported! Could not perform DB deletion");
+					MySQLConnect.closeConnection(connection);
+					return;
+			}
+
+			PreparedStatement preparedStatement = connection.prepareStatement(query);
+			preparedStatement.setString(1, functionName);
+			preparedStatement.execute();
+			preparedStatement.close();
+			MySQLConnect.closeConnection(connection);
+		} catch (SQLException e) {
+			System.err.println("Could not perform deletion: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Persists a new Google Cloud Functions function to database
 	 * @param functionName name of the function
 	 * @param url url for function execution
 	 * @param region function deployment region
+	 * @return true if the function has been persisted, false elsewhere
 	 */
-	public static void persistGoogle(String functionName, String url, String region) {
+	public static boolean persistGoogle(String functionName, String url, String region) {
 		try {
 			Connection connection = MySQLConnect.connectDatabase();
 			if (connection == null) {
 				System.err.println("Could not connect to database, please check your connection");
-				return;
+				return false;
 			}
 			initTables(connection, GOOGLE);
 
@@ -203,8 +282,10 @@ public class FunctionsRepositoryDAO extends DAO {
 			preparedStatement.execute();
 			preparedStatement.close();
 			MySQLConnect.closeConnection(connection);
+			return true;
 		} catch (SQLException e) {
 			System.err.println("Could not perform insertion: " + e.getMessage());
+			return false;
 		}
 	}
 
@@ -214,13 +295,14 @@ public class FunctionsRepositoryDAO extends DAO {
 	 * @param url url for function execution
 	 * @param apiId id of the api associated to the function
 	 * @param region function deployment region
+	 * @return true if the function has been persisted, false elsewhere
 	 */
-	public static void persistAmazon(String functionName, String url, String apiId, String region) {
+	public static boolean persistAmazon(String functionName, String url, String apiId, String region) {
 		try {
 			Connection connection = MySQLConnect.connectDatabase();
 			if (connection == null) {
 				System.err.println("Could not connect to database, please check your connection");
-				return;
+				return false;
 			}
 			initTables(connection, AMAZON);
 
@@ -232,8 +314,10 @@ public class FunctionsRepositoryDAO extends DAO {
 			preparedStatement.execute();
 			preparedStatement.close();
 			MySQLConnect.closeConnection(connection);
+			return true;
 		} catch (SQLException e) {
 			System.err.println("Could not perform insertion: " + e.getMessage());
+			return false;
 		}
 	}
 
@@ -241,13 +325,14 @@ public class FunctionsRepositoryDAO extends DAO {
 	 * Persists a new OpenWhisk function to database
 	 * @param functionName name of the function
 	 * @param url url for function execution
+	 * @return true if the function has been persisted, false elsewhere
 	 */
-	public static void persistOpenWhisk(String functionName, String url) {
+	public static boolean persistOpenWhisk(String functionName, String url) {
 		try {
 			Connection connection = MySQLConnect.connectDatabase();
 			if (connection == null) {
 				System.err.println("Could not connect to database, please check your connection");
-				return;
+				return false;
 			}
 			initTables(connection, OPENWHISK);
 
@@ -257,8 +342,10 @@ public class FunctionsRepositoryDAO extends DAO {
 			preparedStatement.execute();
 			preparedStatement.close();
 			MySQLConnect.closeConnection(connection);
+			return true;
 		} catch (SQLException e) {
 			System.err.println("Could not perform insertion: " + e.getMessage());
+			return false;
 		}
 	}
 
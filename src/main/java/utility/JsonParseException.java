@@ -0,0 +1,17 @@
+package utility;
+
+/**
+ * Exception raised in case JSON text can not be parsed
+ */
+public class JsonParseException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Default constructor
+	 * @param message exception message
+	 */
+	public JsonParseException(String message) {
+		super(message);
+	}
+}
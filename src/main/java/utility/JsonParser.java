@@ -0,0 +1,244 @@
+package utility;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON parser and serializer for REST API messages: objects are parsed as Map, arrays as List, numbers as
+ * Double, strings, booleans and null as the corresponding Java values
+ */
+public class JsonParser {
+
+	// text being parsed
+	private final String json;
+	private int position;
+
+
+	/**
+	 * Default constructor
+	 * @param json text to parse
+	 */
+	private JsonParser(String json) {
+		this.json = json;
+		this.position = 0;
+	}
+
+	/**
+	 * Parses a JSON document
+	 * @param json text to parse
+	 * @return parsed value
+	 * @throws JsonParseException if text is not valid JSON
+	 */
+	public static Object parse(String json) throws JsonParseException {
+		JsonParser parser = new JsonParser(json);
+		try {
+			Object value = parser.readValue();
+			parser.skipBlanks();
+			if (parser.position != json.length()) {
+				throw new JsonParseException("Unexpected content in JSON text at " + parser.position);
+			}
+			return value;
+		} catch (IndexOutOfBoundsException | NumberFormatException e) {
+			throw new JsonParseException("Malformed JSON text: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Serializes a value as JSON text
+	 * @param value Map (with String keys), List, String, Number, Boolean or null
+	 * @return JSON text
+	 */
+	@SuppressWarnings("unchecked")
+	public static String toJson(Object value) {
+		if (value == null) {
+			return "null";
+		}
+		if (value instanceof Map) {
+			StringBuilder json = new StringBuilder("{");
+			for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+				if (json.length() > 1) {
+					json.append(',');
+				}
+				json.append(toJson(entry.getKey())).append(':').append(toJson(entry.getValue()));
+			}
+			return json.append('}').toString();
+		}
+		if (value instanceof List) {
+			StringBuilder json = new StringBuilder("[");
+			for (Object element : (List<Object>) value) {
+				if (json.length() > 1) {
+					json.append(',');
+				}
+				json.append(toJson(element));
+			}
+			return json.append(']').toString();
+		}
+		if (value instanceof Number || value instanceof Boolean) {
+			return value.toString();
+		}
+		StringBuilder json = new StringBuilder("\"");
+		for (char c : value.toString().toCharArray()) {
+			switch (c) {
+				case '"':
+					json.append("\\\"");
+					break;
+				case '\\':
+					json.append("\\\\");
+					break;
+				case '\n':
+					json.append("\\n");
+					break;
+				case '\r':
+					json.append("\\r");
+					break;
+				case '\t':
+					json.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						json.append(String.format("\\u%04x", (int) c));
+					} else {
+						json.append(c);
+					}
+			}
+		}
+		return json.append('"').toString();
+	}
+
+	/**
+	 * Reads a JSON value
+	 * @return parsed value
+	 * @throws JsonParseException if an unexpected character is found
+	 */
+	private Object readValue() throws JsonParseException {
+		skipBlanks();
+		char c = json.charAt(position);
+		if (c == '{') {
+			Map<String, Object> object = new LinkedHashMap<>();
+			position++;
+			skipBlanks();
+			if (json.charAt(position) == '}') {
+				position++;
+				return object;
+			}
+			do {
+				skipBlanks();
+				String key = readString();
+				skipBlanks();
+				expect(':');
+				object.put(key, readValue());
+				skipBlanks();
+			} while (json.charAt(position++) == ',');
+			checkClosed('}');
+			return object;
+		} else if (c == '[') {
+			List<Object> array = new ArrayList<>();
+			position++;
+			skipBlanks();
+			if (json.charAt(position) == ']') {
+				position++;
+				return array;
+			}
+			do {
+				array.add(readValue());
+				skipBlanks();
+			} while (json.charAt(position++) == ',');
+			checkClosed(']');
+			return array;
+		} else if (c == '"') {
+			return readString();
+		} else if (c == '-' || Character.isDigit(c)) {
+			int start = position;
+			while (position < json.length() && "+-.eE0123456789".indexOf(json.charAt(position)) >= 0) {
+				position++;
+			}
+			return Double.parseDouble(json.substring(start, position));
+		} else if (json.startsWith("true", position)) {
+			position += 4;
+			return Boolean.TRUE;
+		} else if (json.startsWith("false", position)) {
+			position += 5;
+			return Boolean.FALSE;
+		} else if (json.startsWith("null", position)) {
+			position += 4;
+			return null;
+		}
+		throw new JsonParseException("Unexpected character '" + c + "' in JSON text at " + position);
+	}
+
+	/**
+	 * Reads a JSON string
+	 * @return unescaped string
+	 * @throws JsonParseException if the string does not start at the current position
+	 */
+	private String readString() throws JsonParseException {
+		expect('"');
+		StringBuilder builder = new StringBuilder();
+		char c;
+		while ((c = json.charAt(position++)) != '"') {
+			if (c == '\\') {
+				c = json.charAt(position++);
+				switch (c) {
+					case 'u':
+						c = (char) Integer.parseInt(json.substring(position, position + 4), 16);
+						position += 4;
+						break;
+					case 'n':
+						c = '\n';
+						break;
+					case 't':
+						c = '\t';
+						break;
+					case 'r':
+						c = '\r';
+						break;
+					case 'b':
+						c = '\b';
+						break;
+					case 'f':
+						c = '\f';
+						break;
+					default:
+						// '"', '\\' and '/' stand for themselves
+						break;
+				}
+			}
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Consumes an expected character
+	 * @param expected expected character
+	 * @throws JsonParseException if a different character is found
+	 */
+	private void expect(char expected) throws JsonParseException {
+		if (json.charAt(position) != expected) {
+			throw new JsonParseException("Expected '" + expected + "' in JSON text at " + position);
+		}
+		position++;
+	}
+
+	/**
+	 * Checks the last consumed character closes an object or an array
+	 * @param closing expected closing character
+	 * @throws JsonParseException if a different character was found
+	 */
+	private void checkClosed(char closing) throws JsonParseException {
+		if (json.charAt(position - 1) != closing) {
+			throw new JsonParseException("Expected '" + closing + "' in JSON text at " + (position - 1));
+		}
+	}
+
+	/**
+	 * Skips JSON whitespaces
+	 */
+	private void skipBlanks() {
+		while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+			position++;
+		}
+	}
+}
@@ -48,6 +48,8 @@ public class PropertiesManager {
 	public static final String OPENWHISK_AUTH = "openwhisk_auth";
 	public static final String OPENWHISK_SSL_IGNORE = "openwhisk_ignore_ssl";
 
+	public static final String LOAD_GENERATOR = "load_generator";
+
 
 	/**
 	 * Singleton instance getter
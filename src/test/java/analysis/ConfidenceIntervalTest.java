@@ -0,0 +1,69 @@
+package analysis;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConfidenceIntervalTest {
+
+	@Test
+	public void constantSampleGivesDegenerateIntervals() {
+		long[] values = new long[1000];
+		Arrays.fill(values, 250);
+		Map<Statistic, ConfidenceInterval> intervals = ConfidenceInterval.bootstrap(values, 200, 0.95);
+
+		for (Statistic statistic : Statistic.values()) {
+			ConfidenceInterval interval = intervals.get(statistic);
+			assertEquals(250, interval.getEstimate(), 0);
+			assertEquals(250, interval.getLower(), 0);
+			assertEquals(250, interval.getUpper(), 0);
+		}
+	}
+
+	@Test
+	public void intervalsContainEstimates() {
+		// uniform values, exactly represented by the histogram
+		long[] values = new long[10000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i % 1000;
+		}
+		Map<Statistic, ConfidenceInterval> intervals = ConfidenceInterval.bootstrap(values, 500, 0.95);
+
+		ConfidenceInterval mean = intervals.get(Statistic.MEAN);
+		assertEquals(499.5, mean.getEstimate(), 1e-9);
+		// standard error is about 2.9
+		assertTrue(mean.getLower() < 499.5 && mean.getLower() > 490);
+		assertTrue(mean.getUpper() > 499.5 && mean.getUpper() < 509);
+		assertEquals(0.95, mean.getConfidence(), 0);
+
+		ConfidenceInterval p90 = intervals.get(Statistic.P90);
+		assertEquals(899, p90.getEstimate(), 0);
+		assertTrue(p90.getLower() <= 899 && p90.getUpper() >= 899);
+		assertTrue(p90.getUpper() - p90.getLower() < 30);
+	}
+
+	@Test
+	public void resultsAreReproducible() {
+		long[] values = new long[5000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (i * 7919L) % 3001;
+		}
+		Map<Statistic, ConfidenceInterval> first = ConfidenceInterval.bootstrap(values, 300, 0.9);
+		Map<Statistic, ConfidenceInterval> second = ConfidenceInterval.bootstrap(values, 300, 0.9);
+
+		for (Statistic statistic : Statistic.values()) {
+			assertEquals(first.get(statistic).getLower(), second.get(statistic).getLower(), 0);
+			assertEquals(first.get(statistic).getUpper(), second.get(statistic).getUpper(), 0);
+		}
+	}
+
+	@Test
+	public void emptySample() {
+		assertNull(ConfidenceInterval.bootstrap(new long[0], 100, 0.95));
+	}
+}
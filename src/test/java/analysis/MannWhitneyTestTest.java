@@ -0,0 +1,79 @@
+package analysis;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MannWhitneyTestTest {
+
+	// erfc approximation error
+	private static final double P_VALUE_TOLERANCE = 1e-6;
+
+	@Test
+	public void separatedSamples() {
+		MannWhitneyTest test = MannWhitneyTest.compare(new long[]{3, 1, 2}, new long[]{6, 4, 5});
+
+		assertEquals(0, test.getU(), 0);
+		assertEquals(0, test.getSuperiority(), 0);
+		assertEquals(-1.7457431218879391, test.getZ(), 1e-12);
+		assertEquals(0.0808555983700523, test.getPValue(), P_VALUE_TOLERANCE);
+	}
+
+	@Test
+	public void tiedValuesGetAverageRanks() {
+		MannWhitneyTest test = MannWhitneyTest.compare(new long[]{1, 2, 2, 3}, new long[]{2, 3, 4});
+
+		assertEquals(2.5, test.getU(), 0);
+		assertEquals(-1.1114378604524227, test.getZ(), 1e-12);
+		assertEquals(0.2663799233424826, test.getPValue(), P_VALUE_TOLERANCE);
+	}
+
+	@Test
+	public void firstSampleGreater() {
+		MannWhitneyTest test = MannWhitneyTest.compare(new long[]{5, 7, 9, 11, 13}, new long[]{1, 2, 3, 4, 6, 8});
+
+		assertEquals(27, test.getU(), 0);
+		assertEquals(0.9, test.getSuperiority(), 1e-12);
+		assertEquals(2.099603137103137, test.getZ(), 1e-12);
+		assertEquals(0.03576376659097791, test.getPValue(), P_VALUE_TOLERANCE);
+	}
+
+	@Test
+	public void uStatisticMatchesPairCount() {
+		Random random = new Random(42);
+		long[] a = new long[300];
+		long[] b = new long[200];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = random.nextInt(50);
+		}
+		for (int i = 0; i < b.length; i++) {
+			b[i] = random.nextInt(50) + 3;
+		}
+
+		double pairs = 0;
+		for (long x : a) {
+			for (long y : b) {
+				pairs += x > y ? 1 : (x == y ? 0.5 : 0);
+			}
+		}
+		MannWhitneyTest test = MannWhitneyTest.compare(a, b);
+		assertEquals(pairs, test.getU(), 1e-9);
+		assertEquals(pairs / (a.length * b.length), test.getSuperiority(), 1e-12);
+	}
+
+	@Test
+	public void identicalValues() {
+		MannWhitneyTest test = MannWhitneyTest.compare(new long[]{7, 7}, new long[]{7, 7, 7});
+
+		assertEquals(1, test.getPValue(), 0);
+		assertEquals(0.5, test.getSuperiority(), 0);
+	}
+
+	@Test
+	public void emptySample() {
+		assertNull(MannWhitneyTest.compare(new long[0], new long[]{1}));
+	}
+}
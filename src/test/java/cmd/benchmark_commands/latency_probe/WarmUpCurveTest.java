@@ -0,0 +1,60 @@
+package cmd.benchmark_commands.latency_probe;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WarmUpCurveTest {
+
+	@Test
+	public void percentilesUseNearestRank() {
+		WarmUpCurve curve = new WarmUpCurve(2);
+		curve.add(new double[]{300, 10});
+		curve.add(new double[]{100, 30});
+		curve.add(new double[]{200, 20});
+
+		assertEquals(3, curve.getIterations());
+		assertEquals(100, curve.getPercentile(0, WarmUpCurve.LOWER_BAND), 0);
+		assertEquals(200, curve.getPercentile(0, WarmUpCurve.MEDIAN), 0);
+		assertEquals(300, curve.getPercentile(0, WarmUpCurve.UPPER_BAND), 0);
+		assertEquals(20, curve.getPercentile(1, WarmUpCurve.MEDIAN), 0);
+	}
+
+	@Test
+	public void steadyStateIsReached() {
+		WarmUpCurve curve = new WarmUpCurve(8);
+		curve.add(new double[]{500, 200, 100, 52, 50, 50, 51, 50});
+
+		assertEquals(Integer.valueOf(3), curve.getSteadyStateIndex(0.1));
+	}
+
+	@Test
+	public void steadyStateFromColdRequest() {
+		WarmUpCurve curve = new WarmUpCurve(4);
+		curve.add(new double[]{50, 50, 50, 50});
+
+		assertEquals(Integer.valueOf(0), curve.getSteadyStateIndex(0));
+	}
+
+	@Test
+	public void steadyStateIsNotReachedWhileLatencyDecreases() {
+		WarmUpCurve curve = new WarmUpCurve(8);
+		curve.add(new double[]{500, 400, 300, 200, 100, 90, 80, 70});
+
+		assertNull(curve.getSteadyStateIndex(0.1));
+	}
+
+	@Test
+	public void noSequences() {
+		WarmUpCurve curve = new WarmUpCurve(4);
+
+		assertNull(curve.getPercentile(0, WarmUpCurve.MEDIAN));
+		assertNull(curve.getSteadyStateIndex(0.1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void sequenceLengthIsChecked() {
+		new WarmUpCurve(4).add(new double[3]);
+	}
+}
@@ -0,0 +1,94 @@
+package cmd.benchmark_commands.load_generation;
+
+import cmd.benchmark_commands.output_parsing.BenchmarkStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class LoadGeneratorTest {
+
+	// the first response is delayed, following ones are immediate
+	private static final long STALL_MS = 1000;
+
+	private ServerSocket serverSocket;
+	private Thread serverThread;
+
+
+	@Before
+	public void startServer() throws IOException {
+		serverSocket = new ServerSocket(0, 16, InetAddress.getLoopbackAddress());
+		serverThread = new Thread(() -> {
+			boolean first = true;
+			while (!serverSocket.isClosed()) {
+				try (Socket socket = serverSocket.accept()) {
+					InputStream input = socket.getInputStream();
+					OutputStream output = socket.getOutputStream();
+					while (readRequestHead(input)) {
+						if (first) {
+							Thread.sleep(STALL_MS);
+							first = false;
+						}
+						output.write("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok"
+								.getBytes(StandardCharsets.US_ASCII));
+						output.flush();
+					}
+				} catch (IOException | InterruptedException ignored) {
+					// server closed
+				}
+			}
+		});
+		serverThread.setDaemon(true);
+		serverThread.start();
+	}
+
+	@After
+	public void stopServer() throws IOException, InterruptedException {
+		serverSocket.close();
+		serverThread.join(1000);
+	}
+
+	@Test
+	public void latencyIncludesDelayCausedByStalledResponse() {
+		// one connection at 20 requests per second: 20 requests are due while the first response is stalled
+		BenchmarkStats stats = LoadGenerator.performLoadTest("http://127.0.0.1:" + serverSocket.getLocalPort() + "/",
+				1, 1, 2, 20);
+
+		assertNotNull(stats);
+		assertEquals(40, stats.getTotalRequests(), 2);
+		assertEquals(0, (long) stats.getNon2xx3xxResponses());
+		// measured from send times only the first request would be slow, from intended times half of them are
+		assertTrue("max " + stats.getMaxLatency(), stats.getMaxLatency() >= STALL_MS * 0.9);
+		assertTrue("p75 " + stats.getP75Latency(), stats.getP75Latency() >= STALL_MS * 0.3);
+		assertTrue("p50 " + stats.getP50Latency(), stats.getP50Latency() < STALL_MS * 0.3);
+	}
+
+	/**
+	 * Consumes a request without body
+	 * @param input connection input
+	 * @return true if a request was read, false if connection was closed
+	 * @throws IOException if reading fails
+	 */
+	private static boolean readRequestHead(InputStream input) throws IOException {
+		int matched = 0;
+		int b;
+		while ((b = input.read()) != -1) {
+			matched = (b == "\r\n\r\n".charAt(matched)) ? matched + 1 : (b == '\r' ? 1 : 0);
+			if (matched == 4) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
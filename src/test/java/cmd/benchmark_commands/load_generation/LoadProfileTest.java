@@ -0,0 +1,91 @@
+package cmd.benchmark_commands.load_generation;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoadProfileTest {
+
+	@Test
+	public void linearRampBuildsRequestedSegments() {
+		LoadProfile profile = LoadProfile.linearRamp(100, 200, 10, 3);
+		List<LoadPhase> phases = profile.getPhases();
+
+		assertTrue(profile.isValid());
+		assertEquals(3, phases.size());
+		assertEquals(10, profile.getTotalSeconds());
+		// the remainder second goes to the first phase
+		assertEquals(4, phases.get(0).getSeconds());
+		assertEquals(3, phases.get(1).getSeconds());
+		assertEquals(3, phases.get(2).getSeconds());
+	}
+
+	@Test
+	public void linearRampSegmentsAreContiguous() {
+		List<LoadPhase> phases = LoadProfile.linearRamp(100, 200, 10, 3).getPhases();
+
+		assertEquals(100, phases.get(0).getStartRequestsPerSecond());
+		assertEquals(140, phases.get(0).getEndRequestsPerSecond());
+		assertEquals(140, phases.get(1).getStartRequestsPerSecond());
+		assertEquals(170, phases.get(1).getEndRequestsPerSecond());
+		assertEquals(170, phases.get(2).getStartRequestsPerSecond());
+		assertEquals(200, phases.get(2).getEndRequestsPerSecond());
+	}
+
+	@Test
+	public void linearRampCanDecrease() {
+		List<LoadPhase> phases = LoadProfile.linearRamp(300, 100, 4, 2).getPhases();
+
+		assertEquals(2, phases.size());
+		assertEquals(300, phases.get(0).getStartRequestsPerSecond());
+		assertEquals(200, phases.get(0).getEndRequestsPerSecond());
+		assertEquals(100, phases.get(1).getEndRequestsPerSecond());
+	}
+
+	@Test
+	public void linearRampDoesNotOverflowOnHighRates() {
+		List<LoadPhase> phases = LoadProfile.linearRamp(1, Integer.MAX_VALUE, 3600, 2).getPhases();
+
+		assertEquals(Integer.MAX_VALUE, phases.get(1).getEndRequestsPerSecond());
+		assertTrue(phases.get(0).getEndRequestsPerSecond() > 0);
+	}
+
+	@Test
+	public void linearRampWithMoreSegmentsThanSecondsIsNotValid() {
+		LoadProfile profile = LoadProfile.linearRamp(100, 200, 2, 3);
+
+		assertEquals(3, profile.getPhases().size());
+		assertFalse(profile.isValid());
+	}
+
+	@Test
+	public void linearRampWithoutSegmentsIsNotValid() {
+		assertFalse(LoadProfile.linearRamp(100, 200, 10, 0).isValid());
+	}
+
+	@Test
+	public void rampPhaseRateIsInterpolated() {
+		LoadPhase phase = new LoadPhase(2, 100, 200);
+
+		assertEquals(100, phase.getRequestsPerSecondAt(0), 1e-9);
+		assertEquals(150, phase.getRequestsPerSecondAt(1_000_000_000L), 1e-9);
+		assertEquals(200, phase.getRequestsPerSecondAt(5_000_000_000L), 1e-9);
+		assertEquals(150, phase.getAverageRequestsPerSecond(), 1e-9);
+	}
+
+	@Test
+	public void stairStepAndSpikeProfiles() {
+		List<LoadPhase> steps = LoadProfile.stairStep(10, 5, 3, 2).getPhases();
+		assertEquals(3, steps.size());
+		assertEquals(20, steps.get(2).getStartRequestsPerSecond());
+
+		LoadProfile spike = LoadProfile.spike(10, 100, 5, 2);
+		assertEquals(12, spike.getTotalSeconds());
+		assertEquals(100, spike.getPhases().get(1).getStartRequestsPerSecond());
+		assertEquals(10, spike.getPhases().get(2).getStartRequestsPerSecond());
+	}
+}
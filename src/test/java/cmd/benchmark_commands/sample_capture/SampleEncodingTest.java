@@ -0,0 +1,110 @@
+package cmd.benchmark_commands.sample_capture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SampleEncodingTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void varLongUsesSevenBitsForEachByte() {
+		assertArrayEquals(new byte[]{0}, varLong(0));
+		assertArrayEquals(new byte[]{0x7F}, varLong(127));
+		assertArrayEquals(new byte[]{(byte) 0x80, 0x01}, varLong(128));
+		assertArrayEquals(new byte[]{(byte) 0xAC, 0x02}, varLong(300));
+		assertEquals(9, varLong(Long.MAX_VALUE).length);
+		assertEquals(10, varLong(-1).length);
+	}
+
+	@Test
+	public void varLongRoundTrip() {
+		long[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, 1L << 35, Long.MAX_VALUE, Long.MIN_VALUE, -1};
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (long value : values) {
+			SampleEncoding.writeVarLong(out, value);
+		}
+		ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+		for (long value : values) {
+			assertEquals(value, SampleEncoding.readVarLong(in));
+		}
+		assertFalse(in.hasRemaining());
+	}
+
+	@Test(expected = BufferUnderflowException.class)
+	public void truncatedVarLong() {
+		SampleEncoding.readVarLong(ByteBuffer.wrap(new byte[]{(byte) 0x80}));
+	}
+
+	@Test
+	public void zigZagInterleavesSigns() {
+		assertEquals(0, SampleEncoding.zigZag(0));
+		assertEquals(1, SampleEncoding.zigZag(-1));
+		assertEquals(2, SampleEncoding.zigZag(1));
+		assertEquals(3, SampleEncoding.zigZag(-2));
+		assertEquals(-2, SampleEncoding.zigZag(Long.MAX_VALUE));
+		assertEquals(-1, SampleEncoding.zigZag(Long.MIN_VALUE));
+		for (long value : new long[]{0, 1, -1, 63, -64, 1L << 40, -(1L << 40), Long.MAX_VALUE, Long.MIN_VALUE}) {
+			assertEquals(value, SampleEncoding.unZigZag(SampleEncoding.zigZag(value)));
+		}
+		// small negative deltas take a single byte
+		assertEquals(1, varLong(SampleEncoding.zigZag(-64)).length);
+	}
+
+	@Test
+	public void sampleFileRoundTrip() throws IOException {
+		// two threads, samples not sorted by send time across buffers
+		SampleBuffer first = new SampleBuffer();
+		first.add(3_000_000, 1_500_000, 200, 120, 0);
+		first.addTimeout(9_000_000, 2_000_000_000L, 1);
+		SampleBuffer second = new SampleBuffer();
+		second.add(1_000_000, 800_000, 500, 60, 0);
+		second.add(5_000_000, 900_000, 200, 4096, 1);
+
+		Path path = folder.getRoot().toPath().resolve("samples").resolve("run.sfb");
+		assertTrue(SampleWriter.write(path, "http://localhost/f", Arrays.asList(first, second), 0, 1_000_000));
+
+		SampleReader reader = SampleReader.open(path);
+		assertEquals("http://localhost/f", reader.getTarget());
+		assertEquals(4, reader.getCount());
+		long[][] expected = {
+				{1_001_000, 800, 500, 60, 0},
+				{1_003_000, 1_500, 200, 120, 0},
+				{1_005_000, 900, 200, 4096, 1},
+				{1_009_000, 2_000_000, SampleReader.TIMEOUT_STATUS, 0, 1}};
+		for (long[] sample : expected) {
+			assertTrue(reader.next());
+			assertEquals(sample[0], reader.getSendMicros());
+			assertEquals(sample[1], reader.getLatencyMicros());
+			assertEquals(sample[2], reader.getStatusCode());
+			assertEquals(sample[3], reader.getResponseBytes());
+			assertEquals(sample[4], reader.getPhase());
+		}
+		assertFalse(reader.next());
+	}
+
+	/**
+	 * Encodes a single value
+	 * @param value value to encode
+	 * @return encoded bytes
+	 */
+	private static byte[] varLong(long value) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SampleEncoding.writeVarLong(out, value);
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,105 @@
+package cmd.functionality_commands.amazon_api;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Vectors from the AWS Signature Version 4 test suite (same credentials, region, service, host and time)
+ */
+public class SigV4SignerTest {
+
+	private static final String HOST = "example.amazonaws.com";
+	// 2015-08-30T12:36:00Z
+	private static final long TIME = 1440938160000L;
+	private static final AwsCredentials CREDENTIALS = new AwsCredentials("AKIDEXAMPLE",
+			"wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY", null);
+
+	private final SigV4Signer signer = new SigV4Signer(CREDENTIALS, "us-east-1", "service");
+
+	@Test
+	public void getVanilla() {
+		Map<String, String> headers = signer.sign("GET", HOST, "/", "", new byte[0], TIME);
+
+		assertEquals("20150830T123600Z", headers.get("X-Amz-Date"));
+		assertEquals("AWS4-HMAC-SHA256 Credential=AKIDEXAMPLE/20150830/us-east-1/service/aws4_request, " +
+				"SignedHeaders=host;x-amz-date, " +
+				"Signature=5fa00fa31553b73ebf1942676e86291e8372ff2a2260956d9b8aae1d763fbf31",
+				headers.get("Authorization"));
+		assertFalse(headers.containsKey("X-Amz-Security-Token"));
+	}
+
+	@Test
+	public void postVanilla() {
+		assertEquals("5da7c1a2acd57cee7505fc6676e4e544621c30862966e37dddb68e92efbe5d6b",
+				signature("POST", "/", ""));
+	}
+
+	@Test
+	public void getVanillaQueryOrderKeyCase() {
+		assertEquals("b97d918cfa904a5beff61c982a1b6f458b799221646efd99d3219ec94cdf2500",
+				signature("GET", "/", "Param2=value2&Param1=value1"));
+	}
+
+	@Test
+	public void getVanillaEmptyQueryKey() {
+		assertEquals("a67d582fa61cc504c4bae71f336f98b97f1ea3c7a6bfe1b6e45aec72011b9aeb",
+				signature("GET", "/", "Param1=value1"));
+	}
+
+	@Test
+	public void getVanillaUtf8Query() {
+		assertEquals("2cdec8eed098649ff3a119c94853b13c643bcf08f8b0a1d91e12c9027818dd04",
+				signature("GET", "/", SigV4Signer.encode("\u1234") + "=bar"));
+	}
+
+	@Test
+	public void getUnreserved() {
+		assertEquals("07ef7494c76fa4850883e2b006601f940f8a34d404d0cfa977f52a65bbf5f24f",
+				signature("GET", "/-._~0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz", ""));
+	}
+
+	@Test
+	public void queryIsSortedByNameThenByValue() {
+		// canonical query "Param1=Value1&Param1=value2": upper case sorts first
+		assertEquals("eedbc4e291e521cf13422ffca22be7d2eb8146eecf653089df300a15b2382bd1",
+				signature("GET", "/", "Param1=value2&Param1=Value1"));
+		// canonical query "a=1&a-b=2": a name sorts before the longer names it prefixes
+		assertEquals("321dff75bd2a219c1b95fc5dbc497343614dbe8f73319c9d9c415bca43078ce2",
+				signature("GET", "/", "a-b=2&a=1"));
+		assertEquals(signature("GET", "/", "a=1&a-b=2"), signature("GET", "/", "a-b=2&a=1"));
+	}
+
+	@Test
+	public void sessionTokenIsSigned() {
+		SigV4Signer tokenSigner = new SigV4Signer(new AwsCredentials(CREDENTIALS.getAccessKeyId(),
+				CREDENTIALS.getSecretAccessKey(), "token"), "us-east-1", "service");
+		Map<String, String> headers = tokenSigner.sign("GET", HOST, "/", "", new byte[0], TIME);
+
+		assertEquals("token", headers.get("X-Amz-Security-Token"));
+		assertTrue(headers.get("Authorization").contains("SignedHeaders=host;x-amz-date;x-amz-security-token,"));
+	}
+
+	@Test
+	public void encodeKeepsOnlyUnreservedCharacters() {
+		assertEquals("a-b_c.d~e", SigV4Signer.encode("a-b_c.d~e"));
+		assertEquals("a%20b%2Fc%3D%2B", SigV4Signer.encode("a b/c=+"));
+		assertEquals("%E1%88%B4", SigV4Signer.encode("\u1234"));
+	}
+
+	/**
+	 * Signs a request without body
+	 * @param method HTTP method
+	 * @param path request path
+	 * @param query request query
+	 * @return signature
+	 */
+	private String signature(String method, String path, String query) {
+		String authorization = signer.sign(method, HOST, path, query, new byte[0], TIME).get("Authorization");
+		return authorization.substring(authorization.indexOf("Signature=") + "Signature=".length());
+	}
+}
@@ -0,0 +1,149 @@
+package cmd.functionality_commands.deployment_planning;
+
+import cmd.benchmark_commands.Provider;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeploymentPlannerTest {
+
+	@Test
+	public void nodesRunAfterTheirDependencies() {
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		DeploymentPlanner planner = new DeploymentPlanner(4, 4, 4);
+		DeploymentNode bucket = planner.addNode("bucket", Provider.GOOGLE, record(order, "bucket"));
+		DeploymentNode first = planner.addNode("first", Provider.GOOGLE, record(order, "first"), bucket);
+		DeploymentNode second = planner.addNode("second", Provider.AMAZON, record(order, "second"), bucket);
+		DeploymentNode composition = planner.addNode("composition", Provider.GOOGLE, record(order, "composition"),
+				first, second);
+
+		assertTrue(planner.execute());
+		assertEquals(4, order.size());
+		assertEquals("bucket", order.get(0));
+		assertEquals("composition", order.get(3));
+		for (DeploymentNode node : new DeploymentNode[]{bucket, first, second, composition}) {
+			assertEquals(DeploymentNode.State.COMPLETED, node.getState());
+		}
+	}
+
+	@Test
+	public void independentNodesRunConcurrently() {
+		CountDownLatch bothRunning = new CountDownLatch(2);
+		BooleanSupplier action = () -> {
+			bothRunning.countDown();
+			try {
+				return bothRunning.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				return false;
+			}
+		};
+		DeploymentPlanner planner = new DeploymentPlanner(1, 1, 1);
+		planner.addNode("google", Provider.GOOGLE, action);
+		planner.addNode("amazon", Provider.AMAZON, action);
+
+		assertTrue(planner.execute());
+	}
+
+	@Test
+	public void providerConcurrencyIsLimited() {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		BooleanSupplier action = () -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				return false;
+			}
+			running.decrementAndGet();
+			return true;
+		};
+		DeploymentPlanner planner = new DeploymentPlanner(4, 2, 4);
+		for (int i = 0; i < 6; i++) {
+			planner.addNode("function-" + i, Provider.AMAZON, action);
+		}
+
+		assertTrue(planner.execute());
+		assertEquals(2, maxRunning.get());
+	}
+
+	@Test
+	public void failedNodeSkipsTransitiveDependents() {
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		DeploymentPlanner planner = new DeploymentPlanner(2, 2, 2);
+		DeploymentNode bucket = planner.addNode("bucket", Provider.AMAZON, () -> false);
+		DeploymentNode function = planner.addNode("function", Provider.AMAZON, record(order, "function"), bucket);
+		DeploymentNode composition = planner.addNode("composition", Provider.AMAZON,
+				record(order, "composition"), function);
+		DeploymentNode independent = planner.addNode("independent", Provider.AMAZON, record(order, "independent"));
+
+		assertFalse(planner.execute());
+		assertEquals(DeploymentNode.State.FAILED, bucket.getState());
+		assertEquals(DeploymentNode.State.SKIPPED, function.getState());
+		assertEquals(DeploymentNode.State.SKIPPED, composition.getState());
+		assertEquals(DeploymentNode.State.COMPLETED, independent.getState());
+		assertEquals(Collections.singletonList("independent"), order);
+	}
+
+	@Test
+	public void throwingActionFails() {
+		DeploymentPlanner planner = new DeploymentPlanner(1, 1, 1);
+		DeploymentNode node = planner.addNode("function", Provider.OPENWHISK, () -> {
+			throw new IllegalStateException("unexpected");
+		});
+		DeploymentNode dependent = planner.addNode("composition", Provider.OPENWHISK, () -> true, node);
+
+		assertFalse(planner.execute());
+		assertEquals(DeploymentNode.State.FAILED, node.getState());
+		assertEquals(DeploymentNode.State.SKIPPED, dependent.getState());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void duplicateNodeIsRejected() {
+		DeploymentPlanner planner = new DeploymentPlanner(1, 1, 1);
+		planner.addNode("function", Provider.GOOGLE, () -> true);
+		planner.addNode("function", Provider.GOOGLE, () -> true);
+	}
+
+	@Test
+	public void sameNameOnDifferentProvidersIsAllowed() {
+		DeploymentPlanner planner = new DeploymentPlanner(1, 1, 1);
+		planner.addNode("function", Provider.GOOGLE, () -> true);
+		planner.addNode("function", Provider.AMAZON, () -> true);
+
+		assertTrue(planner.execute());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void dependencyFromAnotherPlanIsRejected() {
+		DeploymentNode foreign = new DeploymentPlanner(1, 1, 1).addNode("bucket", Provider.GOOGLE, () -> true);
+		new DeploymentPlanner(1, 1, 1).addNode("function", Provider.GOOGLE, () -> true, foreign);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void executedPlanCanNotBeExtended() {
+		DeploymentPlanner planner = new DeploymentPlanner(1, 1, 1);
+		planner.execute();
+		planner.addNode("function", Provider.GOOGLE, () -> true);
+	}
+
+	/**
+	 * Builds a successful action recording its execution
+	 * @param order executed actions
+	 * @param name action name
+	 * @return action
+	 */
+	private static BooleanSupplier record(List<String> order, String name) {
+		return () -> order.add(name);
+	}
+}
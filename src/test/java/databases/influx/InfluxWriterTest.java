@@ -0,0 +1,76 @@
+package databases.influx;
+
+import org.influxdb.InfluxDB;
+import org.influxdb.InfluxDBException;
+import org.influxdb.dto.BatchPoints;
+import org.influxdb.dto.Point;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InfluxWriterTest {
+
+	@Test
+	public void rejectedPointsAreDroppedAndValidOnesWritten() {
+		List<String> written = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger attempts = new AtomicInteger();
+		// the server rejects every batch containing a point with the conflicting field type
+		InfluxDB influxDB = fakeInfluxDB(lines -> {
+			attempts.incrementAndGet();
+			for (String line : lines) {
+				if (line.contains("value=\"conflict\"")) {
+					throw new InfluxDBException("field type conflict");
+				}
+			}
+			written.addAll(lines);
+		});
+		InfluxWriter writer = new InfluxWriter(() -> influxDB, "benchmarks", "autogen");
+
+		BatchPoints batch = BatchPoints.database("benchmarks").build();
+		for (int i = 0; i < 100; i++) {
+			Point.Builder point = Point.measurement("latency").time(i, TimeUnit.MILLISECONDS);
+			if (i == 37) {
+				point.addField("value", "conflict");
+			} else {
+				point.addField("value", i);
+			}
+			batch.point(point.build());
+		}
+		assertTrue(writer.enqueue(batch));
+		writer.close();
+
+		assertEquals(99, written.size());
+		for (String line : written) {
+			assertTrue(line, !line.contains("conflict"));
+		}
+		// the rejected point is isolated by splitting, not by writing points one at a time
+		assertTrue("attempts " + attempts.get(), attempts.get() < 20);
+	}
+
+	/**
+	 * Builds an InfluxDB connection whose line protocol writes are handled by a consumer
+	 * @param writes consumer of written lines, may throw to simulate failures
+	 * @return connection
+	 */
+	private static InfluxDB fakeInfluxDB(Consumer<List<String>> writes) {
+		return (InfluxDB) Proxy.newProxyInstance(InfluxDB.class.getClassLoader(), new Class<?>[]{InfluxDB.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("write") && args != null && args.length == 4 &&
+							args[3] instanceof List) {
+						@SuppressWarnings("unchecked")
+						List<String> lines = new ArrayList<>((List<String>) args[3]);
+						writes.accept(lines);
+					}
+					return null;
+				});
+	}
+}
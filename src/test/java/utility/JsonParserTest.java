@@ -0,0 +1,57 @@
+package utility;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JsonParserTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void parsesNestedValues() throws JsonParseException {
+		Map<String, Object> parsed = (Map<String, Object>) JsonParser.parse(
+				" {\"id\": \"a\\\"b\\u0041\", \"count\": -1.5e2, \"ok\": true, \"none\": null, " +
+						"\"items\": [1, {}, []]} ");
+
+		assertEquals("a\"bA", parsed.get("id"));
+		assertEquals(-150.0, parsed.get("count"));
+		assertEquals(Boolean.TRUE, parsed.get("ok"));
+		assertNull(parsed.get("none"));
+		List<Object> items = (List<Object>) parsed.get("items");
+		assertEquals(3, items.size());
+		assertEquals(1.0, items.get(0));
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void trailingContentIsRejected() throws JsonParseException {
+		JsonParser.parse("{} {}");
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void truncatedTextIsRejected() throws JsonParseException {
+		JsonParser.parse("{\"id\": [1, 2");
+	}
+
+	@Test
+	public void serializedValuesAreParsedBack() throws JsonParseException {
+		Map<String, Object> object = new LinkedHashMap<>();
+		object.put("name", "line\n\"quoted\"\\\t\u0001");
+		object.put("memory", 128);
+		object.put("publish", false);
+		object.put("tags", Arrays.asList("a", null));
+
+		String json = JsonParser.toJson(object);
+		assertEquals("{\"name\":\"line\\n\\\"quoted\\\"\\\\\\t\\u0001\",\"memory\":128,\"publish\":false," +
+				"\"tags\":[\"a\",null]}", json);
+		Map<?, ?> parsed = (Map<?, ?>) JsonParser.parse(json);
+		assertEquals(object.get("name"), parsed.get("name"));
+		assertEquals(128.0, parsed.get("memory"));
+		assertEquals(Arrays.asList("a", null), parsed.get("tags"));
+	}
+}